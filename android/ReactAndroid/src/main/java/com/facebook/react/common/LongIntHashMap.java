@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.common;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from long keys to int values using open addressing with linear probing. Like a
+ * HashMap<Long, Integer> but without the autoboxing and without allocating on put once the map has
+ * grown to its working size. Not thread safe.
+ */
+public class LongIntHashMap {
+
+  private static final float MAX_LOAD_FACTOR = 0.5f;
+
+  private long[] mKeys;
+  private int[] mValues;
+  private boolean[] mUsed;
+  private int mSize;
+
+  public LongIntHashMap(int initialCapacity) {
+    int capacity = 4;
+    while (capacity * MAX_LOAD_FACTOR < initialCapacity) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  /** Returns the value mapped to the given key, or {@code defaultValue} if there is none. */
+  public int get(long key, int defaultValue) {
+    int mask = mKeys.length - 1;
+    for (int idx = hash(key) & mask; mUsed[idx]; idx = (idx + 1) & mask) {
+      if (mKeys[idx] == key) {
+        return mValues[idx];
+      }
+    }
+    return defaultValue;
+  }
+
+  public void put(long key, int value) {
+    int mask = mKeys.length - 1;
+    int idx = hash(key) & mask;
+    while (mUsed[idx]) {
+      if (mKeys[idx] == key) {
+        mValues[idx] = value;
+        return;
+      }
+      idx = (idx + 1) & mask;
+    }
+    mUsed[idx] = true;
+    mKeys[idx] = key;
+    mValues[idx] = value;
+    mSize++;
+    if (mSize > mKeys.length * MAX_LOAD_FACTOR) {
+      rehash(mKeys.length << 1);
+    }
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  /** Removes all mappings, keeping the current capacity. */
+  public void clear() {
+    if (mSize > 0) {
+      Arrays.fill(mUsed, false);
+      mSize = 0;
+    }
+  }
+
+  private void rehash(int capacity) {
+    long[] keys = mKeys;
+    int[] values = mValues;
+    boolean[] used = mUsed;
+    allocate(capacity);
+    mSize = 0;
+    for (int idx = 0; idx < keys.length; idx++) {
+      if (used[idx]) {
+        put(keys[idx], values[idx]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    mKeys = new long[capacity];
+    mValues = new int[capacity];
+    mUsed = new boolean[capacity];
+  }
+
+  private static int hash(long key) {
+    // Keys often differ only in their upper bits, so mix those into the bits used for the index
+    long mixed = key * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.storage;
+
+import android.util.LruCache;
+import androidx.annotation.Nullable;
+
+/**
+ * LRU cache of stored values, sized by the total length of keys and values. Keys that are known
+ * not to be stored are cached too, so repeated reads of missing keys don't hit the database.
+ */
+/* package */ class AsyncStorageCache {
+
+  /** Returned by {@link #get} for keys which are known not to be stored. */
+  /* package */ static final String MISSING = new String("");
+
+  private final LruCache<String, String> mCache;
+
+  /* package */ AsyncStorageCache(int maxSize) {
+    mCache =
+        new LruCache<String, String>(maxSize) {
+          @Override
+          protected int sizeOf(String key, String value) {
+            return key.length() + value.length() + 1;
+          }
+        };
+  }
+
+  /**
+   * Returns the cached value, {@link #MISSING} if the key is known not to be stored, or null if
+   * nothing is known about the key.
+   */
+  /* package */ @Nullable
+  String get(String key) {
+    return mCache.get(key);
+  }
+
+  /** Caches a value; null means that the key isn't stored. */
+  /* package */ synchronized void put(String key, @Nullable String value) {
+    mCache.put(key, value != null ? value : MISSING);
+  }
+
+  /** Caches a value read from the database, unless a newer one has been cached in the meantime. */
+  /* package */ synchronized void putIfAbsent(String key, @Nullable String value) {
+    if (mCache.get(key) == null) {
+      put(key, value);
+    }
+  }
+
+  /* package */ synchronized void remove(String key) {
+    mCache.remove(key);
+  }
+
+  /* package */ synchronized void clear() {
+    mCache.evictAll();
+  }
+}
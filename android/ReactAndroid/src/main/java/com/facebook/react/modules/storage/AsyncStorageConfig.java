@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.storage;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Configuration for {@link AsyncStorageModule}. With the default configuration the module reads
+ * and writes straight through to the database. Setting a cache size enables the cached backend:
+ * reads are served from an in-memory LRU cache of values, and writes are applied to the cache
+ * immediately and committed to the database in groups.
+ */
+public class AsyncStorageConfig {
+
+  public static final AsyncStorageConfig DEFAULT = new Builder().build();
+
+  private final boolean mWriteAheadLoggingEnabled;
+  private final int mCacheSize;
+  private final long mWriteCommitDelayMs;
+  private final @Nullable String mPreloadKeyPrefix;
+
+  private AsyncStorageConfig(Builder builder) {
+    mWriteAheadLoggingEnabled = builder.mWriteAheadLoggingEnabled;
+    mCacheSize = builder.mCacheSize;
+    mWriteCommitDelayMs = builder.mWriteCommitDelayMs;
+    mPreloadKeyPrefix = builder.mPreloadKeyPrefix;
+  }
+
+  public boolean isWriteAheadLoggingEnabled() {
+    return mWriteAheadLoggingEnabled;
+  }
+
+  /** Maximum total length, in characters, of keys and values kept in the cache. */
+  public int getCacheSize() {
+    return mCacheSize;
+  }
+
+  public boolean isCacheEnabled() {
+    return mCacheSize > 0;
+  }
+
+  /** How long writes are collected before they are committed in a single transaction. */
+  public long getWriteCommitDelayMs() {
+    return mWriteCommitDelayMs;
+  }
+
+  /** Keys starting with this prefix are loaded into the cache when the module is initialized. */
+  public @Nullable String getPreloadKeyPrefix() {
+    return mPreloadKeyPrefix;
+  }
+
+  public static class Builder {
+
+    private boolean mWriteAheadLoggingEnabled = false;
+    private int mCacheSize = 0;
+    private long mWriteCommitDelayMs = 50;
+    private @Nullable String mPreloadKeyPrefix;
+
+    public Builder setWriteAheadLoggingEnabled(boolean writeAheadLoggingEnabled) {
+      mWriteAheadLoggingEnabled = writeAheadLoggingEnabled;
+      return this;
+    }
+
+    public Builder setCacheSize(int cacheSize) {
+      mCacheSize = cacheSize;
+      return this;
+    }
+
+    public Builder setWriteCommitDelayMs(long writeCommitDelayMs) {
+      mWriteCommitDelayMs = writeCommitDelayMs;
+      return this;
+    }
+
+    public Builder setPreloadKeyPrefix(@Nullable String preloadKeyPrefix) {
+      mPreloadKeyPrefix = preloadKeyPrefix;
+      return this;
+    }
+
+    public AsyncStorageConfig build() {
+      return new AsyncStorageConfig(this);
+    }
+  }
+}
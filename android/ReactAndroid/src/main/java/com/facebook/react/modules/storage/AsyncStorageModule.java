@@ -10,8 +10,12 @@ import static com.facebook.react.modules.storage.ReactDatabaseSupplier.KEY_COLUM
 import static com.facebook.react.modules.storage.ReactDatabaseSupplier.TABLE_CATALYST;
 import static com.facebook.react.modules.storage.ReactDatabaseSupplier.VALUE_COLUMN;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
 import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.Nullable;
 import com.facebook.common.logging.FLog;
 import com.facebook.fbreact.specs.NativeAsyncStorageSpec;
 import com.facebook.react.bridge.Arguments;
@@ -26,6 +30,9 @@ import com.facebook.react.common.annotations.VisibleForTesting;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.modules.common.ModuleDataCleaner;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.concurrent.Executor;
 
@@ -80,15 +87,60 @@ public class AsyncStorageModule extends NativeAsyncStorageSpec implements Module
 
     public final SerialExecutor executor;
 
+    private final AsyncStorageConfig mConfig;
+
+    // Only set when the cached backend is enabled in the config
+    @Nullable
+    private final AsyncStorageCache mCache;
+
+    // Writes waiting to be committed together, as (key, value) pairs; a null value removes the key.
+    // Guards itself, the callbacks and the flush state, as clearSensitiveData doesn't run on the
+    // serial executor; a commit holds it until it's done.
+    private final ArrayList<String[]> mPendingWrites = new ArrayList<>();
+
+    private final ArrayList<Callback> mPendingWriteCallbacks = new ArrayList<>();
+
+    private boolean mFlushScheduled = false;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final Runnable mFlushRunnable = new Runnable() {
+
+        @Override
+        public void run() {
+            executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    flushPendingWrites();
+                }
+            });
+        }
+    };
+
     public AsyncStorageModule(ReactApplicationContext reactContext) {
-        this(reactContext, AsyncTask.THREAD_POOL_EXECUTOR);
+        this(reactContext, AsyncStorageConfig.DEFAULT);
+    }
+
+    public AsyncStorageModule(ReactApplicationContext reactContext, AsyncStorageConfig config) {
+        this(reactContext, AsyncTask.THREAD_POOL_EXECUTOR, config);
     }
 
     @VisibleForTesting
     AsyncStorageModule(ReactApplicationContext reactContext, Executor executor) {
+        this(reactContext, executor, AsyncStorageConfig.DEFAULT);
+    }
+
+    @VisibleForTesting
+    AsyncStorageModule(ReactApplicationContext reactContext, Executor executor, AsyncStorageConfig config) {
         super(reactContext);
         this.executor = new SerialExecutor(executor);
+        mConfig = config;
+        mCache = config.isCacheEnabled() ? new AsyncStorageCache(config.getCacheSize()) : null;
         mReactDatabaseSupplier = ReactDatabaseSupplier.getInstance(reactContext);
+        if (config.isWriteAheadLoggingEnabled()) {
+            mReactDatabaseSupplier.setWriteAheadLoggingEnabled(true);
+        }
     }
 
     @Override
@@ -100,10 +152,18 @@ public class AsyncStorageModule extends NativeAsyncStorageSpec implements Module
     public void initialize() {
         super.initialize();
         mShuttingDown = false;
+        if (mCache != null && mConfig.getPreloadKeyPrefix() != null) {
+            preloadKeys(mConfig.getPreloadKeyPrefix());
+        }
     }
 
     @Override
     public void onCatalystInstanceDestroy() {
+        if (mCache != null) {
+            // Commit whatever is still waiting instead of waiting for the timer
+            mHandler.removeCallbacks(mFlushRunnable);
+            mFlushRunnable.run();
+        }
         mShuttingDown = true;
     }
 
@@ -112,7 +172,23 @@ public class AsyncStorageModule extends NativeAsyncStorageSpec implements Module
         // Clear local storage. If fails, crash, since the app is potentially in a bad state and could
         // cause a privacy violation. We're still not recovering from this well, but at least the error
         // will be reported to the server.
-        mReactDatabaseSupplier.clearAndCloseDatabase();
+        if (mCache == null) {
+            mReactDatabaseSupplier.clearAndCloseDatabase();
+            return;
+        }
+        synchronized (mPendingWrites) {
+            // Pending writes are dropped rather than committed to the database that is being deleted.
+            // They are reported as done, as if they had been committed right before the clearing.
+            mHandler.removeCallbacks(mFlushRunnable);
+            mFlushScheduled = false;
+            mPendingWrites.clear();
+            mCache.clear();
+            for (Callback callback : mPendingWriteCallbacks) {
+                callback.invoke();
+            }
+            mPendingWriteCallbacks.clear();
+            mReactDatabaseSupplier.clearAndCloseDatabase();
+        }
     }
 
     /**
@@ -133,6 +209,10 @@ public class AsyncStorageModule extends NativeAsyncStorageSpec implements Module
                     callback.invoke(AsyncStorageErrorUtil.getDBError(null), null);
                     return;
                 }
+                if (mCache != null) {
+                    multiGetCached(keys, callback);
+                    return;
+                }
                 String[] columns = { KEY_COLUMN, VALUE_COLUMN };
                 HashSet<String> keysRemaining = new HashSet<>();
                 WritableArray data = Arguments.createArray();
@@ -195,6 +275,10 @@ public class AsyncStorageModule extends NativeAsyncStorageSpec implements Module
                     callback.invoke(AsyncStorageErrorUtil.getDBError(null));
                     return;
                 }
+                if (mCache != null) {
+                    multiSetCached(keyValueArray, callback);
+                    return;
+                }
                 String sql = "INSERT OR REPLACE INTO " + TABLE_CATALYST + " VALUES (?, ?);";
                 SQLiteStatement statement = mReactDatabaseSupplier.get().compileStatement(sql);
                 WritableMap error = null;
@@ -256,6 +340,14 @@ public class AsyncStorageModule extends NativeAsyncStorageSpec implements Module
                     callback.invoke(AsyncStorageErrorUtil.getDBError(null));
                     return;
                 }
+                if (mCache != null) {
+                    String[] removedKeys = new String[keys.size()];
+                    for (int idx = 0; idx < keys.size(); idx++) {
+                        removedKeys[idx] = keys.getString(idx);
+                    }
+                    enqueueWrites(removedKeys, new String[keys.size()], callback);
+                    return;
+                }
                 WritableMap error = null;
                 try {
                     mReactDatabaseSupplier.get().beginTransaction();
@@ -300,6 +392,15 @@ public class AsyncStorageModule extends NativeAsyncStorageSpec implements Module
                     callback.invoke(AsyncStorageErrorUtil.getDBError(null));
                     return;
                 }
+                if (mCache != null) {
+                    flushPendingWrites();
+                    for (int idx = 0; idx < keyValueArray.size(); idx++) {
+                        ReadableArray keyValue = keyValueArray.getArray(idx);
+                        if (keyValue.size() > 0 && keyValue.getString(0) != null) {
+                            mCache.remove(keyValue.getString(0));
+                        }
+                    }
+                }
                 WritableMap error = null;
                 try {
                     mReactDatabaseSupplier.get().beginTransaction();
@@ -356,6 +457,10 @@ public class AsyncStorageModule extends NativeAsyncStorageSpec implements Module
                     return;
                 }
                 try {
+                    if (mCache != null) {
+                        flushPendingWrites();
+                        mCache.clear();
+                    }
                     mReactDatabaseSupplier.clear();
                     callback.invoke();
                 } catch (Exception e) {
@@ -377,6 +482,7 @@ public class AsyncStorageModule extends NativeAsyncStorageSpec implements Module
                     callback.invoke(AsyncStorageErrorUtil.getDBError(null), null);
                     return;
                 }
+                flushPendingWrites();
                 WritableArray data = Arguments.createArray();
                 String[] columns = { KEY_COLUMN };
                 Cursor cursor = mReactDatabaseSupplier.get().query(TABLE_CATALYST, columns, null, null, null, null, null);
@@ -398,6 +504,219 @@ public class AsyncStorageModule extends NativeAsyncStorageSpec implements Module
         }.executeOnExecutor(executor);
     }
 
+    /**
+     * Serves keys from the cache where possible and reads only the remaining ones from the
+     * database. Rows are returned in the order of the given keys.
+     */
+    private void multiGetCached(ReadableArray keys, Callback callback) {
+        String[] values = new String[keys.size()];
+        ArrayList<String> keysToRead = new ArrayList<>();
+        for (int idx = 0; idx < keys.size(); idx++) {
+            values[idx] = mCache.get(keys.getString(idx));
+            if (values[idx] == null) {
+                keysToRead.add(keys.getString(idx));
+            }
+        }
+        if (!keysToRead.isEmpty()) {
+            // Cached values of pending writes may have been evicted already
+            flushPendingWrites();
+            HashMap<String, String> readValues = new HashMap<>();
+            String[] columns = { KEY_COLUMN, VALUE_COLUMN };
+            String[] allKeysToRead = keysToRead.toArray(new String[0]);
+            for (int keyStart = 0; keyStart < allKeysToRead.length; keyStart += MAX_SQL_KEYS) {
+                int keyCount = Math.min(allKeysToRead.length - keyStart, MAX_SQL_KEYS);
+                String[] selectionArgs = Arrays.copyOfRange(allKeysToRead, keyStart, keyStart + keyCount);
+                Cursor cursor = mReactDatabaseSupplier.get().query(TABLE_CATALYST, columns, AsyncLocalStorageUtil.buildKeySelection(keyCount), selectionArgs, null, null, null);
+                try {
+                    while (cursor.moveToNext()) {
+                        readValues.put(cursor.getString(0), cursor.getString(1));
+                    }
+                } catch (Exception e) {
+                    FLog.w(ReactConstants.TAG, e.getMessage(), e);
+                    callback.invoke(AsyncStorageErrorUtil.getError(null, e.getMessage()), null);
+                    return;
+                } finally {
+                    cursor.close();
+                }
+            }
+            for (String key : allKeysToRead) {
+                mCache.putIfAbsent(key, readValues.get(key));
+            }
+            for (int idx = 0; idx < keys.size(); idx++) {
+                if (values[idx] == null) {
+                    values[idx] = readValues.get(keys.getString(idx));
+                }
+            }
+        }
+        WritableArray data = Arguments.createArray();
+        for (int idx = 0; idx < keys.size(); idx++) {
+            WritableArray row = Arguments.createArray();
+            row.pushString(keys.getString(idx));
+            if (values[idx] == null || values[idx] == AsyncStorageCache.MISSING) {
+                row.pushNull();
+            } else {
+                row.pushString(values[idx]);
+            }
+            data.pushArray(row);
+        }
+        callback.invoke(null, data);
+    }
+
+    private void multiSetCached(ReadableArray keyValueArray, Callback callback) {
+        String[] keys = new String[keyValueArray.size()];
+        String[] values = new String[keyValueArray.size()];
+        for (int idx = 0; idx < keyValueArray.size(); idx++) {
+            ReadableArray keyValue = keyValueArray.getArray(idx);
+            if (keyValue.size() != 2 || keyValue.getString(1) == null) {
+                callback.invoke(AsyncStorageErrorUtil.getInvalidValueError(null));
+                return;
+            }
+            if (keyValue.getString(0) == null) {
+                callback.invoke(AsyncStorageErrorUtil.getInvalidKeyError(null));
+                return;
+            }
+            keys[idx] = keyValue.getString(0);
+            values[idx] = keyValue.getString(1);
+        }
+        enqueueWrites(keys, values, callback);
+    }
+
+    /**
+     * Applies writes to the cache right away and schedules them to be committed together with other
+     * writes made within the configured delay. The callback is invoked once they are committed.
+     */
+    private void enqueueWrites(String[] keys, String[] values, Callback callback) {
+        synchronized (mPendingWrites) {
+            for (int idx = 0; idx < keys.length; idx++) {
+                mPendingWrites.add(new String[] { keys[idx], values[idx] });
+                mCache.put(keys[idx], values[idx]);
+            }
+            mPendingWriteCallbacks.add(callback);
+            if (!mFlushScheduled) {
+                mFlushScheduled = true;
+                mHandler.postDelayed(mFlushRunnable, mConfig.getWriteCommitDelayMs());
+            }
+        }
+    }
+
+    /** Commits pending writes in a single transaction. Must be called on the serial executor. */
+    private void flushPendingWrites() {
+        synchronized (mPendingWrites) {
+            commitPendingWrites();
+        }
+    }
+
+    private void commitPendingWrites() {
+        mFlushScheduled = false;
+        if (mPendingWriteCallbacks.isEmpty()) {
+            return;
+        }
+        ArrayList<String[]> writes = new ArrayList<>(mPendingWrites);
+        ArrayList<Callback> callbacks = new ArrayList<>(mPendingWriteCallbacks);
+        mPendingWrites.clear();
+        mPendingWriteCallbacks.clear();
+        WritableMap error = null;
+        // Pending writes are committed even when the module is shutting down
+        if (!mReactDatabaseSupplier.ensureDatabase()) {
+            error = AsyncStorageErrorUtil.getDBError(null);
+        } else {
+            SQLiteDatabase db = mReactDatabaseSupplier.get();
+            SQLiteStatement insertStatement = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_CATALYST + " VALUES (?, ?);");
+            SQLiteStatement deleteStatement = db.compileStatement("DELETE FROM " + TABLE_CATALYST + " WHERE " + KEY_COLUMN + " = ?;");
+            try {
+                db.beginTransaction();
+                for (String[] write : writes) {
+                    SQLiteStatement statement = write[1] != null ? insertStatement : deleteStatement;
+                    statement.clearBindings();
+                    statement.bindString(1, write[0]);
+                    if (write[1] != null) {
+                        statement.bindString(2, write[1]);
+                    }
+                    statement.execute();
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                FLog.w(ReactConstants.TAG, e.getMessage(), e);
+                error = AsyncStorageErrorUtil.getError(null, e.getMessage());
+            } finally {
+                try {
+                    db.endTransaction();
+                } catch (Exception e) {
+                    FLog.w(ReactConstants.TAG, e.getMessage(), e);
+                    if (error == null) {
+                        error = AsyncStorageErrorUtil.getError(null, e.getMessage());
+                    }
+                }
+                insertStatement.close();
+                deleteStatement.close();
+            }
+        }
+        if (error != null) {
+            // The cache holds values which didn't make it to the database
+            for (String[] write : writes) {
+                mCache.remove(write[0]);
+            }
+        }
+        for (Callback callback : callbacks) {
+            if (error != null) {
+                callback.invoke(error);
+            } else {
+                callback.invoke();
+            }
+        }
+    }
+
+    /** Loads all keys starting with the given prefix into the cache in a single query. */
+    private void preloadKeys(final String keyPrefix) {
+        executor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                if (!ensureDatabase()) {
+                    return;
+                }
+                String[] columns = { KEY_COLUMN, VALUE_COLUMN };
+                String upperBound = getPrefixUpperBound(keyPrefix);
+                String selection = KEY_COLUMN + " >= ?" + (upperBound != null ? " AND " + KEY_COLUMN + " < ?" : "");
+                String[] selectionArgs = upperBound != null ? new String[] { keyPrefix, upperBound } : new String[] { keyPrefix };
+                Cursor cursor = null;
+                try {
+                    cursor = mReactDatabaseSupplier.get().query(TABLE_CATALYST, columns, selection, selectionArgs, null, null, null);
+                    while (cursor.moveToNext()) {
+                        mCache.putIfAbsent(cursor.getString(0), cursor.getString(1));
+                    }
+                } catch (Exception e) {
+                    FLog.w(ReactConstants.TAG, e.getMessage(), e);
+                } finally {
+                    if (cursor != null) {
+                        cursor.close();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the smallest string greater than all strings starting with the given prefix, or null if
+     * there is none. SQLite compares text as UTF-8 bytes, i. e. by code point, so the last code point
+     * of the prefix that can be is incremented.
+     */
+    @VisibleForTesting
+    @Nullable
+    static String getPrefixUpperBound(String prefix) {
+        int end = prefix.length();
+        while (end > 0) {
+            int codePoint = prefix.codePointBefore(end);
+            end -= Character.charCount(codePoint);
+            if (codePoint < Character.MAX_CODE_POINT) {
+                // surrogates aren't code points of their own
+                int nextCodePoint = codePoint + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : codePoint + 1;
+                return new StringBuilder(prefix.substring(0, end)).appendCodePoint(nextCodePoint).toString();
+            }
+        }
+        return null;
+    }
+
     /** Verify the database is open for reads and writes. */
     private boolean ensureDatabase() {
         return !mShuttingDown && mReactDatabaseSupplier.ensureDatabase();
@@ -8,29 +8,42 @@
 package com.facebook.react.shell;
 
 import com.facebook.imagepipeline.core.ImagePipelineConfig;
+import com.facebook.react.modules.storage.AsyncStorageConfig;
 
 /** Configuration for {@link MainReactPackage} */
 public class MainPackageConfig {
 
   private ImagePipelineConfig mFrescoConfig;
+  private AsyncStorageConfig mAsyncStorageConfig;
 
   private MainPackageConfig(Builder builder) {
     mFrescoConfig = builder.mFrescoConfig;
+    mAsyncStorageConfig = builder.mAsyncStorageConfig;
   }
 
   public ImagePipelineConfig getFrescoConfig() {
     return mFrescoConfig;
   }
 
+  public AsyncStorageConfig getAsyncStorageConfig() {
+    return mAsyncStorageConfig;
+  }
+
   public static class Builder {
 
     private ImagePipelineConfig mFrescoConfig;
+    private AsyncStorageConfig mAsyncStorageConfig;
 
     public Builder setFrescoConfig(ImagePipelineConfig frescoConfig) {
       mFrescoConfig = frescoConfig;
       return this;
     }
 
+    public Builder setAsyncStorageConfig(AsyncStorageConfig asyncStorageConfig) {
+      mAsyncStorageConfig = asyncStorageConfig;
+      return this;
+    }
+
     public MainPackageConfig build() {
       return new MainPackageConfig(this);
     }
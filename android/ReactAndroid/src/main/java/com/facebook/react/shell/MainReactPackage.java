@@ -125,7 +125,9 @@ public class MainReactPackage extends TurboReactPackage {
       case FileReaderModule.NAME:
         return new FileReaderModule(context);
       case AsyncStorageModule.NAME:
-        return new AsyncStorageModule(context);
+        return mConfig != null && mConfig.getAsyncStorageConfig() != null
+            ? new AsyncStorageModule(context, mConfig.getAsyncStorageConfig())
+            : new AsyncStorageModule(context);
       case CameraRollManager.NAME:
         return new CameraRollManager(context);
       case ClipboardModule.NAME:
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager.events;
+
+/** Receives counters of the events going through an {@link EventDispatcher}. */
+public interface EventDispatchCountersListener {
+
+  /**
+   * Called on the JS thread after each batch of events has been dispatched, with the number of
+   * events staged since the previous batch, how many of them were coalesced into other events and
+   * how many events were actually dispatched to JS.
+   */
+  void onEventCounters(int stagedCount, int coalescedCount, int dispatchedCount);
+}
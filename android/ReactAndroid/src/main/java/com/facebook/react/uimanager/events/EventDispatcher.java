@@ -7,11 +7,11 @@
 
 package com.facebook.react.uimanager.events;
 
-import android.util.LongSparseArray;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.common.LongIntHashMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.modules.core.ChoreographerCompat;
 import com.facebook.react.modules.core.ReactChoreographer;
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -53,6 +54,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  * <p>Event Cookie Composition: VIEW_TAG_MASK = 0x00000000ffffffff EVENT_TYPE_ID_MASK =
  * 0x0000ffff00000000 COALESCING_KEY_MASK = 0xffff000000000000
+ *
+ * <p>Events are staged in a lock-free queue, so threads dispatching events never block each other
+ * or the UI thread moving them to the dispatch queue.
  */
 public class EventDispatcher implements LifecycleEventListener {
 
@@ -81,21 +85,24 @@ public class EventDispatcher implements LifecycleEventListener {
         }
       };
 
-  private final Object mEventsStagingLock = new Object();
   private final Object mEventsToDispatchLock = new Object();
   private final ReactApplicationContext mReactContext;
-  private final LongSparseArray<Integer> mEventCookieToLastEventIdx = new LongSparseArray<>();
+  private final LongIntHashMap mEventCookieToLastEventIdx = new LongIntHashMap(16);
   private final Map<String, Short> mEventNameToEventId = MapBuilder.newHashMap();
   private final DispatchEventsRunnable mDispatchEventsRunnable = new DispatchEventsRunnable();
-  private final ArrayList<Event> mEventStaging = new ArrayList<>();
+  private final ConcurrentLinkedQueue<Event> mEventStaging = new ConcurrentLinkedQueue<>();
   private final ArrayList<EventDispatcherListener> mListeners = new ArrayList<>();
   private final List<BatchEventDispatchedListener> mPostEventDispatchListeners = new ArrayList<>();
+  private final List<EventDispatchCountersListener> mCountersListeners = new ArrayList<>();
   private final ScheduleDispatchFrameCallback mCurrentFrameCallback =
       new ScheduleDispatchFrameCallback();
   private final AtomicInteger mHasDispatchScheduledCount = new AtomicInteger();
 
   private Event[] mEventsToDispatch = new Event[16];
   private int mEventsToDispatchSize = 0;
+  // Counters since the last dispatched batch, guarded by mEventsToDispatchLock
+  private int mStagedEventCount = 0;
+  private int mCoalescedEventCount = 0;
   private volatile ReactEventEmitter mReactEventEmitter;
   private short mNextEventTypeId = 0;
   private volatile boolean mHasDispatchScheduled = false;
@@ -114,11 +121,9 @@ public class EventDispatcher implements LifecycleEventListener {
       listener.onEventDispatch(event);
     }
 
-    synchronized (mEventsStagingLock) {
-      mEventStaging.add(event);
-      Systrace.startAsyncFlow(
-          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, event.getEventName(), event.getUniqueID());
-    }
+    Systrace.startAsyncFlow(
+        Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, event.getEventName(), event.getUniqueID());
+    mEventStaging.add(event);
     maybePostFrameCallbackFromNonUI();
   }
 
@@ -157,6 +162,14 @@ public class EventDispatcher implements LifecycleEventListener {
     mPostEventDispatchListeners.remove(listener);
   }
 
+  public void addEventDispatchCountersListener(EventDispatchCountersListener listener) {
+    mCountersListeners.add(listener);
+  }
+
+  public void removeEventDispatchCountersListener(EventDispatchCountersListener listener) {
+    mCountersListeners.remove(listener);
+  }
+
   @Override
   public void onHostResume() {
     maybePostFrameCallbackFromNonUI();
@@ -194,48 +207,47 @@ public class EventDispatcher implements LifecycleEventListener {
    * frame and another from this frame during the next.
    */
   private void moveStagedEventsToDispatchQueue() {
-    synchronized (mEventsStagingLock) {
-      synchronized (mEventsToDispatchLock) {
-        for (int i = 0; i < mEventStaging.size(); i++) {
-          Event event = mEventStaging.get(i);
-
-          if (!event.canCoalesce()) {
-            addEventToEventsToDispatch(event);
-            continue;
-          }
-
-          long eventCookie =
-              getEventCookie(event.getViewTag(), event.getEventName(), event.getCoalescingKey());
-
-          Event eventToAdd = null;
-          Event eventToDispose = null;
-          Integer lastEventIdx = mEventCookieToLastEventIdx.get(eventCookie);
+    synchronized (mEventsToDispatchLock) {
+      Event event;
+      while ((event = mEventStaging.poll()) != null) {
+        mStagedEventCount++;
+
+        if (!event.canCoalesce()) {
+          addEventToEventsToDispatch(event);
+          continue;
+        }
 
-          if (lastEventIdx == null) {
-            eventToAdd = event;
+        long eventCookie =
+            getEventCookie(event.getViewTag(), event.getEventName(), event.getCoalescingKey());
+
+        Event eventToAdd = null;
+        Event eventToDispose = null;
+        int lastEventIdx = mEventCookieToLastEventIdx.get(eventCookie, -1);
+
+        if (lastEventIdx == -1) {
+          eventToAdd = event;
+          mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
+        } else {
+          Event lastEvent = mEventsToDispatch[lastEventIdx];
+          Event coalescedEvent = event.coalesce(lastEvent);
+          if (coalescedEvent != lastEvent) {
+            eventToAdd = coalescedEvent;
             mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
+            eventToDispose = lastEvent;
+            mEventsToDispatch[lastEventIdx] = null;
           } else {
-            Event lastEvent = mEventsToDispatch[lastEventIdx];
-            Event coalescedEvent = event.coalesce(lastEvent);
-            if (coalescedEvent != lastEvent) {
-              eventToAdd = coalescedEvent;
-              mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
-              eventToDispose = lastEvent;
-              mEventsToDispatch[lastEventIdx] = null;
-            } else {
-              eventToDispose = event;
-            }
+            eventToDispose = event;
           }
+        }
 
-          if (eventToAdd != null) {
-            addEventToEventsToDispatch(eventToAdd);
-          }
-          if (eventToDispose != null) {
-            eventToDispose.dispose();
-          }
+        if (eventToAdd != null) {
+          addEventToEventsToDispatch(eventToAdd);
+        }
+        if (eventToDispose != null) {
+          mCoalescedEventCount++;
+          eventToDispose.dispose();
         }
       }
-      mEventStaging.clear();
     }
   }
 
@@ -344,6 +356,9 @@ public class EventDispatcher implements LifecycleEventListener {
             mHasDispatchScheduledCount.getAndIncrement());
         mHasDispatchScheduled = false;
         Assertions.assertNotNull(mReactEventEmitter);
+        int stagedCount;
+        int coalescedCount;
+        int dispatchedCount = 0;
         synchronized (mEventsToDispatchLock) {
           if (mEventsToDispatchSize > 0) {
             // We avoid allocating an array and iterator, and "sorting" if we don't need to.
@@ -361,14 +376,22 @@ public class EventDispatcher implements LifecycleEventListener {
                   Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, event.getEventName(), event.getUniqueID());
               event.dispatch(mReactEventEmitter);
               event.dispose();
+              dispatchedCount++;
             }
             clearEventsToDispatch();
             mEventCookieToLastEventIdx.clear();
           }
+          stagedCount = mStagedEventCount;
+          coalescedCount = mCoalescedEventCount;
+          mStagedEventCount = 0;
+          mCoalescedEventCount = 0;
         }
         for (BatchEventDispatchedListener listener : mPostEventDispatchListeners) {
           listener.onBatchEventDispatched();
         }
+        for (EventDispatchCountersListener listener : mCountersListeners) {
+          listener.onEventCounters(stagedCount, coalescedCount, dispatchedCount);
+        }
       } finally {
         Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
       }
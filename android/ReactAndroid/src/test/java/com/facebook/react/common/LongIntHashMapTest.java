@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.common;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link LongIntHashMap}. */
+@RunWith(RobolectricTestRunner.class)
+public class LongIntHashMapTest {
+
+  @Test
+  public void testPutGet() {
+    LongIntHashMap map = new LongIntHashMap(4);
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.get(1, -1)).isEqualTo(-1);
+
+    map.put(1, 10);
+    map.put(-1, 20);
+    map.put(0, 30);
+    assertThat(map.size()).isEqualTo(3);
+    assertThat(map.get(1, -1)).isEqualTo(10);
+    assertThat(map.get(-1, -1)).isEqualTo(20);
+    assertThat(map.get(0, -1)).isEqualTo(30);
+    assertThat(map.get(2, -1)).isEqualTo(-1);
+  }
+
+  @Test
+  public void testPutReplacesValue() {
+    LongIntHashMap map = new LongIntHashMap(4);
+    map.put(42, 1);
+    map.put(42, 2);
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.get(42, -1)).isEqualTo(2);
+  }
+
+  @Test
+  public void testClear() {
+    LongIntHashMap map = new LongIntHashMap(4);
+    map.put(1, 10);
+    map.put(2, 20);
+    map.clear();
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.get(1, -1)).isEqualTo(-1);
+    assertThat(map.get(2, -1)).isEqualTo(-1);
+
+    map.put(2, 21);
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.get(2, -1)).isEqualTo(21);
+  }
+
+  @Test
+  public void testCollidingKeys() {
+    // event cookies differ in their upper bits only, and more keys than slots must probe past each other
+    LongIntHashMap map = new LongIntHashMap(64);
+    for (int i = 0; i < 64; i++) {
+      map.put((long) i << 32, i);
+    }
+    for (int i = 0; i < 64; i++) {
+      assertThat(map.get((long) i << 32, -1)).isEqualTo(i);
+    }
+    assertThat(map.get(64L << 32, -1)).isEqualTo(-1);
+    assertThat(map.size()).isEqualTo(64);
+  }
+
+  @Test
+  public void testResize() {
+    LongIntHashMap map = new LongIntHashMap(1);
+    for (int i = 0; i < 1000; i++) {
+      map.put(i * 31L, i);
+    }
+    assertThat(map.size()).isEqualTo(1000);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(map.get(i * 31L, -1)).isEqualTo(i);
+    }
+    assertThat(map.get(1, -1)).isEqualTo(-1);
+  }
+}
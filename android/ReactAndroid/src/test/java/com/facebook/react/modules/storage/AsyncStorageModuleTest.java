@@ -310,6 +310,56 @@ public class AsyncStorageModuleTest {
         });
   }
 
+  @Test
+  public void testCachedMultiSetMultiRemove() {
+    AsyncStorageModule storage =
+        new AsyncStorageModule(
+            ReactTestHelper.createCatalystContextForTest(),
+            new RoboExecutorService(),
+            new AsyncStorageConfig.Builder().setCacheSize(1024).setWriteCommitDelayMs(0).build());
+
+    JavaOnlyArray keyValues = new JavaOnlyArray();
+    keyValues.pushArray(getArray("foo1", "bar1"));
+    keyValues.pushArray(getArray("foo2", "bar2"));
+    Callback setCallback = mock(Callback.class);
+    storage.multiSet(keyValues, setCallback);
+
+    JavaOnlyArray removedKeys = new JavaOnlyArray();
+    removedKeys.pushString("foo1");
+    Callback removeCallback = mock(Callback.class);
+    storage.multiRemove(removedKeys, removeCallback);
+
+    verify(setCallback, Mockito.times(1)).invoke();
+    verify(removeCallback, Mockito.times(1)).invoke();
+
+    JavaOnlyArray keys = new JavaOnlyArray();
+    keys.pushString("foo1");
+    keys.pushString("foo2");
+    JavaOnlyArray expected = new JavaOnlyArray();
+    expected.pushArray(getArray("foo1", null));
+    expected.pushArray(getArray("foo2", "bar2"));
+
+    Callback getCallback = mock(Callback.class);
+    storage.multiGet(keys, getCallback);
+    verify(getCallback, Mockito.times(1)).invoke(null, expected);
+
+    // values must have been committed, not only cached
+    Callback getUncachedCallback = mock(Callback.class);
+    mStorage.multiGet(keys, getUncachedCallback);
+    verify(getUncachedCallback, Mockito.times(1)).invoke(null, expected);
+  }
+
+  @Test
+  public void testPrefixUpperBound() {
+    assertThat(AsyncStorageModule.getPrefixUpperBound("foo")).isEqualTo("fop");
+    // keys continuing with a supplementary code point are within the range too
+    assertThat(AsyncStorageModule.getPrefixUpperBound("foo\uFFFF")).isEqualTo("foo\uD800\uDC00");
+    assertThat(AsyncStorageModule.getPrefixUpperBound("foo\uD7FF")).isEqualTo("foo\uE000");
+    assertThat(AsyncStorageModule.getPrefixUpperBound("foo\uDBFF\uDFFF")).isEqualTo("fop");
+    assertThat(AsyncStorageModule.getPrefixUpperBound("\uDBFF\uDFFF")).isNull();
+    assertThat(AsyncStorageModule.getPrefixUpperBound("")).isNull();
+  }
+
   private static JSONArray createJSONArray(Object... objects) {
     return new JSONArray(Arrays.asList(objects));
   }
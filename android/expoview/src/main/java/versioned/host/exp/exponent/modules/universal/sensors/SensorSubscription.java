@@ -30,6 +30,11 @@ public class SensorSubscription implements SensorServiceSubscriptionInterface {
     mSensorKernelServiceSubscription.setUpdateInterval(updateInterval);
   }
 
+  @Override
+  public void setMaxReportLatencyUs(int maxReportLatencyUs) {
+    // Kernel sensor services are shared between experiences, they always deliver samples right away.
+  }
+
   @Override
   public void stop() {
     mSensorKernelServiceSubscription.stop();
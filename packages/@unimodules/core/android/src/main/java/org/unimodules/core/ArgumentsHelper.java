@@ -1,44 +1,78 @@
 package org.unimodules.core;
 
 public class ArgumentsHelper {
+  /**
+   * Validates a single argument against the class of the parameter it is going to be passed to.
+   * Obtained once per parameter with {@link #validatorForClass(Class)}, so that the checks depending
+   * only on the expected class don't have to be repeated for every call.
+   */
+  /* package */ interface ArgumentValidator {
+    Object validate(Object argument);
+  }
+
+  private static final ArgumentValidator ANY_OBJECT_VALIDATOR = new ArgumentValidator() {
+    @Override
+    public Object validate(Object argument) {
+      return argument;
+    }
+  };
+
   /* package */ static Object validatedArgumentForClass(Object argument, Class<?> expectedArgumentClass) {
+    return validatorForClass(expectedArgumentClass).validate(argument);
+  }
+
+  /* package */ static ArgumentValidator validatorForClass(final Class<?> expectedArgumentClass) {
+    if (expectedArgumentClass == Object.class) {
+      // Anything can be passed to a parameter expecting an Object
+      return ANY_OBJECT_VALIDATOR;
+    }
+
     if (Object.class.isAssignableFrom(expectedArgumentClass)) {
       // Expected argument class is an Object descendant
-      if (argument != null) {
-        // Actual argument is not null, so we can check whether
-        // its class matches expectation.
-        Class<?> actualArgumentClass = argument.getClass();
+      return new ArgumentValidator() {
+        @Override
+        public Object validate(Object argument) {
+          if (argument != null) {
+            // Actual argument is not null, so we can check whether
+            // its class matches expectation.
+            Class<?> actualArgumentClass = argument.getClass();
 
-        if (!expectedArgumentClass.isAssignableFrom(actualArgumentClass)) {
-          // Expected argument class is not assignable from actual argument class
-          // i. e. eg. Map was provided for a String argument.
-          throw new IllegalArgumentException(
-                  "Argument of an incompatible class: " + actualArgumentClass
-                          + " cannot be passed as an argument to parameter expecting " + expectedArgumentClass + ".");
+            if (!expectedArgumentClass.isAssignableFrom(actualArgumentClass)) {
+              // Expected argument class is not assignable from actual argument class
+              // i. e. eg. Map was provided for a String argument.
+              throw new IllegalArgumentException(
+                      "Argument of an incompatible class: " + actualArgumentClass
+                              + " cannot be passed as an argument to parameter expecting " + expectedArgumentClass + ".");
+            }
+          }
+          return argument;
         }
-      }
-    } else {
-      // Argument is of primitive type, like boolean or int.
-      if (argument == null) {
-        throw new IllegalArgumentException(
-                "Argument null cannot be passed to an argument to parameter expecting " + expectedArgumentClass + ".");
-      }
+      };
+    }
 
-      Class<?> actualArgumentClass = argument.getClass();
-      if (expectedArgumentClass != actualArgumentClass) {
-        if (!Number.class.isAssignableFrom(actualArgumentClass) && !Boolean.class.isAssignableFrom(actualArgumentClass)) {
-          throw new IllegalArgumentException("Argument of an incompatible class: "
-                  + actualArgumentClass + " cannot be passed as an argument to parameter expecting " + expectedArgumentClass + ".");
+    // Argument is of primitive type, like boolean or int.
+    return new ArgumentValidator() {
+      @Override
+      public Object validate(Object argument) {
+        if (argument == null) {
+          throw new IllegalArgumentException(
+                  "Argument null cannot be passed to an argument to parameter expecting " + expectedArgumentClass + ".");
         }
 
-        // Otherwise the expected argument is of type int or long or booealn and actual argument class is a descendant of Number or Boolean.
-        // We believe that platform adapter has coerced the value correctly and when expected argument
-        // is int, actual argument is Integer; when expected is float, actual is Float, etc.
-        // If it's not, Java will throw a developer-readable exception.
-      }
-    }
+        Class<?> actualArgumentClass = argument.getClass();
+        if (expectedArgumentClass != actualArgumentClass) {
+          if (!Number.class.isAssignableFrom(actualArgumentClass) && !Boolean.class.isAssignableFrom(actualArgumentClass)) {
+            throw new IllegalArgumentException("Argument of an incompatible class: "
+                    + actualArgumentClass + " cannot be passed as an argument to parameter expecting " + expectedArgumentClass + ".");
+          }
 
-    // All checks passed
-    return argument;
+          // Otherwise the expected argument is of type int or long or booealn and actual argument class is a descendant of Number or Boolean.
+          // We believe that platform adapter has coerced the value correctly and when expected argument
+          // is int, actual argument is Integer; when expected is float, actual is Float, etc.
+          // If it's not, Java will throw a developer-readable exception.
+        }
+        return argument;
+      }
+    };
   }
 }
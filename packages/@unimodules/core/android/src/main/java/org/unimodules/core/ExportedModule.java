@@ -7,12 +7,9 @@ import org.unimodules.core.interfaces.RegistryLifecycleListener;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,9 +31,79 @@ public abstract class ExportedModule implements RegistryLifecycleListener {
     }
   }
 
+  /**
+   * Calls a single exported method. Everything that depends only on the method - its parameter
+   * types, the validator for each parameter and access checks - is resolved once when the invoker
+   * is created, so a call only validates its arguments in place and dispatches.
+   *
+   * The dispatch itself still goes through {@link Method#invoke}, the invoker only caches what
+   * can be looked up ahead of it.
+   */
+  public class MethodInvoker {
+    private final String mMethodName;
+    private final Method mMethod;
+    private final Class<?>[] mParameterTypes;
+    private final ArgumentsHelper.ArgumentValidator[] mValidators;
+
+    MethodInvoker(String methodName, Method method, boolean usesDefaultArgumentsTransform) {
+      mMethodName = methodName;
+      mMethod = method;
+      mParameterTypes = method.getParameterTypes();
+      // Modules overriding transformArgumentToClass are still called through it
+      mValidators = usesDefaultArgumentsTransform ? new ArgumentsHelper.ArgumentValidator[mParameterTypes.length] : null;
+      if (mValidators != null) {
+        for (int i = 0; i < mParameterTypes.length; i++) {
+          mValidators[i] = ArgumentsHelper.validatorForClass(mParameterTypes[i]);
+        }
+      }
+      try {
+        mMethod.setAccessible(true);
+      } catch (SecurityException e) {
+        // Fall back to access checks on every call
+      }
+    }
+
+    public String getMethodName() {
+      return mMethodName;
+    }
+
+    public Class<?>[] getParameterTypes() {
+      return mParameterTypes;
+    }
+
+    /**
+     * Invokes the method with given arguments. The array is validated and transformed in place
+     * and has to contain exactly one element per parameter, including the trailing Promise.
+     */
+    public Object invoke(Object[] arguments) throws RuntimeException {
+      if (arguments.length != mParameterTypes.length) {
+        throw new IllegalArgumentException(
+            "Method " + mMethodName + " on class " + getName() + " expects " + mParameterTypes.length + " arguments, "
+                + "whereas " + arguments.length + " arguments have been provided.");
+      }
+
+      for (int i = 0; i < arguments.length; i++) {
+        arguments[i] = mValidators != null
+            ? mValidators[i].validate(arguments[i])
+            : transformArgumentToClass(arguments[i], mParameterTypes[i]);
+      }
+
+      try {
+        return mMethod.invoke(ExportedModule.this, arguments);
+      } catch (IllegalAccessException e) {
+        throw new RuntimeException("Exception occurred while executing exported method " + mMethodName
+            + " on module " + getName() + ": " + e.getMessage(), e);
+      } catch (InvocationTargetException e) {
+        throw new RuntimeException("Exception occurred while executing exported method " + mMethodName
+            + " on module " + getName() + ": " + e.getCause().getMessage(), e.getCause());
+      }
+    }
+  }
+
   private Context mContext;
   private Map<String, Method> mExportedMethods;
   private Map<String, MethodInfo> mExportedMethodInfos;
+  private volatile Map<String, MethodInvoker> mExportedMethodInvokers;
 
   public ExportedModule(Context context) {
     mContext = context;
@@ -69,48 +136,60 @@ public abstract class ExportedModule implements RegistryLifecycleListener {
     return mExportedMethodInfos;
   }
 
+  /**
+   * Returns a cached {@link MethodInvoker} for an exported method, or null if the module
+   * doesn't export a method with this name. Can be called from any thread, invokers of all methods
+   * are created at once by the first call and never modified afterwards.
+   */
+  public MethodInvoker getExportedMethodInvoker(String methodName) {
+    Map<String, MethodInvoker> invokers = mExportedMethodInvokers;
+    if (invokers == null) {
+      synchronized (this) {
+        invokers = mExportedMethodInvokers;
+        if (invokers == null) {
+          Map<String, Method> exportedMethods = getExportedMethods();
+          boolean usesDefaultArgumentsTransform = usesDefaultArgumentsTransform();
+          invokers = new HashMap<>(exportedMethods.size());
+          for (Map.Entry<String, Method> entry : exportedMethods.entrySet()) {
+            invokers.put(entry.getKey(), new MethodInvoker(entry.getKey(), entry.getValue(), usesDefaultArgumentsTransform));
+          }
+          mExportedMethodInvokers = invokers;
+        }
+      }
+    }
+    return invokers.get(methodName);
+  }
+
   /**
    * Invokes an exported method
    */
   public Object invokeExportedMethod(String methodName, Collection<Object> arguments) throws NoSuchMethodException, RuntimeException {
-    Method method = mExportedMethods.get(methodName);
+    MethodInvoker invoker = getExportedMethodInvoker(methodName);
 
-    if (method == null) {
+    if (invoker == null) {
       throw new NoSuchMethodException("Module " + getName() + "does not export method " + methodName + ".");
     }
 
-    int expectedArgumentsCount = method.getParameterTypes().length;
-    if (arguments.size() != expectedArgumentsCount) {
-      throw new IllegalArgumentException(
-          "Method " + methodName + " on class " + getName() + " expects " + expectedArgumentsCount + " arguments, "
-              + "whereas " + arguments.size() + " arguments have been provided.");
-    }
-
-    Class<?>[] expectedArgumentClasses = method.getParameterTypes();
-    Iterator<Object> actualArgumentsIterator = arguments.iterator();
-    List<Object> transformedArguments = new ArrayList<>(arguments.size());
-
-    for (int i = 0; i < expectedArgumentsCount; i++) {
-      transformedArguments.add(transformArgumentToClass(actualArgumentsIterator.next(), expectedArgumentClasses[i]));
-    }
-
-    try {
-      return method.invoke(this, transformedArguments.toArray());
-    } catch (IllegalAccessException e) {
-      e.printStackTrace();
-      throw new RuntimeException("Exception occurred while executing exported method " + methodName
-          + " on module " + getName() + ": " + e.getMessage(), e);
-    } catch (InvocationTargetException e) {
-      e.printStackTrace();
-      throw new RuntimeException("Exception occurred while executing exported method " + methodName
-          + " on module " + getName() + ": " + e.getCause().getMessage(), e.getCause());
-    }
+    return invoker.invoke(arguments.toArray());
   }
 
   protected Object transformArgumentToClass(Object argument, Class<?> expectedArgumentClass) {
     return ArgumentsHelper.validatedArgumentForClass(argument, expectedArgumentClass);
   }
 
+  private boolean usesDefaultArgumentsTransform() {
+    Class klass = getClass();
+    while (klass != null && klass != ExportedModule.class) {
+      try {
+        klass.getDeclaredMethod("transformArgumentToClass", Object.class, Class.class);
+        return false;
+      } catch (NoSuchMethodException e) {
+        klass = klass.getSuperclass();
+      }
+    }
+    return true;
+  }
+
   /**
    * Creates or returns a cached String-keyed map of validated methods exported from {@link ExportedModule},
    * i. e. methods annotated with {@link ExpoMethod}, which should be available in client code land.
@@ -0,0 +1,60 @@
+package org.unimodules.core;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares calling an exported method through its cached {@link ExportedModule.MethodInvoker}
+ * with the lookups and conversions done on every call before invokers were introduced.
+ * Prints the average time of a call, it doesn't fail on slow runs.
+ */
+public class ExportedModuleBenchmarkTest {
+  private static final int WARMUP_ITERATIONS = 20000;
+  private static final int ITERATIONS = 200000;
+
+  @Test
+  public void benchmarkInvokeExportedMethod() throws Exception {
+    ExportedModuleTest.TestModule module = new ExportedModuleTest.TestModule();
+    ExportedModuleTest.ResultPromise promise = new ExportedModuleTest.ResultPromise();
+
+    long invokerTime = 0;
+    long legacyTime = 0;
+    for (int round = 0; round < 2; round++) {
+      // the first round is a warm-up
+      int iterations = round == 0 ? WARMUP_ITERATIONS : ITERATIONS;
+      invokerTime = measureInvoker(module, promise, iterations);
+      legacyTime = measureLegacy(module, promise, iterations);
+    }
+
+    System.out.println(String.format("MethodInvoker: %d ns/call, lookup on every call: %d ns/call",
+        invokerTime / ITERATIONS, legacyTime / ITERATIONS));
+  }
+
+  private static long measureInvoker(ExportedModule module, Promise promise, int iterations) {
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      module.getExportedMethodInvoker("add").invoke(new Object[] { i, 0.5, promise });
+    }
+    return System.nanoTime() - start;
+  }
+
+  // What invokeExportedMethod did before: look the method up by name, validate into a new list, convert it to an array.
+  private static long measureLegacy(ExportedModule module, Promise promise, int iterations) throws Exception {
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      List<Object> arguments = Arrays.<Object>asList(i, 0.5, promise);
+      Method method = module.getExportedMethods().get("add");
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      List<Object> transformedArguments = new ArrayList<>(arguments.size());
+      for (int j = 0; j < arguments.size(); j++) {
+        transformedArguments.add(ArgumentsHelper.validatedArgumentForClass(arguments.get(j), parameterTypes[j]));
+      }
+      method.invoke(module, transformedArguments.toArray());
+    }
+    return System.nanoTime() - start;
+  }
+}
@@ -0,0 +1,158 @@
+package org.unimodules.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.unimodules.core.interfaces.ExpoMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ExportedModuleTest {
+  static class TestModule extends ExportedModule {
+    TestModule() {
+      super(null);
+    }
+
+    @Override
+    public String getName() {
+      return "TestModule";
+    }
+
+    @ExpoMethod
+    public void add(int a, double b, Promise promise) {
+      promise.resolve(a + b);
+    }
+
+    @ExpoMethod
+    public void describe(String label, Map<String, Object> options, Promise promise) {
+      promise.resolve(label + ":" + (options != null ? options.size() : -1));
+    }
+
+    @ExpoMethod
+    public void fail(Promise promise) {
+      throw new IllegalStateException("Failed on purpose");
+    }
+  }
+
+  static class TransformingModule extends TestModule {
+    final List<Class<?>> mTransformedClasses = new ArrayList<>();
+
+    @Override
+    protected Object transformArgumentToClass(Object argument, Class<?> expectedArgumentClass) {
+      mTransformedClasses.add(expectedArgumentClass);
+      return super.transformArgumentToClass(argument, expectedArgumentClass);
+    }
+  }
+
+  static class ResultPromise implements Promise {
+    Object mValue;
+
+    @Override
+    public void resolve(Object value) {
+      mValue = value;
+    }
+
+    @Override
+    public void reject(String code, String message, Throwable e) {
+      Assert.fail("Unexpected rejection: " + message);
+    }
+  }
+
+  @Test
+  public void testInvokeExportedMethod() throws NoSuchMethodException {
+    TestModule module = new TestModule();
+    ResultPromise promise = new ResultPromise();
+
+    module.invokeExportedMethod("add", Arrays.<Object>asList(2, 0.5, promise));
+
+    Assert.assertEquals(2.5, promise.mValue);
+  }
+
+  @Test
+  public void testInvokerAcceptsNullObjects() {
+    TestModule module = new TestModule();
+    ResultPromise promise = new ResultPromise();
+
+    module.getExportedMethodInvoker("describe").invoke(new Object[] { "label", null, promise });
+
+    Assert.assertEquals("label:-1", promise.mValue);
+  }
+
+  @Test(expected = NoSuchMethodException.class)
+  public void testInvokeUndefinedMethod() throws NoSuchMethodException {
+    new TestModule().invokeExportedMethod("subtract", Collections.emptyList());
+  }
+
+  @Test
+  public void testInvokeWithWrongArgumentsCount() {
+    try {
+      new TestModule().getExportedMethodInvoker("add").invoke(new Object[] { 1, new ResultPromise() });
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage().contains("add"));
+      Assert.assertTrue(e.getMessage().contains("TestModule"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvokeWithIncompatibleArgument() {
+    new TestModule().getExportedMethodInvoker("describe").invoke(new Object[] { 42, null, new ResultPromise() });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvokeWithNullPrimitive() {
+    new TestModule().getExportedMethodInvoker("add").invoke(new Object[] { null, 0.5, new ResultPromise() });
+  }
+
+  @Test
+  public void testExceptionThrownByMethod() {
+    try {
+      new TestModule().getExportedMethodInvoker("fail").invoke(new Object[] { new ResultPromise() });
+      Assert.fail();
+    } catch (RuntimeException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+      Assert.assertTrue(e.getMessage().contains("Failed on purpose"));
+    }
+  }
+
+  @Test
+  public void testOverriddenArgumentsTransform() {
+    TransformingModule module = new TransformingModule();
+    ResultPromise promise = new ResultPromise();
+
+    module.getExportedMethodInvoker("add").invoke(new Object[] { 1, 2.0, promise });
+
+    Assert.assertEquals(3.0, promise.mValue);
+    Assert.assertEquals(Arrays.<Class<?>>asList(int.class, double.class, Promise.class), module.mTransformedClasses);
+  }
+
+  @Test
+  public void testInvokersAreSharedBetweenThreads() throws Exception {
+    final TestModule module = new TestModule();
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<ExportedModule.MethodInvoker>> invokers = new ArrayList<>();
+
+    for (int i = 0; i < 8; i++) {
+      invokers.add(executor.submit(() -> {
+        start.await();
+        return module.getExportedMethodInvoker("add");
+      }));
+    }
+    start.countDown();
+
+    ExportedModule.MethodInvoker invoker = invokers.get(0).get();
+    Assert.assertNotNull(invoker);
+    for (Future<ExportedModule.MethodInvoker> future : invokers) {
+      Assert.assertSame(invoker, future.get());
+    }
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,101 @@
+package org.unimodules.adapters.react;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.unimodules.core.Promise;
+
+import javax.annotation.Nullable;
+
+/**
+ * Collects results of calls made through {@link NativeModulesProxy#callMethods}
+ * and settles the {@link com.facebook.react.bridge.Promise} of the whole batch once every call has settled.
+ */
+/* package */ class BatchPromise {
+  private static final String STATUS_KEY = "status";
+  private static final String VALUE_KEY = "value";
+  private static final String CODE_KEY = "code";
+  private static final String MESSAGE_KEY = "message";
+  private static final String FULFILLED = "fulfilled";
+  private static final String REJECTED = "rejected";
+
+  private final com.facebook.react.bridge.Promise mPromise;
+  private final WritableMap[] mResults;
+  private int mPendingCount;
+
+  /* package */ BatchPromise(int callsCount, com.facebook.react.bridge.Promise promise) {
+    mPromise = promise;
+    mResults = new WritableMap[callsCount];
+    mPendingCount = callsCount;
+    if (callsCount == 0) {
+      mPromise.resolve(Arguments.createArray());
+    }
+  }
+
+  /* package */ Promise promiseForCall(final int index) {
+    return new Promise() {
+      @Override
+      public void resolve(@Nullable Object value) {
+        WritableMap result = Arguments.createMap();
+        result.putString(STATUS_KEY, FULFILLED);
+        putValue(result, value);
+        settle(index, result);
+      }
+
+      @Override
+      public void reject(String code, String message, Throwable e) {
+        WritableMap result = Arguments.createMap();
+        result.putString(STATUS_KEY, REJECTED);
+        result.putString(CODE_KEY, code);
+        result.putString(MESSAGE_KEY, message);
+        settle(index, result);
+      }
+    };
+  }
+
+  private synchronized void settle(int index, WritableMap result) {
+    if (mResults[index] != null) {
+      // A call has already settled its promise
+      return;
+    }
+    mResults[index] = result;
+    mPendingCount--;
+    if (mPendingCount == 0) {
+      WritableArray results = Arguments.createArray();
+      for (WritableMap callResult : mResults) {
+        results.pushMap(callResult);
+      }
+      mPromise.resolve(results);
+    }
+  }
+
+  /**
+   * Converts the value the same way as when a single call resolves its {@link PromiseWrapper},
+   * so values of unsupported classes fail the same way whether the call is batched or not.
+   */
+  private static void putValue(WritableMap result, @Nullable Object value) {
+    ReadableArray values = Arguments.fromJavaArgs(new Object[] { PromiseWrapper.toBridgeValue(value) });
+    switch (values.getType(0)) {
+      case Null:
+        result.putNull(VALUE_KEY);
+        break;
+      case Boolean:
+        result.putBoolean(VALUE_KEY, values.getBoolean(0));
+        break;
+      case Number:
+        result.putDouble(VALUE_KEY, values.getDouble(0));
+        break;
+      case String:
+        result.putString(VALUE_KEY, values.getString(0));
+        break;
+      case Map:
+        result.putMap(VALUE_KEY, values.getMap(0));
+        break;
+      case Array:
+        result.putArray(VALUE_KEY, values.getArray(0));
+        break;
+    }
+  }
+}
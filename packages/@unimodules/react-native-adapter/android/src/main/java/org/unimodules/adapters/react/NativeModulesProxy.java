@@ -45,12 +45,14 @@ public class NativeModulesProxy extends ReactContextBaseJavaModule {
   private ModuleRegistry mModuleRegistry;
   private Map<String, Map<String, Integer>> mExportedMethodsKeys;
   private Map<String, SparseArray<String>> mExportedMethodsReverseKeys;
+  private Map<String, SparseArray<ExportedModule.MethodInvoker>> mExportedMethodsInvokers;
 
   public NativeModulesProxy(ReactApplicationContext context, ModuleRegistry moduleRegistry) {
     super(context);
     mModuleRegistry = moduleRegistry;
     mExportedMethodsKeys = new HashMap<>();
     mExportedMethodsReverseKeys = new HashMap<>();
+    mExportedMethodsInvokers = new HashMap<>();
   }
 
   @Override
@@ -75,6 +77,7 @@ public class NativeModulesProxy extends ReactContextBaseJavaModule {
 
       List<Map<String, Object>> exportedMethods = transformExportedMethodsMap(exportedModule.getExportedMethods());
       assignExportedMethodsKeys(moduleName, exportedMethods);
+      assignExportedMethodsInvokers(exportedModule);
 
       exportedMethodsMap.put(moduleName, exportedMethods);
     }
@@ -91,7 +94,6 @@ public class NativeModulesProxy extends ReactContextBaseJavaModule {
   }
 
   /**
-   * The only exported {@link ReactMethod}.
    * JavaScript can call native modules' exported methods ({@link ExpoMethod}) using this method as a proxy.
    * For native {@link ExpoMethod} `void put(String key, int value)` in `NativeDictionary` module
    * JavaScript could call `NativeModulesProxy.callMethod("NativeDictionary", "put", ["key", 42])`
@@ -100,44 +102,81 @@ public class NativeModulesProxy extends ReactContextBaseJavaModule {
    */
   @ReactMethod
   public void callMethod(String moduleName, Dynamic methodKeyOrName, ReadableArray arguments, final Promise promise) {
+    invokeMethod(moduleName, methodKeyOrName, arguments, new PromiseWrapper(promise));
+  }
+
+  /**
+   * Calls multiple exported methods in a single bridge message. Each element of `calls` is
+   * an array of arguments as passed to {@link #callMethod}, i. e. `[moduleName, methodKeyOrName, arguments]`.
+   * Calls are started in order on the native modules thread and the promise resolves, once all
+   * of them have settled, with an array of `{ status: "fulfilled", value }`
+   * or `{ status: "rejected", code, message }` results in the same order.
+   */
+  @ReactMethod
+  public void callMethods(ReadableArray calls, final Promise promise) {
+    BatchPromise batchPromise = new BatchPromise(calls.size(), promise);
+    for (int i = 0; i < calls.size(); i++) {
+      org.unimodules.core.Promise callPromise = batchPromise.promiseForCall(i);
+      ReadableArray call = calls.getType(i) == ReadableType.Array ? calls.getArray(i) : null;
+      if (call == null || call.size() != 3 || call.getType(0) != ReadableType.String || call.getType(2) != ReadableType.Array) {
+        callPromise.reject(UNEXPECTED_ERROR, "Call at index " + i + " is not a [moduleName, methodKeyOrName, arguments] array.");
+        continue;
+      }
+      invokeMethod(call.getString(0), call.getDynamic(1), call.getArray(2), callPromise);
+    }
+  }
+
+  private void invokeMethod(String moduleName, Dynamic methodKeyOrName, ReadableArray arguments, org.unimodules.core.Promise promise) {
+    ExportedModule.MethodInvoker invoker;
     String methodName;
     if (methodKeyOrName.getType() == ReadableType.String) {
       methodName = methodKeyOrName.asString();
+      ExportedModule module = mModuleRegistry.getExportedModule(moduleName);
+      invoker = module != null ? module.getExportedMethodInvoker(methodName) : null;
     } else if (methodKeyOrName.getType() == ReadableType.Number) {
-      methodName = mExportedMethodsReverseKeys.get(moduleName).get(methodKeyOrName.asInt());
+      int methodKey = methodKeyOrName.asInt();
+      SparseArray<ExportedModule.MethodInvoker> invokers = mExportedMethodsInvokers.get(moduleName);
+      invoker = invokers != null ? invokers.get(methodKey) : null;
+      methodName = invoker != null ? invoker.getMethodName() : String.valueOf(methodKey);
     } else {
       promise.reject(UNEXPECTED_ERROR, "Method key is neither a String nor an Integer -- don't know how to map it to method name.");
       return;
     }
 
+    if (invoker == null) {
+      promise.reject(UNDEFINED_METHOD_ERROR, "Method " + methodName + " of Java module " + moduleName + " is undefined.");
+      return;
+    }
+
     try {
-      List<Object> nativeArguments = getNativeArgumentsForMethod(arguments, mModuleRegistry.getExportedModule(moduleName).getExportedMethodInfos().get(methodName));
-      nativeArguments.add(new PromiseWrapper(promise));
+      Object[] nativeArguments = getNativeArgumentsForMethod(moduleName, invoker, arguments);
+      nativeArguments[nativeArguments.length - 1] = promise;
 
-      mModuleRegistry.getExportedModule(moduleName).invokeExportedMethod(methodName, nativeArguments);
+      invoker.invoke(nativeArguments);
     } catch (IllegalArgumentException e) {
       promise.reject(ARGS_TYPES_MISMATCH_ERROR, e.getMessage(), e);
     } catch (RuntimeException e) {
       promise.reject(UNEXPECTED_ERROR, "Encountered an exception while calling native method: " + e.getMessage(), e);
-    } catch (NoSuchMethodException e) {
-      promise.reject(
-          UNDEFINED_METHOD_ERROR,
-          "Method " + methodName + " of Java module " + moduleName + " is undefined.",
-          e
-      );
     }
   }
 
   /**
-   * Converts {@link ReadableArray} of arguments into a list of Java Objects.
+   * Converts {@link ReadableArray} of arguments into an array of Java Objects, leaving the last
+   * slot empty for the {@link Promise}.
    * Throws {@link RuntimeException} if it can't convert some {@link ReadableType} to Object.
    * Method is used when converting Double to proper argument.
    */
-  private static List<Object> getNativeArgumentsForMethod(ReadableArray arguments, ExportedModule.MethodInfo methodInfo) {
-    List<Object> nativeArguments = new ArrayList<>();
+  private static Object[] getNativeArgumentsForMethod(String moduleName, ExportedModule.MethodInvoker invoker, ReadableArray arguments) {
+    Class<?>[] parameterTypes = invoker.getParameterTypes();
+    if (arguments.size() != parameterTypes.length - 1) {
+      throw new IllegalArgumentException(
+          "Method " + invoker.getMethodName() + " of Java module " + moduleName + " expects " + (parameterTypes.length - 1)
+              + " arguments, whereas " + arguments.size() + " arguments have been provided.");
+    }
 
+    Object[] nativeArguments = new Object[parameterTypes.length];
     for (int i = 0; i < arguments.size(); i++) {
-      nativeArguments.add(ArgumentsHelper.getNativeArgumentForExpectedClass(arguments.getDynamic(i), methodInfo.getParameterTypes()[i]));
+      nativeArguments[i] = ArgumentsHelper.getNativeArgumentForExpectedClass(arguments.getDynamic(i), parameterTypes[i]);
     }
     return nativeArguments;
   }
@@ -197,6 +236,19 @@ public class NativeModulesProxy extends ReactContextBaseJavaModule {
     }
   }
 
+  /**
+   * Resolves {@link ExportedModule.MethodInvoker}s for keys assigned in {@link #assignExportedMethodsKeys},
+   * so that calls made with a method key don't need to look the method up by name.
+   */
+  private void assignExportedMethodsInvokers(ExportedModule exportedModule) {
+    SparseArray<String> reverseKeys = mExportedMethodsReverseKeys.get(exportedModule.getName());
+    SparseArray<ExportedModule.MethodInvoker> invokers = new SparseArray<>(reverseKeys.size());
+    for (int i = 0; i < reverseKeys.size(); i++) {
+      invokers.put(reverseKeys.keyAt(i), exportedModule.getExportedMethodInvoker(reverseKeys.valueAt(i)));
+    }
+    mExportedMethodsInvokers.put(exportedModule.getName(), invokers);
+  }
+
   @Override
   public void onCatalystInstanceDestroy() {
     mModuleRegistry.onDestroy();
@@ -22,14 +22,21 @@ import javax.annotation.Nullable;
     mPromise = promise;
   }
 
-  public void resolve(@Nullable Object value) {
+  /**
+   * Converts a value returned by an exported method to a value that can be passed
+   * to a {@link com.facebook.react.bridge.Promise}.
+   */
+  /* package */ static Object toBridgeValue(@Nullable Object value) {
     if (value instanceof Bundle) {
-      mPromise.resolve(Arguments.fromBundle((Bundle) value));
+      return Arguments.fromBundle((Bundle) value);
     } else if (value instanceof List) {
-      mPromise.resolve(Arguments.fromList((List) value));
-    } else {
-      mPromise.resolve(value);
+      return Arguments.fromList((List) value);
     }
+    return value;
+  }
+
+  public void resolve(@Nullable Object value) {
+    mPromise.resolve(toBridgeValue(value));
   }
 
   public void reject(String code, String message, Throwable e) {
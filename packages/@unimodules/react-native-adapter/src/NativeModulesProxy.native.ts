@@ -1,6 +1,10 @@
 import { NativeModules } from 'react-native';
 
-import { ProxyNativeModule } from './NativeModulesProxy.types';
+import {
+  NativeMethodCall,
+  NativeMethodCallResult,
+  ProxyNativeModule,
+} from './NativeModulesProxy.types';
 
 const NativeProxy = NativeModules.NativeUnimoduleProxy;
 const modulesConstantsKey = 'modulesConstants';
@@ -8,6 +12,17 @@ const exportedMethodsKey = 'exportedMethods';
 
 const NativeModulesProxy: { [moduleName: string]: ProxyNativeModule } = {};
 
+function getArgumentsCountErrorMessage(
+  moduleName: string,
+  methodName: string,
+  argumentsCount: number,
+  receivedCount: number
+): string {
+  return `Native method ${moduleName}.${methodName} expects ${argumentsCount} ${
+    argumentsCount === 1 ? 'argument' : 'arguments'
+  } but received ${receivedCount}`;
+}
+
 if (NativeProxy) {
   Object.keys(NativeProxy[exportedMethodsKey]).forEach(moduleName => {
     NativeModulesProxy[moduleName] = NativeProxy[modulesConstantsKey][moduleName] || {};
@@ -17,9 +32,12 @@ if (NativeProxy) {
         if (argumentsCount !== args.length) {
           return Promise.reject(
             new Error(
-              `Native method ${moduleName}.${methodInfo.name} expects ${argumentsCount} ${
-                argumentsCount === 1 ? 'argument' : 'arguments'
-              } but received ${args.length}`
+              getArgumentsCountErrorMessage(
+                moduleName,
+                methodInfo.name,
+                argumentsCount,
+                args.length
+              )
             )
           );
         }
@@ -43,4 +61,66 @@ if (NativeProxy) {
   );
 }
 
+/**
+ * Calls multiple exported methods and resolves, once all of them have settled, with their results
+ * in the same order. On Android the calls are sent to the native side in a single bridge message,
+ * on other platforms each of them is called separately.
+ */
+export async function callNativeMethodsAsync(
+  calls: NativeMethodCall[]
+): Promise<NativeMethodCallResult[]> {
+  const results: (NativeMethodCallResult | null)[] = [];
+  const nativeCalls: [string, number, unknown[]][] = [];
+  const nativeCallsIndices: number[] = [];
+
+  calls.forEach(([moduleName, methodName, args], index) => {
+    const methodInfo = NativeProxy?.[exportedMethodsKey][moduleName]?.find(
+      info => info.name === methodName
+    );
+    if (!methodInfo) {
+      results.push({
+        status: 'rejected',
+        code: 'ERR_UNDEFINED_METHOD',
+        message: `Native method ${moduleName}.${methodName} is undefined`,
+      });
+    } else if (methodInfo.argumentsCount !== args.length) {
+      results.push({
+        status: 'rejected',
+        code: 'ERR_ARGUMENTS_COUNT',
+        message: getArgumentsCountErrorMessage(
+          moduleName,
+          methodName,
+          methodInfo.argumentsCount,
+          args.length
+        ),
+      });
+    } else {
+      results.push(null);
+      nativeCalls.push([moduleName, methodInfo.key, args]);
+      nativeCallsIndices.push(index);
+    }
+  });
+
+  if (nativeCalls.length > 0) {
+    const nativeResults: NativeMethodCallResult[] = NativeProxy.callMethods
+      ? await NativeProxy.callMethods(nativeCalls)
+      : await Promise.all(
+          nativeCalls.map(([moduleName, key, args]) =>
+            NativeProxy.callMethod(moduleName, key, args).then(
+              (value): NativeMethodCallResult => ({ status: 'fulfilled', value }),
+              (error): NativeMethodCallResult => ({
+                status: 'rejected',
+                code: error.code,
+                message: error.message,
+              })
+            )
+          )
+        );
+    nativeResults.forEach((result, index) => {
+      results[nativeCallsIndices[index]] = result;
+    });
+  }
+  return results as NativeMethodCallResult[];
+}
+
 export default NativeModulesProxy;
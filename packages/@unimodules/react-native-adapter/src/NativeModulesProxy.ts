@@ -1,4 +1,20 @@
-import { ProxyNativeModule } from './NativeModulesProxy.types';
+import {
+  NativeMethodCall,
+  NativeMethodCallResult,
+  ProxyNativeModule,
+} from './NativeModulesProxy.types';
+
+export async function callNativeMethodsAsync(
+  calls: NativeMethodCall[]
+): Promise<NativeMethodCallResult[]> {
+  return calls.map(
+    ([moduleName, methodName]): NativeMethodCallResult => ({
+      status: 'rejected',
+      code: 'ERR_UNDEFINED_METHOD',
+      message: `Native method ${moduleName}.${methodName} is undefined`,
+    })
+  );
+}
 
 // We default to an empty object shim wherever we don't have an environment-specific implementation
 export default {} as { [moduleName: string]: ProxyNativeModule };
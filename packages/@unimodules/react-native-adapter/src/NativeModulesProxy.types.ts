@@ -3,3 +3,12 @@ export type ProxyNativeModule = {
   addListener: (eventName: string) => void;
   removeListeners: (count: number) => void;
 };
+
+/**
+ * A call of an exported method, made of the module name, the method name and the arguments.
+ */
+export type NativeMethodCall = [string, string, unknown[]];
+
+export type NativeMethodCallResult =
+  | { status: 'fulfilled'; value: any }
+  | { status: 'rejected'; code: string; message: string };
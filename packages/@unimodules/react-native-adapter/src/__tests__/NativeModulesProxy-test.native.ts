@@ -1,4 +1,6 @@
-import NativeModulesProxy from '../NativeModulesProxy';
+import { NativeModules } from 'react-native';
+
+import NativeModulesProxy, { callNativeMethodsAsync } from '../NativeModulesProxy';
 
 jest.mock('react-native', () => {
   const ReactNative = jest.requireActual('react-native');
@@ -8,7 +10,10 @@ jest.mock('react-native', () => {
   };
   ReactNative.NativeModules.NativeUnimoduleProxy.exportedMethods = {
     ...ReactNative.NativeModules.NativeUnimoduleProxy.exportedMethods,
-    ExpoTest: [{ key: 0, name: 'testAsync', argumentsCount: 1 }],
+    ExpoTest: [
+      { key: 0, name: 'testAsync', argumentsCount: 1 },
+      { key: 1, name: 'otherTestAsync', argumentsCount: 0 },
+    ],
   };
   return ReactNative;
 });
@@ -31,3 +36,82 @@ it(`defines event listener methods on native modules`, () => {
   expect(typeof NativeModulesProxy.ExpoTest.addListener).toBe('function');
   expect(typeof NativeModulesProxy.ExpoTest.removeListeners).toBe('function');
 });
+
+describe('callNativeMethodsAsync', () => {
+  const NativeProxy = NativeModules.NativeUnimoduleProxy;
+
+  afterEach(() => {
+    delete NativeProxy.callMethods;
+  });
+
+  it(`sends all valid calls to the native side in a single message`, async () => {
+    NativeProxy.callMethods = jest.fn(async calls =>
+      calls.map(([, key, args]) => ({ status: 'fulfilled', value: [key, ...args] }))
+    );
+
+    const results = await callNativeMethodsAsync([
+      ['ExpoTest', 'testAsync', ['a']],
+      ['ExpoTest', 'otherTestAsync', []],
+    ]);
+
+    expect(NativeProxy.callMethods).toHaveBeenCalledTimes(1);
+    expect(NativeProxy.callMethods).toHaveBeenCalledWith([
+      ['ExpoTest', 0, ['a']],
+      ['ExpoTest', 1, []],
+    ]);
+    expect(results).toEqual([
+      { status: 'fulfilled', value: [0, 'a'] },
+      { status: 'fulfilled', value: [1] },
+    ]);
+  });
+
+  it(`rejects invalid calls without sending them to the native side`, async () => {
+    NativeProxy.callMethods = jest.fn(async calls =>
+      calls.map(() => ({ status: 'fulfilled', value: 'value' }))
+    );
+
+    const results = await callNativeMethodsAsync([
+      ['ExpoTest', 'undefinedAsync', []],
+      ['ExpoTest', 'testAsync', ['a']],
+      ['ExpoTest', 'testAsync', []],
+    ]);
+
+    expect(NativeProxy.callMethods).toHaveBeenCalledWith([['ExpoTest', 0, ['a']]]);
+    expect(results).toEqual([
+      {
+        status: 'rejected',
+        code: 'ERR_UNDEFINED_METHOD',
+        message: 'Native method ExpoTest.undefinedAsync is undefined',
+      },
+      { status: 'fulfilled', value: 'value' },
+      {
+        status: 'rejected',
+        code: 'ERR_ARGUMENTS_COUNT',
+        message: 'Native method ExpoTest.testAsync expects 1 argument but received 0',
+      },
+    ]);
+  });
+
+  it(`calls methods one by one when batching isn't supported natively`, async () => {
+    const callMethod = jest
+      .spyOn(NativeProxy, 'callMethod')
+      .mockImplementationOnce(async () => 'value')
+      .mockImplementationOnce(async () => {
+        const error: any = new Error('Failed');
+        error.code = 'E_FAILED';
+        throw error;
+      });
+
+    const results = await callNativeMethodsAsync([
+      ['ExpoTest', 'testAsync', ['a']],
+      ['ExpoTest', 'otherTestAsync', []],
+    ]);
+
+    expect(callMethod).toHaveBeenCalledTimes(2);
+    expect(results).toEqual([
+      { status: 'fulfilled', value: 'value' },
+      { status: 'rejected', code: 'E_FAILED', message: 'Failed' },
+    ]);
+    callMethod.mockRestore();
+  });
+});
@@ -1,8 +1,12 @@
 import { DeviceEventEmitter } from 'react-native';
 
 import { EventEmitter, Subscription } from './EventEmitter';
-import NativeModulesProxy from './NativeModulesProxy';
-import { ProxyNativeModule } from './NativeModulesProxy.types';
+import NativeModulesProxy, { callNativeMethodsAsync } from './NativeModulesProxy';
+import {
+  NativeMethodCall,
+  NativeMethodCallResult,
+  ProxyNativeModule,
+} from './NativeModulesProxy.types';
 import { requireNativeViewManager } from './NativeViewManagerAdapter';
 import Platform from './Platform';
 import SyntheticPlatformEmitter from './SyntheticPlatformEmitter';
@@ -13,10 +17,13 @@ export {
   DeviceEventEmitter,
   EventEmitter,
   NativeModulesProxy,
+  NativeMethodCall,
+  NativeMethodCallResult,
   ProxyNativeModule,
   Platform,
   Subscription,
   SyntheticPlatformEmitter,
+  callNativeMethodsAsync,
   requireNativeViewManager,
   // Errors
   CodedError,
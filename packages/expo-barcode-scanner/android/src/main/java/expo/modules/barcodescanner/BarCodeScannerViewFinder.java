@@ -1,14 +1,16 @@
 package expo.modules.barcodescanner;
 
 import android.content.Context;
+import android.graphics.ImageFormat;
 import android.graphics.SurfaceTexture;
 import android.hardware.Camera;
-import android.os.AsyncTask;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Looper;
 import android.view.TextureView;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.unimodules.core.ModuleRegistry;
 
@@ -27,8 +29,17 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
   private BarCodeScannerView mBarCodeScannerView;
   private Camera mCamera;
 
-  // Concurrency lock for barcode scanner to avoid flooding the runtime
-  public static volatile boolean barCodeScannerTaskLock = false;
+  // Frames are passed to the camera in buffers reused for the whole preview session:
+  // while one of them is being scanned, the camera fills the other one.
+  private static final int PREVIEW_BUFFERS_COUNT = 2;
+
+  // Set while a frame is being scanned, new frames are dropped in the meantime
+  private final AtomicBoolean mIsScanning = new AtomicBoolean(false);
+  private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+  private HandlerThread mScanThread;
+  private volatile Handler mScanHandler;
+  private volatile int mPreviewWidth;
+  private volatile int mPreviewHeight;
 
   // Scanner instance for the barcode scanning
   private BarCodeScannerInterface mBarCodeScanner;
@@ -56,6 +67,7 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
   public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
     mSurfaceTexture = null;
     stopCamera();
+    stopScanThread();
     return true;
   }
 
@@ -122,7 +134,7 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
         mCamera.setPreviewTexture(mSurfaceTexture);
         mCamera.startPreview();
         // send previews to `onPreviewFrame`
-        mCamera.setPreviewCallback(this);
+        startPreviewCallback(mCamera);
         mBarCodeScannerView.layoutViewFinder();
       } catch (NullPointerException e) {
         e.printStackTrace();
@@ -142,7 +154,7 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
         if (mCamera != null) {
           mCamera.stopPreview();
           // stop sending previews to `onPreviewFrame`
-          mCamera.setPreviewCallback(null);
+          mCamera.setPreviewCallbackWithBuffer(null);
           ExpoBarCodeScanner.getInstance().releaseCameraInstance();
           mCamera = null;
         }
@@ -166,10 +178,46 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
     }
   }
 
-  public void onPreviewFrame(byte[] data, Camera camera) {
-    if (!BarCodeScannerViewFinder.barCodeScannerTaskLock) {
-      BarCodeScannerViewFinder.barCodeScannerTaskLock = true;
-      new BarCodeScannerAsyncTask(camera, data, mBarCodeScannerView).execute();
+  public void onPreviewFrame(final byte[] data, final Camera camera) {
+    final Handler scanHandler = mScanHandler;
+
+    // setting PreviewCallback does not really have an effect - this method is called anyway so we
+    // need to check if camera changing is in progress or not.
+    // Drop the frame also if the previous one is still being scanned, the buffer goes back to the camera either way.
+    if (mIsChanging || data == null || scanHandler == null || !mIsScanning.compareAndSet(false, true)) {
+      recyclePreviewBuffer(camera, data);
+      return;
+    }
+
+    final int width = mPreviewWidth;
+    final int height = mPreviewHeight;
+    final int properRotation = ExpoBarCodeScanner.getInstance().getRotation();
+
+    boolean isPosted = scanHandler.post(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          final BarCodeScannerResult result = mBarCodeScanner.scan(data, width, height, properRotation);
+
+          if (result != null) {
+            mMainHandler.post(new Runnable() {
+              @Override
+              public void run() {
+                mBarCodeScannerView.onBarCodeScanned(result);
+              }
+            });
+          }
+        } finally {
+          mIsScanning.set(false);
+          recyclePreviewBuffer(camera, data);
+        }
+      }
+    });
+
+    // the scan thread has been stopped in the meantime
+    if (!isPosted) {
+      mIsScanning.set(false);
+      recyclePreviewBuffer(camera, data);
     }
   }
 
@@ -177,47 +225,39 @@ class BarCodeScannerViewFinder extends TextureView implements TextureView.Surfac
     mBarCodeScanner.setSettings(settings);
   }
 
-  private class BarCodeScannerAsyncTask extends AsyncTask<Void, Void, Void> {
-    private byte[] mImageData;
-    private final Camera mCamera;
+  private void startPreviewCallback(Camera camera) {
+    Camera.Parameters parameters = camera.getParameters();
+    Camera.Size previewSize = parameters.getPreviewSize();
+    mPreviewWidth = previewSize.width;
+    mPreviewHeight = previewSize.height;
 
-    BarCodeScannerAsyncTask(Camera camera, byte[] imageData, BarCodeScannerView barCodeScannerView) {
-      mCamera = camera;
-      mImageData = imageData;
-      mBarCodeScannerView = barCodeScannerView;
+    int bufferSize = previewSize.width * previewSize.height * ImageFormat.getBitsPerPixel(parameters.getPreviewFormat()) / 8;
+    for (int i = 0; i < PREVIEW_BUFFERS_COUNT; i++) {
+      camera.addCallbackBuffer(new byte[bufferSize]);
     }
 
-    @Override
-    protected Void doInBackground(Void... ignored) {
-      if (isCancelled()) {
-        return null;
-      }
-
-      // setting PreviewCallback does not really have an effect - this method is called anyway so we
-      // need to check if camera changing is in progress or not
-      if (!mIsChanging && mCamera != null) {
-        Camera.Size size = mCamera.getParameters().getPreviewSize();
-
-        int width = size.width;
-        int height = size.height;
-
-        int properRotation = ExpoBarCodeScanner.getInstance().getRotation();
-
-        final BarCodeScannerResult result = mBarCodeScanner.scan(mImageData, width,
-            height, properRotation);
+    if (mScanThread == null) {
+      mScanThread = new HandlerThread("expo-barcode-scanner");
+      mScanThread.start();
+      mScanHandler = new Handler(mScanThread.getLooper());
+    }
+    camera.setPreviewCallbackWithBuffer(this);
+  }
 
-        if (result != null) {
-          new Handler(Looper.getMainLooper()).post(new Runnable() {
-            @Override
-            public void run() {
-              mBarCodeScannerView.onBarCodeScanned(result);
-            }
-          });
-        }
-      }
+  /**
+   * Gives the buffer back to the camera, unless the camera has been stopped in the meantime.
+   */
+  synchronized private void recyclePreviewBuffer(Camera camera, byte[] buffer) {
+    if (buffer != null && camera == mCamera) {
+      camera.addCallbackBuffer(buffer);
+    }
+  }
 
-      BarCodeScannerViewFinder.barCodeScannerTaskLock = false;
-      return null;
+  synchronized private void stopScanThread() {
+    if (mScanThread != null) {
+      mScanThread.quitSafely();
+      mScanThread = null;
+      mScanHandler = null;
     }
   }
 }
@@ -0,0 +1,110 @@
+package expo.modules.barcodescanner.scanners;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * Luminance source reading the Y plane of a camera preview frame in place. Unlike
+ * {@link com.google.zxing.PlanarYUVLuminanceSource} it can also present the frame rotated
+ * by 90 degrees clockwise, so portrait frames don't have to be copied and rotated before decoding.
+ *
+ * {@code left}, {@code top}, {@code width} and {@code height} describe the region to decode,
+ * in the coordinates of the (possibly rotated) frame.
+ */
+final class YUVLuminanceSource extends LuminanceSource {
+  private final byte[] mYuvData;
+  private final int mDataWidth;
+  private final int mDataHeight;
+  private final int mLeft;
+  private final int mTop;
+  private final boolean mRotated;
+  private final byte[] mMatrixBuffer;
+
+  /**
+   * @param matrixBuffer array the luminance matrix is written to if it has to be copied, at least {@code width * height} long.
+   *                     It is reused between frames, so the source mustn't outlive the decoding of a single frame.
+   */
+  YUVLuminanceSource(byte[] yuvData, int dataWidth, int dataHeight, int left, int top, int width, int height,
+                     boolean rotated, byte[] matrixBuffer) {
+    super(width, height);
+
+    int frameWidth = rotated ? dataHeight : dataWidth;
+    int frameHeight = rotated ? dataWidth : dataHeight;
+    if (left + width > frameWidth || top + height > frameHeight) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    if (matrixBuffer.length < width * height) {
+      throw new IllegalArgumentException("Matrix buffer is too small.");
+    }
+
+    mYuvData = yuvData;
+    mDataWidth = dataWidth;
+    mDataHeight = dataHeight;
+    mLeft = left;
+    mTop = top;
+    mRotated = rotated;
+    mMatrixBuffer = matrixBuffer;
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+
+    if (!mRotated) {
+      System.arraycopy(mYuvData, (y + mTop) * mDataWidth + mLeft, row, 0, width);
+      return row;
+    }
+
+    // a row of the rotated frame is a column of the original one, read from the bottom
+    int offset = (mDataHeight - 1 - mLeft) * mDataWidth + y + mTop;
+    for (int x = 0; x < width; x++) {
+      row[x] = mYuvData[offset];
+      offset -= mDataWidth;
+    }
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    int width = getWidth();
+    int height = getHeight();
+
+    if (!mRotated) {
+      // the whole frame can be used as it is, the chroma planes after the Y plane are ignored
+      if (width == mDataWidth && height == mDataHeight) {
+        return mYuvData;
+      }
+      for (int y = 0; y < height; y++) {
+        System.arraycopy(mYuvData, (y + mTop) * mDataWidth + mLeft, mMatrixBuffer, y * width, width);
+      }
+      return mMatrixBuffer;
+    }
+
+    // read the original frame row by row, each of them is a column of the rotated one
+    for (int x = 0; x < width; x++) {
+      int inputOffset = (mDataHeight - 1 - mLeft - x) * mDataWidth + mTop;
+      int outputOffset = x;
+      for (int y = 0; y < height; y++) {
+        mMatrixBuffer[outputOffset] = mYuvData[inputOffset + y];
+        outputOffset += width;
+      }
+    }
+    return mMatrixBuffer;
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    return new YUVLuminanceSource(mYuvData, mDataWidth, mDataHeight, mLeft + left, mTop + top, width, height,
+        mRotated, mMatrixBuffer);
+  }
+}
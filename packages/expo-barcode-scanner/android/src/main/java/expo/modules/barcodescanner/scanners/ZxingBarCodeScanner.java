@@ -10,7 +10,6 @@ import com.google.zxing.DecodeHintType;
 import com.google.zxing.LuminanceSource;
 import com.google.zxing.MultiFormatReader;
 import com.google.zxing.NotFoundException;
-import com.google.zxing.PlanarYUVLuminanceSource;
 import com.google.zxing.RGBLuminanceSource;
 import com.google.zxing.common.HybridBinarizer;
 
@@ -29,13 +28,16 @@ public class ZxingBarCodeScanner extends ExpoBarCodeScanner {
 
   private final MultiFormatReader mMultiFormatReader;
 
+  // Reused between preview frames, as they all have the same size.
+  private byte[] mLuminanceMatrix = new byte[0];
+
   public ZxingBarCodeScanner(Context context) {
     super(context);
     mMultiFormatReader = new MultiFormatReader();
   }
 
   @Override
-  public List<BarCodeScannerResult> scanMultiple(Bitmap bitmap) {
+  public synchronized List<BarCodeScannerResult> scanMultiple(Bitmap bitmap) {
     int[] intArray = new int[bitmap.getWidth()*bitmap.getHeight()];
     bitmap.getPixels(intArray, 0, bitmap.getWidth(), 0, 0,
         bitmap.getWidth(), bitmap.getHeight());
@@ -45,26 +47,10 @@ public class ZxingBarCodeScanner extends ExpoBarCodeScanner {
     return result == null ? Collections.emptyList() : Collections.singletonList(result);
   }
 
-  public BarCodeScannerResult scan(byte[] data, int width, int height, int rotation) {
-    // rotate for zxing if orientation is portrait
-    if (rotation == 0) {
-      byte[] rotated = new byte[data.length];
-      for (int y = 0; y < height; y++) {
-        for (int x = 0; x < width; x++) {
-          int sourceIx = x + y * width;
-          int destIx = x * height + height - y - 1;
-          if (sourceIx >= 0 && sourceIx < data.length && destIx >= 0 && destIx < data.length) {
-            rotated[destIx] = data[sourceIx];
-          }
-        }
-      }
-      width = width + height;
-      height = width - height;
-      width = width - height;
-      data = rotated;
-    }
-
-    return scan(generateSourceFromImageData(data, width, height));
+  public synchronized BarCodeScannerResult scan(byte[] data, int width, int height, int rotation) {
+    // rotate for zxing if orientation is portrait, the luminance source does it while reading the frame
+    boolean rotated = rotation == 0;
+    return scan(generateSourceFromImageData(data, width, height, rotated));
   }
 
   private BarCodeScannerResult scan(LuminanceSource source) {
@@ -93,7 +79,7 @@ public class ZxingBarCodeScanner extends ExpoBarCodeScanner {
   }
 
   @Override
-  public void setSettings(BarCodeScannerSettings settings) {
+  public synchronized void setSettings(BarCodeScannerSettings settings) {
     List<Integer> newBarCodeTypes = parseBarCodeTypesFromSettings(settings);
     if (areNewAndOldBarCodeTypesEqual(newBarCodeTypes)) {
       return;
@@ -120,16 +106,21 @@ public class ZxingBarCodeScanner extends ExpoBarCodeScanner {
     return true;
   }
 
-  private LuminanceSource generateSourceFromImageData(byte[] imageData, int width, int height) {
-    return new PlanarYUVLuminanceSource(
+  private LuminanceSource generateSourceFromImageData(byte[] imageData, int width, int height, boolean rotated) {
+    int size = width * height;
+    if (mLuminanceMatrix.length != size) {
+      mLuminanceMatrix = new byte[size];
+    }
+    return new YUVLuminanceSource(
         imageData, // byte[] yuvData
         width, // int dataWidth
         height, // int dataHeight
         0, // int left
         0, // int top
-        width, // int width
-        height, // int height
-        false // boolean reverseHorizontal
+        rotated ? height : width, // int width
+        rotated ? width : height, // int height
+        rotated, // boolean rotated
+        mLuminanceMatrix // byte[] matrixBuffer
     );
   }
 
@@ -26,8 +26,14 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 
 import expo.modules.interfaces.permissions.Permissions;
@@ -35,6 +41,26 @@ import expo.modules.interfaces.permissions.Permissions;
 public class CalendarModule extends ExportedModule implements RegistryLifecycleListener {
   private static final String TAG = CalendarModule.class.getSimpleName();
 
+  // SQLite doesn't allow more variables in a single statement.
+  private static final int MAX_QUERY_ARGS = 999;
+
+  // SimpleDateFormat isn't thread-safe, so every thread gets its own instance.
+  private static final ThreadLocal<SimpleDateFormat> sDateFormat = new ThreadLocal<SimpleDateFormat>() {
+    @Override
+    protected SimpleDateFormat initialValue() {
+      SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+      sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+      return sdf;
+    }
+  };
+
+  private static final ThreadLocal<SimpleDateFormat> sRecurrenceRuleDateFormat = new ThreadLocal<SimpleDateFormat>() {
+    @Override
+    protected SimpleDateFormat initialValue() {
+      return new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+    }
+  };
+
   private Context mContext;
   private Permissions mPermissionsManager;
 
@@ -114,15 +140,16 @@ public class CalendarModule extends ExportedModule implements RegistryLifecycleL
   }
 
   @ExpoMethod
-  public void getEventsAsync(final Object startDate, final Object endDate, final List<String> calendars, final Promise promise) {
+  public void getEventsAsync(final Object startDate, final Object endDate, final List<String> calendars, final ReadableArguments options, final Promise promise) {
     if (!checkPermissions(promise)) {
       return;
     }
+    final boolean skipAlarms = options.getBoolean("skipAlarms", false);
     try {
       AsyncTask.execute(new Runnable() {
         @Override
         public void run() {
-          List<Bundle> results = findEvents(startDate, endDate, calendars);
+          List<Bundle> results = findEvents(startDate, endDate, calendars, skipAlarms);
           promise.resolve(results);
         }
       });
@@ -290,10 +317,8 @@ public class CalendarModule extends ExportedModule implements RegistryLifecycleL
     return serializeEventCalendars(cursor);
   }
 
-  private List<Bundle> findEvents(Object startDate, Object endDate, List<String> calendars) {
-    String dateFormat = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
-    SimpleDateFormat sdf = new SimpleDateFormat(dateFormat);
-    sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+  private List<Bundle> findEvents(Object startDate, Object endDate, List<String> calendars, boolean skipAlarms) {
+    SimpleDateFormat sdf = sDateFormat.get();
 
     Calendar eStartDate = Calendar.getInstance();
     Calendar eEndDate = Calendar.getInstance();
@@ -365,7 +390,7 @@ public class CalendarModule extends ExportedModule implements RegistryLifecycleL
         CalendarContract.Instances._ID
     }, selection, null, null);
 
-    return serializeEvents(cursor);
+    return serializeEvents(cursor, skipAlarms);
   }
 
   private Bundle findEventById(String eventID) {
@@ -1192,27 +1217,43 @@ public class CalendarModule extends ExportedModule implements RegistryLifecycleL
     return rrule;
   }
 
-  private List<Bundle> serializeEvents(Cursor cursor) {
+  private List<Bundle> serializeEvents(Cursor cursor, boolean skipAlarms) {
     List<Bundle> results = new ArrayList<>();
+    // instances of recurring events share the same event ID
+    Set<Long> eventIDs = new LinkedHashSet<>();
 
     while (cursor.moveToNext()) {
-      results.add(serializeEvent(cursor));
+      results.add(serializeEventWithoutAlarms(cursor));
+      eventIDs.add(cursor.getLong(0));
     }
 
     cursor.close();
 
+    if (skipAlarms) {
+      for (Bundle event : results) {
+        event.putParcelableArrayList("alarms", new ArrayList<Bundle>());
+      }
+    } else {
+      Map<Long, ArrayList<Bundle>> alarms = findAlarmsByEventIds(eventIDs);
+      for (Bundle event : results) {
+        ArrayList<Bundle> eventAlarms = alarms.get(Long.parseLong(event.getString("id")));
+        event.putParcelableArrayList("alarms", eventAlarms != null ? new ArrayList<>(eventAlarms) : new ArrayList<Bundle>());
+      }
+    }
+
     return results;
   }
 
   private Bundle serializeEvent(Cursor cursor) {
-    Bundle event = new Bundle();
+    Bundle event = serializeEventWithoutAlarms(cursor);
+    event.putParcelableArrayList("alarms", serializeAlarms(cursor.getLong(0)));
+    return event;
+  }
 
-    String dateFormat = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
-    SimpleDateFormat sdf = new SimpleDateFormat(dateFormat);
-    sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+  private Bundle serializeEventWithoutAlarms(Cursor cursor) {
+    Bundle event = new Bundle();
 
-    Calendar foundStartDate = Calendar.getInstance();
-    Calendar foundEndDate = Calendar.getInstance();
+    SimpleDateFormat sdf = sDateFormat.get();
 
     String startDateUTC = "";
     String endDateUTC = "";
@@ -1220,22 +1261,20 @@ public class CalendarModule extends ExportedModule implements RegistryLifecycleL
     // may be CalendarContract.Instances.BEGIN or CalendarContract.Events.DTSTART (which have different string values)
     String startDate = cursor.getString(3);
     if (startDate != null) {
-      foundStartDate.setTimeInMillis(Long.parseLong(startDate));
-      startDateUTC = sdf.format(foundStartDate.getTime());
+      startDateUTC = sdf.format(new Date(Long.parseLong(startDate)));
     }
 
     // may be CalendarContract.Instances.END or CalendarContract.Events.DTEND (which have different string values)
     String endDate = cursor.getString(4);
     if (endDate != null) {
-      foundEndDate.setTimeInMillis(Long.parseLong(endDate));
-      endDateUTC = sdf.format(foundEndDate.getTime());
+      endDateUTC = sdf.format(new Date(Long.parseLong(endDate)));
     }
 
     String rrule = optStringFromCursor(cursor, CalendarContract.Events.RRULE);
     if (rrule != null) {
       Bundle recurrenceRule = new Bundle();
       String[] recurrenceRules = rrule.split(";");
-      SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+      SimpleDateFormat format = sRecurrenceRuleDateFormat.get();
 
       recurrenceRule.putString("frequency", recurrenceRules[0].split("=")[1].toLowerCase());
 
@@ -1273,7 +1312,6 @@ public class CalendarModule extends ExportedModule implements RegistryLifecycleL
     event.putBoolean("allDay", optIntFromCursor(cursor, CalendarContract.Events.ALL_DAY) != 0);
     event.putString("location", optStringFromCursor(cursor, CalendarContract.Events.EVENT_LOCATION));
     event.putString("availability", availabilityStringMatchingConstant(optIntFromCursor(cursor, CalendarContract.Events.AVAILABILITY)));
-    event.putParcelableArrayList("alarms", serializeAlarms(cursor.getLong(0)));
     event.putString("organizerEmail", optStringFromCursor(cursor, CalendarContract.Events.ORGANIZER));
     event.putString("timeZone", optStringFromCursor(cursor, CalendarContract.Events.EVENT_TIMEZONE));
     event.putString("endTimeZone", optStringFromCursor(cursor, CalendarContract.Events.EVENT_END_TIMEZONE));
@@ -1308,6 +1346,54 @@ public class CalendarModule extends ExportedModule implements RegistryLifecycleL
       alarms.add(thisAlarm);
     }
 
+    cursor.close();
+
+    return alarms;
+  }
+
+  /**
+   * Loads reminders of all given events with a single query for each chunk of IDs,
+   * instead of querying them separately for every event.
+   */
+  private Map<Long, ArrayList<Bundle>> findAlarmsByEventIds(Collection<Long> eventIDs) {
+    Map<Long, ArrayList<Bundle>> alarms = new HashMap<>();
+    ContentResolver cr = mContext.getContentResolver();
+    List<Long> ids = new ArrayList<>(eventIDs);
+
+    for (int start = 0; start < ids.size(); start += MAX_QUERY_ARGS) {
+      List<Long> chunk = ids.subList(start, Math.min(start + MAX_QUERY_ARGS, ids.size()));
+      String[] selectionArgs = new String[chunk.size()];
+      for (int i = 0; i < selectionArgs.length; i++) {
+        selectionArgs[i] = chunk.get(i).toString();
+      }
+      String selection = CalendarContract.Reminders.EVENT_ID + " IN (" + TextUtils.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+
+      Cursor cursor = cr.query(CalendarContract.Reminders.CONTENT_URI, new String[]{
+          CalendarContract.Reminders.EVENT_ID,
+          CalendarContract.Reminders.MINUTES,
+          CalendarContract.Reminders.METHOD
+      }, selection, selectionArgs, null);
+
+      if (cursor == null) {
+        continue;
+      }
+      while (cursor.moveToNext()) {
+        Bundle thisAlarm = new Bundle();
+        thisAlarm.putInt("relativeOffset", -cursor.getInt(1));
+        int method = cursor.getInt(2);
+        thisAlarm.putString("method", reminderStringMatchingConstant(method));
+
+        long eventID = cursor.getLong(0);
+        ArrayList<Bundle> eventAlarms = alarms.get(eventID);
+        if (eventAlarms == null) {
+          eventAlarms = new ArrayList<>();
+          alarms.put(eventID, eventAlarms);
+        }
+        eventAlarms.add(thisAlarm);
+      }
+      cursor.close();
+    }
+
     return alarms;
   }
 
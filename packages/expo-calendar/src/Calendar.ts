@@ -9,6 +9,10 @@ export type RecurringEventOptions = {
   instanceStartDate?: string | Date;
 }; // iOS
 
+export type EventsQueryOptions = {
+  skipAlarms?: boolean;
+}; // Android
+
 export interface Calendar {
   id: string;
   title: string;
@@ -249,7 +253,8 @@ export async function deleteCalendarAsync(id: string): Promise<void> {
 export async function getEventsAsync(
   calendarIds: string[],
   startDate: Date,
-  endDate: Date
+  endDate: Date,
+  options: EventsQueryOptions = {}
 ): Promise<Event[]> {
   if (!ExpoCalendar.getEventsAsync) {
     throw new UnavailabilityError('Calendar', 'getEventsAsync');
@@ -265,6 +270,14 @@ export async function getEventsAsync(
       'getEventsAsync must be called with a non-empty array of calendarIds to search'
     );
   }
+  if (Platform.OS === 'android') {
+    return ExpoCalendar.getEventsAsync(
+      stringifyIfDate(startDate),
+      stringifyIfDate(endDate),
+      calendarIds,
+      options
+    );
+  }
   return ExpoCalendar.getEventsAsync(
     stringifyIfDate(startDate),
     stringifyIfDate(endDate),
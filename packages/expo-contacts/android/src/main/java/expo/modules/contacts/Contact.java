@@ -175,6 +175,24 @@ public class Contact {
     }
   }
 
+  /**
+   * Reads only the names {@link #getFirstName()} and {@link #getLastName()} depend on, from a cursor
+   * with the contact ID, mimetype, display name, given name and family name columns.
+   */
+  public void namesFromCursor(Cursor cursor) {
+    String mimeType = cursor.getString(cursor.getColumnIndex(Data.MIMETYPE));
+
+    String name = cursor.getString(cursor.getColumnIndex(Contacts.DISPLAY_NAME));
+    if (!TextUtils.isEmpty(name) && TextUtils.isEmpty(this.displayName)) {
+      this.displayName = name;
+    }
+
+    if (mimeType.equals(CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE)) {
+      this.firstName = cursor.getString(cursor.getColumnIndex(CommonDataKinds.StructuredName.GIVEN_NAME));
+      this.lastName = cursor.getString(cursor.getColumnIndex(CommonDataKinds.StructuredName.FAMILY_NAME));
+    }
+  }
+
   public String getFirstName() {
     if (firstName == null) {
       return displayName == null ? "" : displayName;
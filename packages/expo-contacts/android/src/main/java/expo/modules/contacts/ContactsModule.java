@@ -15,6 +15,7 @@ import android.os.Bundle;
 import android.os.Parcelable;
 import android.provider.ContactsContract;
 import android.provider.ContactsContract.CommonDataKinds;
+import android.text.TextUtils;
 
 import org.unimodules.core.ExportedModule;
 import org.unimodules.core.ModuleRegistry;
@@ -30,6 +31,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -66,6 +68,18 @@ public class ContactsModule extends ExportedModule {
 
   private static final String TAG = ContactsModule.class.getSimpleName();
 
+  // SQLite doesn't allow more variables in a single statement.
+  private static final int MAX_QUERY_ARGS = 999;
+
+  // Columns read by `Contact.namesFromCursor`, enough to sort contacts before loading them
+  private static final String[] SORT_PROJECTION = {
+    ContactsContract.Data.CONTACT_ID,
+    ContactsContract.Data.MIMETYPE,
+    ContactsContract.Data.DISPLAY_NAME,
+    CommonDataKinds.StructuredName.GIVEN_NAME,
+    CommonDataKinds.StructuredName.FAMILY_NAME
+  };
+
   // TODO: Evan: default API is confusing. Duplicate data being requested.
   private static final List<String> DEFAULT_PROJECTION = new ArrayList<String>() {
     {
@@ -552,8 +566,9 @@ public class ContactsModule extends ExportedModule {
       pageSize = ((Number) options.get("pageSize")).intValue();
     }
 
-    HashMap<String, Object> contactsData = fetchContacts(pageOffset, pageSize, null, null, keysToFetch, sortOrder,
-      promise);
+    HashMap<String, Object> contactsData = pageSize > 0
+      ? fetchContactsPage(pageOffset, pageSize, keysToFetch, sortOrder, promise)
+      : fetchContacts(pageOffset, pageSize, null, null, keysToFetch, sortOrder, promise);
 
     if (contactsData != null) {
       ArrayList<Contact> contacts = (ArrayList<Contact>) contactsData.get("data");
@@ -677,6 +692,9 @@ public class ContactsModule extends ExportedModule {
     if (keysToFetch.contains("nameSuffix"))
       projection.add(CommonDataKinds.StructuredName.SUFFIX);
 
+    // many of the columns above share the same name, e.g. all the `data1` ones
+    projection = new ArrayList<>(new LinkedHashSet<>(projection));
+
     HashMap map = new HashMap();
     map.put("projection", projection);
     map.put("selection", selection);
@@ -684,8 +702,8 @@ public class ContactsModule extends ExportedModule {
     return map;
   }
 
-  private HashMap<String, Object> fetchContacts(int pageOffset, int pageSize, String[] queryStrings, String queryField,
-                                                final Set<String> keysToFetch, String sortOrder, Promise promise) {
+  /* package */ HashMap<String, Object> fetchContacts(int pageOffset, int pageSize, String[] queryStrings, String queryField,
+                                                      final Set<String> keysToFetch, String sortOrder, Promise promise) {
     boolean getAll = pageSize == 0;
     queryField = queryField != null ? queryField : ContactsContract.Data.CONTACT_ID;
 
@@ -729,7 +747,7 @@ public class ContactsModule extends ExportedModule {
         // introduce paging at this level to ensure all data elements
         // are appropriately mapped to contacts from cursor
         // NOTE: paging performance improvement is minimized as cursor iterations will
-        // always fully run
+        // always fully run, that's why pages of all contacts are fetched by `fetchContactsPage`
         int currentIndex;
         ArrayList<Contact> contactList = new ArrayList<>(contacts.values());
         contactList = sortContactsBy(contactList, sortOrder);
@@ -761,6 +779,102 @@ public class ContactsModule extends ExportedModule {
     return null;
   }
 
+  /**
+   * Fetches a single page of all contacts in two steps. First only the columns needed to sort contacts are read
+   * from the same `Data` rows as {@link #fetchContacts} reads, so that the page and the total match what
+   * an unpaged request returns. Then all requested `Data` rows are loaded only for the contacts on the page.
+   */
+  /* package */ HashMap<String, Object> fetchContactsPage(int pageOffset, int pageSize, final Set<String> keysToFetch,
+                                                          String sortOrder, Promise promise) {
+    ContentResolver cr = getResolver();
+    HashMap queryMap = createProjectionForQuery(keysToFetch);
+    List<String> projection = (List<String>) queryMap.get("projection");
+    String selection = (String) queryMap.get("selection");
+    ArrayList<String> selectionArgs = (ArrayList<String>) queryMap.get("selectionArgs");
+
+    Map<String, Contact> sortableContacts = new LinkedHashMap<>();
+    Cursor namesCursor = cr.query(
+      ContactsContract.Data.CONTENT_URI,
+      SORT_PROJECTION,
+      selection,
+      selectionArgs.toArray(new String[selectionArgs.size()]),
+      null);
+
+    if (namesCursor == null) {
+      return null;
+    }
+    try {
+      int contactIdIndex = namesCursor.getColumnIndex(ContactsContract.Data.CONTACT_ID);
+      while (namesCursor.moveToNext()) {
+        String contactId = namesCursor.getString(contactIdIndex);
+        Contact contact = sortableContacts.get(contactId);
+        if (contact == null) {
+          contact = new Contact(contactId);
+          sortableContacts.put(contactId, contact);
+        }
+        contact.namesFromCursor(namesCursor);
+      }
+    } catch (Exception e) {
+      promise.reject(e);
+      return null;
+    } finally {
+      namesCursor.close();
+    }
+
+    ArrayList<Contact> sortedContacts = sortContactsBy(new ArrayList<>(sortableContacts.values()), sortOrder);
+    int total = sortedContacts.size();
+    List<String> contactIds = new ArrayList<>();
+    for (int i = pageOffset; i < total && i < pageOffset + pageSize; i++) {
+      contactIds.add(sortedContacts.get(i).contactId);
+    }
+
+    Map<String, Contact> contacts = new HashMap<>();
+    int maxIdsPerQuery = MAX_QUERY_ARGS - selectionArgs.size();
+
+    for (int start = 0; start < contactIds.size(); start += maxIdsPerQuery) {
+      List<String> chunk = contactIds.subList(start, Math.min(start + maxIdsPerQuery, contactIds.size()));
+      ArrayList<String> cursorSelectionArgs = new ArrayList<>(selectionArgs);
+      cursorSelectionArgs.addAll(chunk);
+      String cursorSelection = "(" + selection + ") AND " + ContactsContract.Data.CONTACT_ID + " IN ("
+        + TextUtils.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+
+      Cursor cursor = cr.query(
+        ContactsContract.Data.CONTENT_URI,
+        projection.toArray(new String[projection.size()]),
+        cursorSelection,
+        cursorSelectionArgs.toArray(new String[cursorSelectionArgs.size()]),
+        null);
+
+      if (cursor == null) {
+        return null;
+      }
+      try {
+        contacts.putAll(loadContactsFrom(cursor));
+      } catch (Exception e) {
+        promise.reject(e);
+        return null;
+      } finally {
+        cursor.close();
+      }
+    }
+
+    // keep the order of the sorted IDs
+    ArrayList<Contact> contactsArray = new ArrayList<>();
+    for (String contactId : contactIds) {
+      Contact contact = contacts.get(contactId);
+      if (contact != null) {
+        contactsArray.add(contact);
+      }
+    }
+
+    HashMap<String, Object> response = new HashMap<String, Object>();
+    response.put("data", contactsArray);
+    response.put("hasPreviousPage", pageOffset > 0);
+    response.put("hasNextPage", pageOffset + pageSize < total);
+    response.put("total", total);
+    return response;
+  }
+
   private ArrayList<Contact> sortContactsBy(ArrayList<Contact> input, String sortOrder) {
     if (sortOrder == null)
       return input;
@@ -0,0 +1,147 @@
+package expo.modules.contacts
+
+import android.content.ContentResolver
+import android.content.Context
+import android.database.Cursor
+import android.database.MatrixCursor
+import android.provider.ContactsContract.CommonDataKinds.GroupMembership
+import android.provider.ContactsContract.CommonDataKinds.Organization
+import android.provider.ContactsContract.CommonDataKinds.StructuredName
+import android.provider.ContactsContract.Data
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.unimodules.test.core.PromiseMock
+import kotlin.random.Random
+
+@RunWith(RobolectricTestRunner::class)
+internal class FetchContactsPageTest {
+  private val keysToFetch = setOf("id", "name", "firstName", "lastName", "company", "jobTitle")
+
+  @Test
+  fun `pages should match the unpaged contacts`() {
+    val module = ContactsModule(mockContext(syntheticRows(200)))
+
+    for (sortOrder in listOf("firstName", "lastName", null)) {
+      val unpaged = module.fetchContacts(0, 0, null, null, keysToFetch, sortOrder, PromiseMock())
+      val pagedIds = ArrayList<String>()
+      var pageOffset = 0
+      do {
+        val page = module.fetchContactsPage(pageOffset, 7, keysToFetch, sortOrder, PromiseMock())
+        assertEquals(unpaged["total"], page["total"])
+        pagedIds.addAll(page.contactIds())
+        pageOffset += 7
+      } while (page["hasNextPage"] as Boolean)
+
+      assertEquals("sorted by $sortOrder", unpaged.contactIds(), pagedIds)
+    }
+  }
+
+  @Test
+  fun `total should count only contacts with requested data`() {
+    val module = ContactsModule(mockContext(syntheticRows(200)))
+
+    val page = module.fetchContactsPage(170, 50, keysToFetch, "firstName", PromiseMock())
+
+    // every tenth contact has only a group membership, which isn't requested
+    assertEquals(180, page["total"])
+    assertEquals(10, page.contactIds().size)
+    assertFalse(page["hasNextPage"] as Boolean)
+  }
+
+  @Test
+  fun `benchmark fetching the first page`() {
+    val module = ContactsModule(mockContext(syntheticRows(5000)))
+    val iterations = 10
+
+    var pageTime = 0L
+    var unpagedTime = 0L
+    // the first round is a warm-up
+    repeat(2) {
+      pageTime = measure(iterations) {
+        module.fetchContactsPage(0, 50, keysToFetch, "lastName", PromiseMock())
+      }
+      unpagedTime = measure(iterations) {
+        module.fetchContacts(0, 50, null, null, keysToFetch, "lastName", PromiseMock())
+      }
+    }
+
+    println("First page of 5000 contacts: ${pageTime / iterations / 1000} us with fetchContactsPage, " +
+      "${unpagedTime / iterations / 1000} us with fetchContacts")
+  }
+
+  private fun measure(iterations: Int, block: () -> Unit): Long {
+    val start = System.nanoTime()
+    repeat(iterations) { block() }
+    return System.nanoTime() - start
+  }
+
+  @Suppress("UNCHECKED_CAST")
+  private fun Map<String, Any>.contactIds() = (this["data"] as List<Contact>).map { it.contactId }
+
+  /**
+   * Contacts with repeating names, so that sorting has to keep the order of equal ones, and with a missing given name
+   * for some of them. Rows of contacts are interleaved like the provider returns them.
+   */
+  private fun syntheticRows(count: Int): List<Map<String, Any?>> {
+    val firstNames = listOf("Ann", "bob", "Carl", "dana", "Eve")
+    val lastNames = listOf("Smith", "jones", "Brown", "taylor", "Wilson", "Davies", "evans")
+    val rows = ArrayList<Map<String, Any?>>()
+    for (i in 1..count) {
+      val id = i.toString()
+      val givenName = if (i % 13 == 0) null else firstNames[i % firstNames.size]
+      val familyName = lastNames[(i * 3) % lastNames.size]
+      val displayName = "${givenName ?: ""} $familyName".trim()
+      if (i % 10 == 0) {
+        rows.add(row(id, displayName, GroupMembership.CONTENT_ITEM_TYPE))
+        continue
+      }
+      rows.add(row(id, displayName, StructuredName.CONTENT_ITEM_TYPE,
+        StructuredName.GIVEN_NAME to givenName, StructuredName.FAMILY_NAME to familyName))
+      if (i % 2 == 0) {
+        rows.add(row(id, displayName, Organization.CONTENT_ITEM_TYPE,
+          Organization.COMPANY to "Company $i", Organization.TITLE to "Title $i"))
+      }
+    }
+    rows.shuffle(Random(42))
+    return rows
+  }
+
+  private fun row(contactId: String, displayName: String, mimeType: String, vararg values: Pair<String, Any?>) =
+    mapOf(
+      Data.CONTACT_ID to contactId,
+      Data.RAW_CONTACT_ID to contactId,
+      Data.MIMETYPE to mimeType,
+      Data.DISPLAY_NAME to displayName,
+      *values
+    )
+
+  private fun mockContext(rows: List<Map<String, Any?>>): Context {
+    val contentResolver = mockk<ContentResolver>()
+    every { contentResolver.query(Data.CONTENT_URI, any(), any(), any(), any()) } answers {
+      query(rows, arg<Array<String>>(1), arg<Array<String>?>(3))
+    }
+    val context = mockk<Context>()
+    every { context.contentResolver } returns contentResolver
+    return context
+  }
+
+  /**
+   * Understands the selections built by [ContactsModule]: data rows of the mimetypes given as arguments,
+   * optionally only of the contacts whose IDs are the remaining arguments.
+   */
+  private fun query(rows: List<Map<String, Any?>>, projection: Array<String>, selectionArgs: Array<String>?): Cursor {
+    val mimeTypes = selectionArgs.orEmpty().filter { it.startsWith("vnd.android.cursor.item/") }.toSet()
+    val contactIds = selectionArgs.orEmpty().filterNot { it in mimeTypes }.toSet()
+    val cursor = MatrixCursor(projection)
+    rows
+      .filter { (it[Data.MIMETYPE] as String) in mimeTypes }
+      .filter { contactIds.isEmpty() || (it[Data.CONTACT_ID] as String) in contactIds }
+      .forEach { row -> cursor.addRow(projection.map { row[it] }) }
+    return cursor
+  }
+}
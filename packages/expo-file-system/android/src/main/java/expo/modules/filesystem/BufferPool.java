@@ -0,0 +1,32 @@
+package expo.modules.filesystem;
+
+import java.util.ArrayDeque;
+
+/**
+ * A small pool of I/O buffers shared by downloads, so that concurrent transfers don't each
+ * allocate (and leave for the garbage collector) a new buffer.
+ */
+/* package */ class BufferPool {
+  /* package */ static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_POOLED_BUFFERS = 8;
+
+  private static final ArrayDeque<byte[]> sBuffers = new ArrayDeque<>();
+
+  /* package */ static byte[] acquire() {
+    synchronized (sBuffers) {
+      byte[] buffer = sBuffers.poll();
+      if (buffer != null) {
+        return buffer;
+      }
+    }
+    return new byte[BUFFER_SIZE];
+  }
+
+  /* package */ static void release(byte[] buffer) {
+    synchronized (sBuffers) {
+      if (sBuffers.size() < MAX_POOLED_BUFFERS) {
+        sBuffers.push(buffer);
+      }
+    }
+  }
+}
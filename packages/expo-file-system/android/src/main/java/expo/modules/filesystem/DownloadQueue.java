@@ -0,0 +1,462 @@
+package expo.modules.filesystem;
+
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.os.Bundle;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import androidx.annotation.Nullable;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Downloads files with a bounded number of concurrent requests. Pending downloads are started
+ * in order of priority (higher first), then in order they were enqueued.
+ *
+ * Every download that hasn't finished yet is persisted, so a queue can be restored after the app
+ * is restarted. Downloads that were already started are then resumed with a Range request, guarded
+ * by If-Range so that a file which has changed on the server in the meantime is downloaded again.
+ *
+ * Progress of the whole queue is reported through a {@link ProgressReporter} transfer of type
+ * {@link ProgressReporter#TYPE_DOWNLOAD_QUEUE}. The listener is never called with the queue
+ * locked, so it may call back into the queue.
+ */
+/* package */ class DownloadQueue {
+  private static final String TAG = DownloadQueue.class.getSimpleName();
+  /* package */ static final int DEFAULT_MAX_CONCURRENT_DOWNLOADS = 4;
+
+  interface Listener {
+    void onDownloadFinished(DownloadQueue queue, Download download, @Nullable Bundle result, @Nullable Exception error);
+  }
+
+  /* package */ static class Item {
+    final String id;
+    final String url;
+    final File file;
+    final int priority;
+    final Map<String, String> headers;
+
+    Item(String id, String url, File file, int priority, Map<String, String> headers) {
+      this.id = id;
+      this.url = url;
+      this.file = file;
+      this.priority = priority;
+      this.headers = headers;
+    }
+  }
+
+  /* package */ static class Download {
+    final String id;
+    final String url;
+    final File file;
+    final int priority;
+    final Map<String, String> headers;
+    final long sequence;
+    boolean started;
+    // ETag or Last-Modified of the response being written, needed to resume it safely
+    @Nullable String validator;
+    long bytesWritten;
+    long bytesExpected = -1;
+    Call call;
+    // incremented whenever the download is (re)started, paused or cancelled, guarded by both
+    // the queue and the download itself; a writer stops once it no longer matches its own
+    int generation;
+
+    Download(String id, String url, File file, int priority, Map<String, String> headers, long sequence) {
+      this.id = id;
+      this.url = url;
+      this.file = file;
+      this.priority = priority;
+      this.headers = headers;
+      this.sequence = sequence;
+    }
+  }
+
+  private final String mId;
+  private final OkHttpClient mClient;
+  private final SharedPreferences mPreferences;
+  private final ProgressReporter.Transfer mProgress;
+  private final Listener mListener;
+
+  private final PriorityQueue<Download> mPending = new PriorityQueue<>(11, new Comparator<Download>() {
+    @Override
+    public int compare(Download a, Download b) {
+      if (a.priority != b.priority) {
+        return a.priority > b.priority ? -1 : 1;
+      }
+      return Long.compare(a.sequence, b.sequence);
+    }
+  });
+  private final Map<String, Download> mRunning = new HashMap<>();
+  private int mMaxConcurrentDownloads = DEFAULT_MAX_CONCURRENT_DOWNLOADS;
+  private boolean mPaused = false;
+  private long mNextSequence = 0;
+
+  private int mCompletedCount = 0;
+  private int mTotalCount = 0;
+  private long mFinishedBytes = 0;
+
+  /* package */ DownloadQueue(String id, OkHttpClient client, SharedPreferences preferences, ProgressReporter.Transfer progress, Listener listener) {
+    mId = id;
+    mClient = client;
+    mPreferences = preferences;
+    mProgress = progress;
+    mListener = listener;
+  }
+
+  /* package */ String getId() {
+    return mId;
+  }
+
+  /* package */ synchronized void setMaxConcurrentDownloads(int maxConcurrentDownloads) {
+    mMaxConcurrentDownloads = Math.max(1, maxConcurrentDownloads);
+    startPendingDownloads();
+  }
+
+  /**
+   * Adds all items or none of them. Ids have to be unique within the queue, including downloads
+   * which haven't finished yet.
+   */
+  /* package */ synchronized void enqueue(List<Item> items) {
+    Set<String> ids = getUnfinishedIds();
+    for (Item item : items) {
+      if (!ids.add(item.id)) {
+        throw new IllegalArgumentException("Download with id '" + item.id + "' is already in queue '" + mId + "'.");
+      }
+    }
+
+    for (Item item : items) {
+      mPending.add(new Download(item.id, item.url, item.file, item.priority, item.headers, mNextSequence++));
+      mTotalCount++;
+    }
+    // started downloads are persisted with the rest of the queue
+    if (!startPendingDownloads()) {
+      persist();
+    }
+    reportProgress();
+  }
+
+  /**
+   * Stops running downloads and moves them back to the pending ones, keeping what they have
+   * written so far so that they can continue where they left off.
+   */
+  /* package */ synchronized void pause() {
+    mPaused = true;
+    for (Download download : mRunning.values()) {
+      stopWriting(download);
+      mPending.add(download);
+    }
+    mRunning.clear();
+    persist();
+  }
+
+  /* package */ synchronized void resume() {
+    mPaused = false;
+    startPendingDownloads();
+  }
+
+  /* package */ synchronized void cancel() {
+    mPaused = true;
+    for (Download download : mRunning.values()) {
+      stopWriting(download);
+    }
+    mRunning.clear();
+    mPending.clear();
+    mPreferences.edit().remove(mId).apply();
+    mProgress.unregister();
+  }
+
+  /* package */ synchronized int getPendingCount() {
+    return mPending.size() + mRunning.size();
+  }
+
+  /**
+   * Must be called with the queue locked, so that updates are reported in order. The reporter
+   * never calls back into the queue.
+   */
+  private void reportProgress() {
+    long totalBytesWritten = mFinishedBytes;
+    long totalBytesExpectedToWrite = mFinishedBytes;
+    for (Download download : mRunning.values()) {
+      totalBytesWritten += download.bytesWritten;
+      totalBytesExpectedToWrite += Math.max(download.bytesExpected, download.bytesWritten);
+    }
+    mProgress.update(totalBytesWritten, totalBytesExpectedToWrite, mCompletedCount, mTotalCount);
+  }
+
+  /**
+   * Adds downloads persisted by a previous instance of this queue, e. g. before the app was restarted.
+   * They are started along with the other pending downloads.
+   */
+  /* package */ synchronized void restore() {
+    String json = mPreferences.getString(mId, null);
+    if (json == null) {
+      return;
+    }
+    try {
+      JSONArray downloads = new JSONArray(json);
+      Set<String> ids = getUnfinishedIds();
+      for (int i = 0; i < downloads.length(); i++) {
+        JSONObject downloadJson = downloads.getJSONObject(i);
+        String id = downloadJson.getString("id");
+        if (!ids.add(id)) {
+          continue;
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        JSONObject headersJson = downloadJson.optJSONObject("headers");
+        if (headersJson != null) {
+          Iterator<String> keys = headersJson.keys();
+          while (keys.hasNext()) {
+            String key = keys.next();
+            headers.put(key, headersJson.getString(key));
+          }
+        }
+
+        Download download = new Download(id, downloadJson.getString("url"), new File(downloadJson.getString("path")),
+          downloadJson.optInt("priority", 0), headers, mNextSequence++);
+        download.started = downloadJson.optBoolean("started", false);
+        download.validator = downloadJson.has("validator") ? downloadJson.getString("validator") : null;
+        mPending.add(download);
+        mTotalCount++;
+      }
+      reportProgress();
+    } catch (JSONException e) {
+      Log.e(TAG, "Failed to restore download queue " + mId, e);
+      mPreferences.edit().remove(mId).apply();
+    }
+  }
+
+  private Set<String> getUnfinishedIds() {
+    Set<String> ids = new HashSet<>(mRunning.keySet());
+    for (Download download : mPending) {
+      ids.add(download.id);
+    }
+    return ids;
+  }
+
+  /**
+   * Returns whether any download has been started, in which case the queue has been persisted.
+   */
+  private boolean startPendingDownloads() {
+    boolean started = false;
+    while (!mPaused && mRunning.size() < mMaxConcurrentDownloads && !mPending.isEmpty()) {
+      startDownload(mPending.poll());
+      started = true;
+    }
+    if (started) {
+      persist();
+    }
+    return started;
+  }
+
+  private void startDownload(final Download download) {
+    final int generation;
+    final long existingBytes;
+    synchronized (download) {
+      // a writer of a previous attempt may still be running, as cancelling its call doesn't wait
+      // for it; it can't write anything after this, so the length of the file is final
+      generation = ++download.generation;
+      // a partial file is only resumed if this queue has started writing it and the server can
+      // tell whether it has changed since
+      existingBytes = download.started && download.validator != null && download.file.exists() ? download.file.length() : 0;
+    }
+    download.started = true;
+
+    Request.Builder requestBuilder = new Request.Builder().url(download.url);
+    for (Map.Entry<String, String> header : download.headers.entrySet()) {
+      requestBuilder.addHeader(header.getKey(), header.getValue());
+    }
+    if (existingBytes > 0) {
+      requestBuilder.header("Range", "bytes=" + existingBytes + "-");
+      requestBuilder.header("If-Range", download.validator);
+    }
+
+    final Call call = mClient.newCall(requestBuilder.build());
+    download.call = call;
+    mRunning.put(download.id, download);
+
+    call.enqueue(new Callback() {
+      @Override
+      public void onFailure(Call call, IOException e) {
+        if (!call.isCanceled()) {
+          finishDownload(download, generation, null, e);
+        }
+      }
+
+      @Override
+      public void onResponse(Call call, Response response) {
+        try {
+          Bundle result = writeResponse(download, generation, response, existingBytes);
+          finishDownload(download, generation, result, null);
+        } catch (IOException e) {
+          if (!call.isCanceled()) {
+            finishDownload(download, generation, null, e);
+          }
+        }
+      }
+    });
+  }
+
+  private Bundle writeResponse(Download download, int generation, Response response, long existingBytes) throws IOException {
+    try (ResponseBody body = response.body()) {
+      if (existingBytes > 0 && response.code() == 416) {
+        // the file had been fully written before the download was paused
+        synchronized (this) {
+          if (download.generation == generation) {
+            download.bytesWritten = existingBytes;
+          }
+        }
+        Bundle result = new Bundle();
+        result.putString("uri", Uri.fromFile(download.file).toString());
+        result.putInt("status", response.code());
+        return result;
+      }
+      if (!response.isSuccessful()) {
+        throw new IOException("Download of " + download.url + " failed with status " + response.code());
+      }
+
+      // the server sends the whole file again if it has changed or if it ignores the Range header
+      boolean append = existingBytes > 0 && response.code() == 206;
+      long contentLength = body.contentLength();
+      String validator = getValidator(response);
+      synchronized (this) {
+        ensureCurrent(download, generation);
+        download.bytesWritten = append ? existingBytes : 0;
+        download.bytesExpected = contentLength >= 0 ? download.bytesWritten + contentLength : -1;
+        if (validator != null || !append) {
+          download.validator = validator;
+          persist();
+        }
+      }
+
+      byte[] buffer = BufferPool.acquire();
+      try (InputStream input = body.byteStream(); OutputStream output = openOutput(download, generation, append)) {
+        int count;
+        while ((count = input.read(buffer)) != -1) {
+          synchronized (download) {
+            ensureCurrent(download, generation);
+            output.write(buffer, 0, count);
+          }
+          synchronized (this) {
+            ensureCurrent(download, generation);
+            download.bytesWritten += count;
+            reportProgress();
+          }
+        }
+      } finally {
+        BufferPool.release(buffer);
+      }
+
+      Bundle result = new Bundle();
+      result.putString("uri", Uri.fromFile(download.file).toString());
+      result.putInt("status", response.code());
+      return result;
+    }
+  }
+
+  private void finishDownload(Download download, int generation, @Nullable Bundle result, @Nullable Exception error) {
+    synchronized (this) {
+      if (mRunning.get(download.id) != download || download.generation != generation) {
+        // download has been paused or cancelled in the meantime
+        return;
+      }
+      mRunning.remove(download.id);
+      mCompletedCount++;
+      mFinishedBytes += download.bytesWritten;
+      if (!startPendingDownloads()) {
+        persist();
+      }
+      reportProgress();
+    }
+
+    mListener.onDownloadFinished(this, download, result, error);
+  }
+
+  /**
+   * Must be called with the queue locked. Waits for a write in progress, so nothing is written
+   * to the file by the current attempt afterwards.
+   */
+  private static void stopWriting(Download download) {
+    synchronized (download) {
+      download.generation++;
+    }
+    download.call.cancel();
+  }
+
+  private static OutputStream openOutput(Download download, int generation, boolean append) throws IOException {
+    synchronized (download) {
+      // opening the file without appending truncates it
+      ensureCurrent(download, generation);
+      return new FileOutputStream(download.file, append);
+    }
+  }
+
+  private static void ensureCurrent(Download download, int generation) throws IOException {
+    if (download.generation != generation) {
+      throw new IOException("Download of " + download.url + " has been paused or cancelled.");
+    }
+  }
+
+  @Nullable
+  private static String getValidator(Response response) {
+    String etag = response.header("ETag");
+    // weak entity tags can't be used with If-Range
+    if (etag != null && !etag.startsWith("W/")) {
+      return etag;
+    }
+    return response.header("Last-Modified");
+  }
+
+  private void persist() {
+    List<Download> downloads = new ArrayList<>(mRunning.values());
+    downloads.addAll(mPending);
+    if (downloads.isEmpty()) {
+      mPreferences.edit().remove(mId).apply();
+      return;
+    }
+
+    try {
+      JSONArray downloadsJson = new JSONArray();
+      for (Download download : downloads) {
+        JSONObject downloadJson = new JSONObject();
+        downloadJson.put("id", download.id);
+        downloadJson.put("url", download.url);
+        downloadJson.put("path", download.file.getAbsolutePath());
+        downloadJson.put("priority", download.priority);
+        downloadJson.put("started", download.started);
+        if (download.validator != null) {
+          downloadJson.put("validator", download.validator);
+        }
+        downloadJson.put("headers", new JSONObject(download.headers));
+        downloadsJson.put(downloadJson);
+      }
+      mPreferences.edit().putString(mId, downloadsJson.toString()).apply();
+    } catch (JSONException e) {
+      Log.e(TAG, "Failed to persist download queue " + mId, e);
+    }
+  }
+}
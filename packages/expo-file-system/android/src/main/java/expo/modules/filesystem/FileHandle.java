@@ -0,0 +1,84 @@
+package expo.modules.filesystem;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An open file that JS reads and writes in chunks through
+ * {@link FileSystemModule#readChunkAsync} and {@link FileSystemModule#writeChunkAsync}.
+ * All reads and writes are positional, so a handle can be used for random access
+ * and only ever holds one chunk in memory.
+ */
+/* package */ class FileHandle implements Closeable {
+  // chunks are Base64-encoded to cross the bridge, so there is no point in reading more at once
+  /* package */ static final int MAX_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  private final RandomAccessFile mFile;
+  private final FileChannel mChannel;
+  private final boolean mWritable;
+  private ByteBuffer mBuffer;
+
+  /* package */ FileHandle(File file, boolean writable) throws IOException {
+    mFile = new RandomAccessFile(file, writable ? "rw" : "r");
+    mChannel = mFile.getChannel();
+    mWritable = writable;
+  }
+
+  /* package */ boolean isWritable() {
+    return mWritable;
+  }
+
+  /* package */ long size() throws IOException {
+    return mChannel.size();
+  }
+
+  /**
+   * Reads up to `length` bytes starting at `position`. The returned buffer is flipped, backed by
+   * an array and reused by the next read on this handle.
+   */
+  /* package */ synchronized ByteBuffer read(long position, int length) throws IOException {
+    ByteBuffer buffer = obtainBuffer(Math.min(length, MAX_CHUNK_SIZE));
+    long filePosition = position;
+    while (buffer.hasRemaining()) {
+      int bytesRead = mChannel.read(buffer, filePosition);
+      if (bytesRead < 0) {
+        break;
+      }
+      filePosition += bytesRead;
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Writes `bytes` at `position`, or at the end of the file if `position` is negative.
+   * Returns the position right after the written bytes.
+   */
+  /* package */ synchronized long write(byte[] bytes, long position) throws IOException {
+    long filePosition = position < 0 ? mChannel.size() : position;
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      filePosition += mChannel.write(buffer, filePosition);
+    }
+    return filePosition;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    mBuffer = null;
+    mFile.close();
+  }
+
+  private ByteBuffer obtainBuffer(int capacity) {
+    if (mBuffer == null || mBuffer.capacity() < capacity) {
+      mBuffer = ByteBuffer.allocate(capacity);
+    }
+    mBuffer.clear();
+    mBuffer.limit(capacity);
+    return mBuffer;
+  }
+}
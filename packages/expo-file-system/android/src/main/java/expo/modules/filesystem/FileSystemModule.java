@@ -4,6 +4,7 @@ import android.app.Activity;
 import android.app.Application;
 import android.content.Context;
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.content.res.Resources;
 import android.net.Uri;
 import android.os.AsyncTask;
@@ -14,6 +15,8 @@ import android.os.StatFs;
 import android.provider.DocumentsContract;
 import android.util.Base64;
 import android.util.Log;
+import android.util.LruCache;
+import android.util.SparseArray;
 
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -28,7 +31,6 @@ import org.unimodules.core.interfaces.ExpoMethod;
 import org.unimodules.core.interfaces.services.EventEmitter;
 import org.unimodules.core.interfaces.services.UIManager;
 
-import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -38,14 +40,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
 import java.math.BigInteger;
 import java.net.CookieHandler;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.TimeUnit;
 
 import androidx.documentfile.provider.DocumentFile;
@@ -67,6 +74,7 @@ import okhttp3.ResponseBody;
 import okio.Buffer;
 import okio.BufferedSink;
 import okio.BufferedSource;
+import okio.ForwardingSink;
 import okio.ForwardingSource;
 import okio.Okio;
 import okio.Source;
@@ -75,15 +83,26 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
   private static final String NAME = "ExponentFileSystem";
   private static final String TAG = FileSystemModule.class.getSimpleName();
   private static final String EXDownloadProgressEventName = "expo-file-system.downloadProgress";
-  private static final long MIN_EVENT_DT_MS = 100;
+  private static final String EXDownloadQueueProgressEventName = "expo-file-system.downloadQueueProgress";
+  private static final String EXDownloadQueueDownloadFinishedEventName = "expo-file-system.downloadQueueDownloadFinished";
+  private static final String DOWNLOAD_QUEUE_PREFERENCES_NAME = "expo.modules.filesystem.DownloadQueue";
+  private static final String EXUploadProgressEventName = "expo-file-system.uploadProgress";
   private static final String HEADER_KEY = "headers";
   private static final int DIR_PERMISSIONS_REQUEST_CODE = 5394;
+  private static final int DIGEST_CACHE_SIZE = 256;
+  private static final LruCache<String, DigestCacheEntry> DIGEST_CACHE = new LruCache<>(DIGEST_CACHE_SIZE);
+
+  private static ForkJoinPool sDirectorySizePool;
 
   private ModuleRegistry mModuleRegistry;
+  private ProgressReporter mProgressReporter;
   private OkHttpClient mClient;
   private Promise mDirPermissionsRequest;
 
   private final Map<String, DownloadResumable> mDownloadResumableMap = new HashMap<>();
+  private final Map<String, DownloadQueue> mDownloadQueues = new HashMap<>();
+  private final SparseArray<FileHandle> mFileHandles = new SparseArray<>();
+  private int mNextFileHandle = 0;
 
   private enum UploadType {
     INVALID(-1),
@@ -120,6 +139,21 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
   @Override
   public void onCreate(ModuleRegistry moduleRegistry) {
     mModuleRegistry = moduleRegistry;
+    mProgressReporter = new ProgressReporter(moduleRegistry);
+  }
+
+  @Override
+  public void onDestroy() {
+    synchronized (mFileHandles) {
+      for (int i = 0; i < mFileHandles.size(); i++) {
+        try {
+          mFileHandles.valueAt(i).close();
+        } catch (IOException e) {
+          Log.e(TAG, "Failed to close file handle", e);
+        }
+      }
+      mFileHandles.clear();
+    }
   }
 
   @Override
@@ -306,17 +340,21 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
       }
       String contents;
       if (encoding.equalsIgnoreCase("base64")) {
-        try (InputStream inputStream = getInputStream(uri)) {
-          if (options.containsKey("length") && options.containsKey("position")) {
-            int length = ((Number) options.get("length")).intValue();
-            int position = ((Number) options.get("position")).intValue();
-            byte[] buffer = new byte[length];
-            inputStream.skip(position);
-            int bytesRead = inputStream.read(buffer, 0, length);
-            contents = Base64.encodeToString(buffer, 0, bytesRead, Base64.NO_WRAP);
-          } else {
-            byte[] inputData = getInputStreamBytes(inputStream);
-            contents = Base64.encodeToString(inputData, Base64.NO_WRAP);
+        if ("file".equals(uri.getScheme())) {
+          contents = readFileAsBase64(uriToFile(uri), options);
+        } else {
+          try (InputStream inputStream = getInputStream(uri)) {
+            if (options.containsKey("length") && options.containsKey("position")) {
+              int length = ((Number) options.get("length")).intValue();
+              int position = ((Number) options.get("position")).intValue();
+              byte[] buffer = new byte[length];
+              inputStream.skip(position);
+              int bytesRead = inputStream.read(buffer, 0, length);
+              contents = Base64.encodeToString(buffer, 0, bytesRead, Base64.NO_WRAP);
+            } else {
+              byte[] inputData = getInputStreamBytes(inputStream);
+              contents = Base64.encodeToString(inputData, Base64.NO_WRAP);
+            }
           }
         }
       } else {
@@ -368,6 +406,89 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     }
   }
 
+  /**
+   * Opens a local file for chunked access with {@link #readChunkAsync} and {@link #writeChunkAsync}.
+   * Resolves with `{ handle, size }`. Handles stay open until {@link #closeFileHandleAsync} is called.
+   */
+  @ExpoMethod
+  public void openFileHandleAsync(String uriStr, Map<String, Object> options, Promise promise) {
+    try {
+      Uri uri = Uri.parse(uriStr);
+      boolean writable = options != null && Boolean.TRUE.equals(options.get("write"));
+      ensurePermission(uri, writable ? Permission.WRITE : Permission.READ);
+      if (!"file".equals(uri.getScheme())) {
+        throw new IOException("Unsupported scheme for location '" + uri + "'.");
+      }
+
+      FileHandle fileHandle = new FileHandle(uriToFile(uri), writable);
+      int handle;
+      synchronized (mFileHandles) {
+        handle = mNextFileHandle++;
+        mFileHandles.put(handle, fileHandle);
+      }
+
+      Bundle result = new Bundle();
+      result.putInt("handle", handle);
+      result.putDouble("size", fileHandle.size());
+      promise.resolve(result);
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  /**
+   * Reads up to `length` bytes at `position` and resolves with them encoded in Base64.
+   * An empty string means that `position` is at or past the end of the file.
+   */
+  @ExpoMethod
+  public void readChunkAsync(int handle, double position, int length, Promise promise) {
+    try {
+      FileHandle fileHandle = getFileHandle(handle);
+      ByteBuffer chunk = fileHandle.read((long) position, length);
+      promise.resolve(Base64.encodeToString(chunk.array(), chunk.arrayOffset(), chunk.limit(), Base64.NO_WRAP));
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  /**
+   * Writes Base64-encoded bytes at `position`, or appends them if `position` is negative.
+   * Resolves with the position right after the written bytes.
+   */
+  @ExpoMethod
+  public void writeChunkAsync(int handle, String base64, double position, Promise promise) {
+    try {
+      FileHandle fileHandle = getFileHandle(handle);
+      if (!fileHandle.isWritable()) {
+        throw new IOException("File handle " + handle + " wasn't opened for writing.");
+      }
+      promise.resolve((double) fileHandle.write(Base64.decode(base64, Base64.DEFAULT), (long) position));
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  @ExpoMethod
+  public void closeFileHandleAsync(int handle, Promise promise) {
+    FileHandle fileHandle;
+    synchronized (mFileHandles) {
+      fileHandle = mFileHandles.get(handle);
+      mFileHandles.remove(handle);
+    }
+    try {
+      if (fileHandle != null) {
+        fileHandle.close();
+      }
+      promise.resolve(null);
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
   @ExpoMethod
   public void deleteAsync(String uriStr, Map<String, Object> options, Promise promise) {
     try {
@@ -610,6 +731,64 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     }
   }
 
+  /**
+   * Like {@link #readDirectoryAsync}, but resolves with `{ name, uri, isDirectory, size, modificationTime }`
+   * of every child, so that callers don't need an extra {@link #getInfoAsync} call per child.
+   * Sizes of subdirectories are computed in parallel.
+   */
+  @ExpoMethod
+  public void readDirectoryWithInfoAsync(String uriStr, Map<String, Object> options, Promise promise) {
+    try {
+      Uri uri = Uri.parse(uriStr);
+      ensurePermission(uri, Permission.READ);
+      if ("file".equals(uri.getScheme())) {
+        File file = uriToFile(uri);
+        File[] children = file.listFiles();
+        if (children == null) {
+          promise.reject("ERR_FILESYSTEM_CANNOT_READ_DIRECTORY",
+            "Directory '" + uri + "' could not be read.");
+          return;
+        }
+
+        // a child is a directory if and only if it has a size task, so that a child replaced
+        // in the meantime can't make the two loops disagree
+        DirectorySizeTask[] sizeTasks = new DirectorySizeTask[children.length];
+        List<DirectorySizeTask> directoryTasks = new ArrayList<>();
+        for (int i = 0; i < children.length; i++) {
+          if (children[i].isDirectory()) {
+            sizeTasks[i] = new DirectorySizeTask(children[i]);
+            directoryTasks.add(sizeTasks[i]);
+          }
+        }
+        if (!directoryTasks.isEmpty()) {
+          getDirectorySizePool().invoke(new DirectorySizeTask(directoryTasks));
+        }
+
+        List<Bundle> result = new ArrayList<>(children.length);
+        for (int i = 0; i < children.length; i++) {
+          File child = children[i];
+          DirectorySizeTask sizeTask = sizeTasks[i];
+          Bundle info = new Bundle();
+          info.putString("name", child.getName());
+          info.putString("uri", Uri.fromFile(child).toString());
+          info.putBoolean("isDirectory", sizeTask != null);
+          info.putDouble("size", sizeTask != null ? sizeTask.getRawResult() : child.length());
+          info.putDouble("modificationTime", 0.001 * child.lastModified());
+          result.add(info);
+        }
+        promise.resolve(result);
+      } else if (isSAFUri(uri)) {
+        promise.reject("ERR_FILESYSTEM_UNSUPPORTED_SCHEME",
+          "Can't read Storage Access Framework directory, use StorageAccessFramework.readDirectoryAsync() instead.");
+      } else {
+        throw new IOException("Unsupported scheme for location '" + uri + "'.");
+      }
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
   @ExpoMethod
   public void uploadAsync(final String url, final String fileUriString, final Map<String, Object> options, final Promise promise) {
     try {
@@ -637,10 +816,13 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
         }
       }
 
+      // upload progress is only reported when JS passes an id to report it under
+      final String uuid = options.get("uuid") instanceof String ? (String) options.get("uuid") : null;
+
       File file = uriToFile(fileUri);
       if (uploadType == UploadType.BINARY_CONTENT) {
         RequestBody body = RequestBody.create(null, file);
-        requestBuilder.method(method, body);
+        requestBuilder.method(method, withUploadProgress(body, uuid));
       } else if (uploadType == UploadType.MULTIPART) {
         MultipartBody.Builder bodyBuilder = new MultipartBody.Builder().setType(MultipartBody.FORM);
 
@@ -664,7 +846,7 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
         }
 
         bodyBuilder.addFormDataPart(fieldName, file.getName(), RequestBody.create(mimeType != null ? MediaType.parse(mimeType) : null, file));
-        requestBuilder.method(method, bodyBuilder.build());
+        requestBuilder.method(method, withUploadProgress(bodyBuilder.build(), uuid));
       } else {
         promise.reject("ERR_FILESYSTEM_INVALID_UPLOAD_TYPE", String.format("Invalid upload type: %s.", options.get("uploadType")), null);
         return;
@@ -674,6 +856,9 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
         @Override
         public void onFailure(Call call, IOException e) {
           Log.e(TAG, String.valueOf(e.getMessage()));
+          if (uuid != null) {
+            mProgressReporter.unregister(uuid);
+          }
           promise.reject(e);
         }
 
@@ -702,6 +887,20 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     }
   }
 
+  /**
+   * Configures how progress of uploads and downloads is reported: `minBytesDelta` and
+   * `minPercentDelta` skip updates smaller than given thresholds, and `batched` coalesces updates
+   * of all transfers into one event per frame instead of an event per transfer.
+   */
+  @ExpoMethod
+  public void setProgressOptionsAsync(Map<String, Object> options, Promise promise) {
+    boolean batched = options.containsKey("batched") && (Boolean) options.get("batched");
+    long minBytesDelta = options.get("minBytesDelta") instanceof Number ? ((Number) options.get("minBytesDelta")).longValue() : 0;
+    double minPercentDelta = options.get("minPercentDelta") instanceof Number ? ((Number) options.get("minPercentDelta")).doubleValue() : 0;
+    mProgressReporter.configure(batched, minBytesDelta, minPercentDelta);
+    promise.resolve(null);
+  }
+
   @ExpoMethod
   public void downloadAsync(String url, final String uriStr, final Map<String, Object> options, final Promise promise) {
     try {
@@ -776,6 +975,86 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     }
   }
 
+  /**
+   * Adds downloads to a download queue, creating the queue if needed. Each download is a map of
+   * `{ id, url, fileUri, priority?, headers? }`. Options can set `maxConcurrentDownloads`.
+   * Progress of the whole queue and results of single downloads are reported with
+   * {@link #EXDownloadQueueProgressEventName} and {@link #EXDownloadQueueDownloadFinishedEventName} events.
+   */
+  @ExpoMethod
+  public void downloadQueueEnqueueAsync(String queueId, List<Map<String, Object>> downloads, Map<String, Object> options, Promise promise) {
+    try {
+      DownloadQueue queue = getDownloadQueue(queueId);
+      if (options != null && options.get("maxConcurrentDownloads") instanceof Number) {
+        queue.setMaxConcurrentDownloads(((Number) options.get("maxConcurrentDownloads")).intValue());
+      }
+
+      List<DownloadQueue.Item> items = new ArrayList<>(downloads.size());
+      for (Map<String, Object> download : downloads) {
+        if (!(download.get("id") instanceof String)) {
+          throw new IllegalArgumentException("Every download has to have a string id.");
+        }
+        Uri fileUri = Uri.parse((String) download.get("fileUri"));
+        ensurePermission(fileUri, Permission.WRITE);
+        checkIfFileDirExists(fileUri);
+        if (!"file".equals(fileUri.getScheme())) {
+          throw new IOException("Unsupported scheme for location '" + fileUri + "'.");
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        if (download.get(HEADER_KEY) instanceof Map) {
+          for (Map.Entry<String, Object> header : ((Map<String, Object>) download.get(HEADER_KEY)).entrySet()) {
+            headers.put(header.getKey(), String.valueOf(header.getValue()));
+          }
+        }
+        int priority = download.get("priority") instanceof Number ? ((Number) download.get("priority")).intValue() : 0;
+
+        items.add(new DownloadQueue.Item((String) download.get("id"), (String) download.get("url"), uriToFile(fileUri), priority, headers));
+      }
+      queue.enqueue(items);
+      promise.resolve(null);
+    } catch (Exception e) {
+      Log.e(TAG, e.getMessage());
+      promise.reject(e);
+    }
+  }
+
+  @ExpoMethod
+  public void downloadQueuePauseAsync(String queueId, Promise promise) {
+    DownloadQueue queue;
+    synchronized (mDownloadQueues) {
+      queue = mDownloadQueues.get(queueId);
+    }
+    if (queue != null) {
+      queue.pause();
+    }
+    promise.resolve(null);
+  }
+
+  /**
+   * Resumes a paused download queue. After the app has been restarted, this also restores
+   * downloads which hadn't finished before. Resolves with the number of unfinished downloads.
+   */
+  @ExpoMethod
+  public void downloadQueueResumeAsync(String queueId, Promise promise) {
+    DownloadQueue queue = getDownloadQueue(queueId);
+    queue.resume();
+    promise.resolve(queue.getPendingCount());
+  }
+
+  @ExpoMethod
+  public void downloadQueueCancelAsync(String queueId, Promise promise) {
+    DownloadQueue queue;
+    synchronized (mDownloadQueues) {
+      queue = mDownloadQueues.remove(queueId);
+    }
+    if (queue == null) {
+      queue = createDownloadQueue(queueId);
+    }
+    queue.cancel();
+    promise.resolve(null);
+  }
+
   @ExpoMethod
   public void getTotalDiskCapacityAsync(Promise promise) {
     try {
@@ -839,6 +1118,7 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
 
   @ExpoMethod
   public void downloadResumableStartAsync(String url, final String fileUriStr, final String uuid, final Map<String, Object> options, final String resumeData, final Promise promise) {
+    ProgressReporter.Transfer transfer = null;
     try {
       final Uri fileUri = Uri.parse(fileUriStr);
       checkIfFileDirExists(fileUri);
@@ -848,30 +1128,15 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
 
       final boolean isResume = resumeData != null;
 
+      final ProgressReporter.Transfer registeredTransfer = mProgressReporter.register(uuid, ProgressReporter.TYPE_DOWNLOAD,
+        EXDownloadProgressEventName, isResume ? Long.parseLong(resumeData) : 0);
+      transfer = registeredTransfer;
       final ProgressListener progressListener = new ProgressListener() {
-        long mLastUpdate = -1;
-
         @Override
         public void update(long bytesRead, long contentLength, boolean done) {
-          EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
-          if (eventEmitter != null) {
-            Bundle downloadProgress = new Bundle();
-            Bundle downloadProgressData = new Bundle();
-            long totalBytesWritten = isResume ? bytesRead + Long.parseLong(resumeData) : bytesRead;
-            long totalBytesExpectedToWrite = isResume ? contentLength + Long.parseLong(resumeData) : contentLength;
-            long currentTime = System.currentTimeMillis();
-
-            // Throttle events. Sending too many events will block the JS event loop.
-            // Make sure to send the last event when we're at 100%.
-            if (currentTime > mLastUpdate + MIN_EVENT_DT_MS || totalBytesWritten == totalBytesExpectedToWrite) {
-              mLastUpdate = currentTime;
-              downloadProgressData.putDouble("totalBytesWritten", totalBytesWritten);
-              downloadProgressData.putDouble("totalBytesExpectedToWrite", totalBytesExpectedToWrite);
-              downloadProgress.putString("uuid", uuid);
-              downloadProgress.putBundle("data", downloadProgressData);
-
-              eventEmitter.emit(EXDownloadProgressEventName, downloadProgress);
-            }
+          registeredTransfer.update(bytesRead, contentLength);
+          if (done) {
+            registeredTransfer.finish();
           }
         }
       };
@@ -907,11 +1172,14 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
       this.mDownloadResumableMap.put(uuid, downloadResumable);
 
       File file = uriToFile(fileUri);
-      DownloadResumableTaskParams params = new DownloadResumableTaskParams(options, call, file, isResume, promise);
+      DownloadResumableTaskParams params = new DownloadResumableTaskParams(options, call, file, isResume, transfer, promise);
       DownloadResumableTask task = new DownloadResumableTask();
       task.execute(params);
     } catch (Exception e) {
       Log.e(TAG, e.getMessage());
+      if (transfer != null) {
+        transfer.unregister();
+      }
       promise.reject(e);
     }
   }
@@ -922,6 +1190,7 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     if (downloadResumable != null) {
       downloadResumable.call.cancel();
       this.mDownloadResumableMap.remove(downloadResumable.uuid);
+      mProgressReporter.unregister(downloadResumable.uuid);
       try {
         File file = uriToFile(downloadResumable.fileUri);
         Bundle result = new Bundle();
@@ -1090,6 +1359,77 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     return ("content".equals(uri.getScheme()) && uri.getHost().startsWith("com.android.externalstorage"));
   }
 
+  private DownloadQueue getDownloadQueue(String queueId) {
+    synchronized (mDownloadQueues) {
+      DownloadQueue queue = mDownloadQueues.get(queueId);
+      if (queue == null) {
+        queue = createDownloadQueue(queueId);
+        queue.restore();
+        mDownloadQueues.put(queueId, queue);
+      }
+      return queue;
+    }
+  }
+
+  private DownloadQueue createDownloadQueue(String queueId) {
+    ProgressReporter.Transfer progress = mProgressReporter.register(queueId, ProgressReporter.TYPE_DOWNLOAD_QUEUE,
+      EXDownloadQueueProgressEventName, 0);
+    return new DownloadQueue(queueId, getOkHttpClient(), getDownloadQueuePreferences(), progress, mDownloadQueueListener);
+  }
+
+  private SharedPreferences getDownloadQueuePreferences() {
+    return getContext().getSharedPreferences(DOWNLOAD_QUEUE_PREFERENCES_NAME, Context.MODE_PRIVATE);
+  }
+
+  private final DownloadQueue.Listener mDownloadQueueListener = new DownloadQueue.Listener() {
+    @Override
+    public void onDownloadFinished(DownloadQueue queue, DownloadQueue.Download download, Bundle result, Exception error) {
+      EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
+      if (eventEmitter != null) {
+        Bundle event = result != null ? result : new Bundle();
+        event.putString("queueId", queue.getId());
+        event.putString("id", download.id);
+        if (error != null) {
+          event.putString("error", error.getMessage());
+        }
+        eventEmitter.emit(EXDownloadQueueDownloadFinishedEventName, event);
+      }
+    }
+  };
+
+  private FileHandle getFileHandle(int handle) throws IOException {
+    synchronized (mFileHandles) {
+      FileHandle fileHandle = mFileHandles.get(handle);
+      if (fileHandle == null) {
+        throw new IOException("File handle " + handle + " is not open.");
+      }
+      return fileHandle;
+    }
+  }
+
+  // reads straight into an array of the final size instead of growing a ByteArrayOutputStream,
+  // and seeks with a positional read instead of skipping through the stream
+  private static String readFileAsBase64(File file, Map<String, Object> options) throws IOException {
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+      FileChannel channel = randomAccessFile.getChannel();
+      long position = 0;
+      long length = channel.size();
+      if (options.containsKey("length") && options.containsKey("position")) {
+        position = ((Number) options.get("position")).longValue();
+        length = Math.max(0, Math.min(((Number) options.get("length")).longValue(), channel.size() - position));
+      }
+
+      byte[] bytes = new byte[(int) length];
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          break;
+        }
+      }
+      return Base64.encodeToString(bytes, 0, buffer.position(), Base64.NO_WRAP);
+    }
+  }
+
   private static byte[] getInputStreamBytes(InputStream inputStream) throws IOException {
     byte[] bytesResult;
     ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
@@ -1115,13 +1455,15 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     Call call;
     File file;
     boolean isResume;
+    ProgressReporter.Transfer transfer;
     Promise promise;
 
-    DownloadResumableTaskParams(Map<String, Object> options, Call call, File file, boolean isResume, Promise promise) {
+    DownloadResumableTaskParams(Map<String, Object> options, Call call, File file, boolean isResume, ProgressReporter.Transfer transfer, Promise promise) {
       this.options = options;
       this.call = call;
       this.file = file;
       this.isResume = isResume;
+      this.transfer = transfer;
       this.promise = promise;
     }
   }
@@ -1133,24 +1475,20 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
       Promise promise = params[0].promise;
       File file = params[0].file;
       boolean isResume = params[0].isResume;
+      ProgressReporter.Transfer transfer = params[0].transfer;
       Map<String, Object> options = params[0].options;
 
       try {
         Response response = call.execute();
         ResponseBody responseBody = response.body();
-        BufferedInputStream input = new BufferedInputStream(responseBody.byteStream());
-        OutputStream output;
-
-        if (isResume) {
-          output = new FileOutputStream(file, true);
-        } else {
-          output = new FileOutputStream(file, false);
-        }
-
-        byte[] data = new byte[1024];
-        int count = 0;
-        while ((count = input.read(data)) != -1) {
-          output.write(data, 0, count);
+        byte[] data = BufferPool.acquire();
+        try (InputStream input = responseBody.byteStream(); OutputStream output = new FileOutputStream(file, isResume)) {
+          int count;
+          while ((count = input.read(data)) != -1) {
+            output.write(data, 0, count);
+          }
+        } finally {
+          BufferPool.release(data);
         }
 
         Bundle result = new Bundle();
@@ -1166,6 +1504,8 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
         return null;
       } catch (Exception e) {
         Log.e(TAG, e.getMessage());
+        // a paused download has been unregistered already, possibly before being resumed with the same uuid
+        transfer.unregister();
         promise.reject(e);
         return null;
       }
@@ -1249,6 +1589,52 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     }
   }
 
+  private RequestBody withUploadProgress(RequestBody body, String uuid) {
+    if (uuid == null) {
+      return body;
+    }
+    ProgressReporter.Transfer transfer = mProgressReporter.register(uuid, ProgressReporter.TYPE_UPLOAD, EXUploadProgressEventName, 0);
+    return new ProgressRequestBody(body, transfer);
+  }
+
+  private static class ProgressRequestBody extends RequestBody {
+    private final RequestBody mRequestBody;
+    private final ProgressReporter.Transfer mTransfer;
+
+    ProgressRequestBody(RequestBody requestBody, ProgressReporter.Transfer transfer) {
+      mRequestBody = requestBody;
+      mTransfer = transfer;
+    }
+
+    @Override
+    public MediaType contentType() {
+      return mRequestBody.contentType();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+      return mRequestBody.contentLength();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+      final long contentLength = contentLength();
+      BufferedSink countingSink = Okio.buffer(new ForwardingSink(sink) {
+        long totalBytesWritten = 0L;
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+          super.write(source, byteCount);
+          totalBytesWritten += byteCount;
+          mTransfer.update(totalBytesWritten, contentLength);
+        }
+      });
+      mRequestBody.writeTo(countingSink);
+      countingSink.flush();
+      mTransfer.finish();
+    }
+  }
+
   interface ProgressListener {
     void update(long bytesRead, long contentLength, boolean done);
   }
@@ -1270,11 +1656,22 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     return mClient;
   }
 
+  // digests are cached by path and invalidated whenever the file's size or modification time changes
   private String md5(File file) throws IOException {
+    String path = file.getAbsolutePath();
+    long lastModified = file.lastModified();
+    long length = file.length();
+    DigestCacheEntry cached = DIGEST_CACHE.get(path);
+    if (cached != null && cached.lastModified == lastModified && cached.length == length) {
+      return cached.md5;
+    }
+
     InputStream is = new FileInputStream(file);
     try {
       byte[] md5bytes = DigestUtils.md5(is);
-      return String.valueOf(Hex.encodeHex(md5bytes));
+      String md5 = String.valueOf(Hex.encodeHex(md5bytes));
+      DIGEST_CACHE.put(path, new DigestCacheEntry(lastModified, length, md5));
+      return md5;
     } finally {
       is.close();
     }
@@ -1323,18 +1720,74 @@ public class FileSystemModule extends ExportedModule implements ActivityEventLis
     if (!file.isDirectory()) {
       return file.length();
     }
+    return getDirectorySizePool().invoke(new DirectorySizeTask(file));
+  }
+
+  private static synchronized ForkJoinPool getDirectorySizePool() {
+    if (sDirectorySizePool == null) {
+      sDirectorySizePool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+    return sDirectorySizePool;
+  }
+
+  /**
+   * Sums sizes of all files in a directory tree, forking a subtask for every subdirectory.
+   * Can also be created for a list of tasks, in which case it only runs them in parallel.
+   */
+  private static class DirectorySizeTask extends RecursiveTask<Long> {
+    private final File mDirectory;
+    private final List<DirectorySizeTask> mTasks;
+
+    DirectorySizeTask(File directory) {
+      mDirectory = directory;
+      mTasks = null;
+    }
 
-    File[] content = file.listFiles();
-    if (content == null) {
-      return 0;
+    DirectorySizeTask(List<DirectorySizeTask> tasks) {
+      mDirectory = null;
+      mTasks = tasks;
     }
 
-    long size = 0;
-    for (File item : content) {
-      size += getFileSize(item);
+    @Override
+    protected Long compute() {
+      if (mTasks != null) {
+        invokeAll(mTasks);
+        return 0L;
+      }
+
+      File[] content = mDirectory.listFiles();
+      if (content == null) {
+        return 0L;
+      }
+
+      long size = 0;
+      List<DirectorySizeTask> subtasks = new ArrayList<>();
+      for (File item : content) {
+        if (item.isDirectory()) {
+          DirectorySizeTask subtask = new DirectorySizeTask(item);
+          subtask.fork();
+          subtasks.add(subtask);
+        } else {
+          size += item.length();
+        }
+      }
+      for (DirectorySizeTask subtask : subtasks) {
+        size += subtask.join();
+      }
+      return size;
     }
+  }
+
+  private static class DigestCacheEntry {
+    final long lastModified;
+    final long length;
+    final String md5;
 
-    return size;
+    DigestCacheEntry(long lastModified, long length, String md5) {
+      this.lastModified = lastModified;
+      this.length = length;
+      this.md5 = md5;
+    }
   }
 
   private InputStream getInputStream(Uri uri) throws IOException {
@@ -0,0 +1,248 @@
+package expo.modules.filesystem;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import org.unimodules.core.ModuleRegistry;
+import org.unimodules.core.interfaces.services.EventEmitter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports progress of uploads and downloads to JS. Transfers call {@link Transfer#update} from
+ * their I/O threads as often as they like; the update only records two numbers and decides
+ * whether it's worth reporting, without allocating anything.
+ *
+ * Pending updates are flushed at most once per interval. By default every transfer emits its own
+ * event, like it always did. With `batched` option set from JS, updates of all active transfers
+ * are coalesced into a single {@link #BATCHED_EVENT_NAME} event per frame instead.
+ *
+ * A {@link #TYPE_DOWNLOAD_QUEUE} transfer reports a whole download queue. It also carries counts
+ * of downloads and stays registered until it's unregistered, as the queue can always grow.
+ */
+/* package */ class ProgressReporter {
+  private static final String BATCHED_EVENT_NAME = "expo-file-system.transferProgress";
+  private static final long DEFAULT_INTERVAL_MS = 100;
+  private static final long FRAME_INTERVAL_MS = 16;
+
+  /* package */ static final String TYPE_DOWNLOAD = "download";
+  /* package */ static final String TYPE_UPLOAD = "upload";
+  /* package */ static final String TYPE_DOWNLOAD_QUEUE = "downloadQueue";
+
+  /* package */ class Transfer {
+    private final String mUuid;
+    private final String mType;
+    private final String mEventName;
+    private final long mBytesOffset;
+    private long mBytes = 0;
+    private long mTotalBytes = -1;
+    private long mReportedBytes = -1;
+    private int mCompletedCount = 0;
+    private int mTotalCount = 0;
+    private boolean mDirty = false;
+    private boolean mDone = false;
+
+    private Transfer(String uuid, String type, String eventName, long bytesOffset) {
+      mUuid = uuid;
+      mType = type;
+      mEventName = eventName;
+      mBytesOffset = bytesOffset;
+    }
+
+    /* package */ void update(long bytes, long totalBytes) {
+      synchronized (ProgressReporter.this) {
+        mBytes = mBytesOffset + bytes;
+        mTotalBytes = totalBytes >= 0 ? mBytesOffset + totalBytes : -1;
+        mDone = mTotalBytes >= 0 && mBytes >= mTotalBytes;
+        if (mDirty || !(mDone || passesThresholds(this))) {
+          return;
+        }
+        mDirty = true;
+        scheduleFlush();
+      }
+    }
+
+    /**
+     * Updates a {@link #TYPE_DOWNLOAD_QUEUE} transfer. A change of counts is always reported.
+     */
+    /* package */ void update(long bytes, long totalBytes, int completedCount, int totalCount) {
+      synchronized (ProgressReporter.this) {
+        boolean countsChanged = completedCount != mCompletedCount || totalCount != mTotalCount;
+        mBytes = bytes;
+        mTotalBytes = totalBytes;
+        mCompletedCount = completedCount;
+        mTotalCount = totalCount;
+        if (mDirty || !(countsChanged || passesThresholds(this))) {
+          return;
+        }
+        mDirty = true;
+        scheduleFlush();
+      }
+    }
+
+    /* package */ void finish() {
+      synchronized (ProgressReporter.this) {
+        mDone = true;
+        mDirty = true;
+        scheduleFlush();
+      }
+    }
+
+    /**
+     * Stops reporting this transfer, unless another one has been registered with the same uuid since.
+     */
+    /* package */ void unregister() {
+      synchronized (ProgressReporter.this) {
+        if (mTransfers.get(mUuid) == this) {
+          mTransfers.remove(mUuid);
+        }
+      }
+    }
+  }
+
+  private final ModuleRegistry mModuleRegistry;
+  private final Handler mHandler = new Handler(Looper.getMainLooper());
+  private final Map<String, Transfer> mTransfers = new LinkedHashMap<>();
+
+  private boolean mBatched = false;
+  private long mMinBytesDelta = 0;
+  private double mMinPercentDelta = 0;
+  private long mLastFlushTime = 0;
+  private boolean mFlushScheduled = false;
+
+  private final Runnable mFlushRunnable = new Runnable() {
+    @Override
+    public void run() {
+      flush();
+    }
+  };
+
+  /* package */ ProgressReporter(ModuleRegistry moduleRegistry) {
+    mModuleRegistry = moduleRegistry;
+  }
+
+  /* package */ synchronized void configure(boolean batched, long minBytesDelta, double minPercentDelta) {
+    mBatched = batched;
+    mMinBytesDelta = Math.max(0, minBytesDelta);
+    mMinPercentDelta = Math.max(0, minPercentDelta);
+  }
+
+  /**
+   * Starts reporting a transfer. `bytesOffset` is added to reported progress, e. g. for
+   * downloads resumed after some bytes have already been written.
+   */
+  /* package */ synchronized Transfer register(String uuid, String type, String eventName, long bytesOffset) {
+    Transfer transfer = new Transfer(uuid, type, eventName, bytesOffset);
+    mTransfers.put(uuid, transfer);
+    return transfer;
+  }
+
+  /* package */ synchronized void unregister(String uuid) {
+    mTransfers.remove(uuid);
+  }
+
+  private boolean passesThresholds(Transfer transfer) {
+    long delta = transfer.mBytes - Math.max(transfer.mReportedBytes, 0);
+    if (transfer.mReportedBytes >= 0 && delta < mMinBytesDelta) {
+      return false;
+    }
+    if (mMinPercentDelta > 0 && transfer.mReportedBytes >= 0 && transfer.mTotalBytes > 0) {
+      return 100.0 * delta / transfer.mTotalBytes >= mMinPercentDelta;
+    }
+    return true;
+  }
+
+  private void scheduleFlush() {
+    if (mFlushScheduled) {
+      return;
+    }
+    mFlushScheduled = true;
+    long interval = mBatched ? FRAME_INTERVAL_MS : DEFAULT_INTERVAL_MS;
+    long delay = Math.max(0, mLastFlushTime + interval - SystemClock.uptimeMillis());
+    mHandler.postDelayed(mFlushRunnable, delay);
+  }
+
+  private void flush() {
+    ArrayList<Bundle> updates = new ArrayList<>();
+    boolean batched;
+    synchronized (this) {
+      mFlushScheduled = false;
+      mLastFlushTime = SystemClock.uptimeMillis();
+      batched = mBatched;
+
+      Iterator<Transfer> iterator = mTransfers.values().iterator();
+      while (iterator.hasNext()) {
+        Transfer transfer = iterator.next();
+        if (!transfer.mDirty) {
+          continue;
+        }
+        transfer.mDirty = false;
+        transfer.mReportedBytes = transfer.mBytes;
+        updates.add(batched ? createBatchedUpdate(transfer) : createEvent(transfer));
+        if (transfer.mDone) {
+          iterator.remove();
+        }
+      }
+    }
+
+    EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
+    if (eventEmitter == null || updates.isEmpty()) {
+      return;
+    }
+    if (batched) {
+      Bundle event = new Bundle();
+      event.putParcelableArrayList("updates", updates);
+      eventEmitter.emit(BATCHED_EVENT_NAME, event);
+    } else {
+      for (Bundle update : updates) {
+        eventEmitter.emit(update.getString("eventName"), update.getBundle("event"));
+      }
+    }
+  }
+
+  private static Bundle createBatchedUpdate(Transfer transfer) {
+    Bundle update = new Bundle();
+    update.putString("uuid", transfer.mUuid);
+    update.putString("type", transfer.mType);
+    update.putDouble("bytes", transfer.mBytes);
+    update.putDouble("totalBytes", transfer.mTotalBytes);
+    if (TYPE_DOWNLOAD_QUEUE.equals(transfer.mType)) {
+      update.putInt("completedCount", transfer.mCompletedCount);
+      update.putInt("totalCount", transfer.mTotalCount);
+    }
+    return update;
+  }
+
+  // a download event keeps the shape `downloadResumable` progress events always had
+  private static Bundle createEvent(Transfer transfer) {
+    Bundle event = new Bundle();
+    if (TYPE_DOWNLOAD_QUEUE.equals(transfer.mType)) {
+      event.putString("queueId", transfer.mUuid);
+      event.putInt("completedCount", transfer.mCompletedCount);
+      event.putInt("totalCount", transfer.mTotalCount);
+      event.putDouble("totalBytesWritten", transfer.mBytes);
+      event.putDouble("totalBytesExpectedToWrite", transfer.mTotalBytes);
+    } else {
+      Bundle data = new Bundle();
+      if (TYPE_UPLOAD.equals(transfer.mType)) {
+        data.putDouble("totalBytesSent", transfer.mBytes);
+        data.putDouble("totalBytesExpectedToSend", transfer.mTotalBytes);
+      } else {
+        data.putDouble("totalBytesWritten", transfer.mBytes);
+        data.putDouble("totalBytesExpectedToWrite", transfer.mTotalBytes);
+      }
+      event.putString("uuid", transfer.mUuid);
+      event.putBundle("data", data);
+    }
+
+    Bundle update = new Bundle();
+    update.putString("eventName", transfer.mEventName);
+    update.putBundle("event", event);
+    return update;
+  }
+}
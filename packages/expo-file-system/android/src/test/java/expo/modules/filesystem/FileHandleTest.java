@@ -0,0 +1,121 @@
+package expo.modules.filesystem;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class FileHandleTest {
+  @Rule
+  public TemporaryFolder mFolder = new TemporaryFolder();
+
+  @Test
+  public void testReadChunks() throws IOException {
+    File file = createFile("0123456789");
+    try (FileHandle handle = new FileHandle(file, false)) {
+      Assert.assertEquals(10, handle.size());
+      Assert.assertEquals("0123", asString(handle.read(0, 4)));
+      Assert.assertEquals("6789", asString(handle.read(6, 4)));
+      // a chunk is cut at the end of the file
+      Assert.assertEquals("89", asString(handle.read(8, 4)));
+      Assert.assertEquals("", asString(handle.read(10, 4)));
+      Assert.assertEquals("", asString(handle.read(20, 4)));
+    }
+  }
+
+  @Test
+  public void testReadReusesBuffer() throws IOException {
+    File file = createFile("0123456789");
+    try (FileHandle handle = new FileHandle(file, false)) {
+      ByteBuffer first = handle.read(0, 8);
+      ByteBuffer second = handle.read(2, 4);
+      Assert.assertSame(first, second);
+      Assert.assertEquals("2345", asString(second));
+    }
+  }
+
+  @Test
+  public void testReadIsLimitedToMaxChunkSize() throws IOException {
+    byte[] content = new byte[FileHandle.MAX_CHUNK_SIZE + 10];
+    Arrays.fill(content, (byte) 'x');
+    File file = mFolder.newFile();
+    try (FileOutputStream outputStream = new FileOutputStream(file)) {
+      outputStream.write(content);
+    }
+
+    try (FileHandle handle = new FileHandle(file, false)) {
+      Assert.assertEquals(FileHandle.MAX_CHUNK_SIZE, handle.read(0, Integer.MAX_VALUE).limit());
+      Assert.assertEquals(10, handle.read(FileHandle.MAX_CHUNK_SIZE, Integer.MAX_VALUE).limit());
+    }
+  }
+
+  @Test
+  public void testWriteAtPositionAndAppend() throws IOException {
+    File file = createFile("0123456789");
+    try (FileHandle handle = new FileHandle(file, true)) {
+      Assert.assertTrue(handle.isWritable());
+      Assert.assertEquals(5, handle.write(bytes("ab"), 3));
+      Assert.assertEquals(13, handle.write(bytes("xyz"), -1));
+      // writing past the end extends the file
+      Assert.assertEquals(16, handle.write(bytes("!"), 15));
+      Assert.assertEquals(16, handle.size());
+      Assert.assertEquals("012ab56789xyz", asString(handle.read(0, 13)));
+    }
+  }
+
+  @Test
+  public void testWriteCreatesFile() throws IOException {
+    File file = new File(mFolder.getRoot(), "new-file");
+    try (FileHandle handle = new FileHandle(file, true)) {
+      Assert.assertEquals(0, handle.size());
+      Assert.assertEquals(5, handle.write(bytes("hello"), -1));
+    }
+    Assert.assertEquals(5, file.length());
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadOnlyHandleRequiresExistingFile() throws IOException {
+    new FileHandle(new File(mFolder.getRoot(), "missing-file"), false);
+  }
+
+  @Test(expected = NonWritableChannelException.class)
+  public void testReadOnlyHandleRejectsWrites() throws IOException {
+    File file = createFile("0123456789");
+    try (FileHandle handle = new FileHandle(file, false)) {
+      Assert.assertFalse(handle.isWritable());
+      handle.write(bytes("ab"), 0);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testClosedHandleRejectsReads() throws IOException {
+    FileHandle handle = new FileHandle(createFile("0123456789"), false);
+    handle.close();
+    handle.read(0, 4);
+  }
+
+  private File createFile(String content) throws IOException {
+    File file = mFolder.newFile();
+    try (FileOutputStream outputStream = new FileOutputStream(file)) {
+      outputStream.write(bytes(content));
+    }
+    return file;
+  }
+
+  private static byte[] bytes(String string) {
+    return string.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static String asString(ByteBuffer buffer) {
+    int offset = buffer.arrayOffset() + buffer.position();
+    return new String(buffer.array(), offset, buffer.remaining(), StandardCharsets.US_ASCII);
+  }
+}
@@ -4,12 +4,19 @@ import { v4 as uuidv4 } from 'uuid';
 
 import ExponentFileSystem from './ExponentFileSystem';
 import {
+  DirectoryEntryInfo,
   DownloadOptions,
   DownloadPauseState,
   DownloadProgressCallback,
   DownloadProgressData,
+  DownloadQueueDownloadFinishedEvent,
+  DownloadQueueItem,
+  DownloadQueueOptions,
+  DownloadQueueProgressEvent,
   DownloadResult,
   EncodingType,
+  FileHandle,
+  FileHandleOptions,
   FileInfo,
   FileSystemAcceptedUploadHttpMethod,
   FileSystemDownloadResult,
@@ -19,7 +26,12 @@ import {
   FileSystemUploadResult,
   FileSystemUploadType,
   ProgressEvent,
+  ProgressOptions,
   ReadingOptions,
+  TransferProgressUpdate,
+  UploadProgressCallback,
+  UploadProgressData,
+  UploadProgressEvent,
   WritingOptions,
 } from './FileSystem.types';
 
@@ -32,12 +44,19 @@ if (!ExponentFileSystem) {
 const _unused = new EventEmitter(ExponentFileSystem); // eslint-disable-line
 
 export {
+  DirectoryEntryInfo,
   DownloadOptions,
   DownloadPauseState,
   DownloadProgressCallback,
   DownloadProgressData,
+  DownloadQueueDownloadFinishedEvent,
+  DownloadQueueItem,
+  DownloadQueueOptions,
+  DownloadQueueProgressEvent,
   DownloadResult,
   EncodingType,
+  FileHandle,
+  FileHandleOptions,
   FileInfo,
   FileSystemDownloadResult,
   FileSystemRequestDirectoryPermissionsResult,
@@ -47,7 +66,10 @@ export {
   FileSystemUploadResult,
   FileSystemUploadType,
   ProgressEvent,
+  ProgressOptions,
   ReadingOptions,
+  UploadProgressCallback,
+  UploadProgressData,
   WritingOptions,
 };
 
@@ -156,6 +178,57 @@ export async function readDirectoryAsync(fileUri: string): Promise<string[]> {
   return await ExponentFileSystem.readDirectoryAsync(fileUri, {});
 }
 
+// Android only
+export async function readDirectoryWithInfoAsync(fileUri: string): Promise<DirectoryEntryInfo[]> {
+  if (!ExponentFileSystem.readDirectoryWithInfoAsync) {
+    throw new UnavailabilityError('expo-file-system', 'readDirectoryWithInfoAsync');
+  }
+  return await ExponentFileSystem.readDirectoryWithInfoAsync(fileUri, {});
+}
+
+// Android only
+export async function openFileHandleAsync(
+  fileUri: string,
+  options: FileHandleOptions = {}
+): Promise<FileHandle> {
+  if (!ExponentFileSystem.openFileHandleAsync) {
+    throw new UnavailabilityError('expo-file-system', 'openFileHandleAsync');
+  }
+  return await ExponentFileSystem.openFileHandleAsync(fileUri, options);
+}
+
+// Android only
+export async function readChunkAsync(
+  handle: number,
+  position: number,
+  length: number
+): Promise<string> {
+  if (!ExponentFileSystem.readChunkAsync) {
+    throw new UnavailabilityError('expo-file-system', 'readChunkAsync');
+  }
+  return await ExponentFileSystem.readChunkAsync(handle, position, length);
+}
+
+// Android only
+export async function writeChunkAsync(
+  handle: number,
+  contents: string,
+  position: number = -1
+): Promise<number> {
+  if (!ExponentFileSystem.writeChunkAsync) {
+    throw new UnavailabilityError('expo-file-system', 'writeChunkAsync');
+  }
+  return await ExponentFileSystem.writeChunkAsync(handle, contents, position);
+}
+
+// Android only
+export async function closeFileHandleAsync(handle: number): Promise<void> {
+  if (!ExponentFileSystem.closeFileHandleAsync) {
+    throw new UnavailabilityError('expo-file-system', 'closeFileHandleAsync');
+  }
+  return await ExponentFileSystem.closeFileHandleAsync(handle);
+}
+
 export async function getFreeDiskStorageAsync(): Promise<number> {
   if (!ExponentFileSystem.getFreeDiskStorageAsync) {
     throw new UnavailabilityError('expo-file-system', 'getFreeDiskStorageAsync');
@@ -188,18 +261,146 @@ export async function downloadAsync(
 export async function uploadAsync(
   url: string,
   fileUri: string,
-  options: FileSystemUploadOptions = {}
+  options: FileSystemUploadOptions = {},
+  callback?: UploadProgressCallback
 ): Promise<FileSystemUploadResult> {
   if (!ExponentFileSystem.uploadAsync) {
     throw new UnavailabilityError('expo-file-system', 'uploadAsync');
   }
 
-  return await ExponentFileSystem.uploadAsync(url, fileUri, {
-    sessionType: FileSystemSessionType.BACKGROUND,
-    uploadType: FileSystemUploadType.BINARY_CONTENT,
-    ...options,
-    httpMethod: (options.httpMethod || 'POST').toUpperCase(),
-  });
+  // Upload progress is reported only on Android, under an id generated for this upload
+  const uuid = callback ? uuidv4() : undefined;
+  const subscription =
+    callback &&
+    addTransferProgressListener(
+      new EventEmitter(ExponentFileSystem),
+      'expo-file-system.uploadProgress',
+      'upload',
+      (update): UploadProgressEvent => ({
+        uuid: update.uuid,
+        data: { totalBytesSent: update.bytes, totalBytesExpectedToSend: update.totalBytes },
+      }),
+      (event: UploadProgressEvent) => {
+        if (event.uuid === uuid) {
+          callback(event.data);
+        }
+      }
+    );
+
+  try {
+    return await ExponentFileSystem.uploadAsync(url, fileUri, {
+      sessionType: FileSystemSessionType.BACKGROUND,
+      uploadType: FileSystemUploadType.BINARY_CONTENT,
+      ...options,
+      httpMethod: (options.httpMethod || 'POST').toUpperCase(),
+      ...(uuid ? { uuid } : {}),
+    });
+  } finally {
+    subscription?.remove();
+  }
+}
+
+// Android only
+export async function setProgressOptionsAsync(options: ProgressOptions): Promise<void> {
+  if (!ExponentFileSystem.setProgressOptionsAsync) {
+    throw new UnavailabilityError('expo-file-system', 'setProgressOptionsAsync');
+  }
+  return await ExponentFileSystem.setProgressOptionsAsync(options);
+}
+
+/**
+ * Subscribes to progress events of transfers of the given type, also while they are coalesced
+ * into a single event with `setProgressOptionsAsync({ batched: true })`.
+ */
+function addTransferProgressListener<T>(
+  emitter: EventEmitter,
+  eventName: string,
+  type: TransferProgressUpdate['type'],
+  fromBatchedUpdate: (update: TransferProgressUpdate) => T,
+  listener: (event: T) => void
+): Subscription {
+  const subscription = emitter.addListener<T>(eventName, listener);
+  const batchedSubscription = emitter.addListener<{ updates: TransferProgressUpdate[] }>(
+    'expo-file-system.transferProgress',
+    ({ updates }) => {
+      for (const update of updates) {
+        if (update.type === type) {
+          listener(fromBatchedUpdate(update));
+        }
+      }
+    }
+  );
+  return {
+    remove: () => {
+      subscription.remove();
+      batchedSubscription.remove();
+    },
+  };
+}
+
+// Android only
+export async function downloadQueueEnqueueAsync(
+  queueId: string,
+  downloads: DownloadQueueItem[],
+  options: DownloadQueueOptions = {}
+): Promise<void> {
+  if (!ExponentFileSystem.downloadQueueEnqueueAsync) {
+    throw new UnavailabilityError('expo-file-system', 'downloadQueueEnqueueAsync');
+  }
+  return await ExponentFileSystem.downloadQueueEnqueueAsync(queueId, downloads, options);
+}
+
+// Android only
+export async function downloadQueuePauseAsync(queueId: string): Promise<void> {
+  if (!ExponentFileSystem.downloadQueuePauseAsync) {
+    throw new UnavailabilityError('expo-file-system', 'downloadQueuePauseAsync');
+  }
+  return await ExponentFileSystem.downloadQueuePauseAsync(queueId);
+}
+
+// Android only
+export async function downloadQueueResumeAsync(queueId: string): Promise<number> {
+  if (!ExponentFileSystem.downloadQueueResumeAsync) {
+    throw new UnavailabilityError('expo-file-system', 'downloadQueueResumeAsync');
+  }
+  return await ExponentFileSystem.downloadQueueResumeAsync(queueId);
+}
+
+// Android only
+export async function downloadQueueCancelAsync(queueId: string): Promise<void> {
+  if (!ExponentFileSystem.downloadQueueCancelAsync) {
+    throw new UnavailabilityError('expo-file-system', 'downloadQueueCancelAsync');
+  }
+  return await ExponentFileSystem.downloadQueueCancelAsync(queueId);
+}
+
+// Android only
+export function addDownloadQueueProgressListener(
+  listener: (event: DownloadQueueProgressEvent) => void
+): Subscription {
+  return addTransferProgressListener(
+    new EventEmitter(ExponentFileSystem),
+    'expo-file-system.downloadQueueProgress',
+    'downloadQueue',
+    update => ({
+      queueId: update.uuid,
+      completedCount: update.completedCount!,
+      totalCount: update.totalCount!,
+      totalBytesWritten: update.bytes,
+      totalBytesExpectedToWrite: update.totalBytes,
+    }),
+    listener
+  );
+}
+
+// Android only
+export function addDownloadQueueDownloadFinishedListener(
+  listener: (event: DownloadQueueDownloadFinishedEvent) => void
+): Subscription {
+  return new EventEmitter(ExponentFileSystem).addListener(
+    'expo-file-system.downloadQueueDownloadFinished',
+    listener
+  );
 }
 
 export function createDownloadResumable(
@@ -294,8 +495,14 @@ export class DownloadResumable {
     if (this._subscription) {
       return;
     }
-    this._subscription = this._emitter.addListener(
+    this._subscription = addTransferProgressListener(
+      this._emitter,
       'expo-file-system.downloadProgress',
+      'download',
+      (update): ProgressEvent => ({
+        uuid: update.uuid,
+        data: { totalBytesWritten: update.bytes, totalBytesExpectedToWrite: update.totalBytes },
+      }),
       (event: ProgressEvent) => {
         if (event.uuid === this._uuid) {
           const callback = this._callback;
@@ -311,7 +518,7 @@ export class DownloadResumable {
     if (!this._subscription) {
       return;
     }
-    this._emitter.removeSubscription(this._subscription);
+    this._subscription.remove();
     this._subscription = null;
   }
 }
@@ -70,6 +70,13 @@ export type DownloadProgressData = {
   totalBytesExpectedToWrite: number;
 };
 
+export type UploadProgressCallback = (data: UploadProgressData) => void;
+
+export type UploadProgressData = {
+  totalBytesSent: number;
+  totalBytesExpectedToSend: number;
+};
+
 export type DownloadPauseState = {
   url: string;
   fileUri: string;
@@ -112,6 +119,23 @@ export type WritingOptions = {
   encoding?: EncodingType | 'utf8' | 'base64';
 };
 
+export type DirectoryEntryInfo = {
+  name: string;
+  uri: string;
+  isDirectory: boolean;
+  size: number;
+  modificationTime: number;
+};
+
+export type FileHandleOptions = {
+  write?: boolean;
+};
+
+export type FileHandle = {
+  handle: number;
+  size: number;
+};
+
 export type ProgressEvent = {
   uuid: string;
   data: {
@@ -120,6 +144,66 @@ export type ProgressEvent = {
   };
 };
 
+export type UploadProgressEvent = {
+  uuid: string;
+  data: UploadProgressData;
+};
+
+export type DownloadQueueItem = {
+  id: string;
+  url: string;
+  fileUri: string;
+  /*
+   * Downloads with higher priority are started first. Defaults to 0.
+   */
+  priority?: number;
+  headers?: Record<string, string>;
+};
+
+export type DownloadQueueOptions = {
+  maxConcurrentDownloads?: number;
+};
+
+export type DownloadQueueProgressEvent = {
+  queueId: string;
+  completedCount: number;
+  totalCount: number;
+  totalBytesWritten: number;
+  totalBytesExpectedToWrite: number;
+};
+
+export type DownloadQueueDownloadFinishedEvent = {
+  queueId: string;
+  id: string;
+  uri?: string;
+  status?: number;
+  error?: string;
+};
+
+export type ProgressOptions = {
+  /*
+   * Skip progress updates smaller than this number of bytes.
+   */
+  minBytesDelta?: number;
+  /*
+   * Skip progress updates smaller than this percentage of the total size.
+   */
+  minPercentDelta?: number;
+  /*
+   * Coalesce progress of all transfers into a single native event per frame.
+   */
+  batched?: boolean;
+};
+
+export type TransferProgressUpdate = {
+  uuid: string;
+  type: 'download' | 'upload' | 'downloadQueue';
+  bytes: number;
+  totalBytes: number;
+  completedCount?: number;
+  totalCount?: number;
+};
+
 export type FileSystemRequestDirectoryPermissionsResult =
   | {
       granted: true;
@@ -156,6 +240,16 @@ export interface ExponentFileSystemModule {
   readonly readSAFDirectoryAsync?: PlatformMethod;
   readonly makeSAFDirectoryAsync?: PlatformMethod;
   readonly createSAFFileAsync?: PlatformMethod;
+  readonly readDirectoryWithInfoAsync?: PlatformMethod;
+  readonly openFileHandleAsync?: PlatformMethod;
+  readonly readChunkAsync?: PlatformMethod;
+  readonly writeChunkAsync?: PlatformMethod;
+  readonly closeFileHandleAsync?: PlatformMethod;
+  readonly setProgressOptionsAsync?: PlatformMethod;
+  readonly downloadQueueEnqueueAsync?: PlatformMethod;
+  readonly downloadQueuePauseAsync?: PlatformMethod;
+  readonly downloadQueueResumeAsync?: PlatformMethod;
+  readonly downloadQueueCancelAsync?: PlatformMethod;
   startObserving?: () => void;
   stopObserving?: () => void;
   addListener: (eventName: string) => void;
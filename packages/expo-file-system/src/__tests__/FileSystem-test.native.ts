@@ -1,3 +1,4 @@
+import { EventEmitter } from '@unimodules/core';
 import { mockProperty, unmockProperty } from 'jest-expo';
 
 import ExponentFileSystem from '../ExponentFileSystem';
@@ -87,4 +88,65 @@ describe('FileSystem', () => {
       expect(downloadPauseState).toMatchObject(fakeObject);
     });
   });
+
+  describe('uploadAsync', () => {
+    const remoteUri = 'https://example.com/upload';
+    const localUri = FileSystem.documentDirectory + 'small.mp4';
+
+    it(`doesn't request progress without a callback`, async () => {
+      mockProperty(ExponentFileSystem, 'uploadAsync', jest.fn(async () => ({})));
+
+      await FileSystem.uploadAsync(remoteUri, localUri);
+
+      const { calls } = (ExponentFileSystem.uploadAsync as jest.Mock).mock;
+      expect(calls[0][2]).not.toHaveProperty('uuid');
+      unmockProperty(ExponentFileSystem, 'uploadAsync');
+    });
+
+    it(`reports progress of its own upload to the callback`, async () => {
+      const listeners = {};
+      const remove = jest.fn();
+      const addListener = jest
+        .spyOn(EventEmitter.prototype, 'addListener')
+        .mockImplementation((eventName: string, listener: (event: any) => void) => {
+          listeners[eventName] = listener;
+          return { remove };
+        });
+      mockProperty(
+        ExponentFileSystem,
+        'uploadAsync',
+        jest.fn(async (url, fileUri, options) => {
+          listeners['expo-file-system.uploadProgress']({
+            uuid: options.uuid,
+            data: { totalBytesSent: 5, totalBytesExpectedToSend: 20 },
+          });
+          listeners['expo-file-system.uploadProgress']({
+            uuid: 'other-upload',
+            data: { totalBytesSent: 1, totalBytesExpectedToSend: 2 },
+          });
+          listeners['expo-file-system.transferProgress']({
+            updates: [
+              { uuid: options.uuid, type: 'upload', bytes: 20, totalBytes: 20 },
+              { uuid: options.uuid, type: 'download', bytes: 1, totalBytes: 2 },
+            ],
+          });
+          return { status: 200, headers: {}, mimeType: null, body: '' };
+        })
+      );
+      const callback = jest.fn();
+
+      await FileSystem.uploadAsync(remoteUri, localUri, {}, callback);
+
+      const { calls } = (ExponentFileSystem.uploadAsync as jest.Mock).mock;
+      expect(calls[0][2].uuid).toEqual(expect.any(String));
+      expect(callback.mock.calls).toEqual([
+        [{ totalBytesSent: 5, totalBytesExpectedToSend: 20 }],
+        [{ totalBytesSent: 20, totalBytesExpectedToSend: 20 }],
+      ]);
+      expect(remove).toHaveBeenCalledTimes(2);
+
+      unmockProperty(ExponentFileSystem, 'uploadAsync');
+      addListener.mockRestore();
+    });
+  });
 });
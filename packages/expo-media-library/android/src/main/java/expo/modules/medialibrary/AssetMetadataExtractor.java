@@ -0,0 +1,128 @@
+package expo.modules.medialibrary;
+
+import android.content.ContentResolver;
+import android.os.Bundle;
+import android.provider.MediaStore.Files;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import androidx.exifinterface.media.ExifInterface;
+
+import static expo.modules.medialibrary.MediaLibraryUtils.getAssetSize;
+import static expo.modules.medialibrary.MediaLibraryUtils.getExifFullInfo;
+import static expo.modules.medialibrary.MediaLibraryUtils.getExifLocation;
+
+/**
+ * Reads metadata of assets from their files. Assets of a page are read concurrently by a small pool of threads,
+ * as most of the time is spent waiting for the storage rather than computing anything.
+ */
+final class AssetMetadataExtractor {
+  private static final int MAX_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  private static final ThreadPoolExecutor sExecutor = createExecutor();
+
+  /**
+   * Asset's columns read from the cursor, which can't be accessed from other threads.
+   */
+  static class Request {
+    final long id;
+    final long dateModified;
+    final String path;
+    final int mediaType;
+    final int width;
+    final int height;
+    final int orientation;
+
+    Request(long id, long dateModified, String path, int mediaType, int width, int height, int orientation) {
+      this.id = id;
+      this.dateModified = dateModified;
+      this.path = path;
+      this.mediaType = mediaType;
+      this.width = width;
+      this.height = height;
+      this.orientation = orientation;
+    }
+  }
+
+  private AssetMetadataExtractor() {
+  }
+
+  /**
+   * Returns metadata of the requested assets, in the same order.
+   *
+   * @param readExif whether to read EXIF of images at all. If not, sizes are not corrected by their EXIF orientation.
+   * @param readExifInfo whether to return EXIF tags and location of images, not only use them to get the size.
+   */
+  static List<MediaMetadataIndex.Entry> extract(final ContentResolver contentResolver, List<Request> requests, final boolean readExif, final boolean readExifInfo) throws IOException {
+    List<MediaMetadataIndex.Entry> entries = new ArrayList<>(requests.size());
+
+    if (requests.size() <= 1) {
+      for (Request request : requests) {
+        entries.add(extract(contentResolver, request, readExif, readExifInfo));
+      }
+      return entries;
+    }
+
+    List<Future<MediaMetadataIndex.Entry>> futures = new ArrayList<>(requests.size());
+    for (final Request request : requests) {
+      futures.add(sExecutor.submit(() -> extract(contentResolver, request, readExif, readExifInfo)));
+    }
+
+    try {
+      for (Future<MediaMetadataIndex.Entry> future : futures) {
+        entries.add(future.get());
+      }
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading assets' metadata.", e);
+    } finally {
+      // Nothing to wait for if any of them has failed.
+      for (Future<MediaMetadataIndex.Entry> future : futures) {
+        future.cancel(false);
+      }
+    }
+    return entries;
+  }
+
+  private static MediaMetadataIndex.Entry extract(ContentResolver contentResolver, Request request, boolean readExif, boolean readExifInfo) throws IOException {
+    ExifInterface exifInterface = null;
+    Bundle exifInfo = new Bundle();
+
+    if (readExif && request.mediaType == Files.FileColumns.MEDIA_TYPE_IMAGE) {
+      long start = MetadataExtractionStats.start();
+      exifInterface = new ExifInterface(request.path);
+
+      if (readExifInfo) {
+        getExifFullInfo(exifInterface, exifInfo);
+        getExifLocation(exifInterface, exifInfo);
+      }
+      MetadataExtractionStats.record(MetadataExtractionStats.KIND_EXIF, start);
+    }
+
+    int[] size = getAssetSize(contentResolver, exifInterface, request.path, request.mediaType, request.width, request.height, request.orientation);
+    return new MediaMetadataIndex.Entry(request.id, request.dateModified, size[0], size[1], exifInfo.getBundle("exif"), exifInfo.getBundle("location"));
+  }
+
+  private static ThreadPoolExecutor createExecutor() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+}
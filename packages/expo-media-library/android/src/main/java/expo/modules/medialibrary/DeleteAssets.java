@@ -7,6 +7,8 @@ import android.text.TextUtils;
 
 import org.unimodules.core.Promise;
 
+import java.util.Arrays;
+
 import static expo.modules.medialibrary.MediaLibraryUtils.deleteAssets;
 
 class DeleteAssets extends AsyncTask<Void, Void, Void> {
@@ -26,6 +28,11 @@ class DeleteAssets extends AsyncTask<Void, Void, Void> {
     final String selection = MediaStore.Images.Media._ID + " IN (" + TextUtils.join(",", mAssetsId) + " )";
     final String[] selectionArgs = null;
     deleteAssets(mContext, selection, selectionArgs, mPromise);
+
+    MediaMetadataIndex index = MediaMetadataIndex.getInstanceIfCreated();
+    if (index != null) {
+      index.removeEntries(Arrays.asList(mAssetsId));
+    }
     return null;
   }
 }
@@ -38,6 +38,7 @@ class GetAssets extends AsyncTask<Void, Void, Void> {
     final String order = getQueryInfo.getOrder();
     final int limit = getQueryInfo.getLimit();
     final int offset = getQueryInfo.getOffset();
+    final boolean skipExif = Boolean.TRUE.equals(mAssetOptions.get("skipExif"));
     ContentResolver contentResolver = mContext.getContentResolver();
     try (Cursor assets = contentResolver.query(
         EXTERNAL_CONTENT,
@@ -49,7 +50,7 @@ class GetAssets extends AsyncTask<Void, Void, Void> {
         mPromise.reject(ERROR_UNABLE_TO_LOAD, "Could not get assets. Query returns null.");
       } else {
         ArrayList<Bundle> assetsInfo = new ArrayList<>();
-        putAssetsInfo(contentResolver, assets, assetsInfo, limit, offset, false);
+        putAssetsInfo(contentResolver, assets, assetsInfo, limit, offset, false, skipExif);
         response.putParcelableArrayList("assets", assetsInfo);
         response.putBoolean("hasNextPage", !assets.isAfterLast());
         response.putString("endCursor", Integer.toString(assets.getPosition()));
@@ -77,6 +77,8 @@ public class MediaLibraryModule extends ExportedModule implements ActivityEventL
   public MediaLibraryModule(Context context) {
     super(context);
     mContext = context;
+    // Assets loaded from now on are saved in the metadata index.
+    MediaMetadataIndex.getInstance(context);
   }
 
   @Override
@@ -295,6 +297,19 @@ public class MediaLibraryModule extends ExportedModule implements ActivityEventL
       .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
   }
 
+  /**
+   * Resolves with how many times and for how long files had to be read to get assets' metadata,
+   * since the app has started or since the last call with `reset` set to true.
+   */
+  @ExpoMethod
+  public void getMetadataExtractionStatsAsync(boolean reset, Promise promise) {
+    Bundle stats = MetadataExtractionStats.toBundle();
+    if (reset) {
+      MetadataExtractionStats.reset();
+    }
+    promise.resolve(stats);
+  }
+
   @ExpoMethod
   public void migrateAlbumIfNeededAsync(String albumId, Promise promise) {
     if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
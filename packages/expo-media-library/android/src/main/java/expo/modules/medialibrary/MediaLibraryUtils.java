@@ -27,7 +27,10 @@ import java.io.IOException;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import androidx.annotation.NonNull;
 import androidx.exifinterface.media.ExifInterface;
@@ -160,6 +163,13 @@ final class MediaLibraryUtils {
   }
 
   static void putAssetsInfo(ContentResolver contentResolver, Cursor cursor, ArrayList<Bundle> response, int limit, int offset, boolean fullInfo) throws IOException {
+    putAssetsInfo(contentResolver, cursor, response, limit, offset, fullInfo, false);
+  }
+
+  /**
+   * @param skipExif if true, EXIF of images is not read, so their sizes are taken as they are in the MediaStore.
+   */
+  static void putAssetsInfo(ContentResolver contentResolver, Cursor cursor, ArrayList<Bundle> response, int limit, int offset, boolean fullInfo, boolean skipExif) throws IOException {
     final int idIndex = cursor.getColumnIndex(MediaStore.Images.Media._ID);
     final int filenameIndex = cursor.getColumnIndex(MediaStore.Images.Media.DISPLAY_NAME);
     final int mediaTypeIndex = cursor.getColumnIndex(Files.FileColumns.MEDIA_TYPE);
@@ -168,45 +178,95 @@ final class MediaLibraryUtils {
     final int durationIndex = cursor.getColumnIndex(MediaStore.Video.VideoColumns.DURATION);
     final int localUriIndex = cursor.getColumnIndex(MediaStore.Images.Media.DATA);
     final int albumIdIndex = cursor.getColumnIndex(MediaStore.Images.Media.BUCKET_ID);
+    final int widthIndex = cursor.getColumnIndex(MediaStore.MediaColumns.WIDTH);
+    final int heightIndex = cursor.getColumnIndex(MediaStore.MediaColumns.HEIGHT);
+    final int orientationIndex = cursor.getColumnIndex(MediaStore.Images.Media.ORIENTATION);
+
+    final MediaMetadataIndex index = MediaMetadataIndex.getInstanceIfCreated();
+    final Map<Long, MediaMetadataIndex.Entry> indexedEntries = index != null
+      ? index.getEntries(getModificationDates(cursor, limit, offset, idIndex, modificationDateIndex))
+      : Collections.<Long, MediaMetadataIndex.Entry>emptyMap();
+    MetadataExtractionStats.recordIndexHits(indexedEntries.size());
 
     if (!cursor.moveToPosition(offset)) {
       return;
     }
+
+    // Read all columns first, so that files of the assets missing in the index can be read concurrently.
+    List<Bundle> assets = new ArrayList<>();
+    List<MediaMetadataIndex.Entry> entries = new ArrayList<>();
+    List<AssetMetadataExtractor.Request> requests = new ArrayList<>();
+
     for (int i = 0; i < limit && !cursor.isAfterLast(); i++) {
       String path = cursor.getString(localUriIndex);
       String localUri = "file://" + path;
       int mediaType = cursor.getInt(mediaTypeIndex);
+      long id = cursor.getLong(idIndex);
+      long modificationDate = cursor.getLong(modificationDateIndex);
 
-      ExifInterface exifInterface = null;
-      if (mediaType == Files.FileColumns.MEDIA_TYPE_IMAGE) {
-        exifInterface = new ExifInterface(path);
+      MediaMetadataIndex.Entry entry = indexedEntries.get(id);
+      if (entry == null) {
+        requests.add(new AssetMetadataExtractor.Request(id, modificationDate, path, mediaType,
+          cursor.getInt(widthIndex), cursor.getInt(heightIndex), cursor.getInt(orientationIndex)));
       }
-
-      int[] size = getSizeFromCursor(contentResolver, exifInterface, cursor, mediaType, localUriIndex);
+      entries.add(entry);
 
       Bundle asset = new Bundle();
       asset.putString("id", cursor.getString(idIndex));
       asset.putString("filename", cursor.getString(filenameIndex));
       asset.putString("uri", localUri);
       asset.putString("mediaType", exportMediaType(mediaType));
-      asset.putLong("width", size[0]);
-      asset.putLong("height", size[1]);
       asset.putLong("creationTime", cursor.getLong(creationDateIndex));
-      asset.putDouble("modificationTime", cursor.getLong(modificationDateIndex) * 1000d);
+      asset.putDouble("modificationTime", modificationDate * 1000d);
       asset.putDouble("duration", cursor.getInt(durationIndex) / 1000d);
       asset.putString("albumId", cursor.getString(albumIdIndex));
 
       if (fullInfo) {
-        if (exifInterface != null) {
-          getExifFullInfo(exifInterface, asset);
-          getExifLocation(exifInterface, asset);
-        }
-
         asset.putString("localUri", localUri);
       }
       cursor.moveToNext();
+      assets.add(asset);
+    }
+
+    // Read all EXIF info while the file is open if it's going to be saved in the index.
+    List<MediaMetadataIndex.Entry> newEntries = AssetMetadataExtractor.extract(contentResolver, requests, !skipExif, !skipExif && (fullInfo || index != null));
+
+    for (int i = 0, newEntryIndex = 0; i < assets.size(); i++) {
+      MediaMetadataIndex.Entry entry = entries.get(i);
+      if (entry == null) {
+        entry = newEntries.get(newEntryIndex++);
+      }
+
+      Bundle asset = assets.get(i);
+      asset.putLong("width", entry.width);
+      asset.putLong("height", entry.height);
+
+      if (fullInfo && entry.exif != null) {
+        asset.putParcelable("exif", entry.exif);
+        asset.putParcelable("location", entry.location);
+      }
       response.add(asset);
     }
+
+    // Entries without EXIF orientation applied are not complete.
+    if (index != null && !skipExif) {
+      index.putEntriesAsync(newEntries);
+    }
+  }
+
+  /**
+   * Returns IDs and modification dates of assets in the given range of the cursor.
+   */
+  private static Map<Long, Long> getModificationDates(Cursor cursor, int limit, int offset, int idIndex, int modificationDateIndex) {
+    Map<Long, Long> modificationDates = new HashMap<>();
+
+    if (cursor.moveToPosition(offset)) {
+      for (int i = 0; i < limit && !cursor.isAfterLast(); i++) {
+        modificationDates.put(cursor.getLong(idIndex), cursor.getLong(modificationDateIndex));
+        cursor.moveToNext();
+      }
+    }
+    return modificationDates;
   }
 
   static String convertSortByKey(String key) throws IllegalArgumentException {
@@ -241,10 +301,23 @@ final class MediaLibraryUtils {
 
   static int[] getSizeFromCursor(ContentResolver contentResolver, ExifInterface exifInterface, Cursor cursor, int mediaType, int localUriIndex) throws IOException {
     final String uri = cursor.getString(localUriIndex);
+    final int widthIndex = cursor.getColumnIndex(MediaStore.MediaColumns.WIDTH);
+    final int heightIndex = cursor.getColumnIndex(MediaStore.MediaColumns.HEIGHT);
+    final int orientationIndex = cursor.getColumnIndex(MediaStore.Images.Media.ORIENTATION);
+
+    return getAssetSize(contentResolver, exifInterface, uri, mediaType,
+      cursor.getInt(widthIndex), cursor.getInt(heightIndex), cursor.getInt(orientationIndex));
+  }
 
+  /**
+   * Returns asset's size, reading it from the file if the given MediaStore columns are not reliable.
+   * Doesn't use the cursor, so it can be called from any thread.
+   */
+  static int[] getAssetSize(ContentResolver contentResolver, ExifInterface exifInterface, String uri, int mediaType, int width, int height, int orientation) throws IOException {
     if (mediaType == Files.FileColumns.MEDIA_TYPE_VIDEO) {
       Uri videoUri = Uri.parse("file://" + uri);
       MediaMetadataRetriever retriever = null;
+      long start = MetadataExtractionStats.start();
       try (AssetFileDescriptor photoDescriptor = contentResolver.openAssetFileDescriptor(videoUri, "r")) {
         retriever = new MediaMetadataRetriever();
         retriever.setDataSource(photoDescriptor.getFileDescriptor());
@@ -268,23 +341,19 @@ final class MediaLibraryUtils {
         if (retriever != null) {
           retriever.release();
         }
+        MetadataExtractionStats.record(MetadataExtractionStats.KIND_VIDEO, start);
       }
     }
 
-    final int widthIndex = cursor.getColumnIndex(MediaStore.MediaColumns.WIDTH);
-    final int heightIndex = cursor.getColumnIndex(MediaStore.MediaColumns.HEIGHT);
-    final int orientationIndex = cursor.getColumnIndex(MediaStore.Images.Media.ORIENTATION);
-    int width = cursor.getInt(widthIndex);
-    int height = cursor.getInt(heightIndex);
-    int orientation = cursor.getInt(orientationIndex);
-
     // If the image doesn't have the required information, we can get them from Bitmap.Options
     if (mediaType == Files.FileColumns.MEDIA_TYPE_IMAGE && (width <= 0 || height <= 0)) {
+      long start = MetadataExtractionStats.start();
       BitmapFactory.Options options = new BitmapFactory.Options();
       options.inJustDecodeBounds = true;
       BitmapFactory.decodeFile(uri, options);
       width = options.outWidth;
       height = options.outHeight;
+      MetadataExtractionStats.record(MetadataExtractionStats.KIND_IMAGE_BOUNDS, start);
     }
 
     if (exifInterface != null) {
@@ -0,0 +1,281 @@
+package expo.modules.medialibrary;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Bundle;
+import android.text.TextUtils;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import androidx.annotation.Nullable;
+
+import static expo.modules.medialibrary.MediaLibraryConstants.exifTags;
+
+/**
+ * Local index of asset metadata that can't be read from the MediaStore itself, i. e. sizes read from video
+ * and image headers, EXIF tags and locations. Entries are keyed by MediaStore ID and modification date,
+ * so they become stale as soon as the asset is modified.
+ *
+ * Entries are added in the background as assets are loaded, so repeated requests for the same assets
+ * don't have to open their files again.
+ */
+class MediaMetadataIndex extends SQLiteOpenHelper {
+  private static final String TAG = "expo-media-library";
+  private static final String DATABASE_NAME = "expo-media-library-metadata.db";
+  private static final int DATABASE_VERSION = 1;
+
+  private static final String TABLE_NAME = "asset_metadata";
+  private static final String COLUMN_ID = "id";
+  private static final String COLUMN_DATE_MODIFIED = "date_modified";
+  private static final String COLUMN_WIDTH = "width";
+  private static final String COLUMN_HEIGHT = "height";
+  private static final String COLUMN_EXIF = "exif";
+  private static final String COLUMN_LATITUDE = "latitude";
+  private static final String COLUMN_LONGITUDE = "longitude";
+
+  // SQLite doesn't allow more variables in a single statement.
+  private static final int MAX_QUERY_ARGS = 999;
+
+  private static MediaMetadataIndex sInstance;
+
+  private final ExecutorService mWriteExecutor = Executors.newSingleThreadExecutor();
+
+  static class Entry {
+    final long id;
+    final long dateModified;
+    final int width;
+    final int height;
+    // null if EXIF hasn't been read, e. g. for videos
+    @Nullable final Bundle exif;
+    @Nullable final Bundle location;
+
+    Entry(long id, long dateModified, int width, int height, @Nullable Bundle exif, @Nullable Bundle location) {
+      this.id = id;
+      this.dateModified = dateModified;
+      this.width = width;
+      this.height = height;
+      this.exif = exif;
+      this.location = location;
+    }
+  }
+
+  static synchronized MediaMetadataIndex getInstance(Context context) {
+    if (sInstance == null) {
+      sInstance = new MediaMetadataIndex(context.getApplicationContext());
+    }
+    return sInstance;
+  }
+
+  /**
+   * Returns the index if it has already been created, by the module or by an earlier call to {@link #getInstance}.
+   */
+  @Nullable
+  static synchronized MediaMetadataIndex getInstanceIfCreated() {
+    return sInstance;
+  }
+
+  MediaMetadataIndex(Context context) {
+    super(context, DATABASE_NAME, null, DATABASE_VERSION);
+  }
+
+  @Override
+  public void onCreate(SQLiteDatabase db) {
+    db.execSQL("CREATE TABLE " + TABLE_NAME + " ("
+      + COLUMN_ID + " INTEGER PRIMARY KEY, "
+      + COLUMN_DATE_MODIFIED + " INTEGER NOT NULL, "
+      + COLUMN_WIDTH + " INTEGER NOT NULL, "
+      + COLUMN_HEIGHT + " INTEGER NOT NULL, "
+      + COLUMN_EXIF + " TEXT, "
+      + COLUMN_LATITUDE + " REAL, "
+      + COLUMN_LONGITUDE + " REAL)");
+  }
+
+  @Override
+  public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+    // The index can always be rebuilt from the files.
+    db.execSQL("DROP TABLE IF EXISTS " + TABLE_NAME);
+    onCreate(db);
+  }
+
+  /**
+   * Returns up-to-date entries of given assets. Assets that aren't in the index
+   * or have been modified since they were indexed are not included.
+   *
+   * @param assets map of asset IDs to their modification dates, as they are in the MediaStore
+   */
+  Map<Long, Entry> getEntries(Map<Long, Long> assets) {
+    Map<Long, Entry> entries = new HashMap<>();
+    if (assets.isEmpty()) {
+      return entries;
+    }
+
+    try {
+      SQLiteDatabase db = getReadableDatabase();
+      List<Long> ids = new ArrayList<>(assets.keySet());
+
+      for (int start = 0; start < ids.size(); start += MAX_QUERY_ARGS) {
+        List<Long> chunk = ids.subList(start, Math.min(start + MAX_QUERY_ARGS, ids.size()));
+        String[] args = new String[chunk.size()];
+        for (int i = 0; i < args.length; i++) {
+          args[i] = chunk.get(i).toString();
+        }
+
+        String selection = COLUMN_ID + " IN (" + TextUtils.join(",", Collections.nCopies(args.length, "?")) + ")";
+        try (Cursor cursor = db.query(TABLE_NAME, null, selection, args, null, null, null)) {
+          while (cursor.moveToNext()) {
+            Entry entry = entryFromCursor(cursor);
+            Long dateModified = assets.get(entry.id);
+
+            if (dateModified != null && dateModified == entry.dateModified) {
+              entries.put(entry.id, entry);
+            }
+          }
+        }
+      }
+    } catch (SQLiteException e) {
+      Log.e(TAG, "Unable to read the metadata index: " + e.getMessage());
+    }
+    return entries;
+  }
+
+  /**
+   * Saves entries in the background, replacing older entries of the same assets.
+   */
+  void putEntriesAsync(final Collection<Entry> entries) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    mWriteExecutor.execute(() -> putEntries(entries));
+  }
+
+  void putEntries(Collection<Entry> entries) {
+    try {
+      SQLiteDatabase db = getWritableDatabase();
+      db.beginTransaction();
+      try {
+        for (Entry entry : entries) {
+          db.insertWithOnConflict(TABLE_NAME, null, toContentValues(entry), SQLiteDatabase.CONFLICT_REPLACE);
+        }
+        db.setTransactionSuccessful();
+      } finally {
+        db.endTransaction();
+      }
+    } catch (SQLiteException e) {
+      Log.e(TAG, "Unable to update the metadata index: " + e.getMessage());
+    }
+  }
+
+  void removeEntries(Collection<String> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    final List<String> idsList = new ArrayList<>(ids);
+    mWriteExecutor.execute(() -> {
+      try {
+        SQLiteDatabase db = getWritableDatabase();
+        for (int start = 0; start < idsList.size(); start += MAX_QUERY_ARGS) {
+          List<String> chunk = idsList.subList(start, Math.min(start + MAX_QUERY_ARGS, idsList.size()));
+          String selection = COLUMN_ID + " IN (" + TextUtils.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+          db.delete(TABLE_NAME, selection, chunk.toArray(new String[0]));
+        }
+      } catch (SQLiteException e) {
+        Log.e(TAG, "Unable to update the metadata index: " + e.getMessage());
+      }
+    });
+  }
+
+  private static ContentValues toContentValues(Entry entry) {
+    ContentValues values = new ContentValues();
+    values.put(COLUMN_ID, entry.id);
+    values.put(COLUMN_DATE_MODIFIED, entry.dateModified);
+    values.put(COLUMN_WIDTH, entry.width);
+    values.put(COLUMN_HEIGHT, entry.height);
+    values.put(COLUMN_EXIF, entry.exif != null ? exifToJson(entry.exif) : null);
+    if (entry.location != null) {
+      values.put(COLUMN_LATITUDE, entry.location.getDouble("latitude"));
+      values.put(COLUMN_LONGITUDE, entry.location.getDouble("longitude"));
+    } else {
+      values.putNull(COLUMN_LATITUDE);
+      values.putNull(COLUMN_LONGITUDE);
+    }
+    return values;
+  }
+
+  private static Entry entryFromCursor(Cursor cursor) {
+    final int exifIndex = cursor.getColumnIndex(COLUMN_EXIF);
+    final int latitudeIndex = cursor.getColumnIndex(COLUMN_LATITUDE);
+    final int longitudeIndex = cursor.getColumnIndex(COLUMN_LONGITUDE);
+
+    Bundle exif = cursor.isNull(exifIndex) ? null : exifFromJson(cursor.getString(exifIndex));
+    Bundle location = null;
+    if (!cursor.isNull(latitudeIndex) && !cursor.isNull(longitudeIndex)) {
+      location = new Bundle();
+      location.putDouble("latitude", cursor.getDouble(latitudeIndex));
+      location.putDouble("longitude", cursor.getDouble(longitudeIndex));
+    }
+
+    return new Entry(
+      cursor.getLong(cursor.getColumnIndex(COLUMN_ID)),
+      cursor.getLong(cursor.getColumnIndex(COLUMN_DATE_MODIFIED)),
+      cursor.getInt(cursor.getColumnIndex(COLUMN_WIDTH)),
+      cursor.getInt(cursor.getColumnIndex(COLUMN_HEIGHT)),
+      exif,
+      location
+    );
+  }
+
+  private static String exifToJson(Bundle exif) {
+    JSONObject json = new JSONObject();
+    try {
+      for (String key : exif.keySet()) {
+        json.put(key, exif.get(key));
+      }
+    } catch (JSONException e) {
+      Log.e(TAG, "Unable to serialize EXIF tags: " + e.getMessage());
+    }
+    return json.toString();
+  }
+
+  // JSON doesn't distinguish integers from doubles, so types are taken from the list of tags.
+  private static Bundle exifFromJson(String jsonString) {
+    Bundle exif = new Bundle();
+    try {
+      JSONObject json = new JSONObject(jsonString);
+      for (String[] tagInfo : exifTags) {
+        String name = tagInfo[1];
+        if (!json.has(name)) {
+          continue;
+        }
+        switch (tagInfo[0]) {
+          case "string":
+            exif.putString(name, json.getString(name));
+            break;
+          case "int":
+            exif.putInt(name, json.getInt(name));
+            break;
+          case "double":
+            exif.putDouble(name, json.getDouble(name));
+            break;
+        }
+      }
+    } catch (JSONException e) {
+      Log.e(TAG, "Unable to deserialize EXIF tags: " + e.getMessage());
+    }
+    return exif;
+  }
+}
@@ -0,0 +1,59 @@
+package expo.modules.medialibrary;
+
+import android.os.Bundle;
+import android.os.SystemClock;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts how many times and for how long assets' files had to be read to get their metadata,
+ * separately for each way of reading it.
+ */
+final class MetadataExtractionStats {
+  static final int KIND_EXIF = 0;
+  static final int KIND_VIDEO = 1;
+  static final int KIND_IMAGE_BOUNDS = 2;
+
+  private static final String[] KIND_NAMES = {"exif", "video", "imageBounds"};
+
+  private static final AtomicLongArray sCounts = new AtomicLongArray(KIND_NAMES.length);
+  private static final AtomicLongArray sDurationsNanos = new AtomicLongArray(KIND_NAMES.length);
+  private static final AtomicLong sIndexHits = new AtomicLong();
+
+  private MetadataExtractionStats() {
+  }
+
+  static long start() {
+    return SystemClock.elapsedRealtimeNanos();
+  }
+
+  static void record(int kind, long startNanos) {
+    sCounts.incrementAndGet(kind);
+    sDurationsNanos.addAndGet(kind, SystemClock.elapsedRealtimeNanos() - startNanos);
+  }
+
+  static void recordIndexHits(int count) {
+    sIndexHits.addAndGet(count);
+  }
+
+  static Bundle toBundle() {
+    Bundle stats = new Bundle();
+    for (int kind = 0; kind < KIND_NAMES.length; kind++) {
+      Bundle kindStats = new Bundle();
+      kindStats.putDouble("count", sCounts.get(kind));
+      kindStats.putDouble("duration", sDurationsNanos.get(kind) / 1e6);
+      stats.putBundle(KIND_NAMES[kind], kindStats);
+    }
+    stats.putDouble("indexHits", sIndexHits.get());
+    return stats;
+  }
+
+  static void reset() {
+    for (int kind = 0; kind < KIND_NAMES.length; kind++) {
+      sCounts.set(kind, 0);
+      sDurationsNanos.set(kind, 0);
+    }
+    sIndexHits.set(0);
+  }
+}
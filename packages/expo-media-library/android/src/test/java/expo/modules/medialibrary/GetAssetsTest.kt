@@ -34,7 +34,7 @@ internal class GetAssetsTest {
     mockGetQueryInfo(selection = "", order = "", limit = 10, offset = 0)
 
     mockkStatic(MediaLibraryUtils::class)
-    every { MediaLibraryUtils.putAssetsInfo(any(), any(), any(), any(), any(), any()) } just runs
+    every { MediaLibraryUtils.putAssetsInfo(any(), any(), any(), any(), any(), any(), any()) } just runs
   }
 
   @After
@@ -54,6 +54,30 @@ internal class MediaLibraryUtilsTests {
     assertNull(result[0].getString("localUri"))
   }
 
+  @Test
+  fun `putAssetsInfo keeps cursor order when skipExif=true`() {
+    // arrange
+    val images = (1..6).map {
+      MockData.mockImage.copy(id = it.toLong(), width = it * 100, height = it * 50)
+    }
+    val cursor = mockCursor(images.map { it.toColumnArray() }.toTypedArray<Array<out Any?>>())
+    val contentResolver = mockContentResolver(cursor)
+
+    // act
+    val result = arrayListOf<Bundle>()
+    MediaLibraryUtils.putAssetsInfo(contentResolver, cursor, result, 5, 1, false, true)
+
+    // assert
+    assertEquals(5, result.size)
+    result.forEachIndexed { i, asset ->
+      val image = images[i + 1]
+      assertEquals(image.id.toString(), asset.getString("id"))
+      assertEquals(image.width!!.toLong(), asset.getLong("width"))
+      assertEquals(image.height!!.toLong(), asset.getLong("height"))
+      assertNull(asset.getBundle("exif"))
+    }
+  }
+
   @Test
   fun `getInPart() should return correct result`() {
     // arrange
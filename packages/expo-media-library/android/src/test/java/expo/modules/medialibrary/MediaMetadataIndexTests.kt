@@ -0,0 +1,91 @@
+package expo.modules.medialibrary
+
+import android.os.Bundle
+import androidx.exifinterface.media.ExifInterface
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+
+@RunWith(RobolectricTestRunner::class)
+internal class MediaMetadataIndexTests {
+
+  private lateinit var index: MediaMetadataIndex
+
+  @Before
+  fun setUp() {
+    index = MediaMetadataIndex(RuntimeEnvironment.application)
+  }
+
+  @After
+  fun tearDown() {
+    index.close()
+  }
+
+  @Test
+  fun `getEntries returns only up-to-date entries`() {
+    // arrange
+    index.putEntries(listOf(
+      MediaMetadataIndex.Entry(1L, 100L, 100, 200, null, null),
+      MediaMetadataIndex.Entry(2L, 100L, 300, 400, null, null)
+    ))
+
+    // act
+    val entries = index.getEntries(mapOf(1L to 100L, 2L to 101L, 3L to 100L))
+
+    // assert
+    assertEquals(1, entries.size)
+    assertEquals(100, entries[1L]?.width)
+    assertEquals(200, entries[1L]?.height)
+  }
+
+  @Test
+  fun `putEntries replaces entries of modified assets`() {
+    // arrange
+    index.putEntries(listOf(MediaMetadataIndex.Entry(1L, 100L, 100, 200, null, null)))
+
+    // act
+    index.putEntries(listOf(MediaMetadataIndex.Entry(1L, 101L, 200, 100, null, null)))
+
+    // assert
+    assertTrue(index.getEntries(mapOf(1L to 100L)).isEmpty())
+    assertEquals(200, index.getEntries(mapOf(1L to 101L))[1L]?.width)
+  }
+
+  @Test
+  fun `entries keep EXIF tags and location`() {
+    // arrange
+    val exif = Bundle().apply {
+      putString(ExifInterface.TAG_ARTIST, "artist")
+      putInt(ExifInterface.TAG_ORIENTATION, 6)
+      putDouble(ExifInterface.TAG_EXPOSURE_TIME, 2.0)
+    }
+    val location = Bundle().apply {
+      putDouble("latitude", 50.0)
+      putDouble("longitude", 20.5)
+    }
+    index.putEntries(listOf(
+      MediaMetadataIndex.Entry(1L, 100L, 100, 200, exif, location),
+      MediaMetadataIndex.Entry(2L, 100L, 100, 200, Bundle(), null)
+    ))
+
+    // act
+    val entries = index.getEntries(mapOf(1L to 100L, 2L to 100L))
+
+    // assert
+    val entry = entries.getValue(1L)
+    assertEquals("artist", entry.exif?.getString(ExifInterface.TAG_ARTIST))
+    assertEquals(6, entry.exif?.getInt(ExifInterface.TAG_ORIENTATION))
+    assertEquals(2.0, entry.exif?.getDouble(ExifInterface.TAG_EXPOSURE_TIME) ?: 0.0, 0.0)
+    assertEquals(50.0, entry.location?.getDouble("latitude") ?: 0.0, 0.0)
+    assertEquals(20.5, entry.location?.getDouble("longitude") ?: 0.0, 0.0)
+
+    assertTrue(entries.getValue(2L).exif?.isEmpty ?: false)
+    assertNull(entries.getValue(2L).location)
+  }
+}
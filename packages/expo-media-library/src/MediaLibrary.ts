@@ -111,6 +111,19 @@ export type AssetsOptions = {
   mediaType?: MediaTypeValue[] | MediaTypeValue;
   createdAfter?: Date | number;
   createdBefore?: Date | number;
+  skipExif?: boolean; // Android only
+};
+
+export type MetadataExtractionKindStats = {
+  count: number;
+  duration: number;
+};
+
+export type MetadataExtractionStats = {
+  exif: MetadataExtractionKindStats;
+  video: MetadataExtractionKindStats;
+  imageBounds: MetadataExtractionKindStats;
+  indexHits: number;
 };
 
 export type PagedInfo<T> = {
@@ -371,7 +384,16 @@ export async function getAssetsAsync(assetsOptions: AssetsOptions = {}): Promise
     throw new UnavailabilityError('MediaLibrary', 'getAssetsAsync');
   }
 
-  const { first, after, album, sortBy, mediaType, createdAfter, createdBefore } = assetsOptions;
+  const {
+    first,
+    after,
+    album,
+    sortBy,
+    mediaType,
+    createdAfter,
+    createdBefore,
+    skipExif,
+  } = assetsOptions;
 
   const options = {
     first: first == null ? 20 : first,
@@ -381,6 +403,7 @@ export async function getAssetsAsync(assetsOptions: AssetsOptions = {}): Promise
     mediaType: arrayize(mediaType || [MediaType.photo]),
     createdAfter: dateToNumber(createdAfter),
     createdBefore: dateToNumber(createdBefore),
+    skipExif: !!skipExif,
   };
 
   if (first != null && typeof options.first !== 'number') {
@@ -470,3 +493,23 @@ export async function albumNeedsMigrationAsync(album: AlbumRef): Promise<boolean
 
   return await MediaLibrary.albumNeedsMigrationAsync(getId(album));
 }
+
+// Android only
+/**
+ * Returns how many times and for how long asset files had to be read to get their metadata,
+ * separately for EXIF, video metadata and image bounds, and how many assets were served from
+ * the metadata index instead. Counted since the app has started or since the last call with `reset` set to `true`.
+ *
+ * This method always returns **null** on **iOS** and **web**.
+ *
+ * @param reset
+ */
+export async function getMetadataExtractionStatsAsync(
+  reset: boolean = false
+): Promise<MetadataExtractionStats | null> {
+  if (!MediaLibrary.getMetadataExtractionStatsAsync) {
+    return null;
+  }
+
+  return await MediaLibrary.getMetadataExtractionStatsAsync(reset);
+}
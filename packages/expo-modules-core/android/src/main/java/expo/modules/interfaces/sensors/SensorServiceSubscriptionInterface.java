@@ -5,6 +5,7 @@ public interface SensorServiceSubscriptionInterface {
   boolean isEnabled();
   Long getUpdateInterval();
   void setUpdateInterval(long updateInterval);
+  void setMaxReportLatencyUs(int maxReportLatencyUs);
   void stop();
   void release();
 }
@@ -4,10 +4,10 @@ import java.io.Serializable;
 import java.util.Date;
 
 import androidx.annotation.Nullable;
-import expo.modules.notifications.service.delegates.SharedPreferencesNotificationsStore;
+import expo.modules.notifications.service.delegates.SQLiteNotificationsStore;
 
 /**
- * A notification trigger that is serializable - this ensures {@link SharedPreferencesNotificationsStore}
+ * A notification trigger that is serializable - this ensures {@link SQLiteNotificationsStore}
  * is capable of storing it in the device's memory.
  */
 public interface SchedulableNotificationTrigger extends NotificationTrigger, Serializable {
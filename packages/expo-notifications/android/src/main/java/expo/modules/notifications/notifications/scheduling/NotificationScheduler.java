@@ -8,6 +8,7 @@ import android.os.ResultReceiver;
 
 import org.unimodules.core.ExportedModule;
 import org.unimodules.core.Promise;
+import org.unimodules.core.arguments.MapArguments;
 import org.unimodules.core.arguments.ReadableArguments;
 import org.unimodules.core.errors.InvalidArgumentException;
 import org.unimodules.core.interfaces.ExpoMethod;
@@ -15,6 +16,8 @@ import org.unimodules.core.interfaces.ExpoMethod;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import androidx.annotation.Nullable;
 import expo.modules.notifications.notifications.ArgumentsNotificationContentBuilder;
@@ -98,6 +101,49 @@ public class NotificationScheduler extends ExportedModule {
     }
   }
 
+  /**
+   * Schedules multiple notifications at once. Every request is a map of `identifier`, `content`
+   * and `trigger`, like the arguments of {@link #scheduleNotificationAsync}. The requests are
+   * persisted in a single transaction, so either all of them are scheduled or none of them is.
+   * Resolves with identifiers of the scheduled notifications.
+   */
+  @ExpoMethod
+  public void scheduleNotificationsAsync(List<Map<String, Object>> requestsParams, final Promise promise) {
+    try {
+      final ArrayList<NotificationRequest> requests = new ArrayList<>(requestsParams.size());
+      final ArrayList<String> identifiers = new ArrayList<>(requestsParams.size());
+      for (Map<String, Object> requestParams : requestsParams) {
+        ReadableArguments arguments = new MapArguments(requestParams);
+        String identifier = arguments.getString("identifier");
+        NotificationContent content = new ArgumentsNotificationContentBuilder(getContext()).setPayload(arguments.getArguments("content")).build();
+        requests.add(createNotificationRequest(identifier, content, triggerFromParams(arguments.getArguments("trigger"))));
+        identifiers.add(identifier);
+      }
+      NotificationsService.Companion.scheduleMany(getSchedulingContext(), requests, new ResultReceiver(HANDLER) {
+        @Override
+        protected void onReceiveResult(int resultCode, Bundle resultData) {
+          super.onReceiveResult(resultCode, resultData);
+          if (resultCode == NotificationsService.SUCCESS_CODE) {
+            promise.resolve(identifiers);
+          } else {
+            Exception e = (Exception) resultData.getSerializable(NotificationsService.EXCEPTION_KEY);
+            if (e == null) {
+              promise.reject("ERR_NOTIFICATIONS_FAILED_TO_SCHEDULE", "Failed to schedule notifications.");
+            } else {
+              promise.reject("ERR_NOTIFICATIONS_FAILED_TO_SCHEDULE", "Failed to schedule the notifications. " + e.getMessage(), e);
+            }
+          }
+        }
+      });
+    } catch (InvalidArgumentException e) {
+      promise.reject("ERR_NOTIFICATIONS_FAILED_TO_SCHEDULE", "Failed to schedule the notifications. " + e.getMessage(), e);
+    } catch (NullPointerException e) {
+      promise.reject("ERR_NOTIFICATIONS_FAILED_TO_SCHEDULE", "Failed to schedule the notifications. Encountered unexpected null value. " + e.getMessage(), e);
+    } catch (Exception e) {
+      promise.reject("ERR_NOTIFICATIONS_FAILED_TO_SCHEDULE", "Failed to schedule the notifications. " + e.getMessage(), e);
+    }
+  }
+
   @ExpoMethod
   public void cancelScheduledNotificationAsync(String identifier, final Promise promise) {
     NotificationsService.Companion.removeScheduledNotification(getSchedulingContext(), identifier, new ResultReceiver(HANDLER) {
@@ -29,6 +29,8 @@ import expo.modules.notifications.service.interfaces.CategoriesDelegate
 import expo.modules.notifications.service.interfaces.HandlingDelegate
 import expo.modules.notifications.service.interfaces.PresentationDelegate
 import expo.modules.notifications.service.interfaces.SchedulingDelegate
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.concurrent.thread
 
 /**
@@ -58,7 +60,9 @@ open class NotificationsService : BroadcastReceiver() {
     private const val SET_CATEGORY_TYPE = "setCategory"
     private const val DELETE_CATEGORY_TYPE = "deleteCategory"
     private const val SCHEDULE_TYPE = "schedule"
+    private const val SCHEDULE_MANY_TYPE = "scheduleMany"
     private const val TRIGGER_TYPE = "trigger"
+    private const val TRIGGER_DUE_TYPE = "triggerDue"
     private const val GET_ALL_SCHEDULED_TYPE = "getAllScheduled"
     private const val GET_SCHEDULED_TYPE = "getScheduled"
     private const val REMOVE_SELECTED_TYPE = "removeSelected"
@@ -85,6 +89,11 @@ open class NotificationsService : BroadcastReceiver() {
     const val NOTIFICATION_REQUEST_KEY = "notificationRequest"
     const val NOTIFICATION_REQUESTS_KEY = "notificationRequests"
     const val NOTIFICATION_ACTION_KEY = "notificationAction"
+    private const val PENDING_NOTIFICATION_REQUESTS_ID_KEY = "pendingNotificationRequestsId"
+
+    // Requests passed to scheduleMany. Only their ID is put in the broadcast, so the number
+    // of requests isn't limited by the size of a Binder transaction.
+    private val pendingNotificationRequests = ConcurrentHashMap<String, Collection<NotificationRequest>>()
 
     /**
      * A helper function for dispatching a "fetch all displayed notifications" command to the service.
@@ -301,6 +310,39 @@ open class NotificationsService : BroadcastReceiver() {
       )
     }
 
+    /**
+     * Schedule multiple notifications asynchronously. The requests are persisted atomically:
+     * if any of them can't be scheduled, none of them is.
+     *
+     * The requests are kept in memory until the service picks them up, the broadcast carries only their ID.
+     *
+     * @param context Context this is being called from
+     * @param notificationRequests Notification requests to schedule
+     * @param resultReceiver Receiver to be called with the result
+     */
+    fun scheduleMany(context: Context, notificationRequests: Collection<NotificationRequest>, resultReceiver: ResultReceiver? = null) {
+      val pendingRequestsId = UUID.randomUUID().toString()
+      pendingNotificationRequests[pendingRequestsId] = ArrayList(notificationRequests)
+      try {
+        doWork(
+          context,
+          Intent(
+            NOTIFICATION_EVENT_ACTION,
+            getUriBuilder()
+              .appendPath("scheduled")
+              .build()
+          ).also { intent ->
+            intent.putExtra(EVENT_TYPE_KEY, SCHEDULE_MANY_TYPE)
+            intent.putExtra(PENDING_NOTIFICATION_REQUESTS_ID_KEY, pendingRequestsId)
+            intent.putExtra(RECEIVER_KEY, resultReceiver)
+          }
+        )
+      } catch (e: RuntimeException) {
+        pendingNotificationRequests.remove(pendingRequestsId)
+        throw e
+      }
+    }
+
     /**
      * Cancel selected scheduled notification and remove it from the storage asynchronously.
      *
@@ -411,6 +453,36 @@ open class NotificationsService : BroadcastReceiver() {
       )
     }
 
+    /**
+     * Creates and returns a pending intent that will trigger [NotificationsService],
+     * which hands off the work to this class. The intent triggers all notifications that are due.
+     * A single alarm with this intent is kept registered for the earliest scheduled notification.
+     *
+     * @param context Context this is being called from
+     * @return [PendingIntent] triggering [NotificationsService], triggering due notifications.
+     */
+    fun createDueNotificationsTrigger(context: Context): PendingIntent {
+      val intent = Intent(
+        NOTIFICATION_EVENT_ACTION,
+        getUriBuilder()
+          .appendPath("scheduled")
+          .appendPath("due")
+          .build()
+      ).also { intent ->
+        findDesignatedBroadcastReceiver(context, intent)?.let {
+          intent.component = ComponentName(it.packageName, it.name)
+        }
+        intent.putExtra(EVENT_TYPE_KEY, TRIGGER_DUE_TYPE)
+      }
+
+      return PendingIntent.getBroadcast(
+        context,
+        intent.component?.className?.hashCode() ?: NotificationsService::class.java.hashCode(),
+        intent,
+        PendingIntent.FLAG_UPDATE_CURRENT
+      )
+    }
+
     /**
      * Creates and returns a pending intent that will trigger [NotificationsService]'s "response received"
      * event.
@@ -567,12 +639,16 @@ open class NotificationsService : BroadcastReceiver() {
 
           SCHEDULE_TYPE -> onScheduleNotification(context, intent)
 
+          SCHEDULE_MANY_TYPE -> onScheduleNotifications(context, intent)
+
           REMOVE_SELECTED_TYPE -> onRemoveScheduledNotifications(context, intent)
 
           REMOVE_ALL_TYPE -> onRemoveAllScheduledNotifications(context, intent)
 
           TRIGGER_TYPE -> onNotificationTriggered(context, intent)
 
+          TRIGGER_DUE_TYPE -> onDueNotificationsTriggered(context, intent)
+
           else -> throw IllegalArgumentException("Received event of unrecognized type: $eventType. Ignoring.")
         }
 
@@ -700,11 +776,20 @@ open class NotificationsService : BroadcastReceiver() {
       intent.extras?.getParcelable(NOTIFICATION_REQUEST_KEY)!!
     )
 
+  open fun onScheduleNotifications(context: Context, intent: Intent) =
+    getSchedulingDelegate(context).scheduleNotifications(
+      pendingNotificationRequests.remove(intent.getStringExtra(PENDING_NOTIFICATION_REQUESTS_ID_KEY)!!)
+        ?: throw IllegalStateException("Notification requests to schedule are no longer available.")
+    )
+
   open fun onNotificationTriggered(context: Context, intent: Intent) =
     getSchedulingDelegate(context).triggerNotification(
       intent.extras?.getString(IDENTIFIER_KEY)!!
     )
 
+  open fun onDueNotificationsTriggered(context: Context, intent: Intent) =
+    getSchedulingDelegate(context).triggerDueNotifications()
+
   open fun onRemoveScheduledNotifications(context: Context, intent: Intent) =
     getSchedulingDelegate(context).removeScheduledNotifications(
       intent.extras?.getStringArray(IDENTIFIERS_KEY)!!.asList()
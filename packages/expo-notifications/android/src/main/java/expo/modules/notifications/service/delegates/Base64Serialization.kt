@@ -11,18 +11,24 @@ import java.io.Serializable
 
 @Throws(IOException::class)
 fun Serializable.encodedInBase64(): String =
+  Base64.encodeToString(serialized(), Base64.NO_WRAP)
+
+@Throws(IOException::class, ClassNotFoundException::class, InvalidClassException::class)
+inline fun <reified T> String.asBase64EncodedObject(): T =
+  Base64.decode(this, Base64.NO_WRAP).asSerializedObject<T>()
+
+@Throws(IOException::class)
+fun Serializable.serialized(): ByteArray =
   ByteArrayOutputStream().use { byteArrayOutputStream ->
     ObjectOutputStream(byteArrayOutputStream).use { objectOutputStream ->
       objectOutputStream.writeObject(this)
-      Base64.encodeToString(byteArrayOutputStream.toByteArray(), Base64.NO_WRAP)
     }
+    byteArrayOutputStream.toByteArray()
   }
 
 @Throws(IOException::class, ClassNotFoundException::class, InvalidClassException::class)
-inline fun <reified T> String.asBase64EncodedObject(): T =
-  ByteArrayInputStream(
-    Base64.decode(this, Base64.NO_WRAP)
-  ).use { byteArrayInputStream ->
+inline fun <reified T> ByteArray.asSerializedObject(): T =
+  ByteArrayInputStream(this).use { byteArrayInputStream ->
     ObjectInputStream(byteArrayInputStream).use { ois ->
       val o = ois.readObject()
       if (o is T) {
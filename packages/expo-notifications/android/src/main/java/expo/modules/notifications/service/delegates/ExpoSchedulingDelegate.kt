@@ -10,21 +10,25 @@ import expo.modules.notifications.notifications.model.NotificationRequest
 import expo.modules.notifications.service.NotificationsService
 import expo.modules.notifications.service.interfaces.SchedulingDelegate
 import java.io.IOException
-import java.io.InvalidClassException
 
+/**
+ * Scheduled notifications are persisted in [SQLiteNotificationsStore] along with the time they are
+ * going to trigger next. Only one alarm is registered, for the earliest of them. When it fires,
+ * all notifications that are due are triggered and the alarm is armed again for the next one.
+ */
 class ExpoSchedulingDelegate(protected val context: Context) : SchedulingDelegate {
-  protected val store = SharedPreferencesNotificationsStore(context)
+  companion object {
+    private val triggerLock = Any()
+  }
+
+  protected val store = SQLiteNotificationsStore.getInstance(context)
   protected val alarmManager = context.getSystemService(Context.ALARM_SERVICE) as AlarmManager
 
   override fun setupScheduledNotifications() {
-    store.allNotificationRequests.forEach {
-      try {
-        scheduleNotification(it)
-      } catch (e: Exception) {
-        Log.w("expo-notifications", "Notification ${it.identifier} could not have been scheduled: ${e.message}")
-        e.printStackTrace()
-      }
-    }
+    // Notifications due in the future keep their trigger times, only the ones
+    // that should have triggered while the device was off need to be updated.
+    updateNotifications(store.getDueNotificationRequests(System.currentTimeMillis()))
+    armNextAlarm()
   }
 
   override fun getAllScheduledNotifications(): Collection<NotificationRequest> =
@@ -40,63 +44,135 @@ class ExpoSchedulingDelegate(protected val context: Context) : SchedulingDelegat
     null
   }
 
-  override fun scheduleNotification(request: NotificationRequest) {
-    // If the trigger is empty, handle receive immediately and return.
-    if (request.trigger == null) {
-      NotificationsService.receive(context, Notification(request))
-      return
-    }
+  override fun scheduleNotification(request: NotificationRequest) =
+    scheduleNotifications(listOf(request))
 
-    if (request.trigger !is SchedulableNotificationTrigger) {
-      throw IllegalArgumentException("Notification request \"${request.identifier}\" does not have a schedulable trigger (it's ${request.trigger}). Refusing to schedule.")
+  override fun scheduleNotifications(requests: Collection<NotificationRequest>) {
+    // Validate all the requests before persisting any of them
+    requests.forEach {
+      if (it.trigger != null && it.trigger !is SchedulableNotificationTrigger) {
+        throw IllegalArgumentException("Notification request \"${it.identifier}\" does not have a schedulable trigger (it's ${it.trigger}). Refusing to schedule.")
+      }
     }
 
-    (request.trigger as SchedulableNotificationTrigger).nextTriggerDate().let { nextTriggerDate ->
-      if (nextTriggerDate == null) {
+    val requestsToSave = ArrayList<NotificationRequest>(requests.size)
+    val identifiersToRemove = ArrayList<String>()
+    requests.forEach { request ->
+      // If the trigger is empty, handle receive immediately.
+      if (request.trigger == null) {
+        NotificationsService.receive(context, Notification(request))
+      } else if ((request.trigger as SchedulableNotificationTrigger).nextTriggerDate() == null) {
         Log.d("expo-notifications", "Notification request \"${request.identifier}\" will not trigger in the future, removing.")
-        NotificationsService.removeScheduledNotification(context, request.identifier)
+        identifiersToRemove.add(request.identifier)
       } else {
-        store.saveNotificationRequest(request)
-        AlarmManagerCompat.setExactAndAllowWhileIdle(
-          alarmManager,
-          AlarmManager.RTC_WAKEUP,
-          nextTriggerDate.time,
-          NotificationsService.createNotificationTrigger(context, request.identifier)
-        )
+        requestsToSave.add(request)
       }
     }
+
+    if (requestsToSave.isNotEmpty()) {
+      store.saveNotificationRequests(requestsToSave)
+    }
+    if (identifiersToRemove.isNotEmpty()) {
+      store.removeNotificationRequests(identifiersToRemove)
+    }
+    if (requestsToSave.isNotEmpty() || identifiersToRemove.isNotEmpty()) {
+      armNextAlarm()
+    }
   }
 
-  override fun triggerNotification(identifier: String) {
-    try {
-      val notificationRequest: NotificationRequest = store.getNotificationRequest(identifier)!!
-      NotificationsService.receive(context, Notification(notificationRequest))
-      NotificationsService.schedule(context, notificationRequest)
-    } catch (e: ClassNotFoundException) {
-      Log.e("expo-notifications", "An exception occurred while triggering notification " + identifier + ", removing. " + e.message)
-      e.printStackTrace()
-      NotificationsService.removeScheduledNotification(context, identifier)
-    } catch (e: InvalidClassException) {
-      Log.e("expo-notifications", "An exception occurred while triggering notification " + identifier + ", removing. " + e.message)
-      e.printStackTrace()
-      NotificationsService.removeScheduledNotification(context, identifier)
-    } catch (e: NullPointerException) {
-      Log.e("expo-notifications", "An exception occurred while triggering notification " + identifier + ", removing. " + e.message)
-      e.printStackTrace()
-      NotificationsService.removeScheduledNotification(context, identifier)
+  /**
+   * Handles alarms registered for a single notification, before scheduled notifications
+   * shared one alarm. The notification is triggered along with any other due ones
+   * and the alarm isn't registered again.
+   */
+  override fun triggerNotification(identifier: String) =
+    triggerDueNotifications()
+
+  override fun triggerDueNotifications() {
+    // Alarms may fire at the same time, a notification must only be triggered once
+    synchronized(triggerLock) {
+      val dueRequests = store.getDueNotificationRequests(System.currentTimeMillis())
+      dueRequests.forEach {
+        NotificationsService.receive(context, Notification(it))
+      }
+      updateNotifications(dueRequests)
+      armNextAlarm()
     }
   }
 
   override fun removeScheduledNotifications(identifiers: Collection<String>) {
     identifiers.forEach {
+      // Cancels alarms registered for a single notification by previous versions
       alarmManager.cancel(NotificationsService.createNotificationTrigger(context, it))
-      store.removeNotificationRequest(it)
     }
+    store.removeNotificationRequests(identifiers)
+    armNextAlarm()
   }
 
   override fun removeAllScheduledNotifications() {
     store.removeAllNotificationRequests().forEach {
       alarmManager.cancel(NotificationsService.createNotificationTrigger(context, it))
     }
+    alarmManager.cancel(NotificationsService.createDueNotificationsTrigger(context))
+  }
+
+  /**
+   * Saves the next trigger times of given notifications, removing the ones that won't trigger anymore.
+   * A notification that fails to be rescheduled is removed as well, so that it neither stops
+   * the others from being rescheduled nor keeps the alarm firing with its outdated trigger time.
+   */
+  private fun updateNotifications(requests: Collection<NotificationRequest>) {
+    val requestsToSave = ArrayList<NotificationRequest>(requests.size)
+    val identifiersToRemove = ArrayList<String>()
+    requests.forEach {
+      val nextTriggerDate = try {
+        (it.trigger as? SchedulableNotificationTrigger)?.nextTriggerDate()
+      } catch (e: Exception) {
+        Log.w("expo-notifications", "Notification ${it.identifier} could not have been scheduled: ${e.message}", e)
+        null
+      }
+      if (nextTriggerDate != null) {
+        requestsToSave.add(it)
+      } else {
+        identifiersToRemove.add(it.identifier)
+      }
+    }
+
+    if (requestsToSave.isNotEmpty()) {
+      try {
+        store.saveNotificationRequests(requestsToSave)
+      } catch (e: IOException) {
+        // The whole batch has been rolled back, save the requests one by one to drop only the failing ones
+        requestsToSave.forEach {
+          try {
+            store.saveNotificationRequest(it)
+          } catch (e: IOException) {
+            Log.w("expo-notifications", "Notification ${it.identifier} could not have been scheduled: ${e.message}", e)
+            identifiersToRemove.add(it.identifier)
+          }
+        }
+      }
+    }
+    if (identifiersToRemove.isNotEmpty()) {
+      store.removeNotificationRequests(identifiersToRemove)
+    }
+  }
+
+  /**
+   * Registers the alarm for the earliest scheduled notification, replacing the previous one.
+   */
+  private fun armNextAlarm() {
+    val trigger = NotificationsService.createDueNotificationsTrigger(context)
+    val nextTriggerTime = store.nextTriggerTime
+    if (nextTriggerTime == null) {
+      alarmManager.cancel(trigger)
+      return
+    }
+    AlarmManagerCompat.setExactAndAllowWhileIdle(
+      alarmManager,
+      AlarmManager.RTC_WAKEUP,
+      nextTriggerTime,
+      trigger
+    )
   }
 }
@@ -0,0 +1,278 @@
+package expo.modules.notifications.service.delegates
+
+import android.content.ContentValues
+import android.content.Context
+import android.database.Cursor
+import android.database.sqlite.SQLiteDatabase
+import android.database.sqlite.SQLiteOpenHelper
+import android.util.Log
+import expo.modules.notifications.notifications.interfaces.SchedulableNotificationTrigger
+import expo.modules.notifications.notifications.model.NotificationRequest
+import java.io.IOException
+
+/**
+ * A SQLite-backed store of scheduled notification requests, replacing [SharedPreferencesNotificationsStore].
+ * Requests are persisted as serialized blobs in rows indexed by their identifier and by the time
+ * they are going to trigger next, so a single request or the due ones
+ * can be read without going through all of them.
+ *
+ * Requests persisted by [SharedPreferencesNotificationsStore] are moved to this store when the database is created.
+ */
+class SQLiteNotificationsStore private constructor(private val context: Context) :
+  SQLiteOpenHelper(context, DATABASE_NAME, null, DATABASE_VERSION) {
+  companion object {
+    private const val TAG = "expo-notifications"
+    private const val DATABASE_NAME = "expo.modules.notifications.NotificationsStore.db"
+    private const val DATABASE_VERSION = 1
+
+    private const val TABLE_NOTIFICATION_REQUESTS = "notification_requests"
+    private const val COLUMN_IDENTIFIER = "identifier"
+    private const val COLUMN_NEXT_TRIGGER_TIME = "next_trigger_time"
+    private const val COLUMN_REQUEST = "request"
+
+    private const val DEFAULT_PAGE_SIZE = 100
+
+    @Volatile
+    private var instance: SQLiteNotificationsStore? = null
+
+    /**
+     * Returns the store shared by the whole process, so that all scheduling delegates
+     * use the same database connection.
+     */
+    fun getInstance(context: Context): SQLiteNotificationsStore =
+      instance ?: synchronized(this) {
+        instance ?: SQLiteNotificationsStore(context.applicationContext).also { instance = it }
+      }
+  }
+
+  // Identifiers of the requests copied from the legacy store in onCreate, removed from there
+  // in onOpen, once the database has been committed
+  private var migratedLegacyIdentifiers: Collection<String>? = null
+
+  override fun onCreate(db: SQLiteDatabase) {
+    db.execSQL(
+      "CREATE TABLE $TABLE_NOTIFICATION_REQUESTS (" +
+        "$COLUMN_IDENTIFIER TEXT PRIMARY KEY NOT NULL, " +
+        "$COLUMN_NEXT_TRIGGER_TIME INTEGER, " +
+        "$COLUMN_REQUEST BLOB NOT NULL)"
+    )
+    db.execSQL("CREATE INDEX ${TABLE_NOTIFICATION_REQUESTS}_$COLUMN_NEXT_TRIGGER_TIME ON $TABLE_NOTIFICATION_REQUESTS ($COLUMN_NEXT_TRIGGER_TIME)")
+    migratedLegacyIdentifiers = copySharedPreferencesStore(db)
+  }
+
+  override fun onUpgrade(db: SQLiteDatabase, oldVersion: Int, newVersion: Int) = Unit
+
+  override fun onOpen(db: SQLiteDatabase) {
+    super.onOpen(db)
+    migratedLegacyIdentifiers?.let {
+      SharedPreferencesNotificationsStore(context).removeNotificationRequests(it)
+      migratedLegacyIdentifiers = null
+    }
+  }
+
+  /**
+   * Fetches scheduled notification request for given identifier.
+   *
+   * @param identifier Identifier of the notification.
+   * @return Notification request or null if there is none.
+   * @throws IOException Thrown if there is an error when reading the request.
+   * @throws ClassNotFoundException Thrown if there is an error when interpreting the request.
+   */
+  @Throws(IOException::class, ClassNotFoundException::class)
+  fun getNotificationRequest(identifier: String): NotificationRequest? =
+    readableDatabase.query(
+      TABLE_NOTIFICATION_REQUESTS,
+      arrayOf(COLUMN_REQUEST),
+      "$COLUMN_IDENTIFIER = ?",
+      arrayOf(identifier),
+      null,
+      null,
+      null
+    ).use { cursor ->
+      if (cursor.moveToFirst()) cursor.getBlob(0).asSerializedObject<NotificationRequest>() else null
+    }
+
+  /**
+   * Fetches all scheduled notifications, ignoring invalid ones.
+   */
+  val allNotificationRequests: Collection<NotificationRequest>
+    get() = ArrayList<NotificationRequest>().also { requests ->
+      forEachNotificationRequest { requests.add(it) }
+    }
+
+  /**
+   * Calls [action] with every valid scheduled notification. Requests are read in pages of
+   * [pageSize], so only one page is kept in memory at a time. [action] may save or remove requests.
+   */
+  fun forEachNotificationRequest(pageSize: Int = DEFAULT_PAGE_SIZE, action: (NotificationRequest) -> Unit) {
+    var lastIdentifier = ""
+    do {
+      val requests = ArrayList<NotificationRequest>(pageSize)
+      val rowsCount = readableDatabase.query(
+        TABLE_NOTIFICATION_REQUESTS,
+        arrayOf(COLUMN_REQUEST, COLUMN_IDENTIFIER),
+        "$COLUMN_IDENTIFIER > ?",
+        arrayOf(lastIdentifier),
+        null,
+        null,
+        COLUMN_IDENTIFIER,
+        pageSize.toString()
+      ).use { cursor ->
+        if (cursor.moveToLast()) {
+          lastIdentifier = cursor.getString(1)
+        }
+        cursor.moveToPosition(-1)
+        requests.addAll(readRequests(cursor))
+        cursor.count
+      }
+      requests.forEach(action)
+    } while (rowsCount == pageSize)
+  }
+
+  /**
+   * Saves given notification in the persistent storage.
+   *
+   * @param notificationRequest Notification request
+   * @throws IOException Thrown if there is an error while serializing the request
+   */
+  @Throws(IOException::class)
+  fun saveNotificationRequest(notificationRequest: NotificationRequest) {
+    writableDatabase.insertWithOnConflict(
+      TABLE_NOTIFICATION_REQUESTS,
+      null,
+      notificationRequest.toContentValues(),
+      SQLiteDatabase.CONFLICT_REPLACE
+    )
+  }
+
+  /**
+   * Saves given notifications in a single transaction, so either all or none of them are persisted.
+   *
+   * @param notificationRequests Notification requests
+   * @throws IOException Thrown if there is an error while serializing any of the requests
+   */
+  @Throws(IOException::class)
+  fun saveNotificationRequests(notificationRequests: Collection<NotificationRequest>) =
+    inTransaction(writableDatabase) { db ->
+      notificationRequests.forEach {
+        db.insertWithOnConflict(TABLE_NOTIFICATION_REQUESTS, null, it.toContentValues(), SQLiteDatabase.CONFLICT_REPLACE)
+      }
+    }
+
+  /**
+   * Fetches notifications which were due to trigger at or before given time, ignoring invalid ones.
+   *
+   * @param time Time in milliseconds since epoch
+   */
+  fun getDueNotificationRequests(time: Long): List<NotificationRequest> =
+    readableDatabase.query(
+      TABLE_NOTIFICATION_REQUESTS,
+      arrayOf(COLUMN_REQUEST),
+      "$COLUMN_NEXT_TRIGGER_TIME <= ?",
+      arrayOf(time.toString()),
+      null,
+      null,
+      COLUMN_NEXT_TRIGGER_TIME
+    ).use { readRequests(it) }
+
+  /**
+   * @return Time in milliseconds since epoch at which the earliest scheduled notification is going to trigger,
+   * or null if there are no scheduled notifications.
+   */
+  val nextTriggerTime: Long?
+    get() = readableDatabase.rawQuery(
+      "SELECT MIN($COLUMN_NEXT_TRIGGER_TIME) FROM $TABLE_NOTIFICATION_REQUESTS",
+      null
+    ).use { cursor ->
+      if (cursor.moveToFirst() && !cursor.isNull(0)) cursor.getLong(0) else null
+    }
+
+  /**
+   * Removes notification request for given identifier.
+   *
+   * @param identifier Notification identifier
+   */
+  fun removeNotificationRequest(identifier: String) {
+    writableDatabase.delete(TABLE_NOTIFICATION_REQUESTS, "$COLUMN_IDENTIFIER = ?", arrayOf(identifier))
+  }
+
+  /**
+   * Removes notification requests for given identifiers in a single transaction.
+   *
+   * @param identifiers Notification identifiers
+   */
+  fun removeNotificationRequests(identifiers: Collection<String>) =
+    inTransaction(writableDatabase) { db ->
+      identifiers.forEach {
+        db.delete(TABLE_NOTIFICATION_REQUESTS, "$COLUMN_IDENTIFIER = ?", arrayOf(it))
+      }
+    }
+
+  /**
+   * Removes all notification requests, returning removed IDs.
+   */
+  fun removeAllNotificationRequests(): Collection<String> =
+    inTransaction(writableDatabase) { db ->
+      val identifiers = db.query(TABLE_NOTIFICATION_REQUESTS, arrayOf(COLUMN_IDENTIFIER), null, null, null, null, null).use { cursor ->
+        ArrayList<String>(cursor.count).also {
+          while (cursor.moveToNext()) {
+            it.add(cursor.getString(0))
+          }
+        }
+      }
+      db.delete(TABLE_NOTIFICATION_REQUESTS, null, null)
+      identifiers
+    }
+
+  private fun readRequests(cursor: Cursor): List<NotificationRequest> =
+    ArrayList<NotificationRequest>(cursor.count).also { requests ->
+      while (cursor.moveToNext()) {
+        try {
+          requests.add(cursor.getBlob(0).asSerializedObject())
+        } catch (e: ClassNotFoundException) {
+          // do nothing
+        } catch (e: IOException) {
+          // do nothing
+        }
+      }
+    }
+
+  @Throws(IOException::class)
+  private fun NotificationRequest.toContentValues() = ContentValues().apply {
+    put(COLUMN_IDENTIFIER, identifier)
+    put(COLUMN_NEXT_TRIGGER_TIME, (trigger as? SchedulableNotificationTrigger)?.nextTriggerDate()?.time)
+    put(COLUMN_REQUEST, serialized())
+  }
+
+  private fun <T> inTransaction(db: SQLiteDatabase, block: (SQLiteDatabase) -> T): T {
+    db.beginTransaction()
+    try {
+      return block(db).also { db.setTransactionSuccessful() }
+    } finally {
+      db.endTransaction()
+    }
+  }
+
+  /**
+   * Copies requests persisted by [SharedPreferencesNotificationsStore] to the database being created,
+   * dropping the ones that won't trigger anymore. Called from [onCreate], so it runs once per installation.
+   *
+   * The legacy store is shared with the versioned copies of this module, whose requests can't be
+   * deserialized here and are left untouched.
+   *
+   * @return Identifiers of the requests that have been handled and can be removed from the legacy store.
+   */
+  private fun copySharedPreferencesStore(db: SQLiteDatabase): Collection<String> =
+    SharedPreferencesNotificationsStore(context).allNotificationRequests.mapNotNull { request ->
+      try {
+        val values = request.toContentValues()
+        if (values.get(COLUMN_NEXT_TRIGGER_TIME) != null) {
+          db.insertWithOnConflict(TABLE_NOTIFICATION_REQUESTS, null, values, SQLiteDatabase.CONFLICT_IGNORE)
+        }
+        request.identifier
+      } catch (e: IOException) {
+        Log.e(TAG, "Could not migrate scheduled notification ${request.identifier}: ${e.message}", e)
+        null
+      }
+    }
+}
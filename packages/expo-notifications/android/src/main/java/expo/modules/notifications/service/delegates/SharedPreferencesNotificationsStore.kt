@@ -9,6 +9,8 @@ import java.io.IOException
  * A fairly straightforward [SharedPreferences] wrapper to be used by [NotificationSchedulingHelper].
  * Saves and reads notifications (identifiers, requests and triggers) to and from the persistent storage.
  *
+ * Superseded by [SQLiteNotificationsStore], which migrates requests saved here.
+ *
  * A notification request of identifier = 123abc, it will be persisted under key:
  * [SharedPreferencesNotificationsStore.NOTIFICATION_REQUEST_KEY_PREFIX]123abc
  */
@@ -110,6 +112,18 @@ class SharedPreferencesNotificationsStore(context: Context) {
       }
     }
 
+  /**
+   * Removes notification infos for given identifiers.
+   * Used once requests have been migrated to [SQLiteNotificationsStore].
+   *
+   * @param identifiers Notification identifiers
+   */
+  fun removeNotificationRequests(identifiers: Collection<String>) =
+    with(sharedPreferences.edit()) {
+      identifiers.forEach { removeNotificationRequest(this, it) }
+      apply()
+    }
+
   /**
    * @param identifier Notification identifier
    * @return Key under which notification request will be persisted in the storage.
@@ -7,7 +7,9 @@ interface SchedulingDelegate {
   fun getAllScheduledNotifications(): Collection<NotificationRequest>
   fun getScheduledNotification(identifier: String): NotificationRequest?
   fun scheduleNotification(request: NotificationRequest)
+  fun scheduleNotifications(requests: Collection<NotificationRequest>)
   fun triggerNotification(identifier: String)
+  fun triggerDueNotifications()
   fun removeScheduledNotifications(identifiers: Collection<String>)
   fun removeAllScheduledNotifications()
 }
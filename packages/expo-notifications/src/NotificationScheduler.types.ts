@@ -9,6 +9,13 @@ export interface NotificationSchedulerModule extends ProxyNativeModule {
     notificationContent: NotificationContentInput,
     trigger: NotificationTriggerInput
   ) => Promise<string>;
+  scheduleNotificationsAsync?: (
+    requests: {
+      identifier: string;
+      content: NotificationContentInput;
+      trigger: NotificationTriggerInput;
+    }[]
+  ) => Promise<string[]>;
   cancelScheduledNotificationAsync?: (identifier: string) => Promise<void>;
   cancelAllScheduledNotificationsAsync?: () => Promise<void>;
   getNextTriggerDateAsync?: (trigger: NotificationTriggerInput) => Promise<number>;
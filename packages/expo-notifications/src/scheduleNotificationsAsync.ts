@@ -0,0 +1,23 @@
+import { UnavailabilityError } from '@unimodules/core';
+import { v4 as uuidv4 } from 'uuid';
+
+import NotificationScheduler from './NotificationScheduler';
+import { NotificationRequestInput } from './Notifications.types';
+import { parseTrigger } from './scheduleNotificationAsync';
+
+// Android only
+export default async function scheduleNotificationsAsync(
+  requests: NotificationRequestInput[]
+): Promise<string[]> {
+  if (!NotificationScheduler.scheduleNotificationsAsync) {
+    throw new UnavailabilityError('Notifications', 'scheduleNotificationsAsync');
+  }
+
+  return await NotificationScheduler.scheduleNotificationsAsync(
+    requests.map(request => ({
+      identifier: request.identifier ?? uuidv4(),
+      content: request.content,
+      trigger: parseTrigger(request.trigger),
+    }))
+  );
+}
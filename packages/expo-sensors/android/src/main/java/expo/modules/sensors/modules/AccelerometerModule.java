@@ -42,6 +42,11 @@ public class AccelerometerModule extends BaseSensorModule {
     return map;
   }
 
+  @Override
+  protected double getBatchedValue(SensorEvent sensorEvent, int index) {
+    return sensorEvent.values[index] / SensorManager.GRAVITY_EARTH;
+  }
+
   @ExpoMethod
   public void startObserving(Promise promise) {
     super.startObserving();
@@ -41,6 +41,11 @@ public class BarometerModule extends BaseSensorModule {
     return map;
   }
 
+  @Override
+  protected int getBatchedValuesCount() {
+    return 1;
+  }
+
   @ExpoMethod
   public void startObserving(Promise promise) {
     super.startObserving();
@@ -5,10 +5,17 @@ import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener2;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
+import android.view.Choreographer;
+
+import java.util.Map;
 
 import org.unimodules.core.ExportedModule;
 import org.unimodules.core.ModuleRegistry;
+import org.unimodules.core.Promise;
+import org.unimodules.core.interfaces.ExpoMethod;
 import org.unimodules.core.interfaces.LifecycleEventListener;
 import org.unimodules.core.interfaces.services.EventEmitter;
 import org.unimodules.core.interfaces.services.UIManager;
@@ -17,14 +24,52 @@ import expo.modules.interfaces.sensors.SensorServiceInterface;
 import expo.modules.interfaces.sensors.SensorServiceSubscriptionInterface;
 
 public abstract class BaseSensorModule extends ExportedModule implements SensorEventListener2, LifecycleEventListener {
+  // At 100 Hz that's over 10 seconds of samples
+  private static final int MAX_BATCHED_SAMPLES = 1024;
+
   private SensorServiceSubscriptionInterface mSensorServiceSubscription;
   private ModuleRegistry mModuleRegistry;
   private boolean mIsObserving = false;
 
+  // Non-null only when batching is enabled
+  private SensorSampleBuffer mSampleBuffer = null;
+  private long mBatchInterval = 0;
+  private boolean mBatchFlushScheduled = false;
+  private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+  private final Runnable mFlushBatchRunnable = new Runnable() {
+    @Override
+    public void run() {
+      flushBatch();
+    }
+  };
+
+  private final Choreographer.FrameCallback mFlushBatchFrameCallback = new Choreographer.FrameCallback() {
+    @Override
+    public void doFrame(long frameTimeNanos) {
+      flushBatch();
+    }
+  };
+
   protected abstract String getEventName();
   protected abstract SensorServiceInterface getSensorService();
   protected abstract Bundle eventToMap(SensorEvent sensorEvent);
 
+  /**
+   * Number of values every batched sample consists of, or 0 if the sensor doesn't support batching.
+   */
+  protected int getBatchedValuesCount() {
+    return 3;
+  }
+
+  /**
+   * Returns the value at the given index of a batched sample. Should match the values
+   * {@link #eventToMap} puts into the event.
+   */
+  protected double getBatchedValue(SensorEvent sensorEvent, int index) {
+    return sensorEvent.values[index];
+  }
+
   BaseSensorModule(Context context) {
     super(context);
   }
@@ -50,6 +95,17 @@ public abstract class BaseSensorModule extends ExportedModule implements SensorE
 
   @Override
   public void onSensorChanged(SensorEvent sensorEvent) {
+    synchronized (this) {
+      if (mSampleBuffer != null) {
+        int offset = mSampleBuffer.append(sensorEvent.timestamp / 1000000.0);
+        for (int i = 0; i < mSampleBuffer.getStride() - 1; i++) {
+          mSampleBuffer.set(offset + i, getBatchedValue(sensorEvent, i));
+        }
+        scheduleBatchFlush();
+        return;
+      }
+    }
+
     EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
     if (eventEmitter != null) {
       eventEmitter.emit(getEventName(), eventToMap(sensorEvent));
@@ -72,6 +128,69 @@ public abstract class BaseSensorModule extends ExportedModule implements SensorE
     getSensorKernelServiceSubscription().setUpdateInterval(updateInterval);
   }
 
+  /**
+   * Enables or disables batching. When enabled, samples are collected in a ring buffer and
+   * delivered together in a single `<eventName>Batch` event, every `batchInterval` milliseconds
+   * or once per frame if it's 0. The samples are packed in the `samples` array: every sample takes
+   * `stride` numbers, its timestamp in milliseconds followed by its values.
+   *
+   * `maxReportLatencyUs` lets the sensor hardware hold samples in its FIFO for up to that long
+   * before delivering them, so the application processor can stay asleep in between.
+   */
+  @ExpoMethod
+  public void setBatchingOptionsAsync(Map<String, Object> options, Promise promise) {
+    boolean enabled = Boolean.TRUE.equals(options.get("enabled"));
+    if (enabled && getBatchedValuesCount() == 0) {
+      promise.reject("ERR_SENSOR_BATCHING_UNSUPPORTED", "Batching sensor events is not supported by " + getName() + ".");
+      return;
+    }
+    long batchInterval = options.get("batchInterval") instanceof Number ? ((Number) options.get("batchInterval")).longValue() : 0;
+    int maxReportLatencyUs = options.get("maxReportLatencyUs") instanceof Number ? ((Number) options.get("maxReportLatencyUs")).intValue() : 0;
+
+    // deliver samples collected with the previous options
+    flushBatch();
+    synchronized (this) {
+      mSampleBuffer = enabled ? new SensorSampleBuffer(MAX_BATCHED_SAMPLES, getBatchedValuesCount()) : null;
+      mBatchInterval = Math.max(0, batchInterval);
+    }
+    getSensorKernelServiceSubscription().setMaxReportLatencyUs(enabled ? Math.max(0, maxReportLatencyUs) : 0);
+    promise.resolve(null);
+  }
+
+  // Called on the main thread, which sensor events are delivered on
+  private void scheduleBatchFlush() {
+    if (mBatchFlushScheduled) {
+      return;
+    }
+    mBatchFlushScheduled = true;
+    if (mBatchInterval > 0) {
+      mHandler.postDelayed(mFlushBatchRunnable, mBatchInterval);
+    } else {
+      Choreographer.getInstance().postFrameCallback(mFlushBatchFrameCallback);
+    }
+  }
+
+  private void flushBatch() {
+    Bundle event;
+    synchronized (this) {
+      mBatchFlushScheduled = false;
+      if (mSampleBuffer == null || mSampleBuffer.isEmpty()) {
+        return;
+      }
+      event = new Bundle();
+      event.putInt("stride", mSampleBuffer.getStride());
+      event.putInt("droppedCount", mSampleBuffer.getDroppedCount());
+      event.putDoubleArray("samples", mSampleBuffer.drain());
+    }
+
+    EventEmitter eventEmitter = mModuleRegistry.getModule(EventEmitter.class);
+    if (eventEmitter != null) {
+      eventEmitter.emit(getEventName() + "Batch", event);
+    } else {
+      Log.e("E_SENSOR_MODULE", "Could not emit " + getEventName() + "Batch event, no event emitter present.");
+    }
+  }
+
   private SensorServiceSubscriptionInterface getSensorKernelServiceSubscription() {
     if (mSensorServiceSubscription != null) {
       return mSensorServiceSubscription;
@@ -90,6 +209,7 @@ public abstract class BaseSensorModule extends ExportedModule implements SensorE
     if (mIsObserving) {
       mIsObserving = false;
       getSensorKernelServiceSubscription().stop();
+      flushBatch();
     }
   }
 
@@ -44,6 +44,12 @@ public class PedometerModule extends BaseSensorModule {
     return map;
   }
 
+  @Override
+  protected int getBatchedValuesCount() {
+    // steps are counted relative to the first event, there is no point in batching them
+    return 0;
+  }
+
   @ExpoMethod
   public void startObserving(Promise promise) {
     super.startObserving();
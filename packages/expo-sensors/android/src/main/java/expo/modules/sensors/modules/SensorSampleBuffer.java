@@ -0,0 +1,65 @@
+package expo.modules.sensors.modules;
+
+/**
+ * Fixed-size ring buffer of sensor samples backed by a single double array. Every sample takes
+ * {@code stride} slots: its timestamp in milliseconds followed by its values. When the buffer is
+ * full, the oldest samples are overwritten and counted as dropped.
+ */
+/* package */ class SensorSampleBuffer {
+  private final double[] mSamples;
+  private final int mStride;
+  private final int mCapacity;
+  private int mStart = 0;
+  private int mSize = 0;
+  private int mDroppedCount = 0;
+
+  /* package */ SensorSampleBuffer(int capacity, int valuesCount) {
+    mCapacity = capacity;
+    mStride = valuesCount + 1;
+    mSamples = new double[capacity * mStride];
+  }
+
+  /* package */ int getStride() {
+    return mStride;
+  }
+
+  /* package */ boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  /* package */ int getDroppedCount() {
+    return mDroppedCount;
+  }
+
+  /**
+   * Reserves room for a new sample, writes its timestamp and returns the offset at which its
+   * values should be written with {@link #set}.
+   */
+  /* package */ int append(double timestampMs) {
+    if (mSize == mCapacity) {
+      mStart = (mStart + 1) % mCapacity;
+      mSize--;
+      mDroppedCount++;
+    }
+    int offset = ((mStart + mSize) % mCapacity) * mStride;
+    mSize++;
+    mSamples[offset] = timestampMs;
+    return offset + 1;
+  }
+
+  /* package */ void set(int offset, double value) {
+    mSamples[offset] = value;
+  }
+
+  /** Copies buffered samples, oldest first, into a packed array and empties the buffer. */
+  /* package */ double[] drain() {
+    double[] packed = new double[mSize * mStride];
+    int firstChunkSize = Math.min(mSize, mCapacity - mStart);
+    System.arraycopy(mSamples, mStart * mStride, packed, 0, firstChunkSize * mStride);
+    System.arraycopy(mSamples, 0, packed, firstChunkSize * mStride, (mSize - firstChunkSize) * mStride);
+    mStart = 0;
+    mSize = 0;
+    mDroppedCount = 0;
+    return packed;
+  }
+}
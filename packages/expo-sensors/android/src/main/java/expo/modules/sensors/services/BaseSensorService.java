@@ -10,6 +10,8 @@ import android.hardware.SensorManager;
 public abstract class BaseSensorService extends BaseService implements SensorEventListener2 {
   private Sensor mSensor;
   private SensorManager mSensorManager;
+  private boolean mIsObserving = false;
+  private int mMaxReportLatencyUs = 0;
 
   BaseSensorService(Context reactContext) {
     super(reactContext);
@@ -23,11 +25,29 @@ public abstract class BaseSensorService extends BaseService implements SensorEve
 
   protected void startObserving() {
     if ((mSensor = mSensorManager.getDefaultSensor(getSensorType())) != null) {
-      mSensorManager.registerListener(this, mSensor, SensorManager.SENSOR_DELAY_FASTEST);
+      // With a latency of 0 (or no hardware FIFO) events are delivered as soon as they are sampled
+      mSensorManager.registerListener(this, mSensor, SensorManager.SENSOR_DELAY_FASTEST, mMaxReportLatencyUs);
+      mIsObserving = true;
     }
   }
 
   protected void stopObserving() {
     mSensorManager.unregisterListener(this);
+    mIsObserving = false;
+  }
+
+  /**
+   * Sets how long the sensor hardware may hold samples before delivering them.
+   * The listener is registered again if the sensor is being observed.
+   */
+  protected void setMaxReportLatencyUs(int maxReportLatencyUs) {
+    if (mMaxReportLatencyUs == maxReportLatencyUs) {
+      return;
+    }
+    mMaxReportLatencyUs = maxReportLatencyUs;
+    if (mIsObserving) {
+      stopObserving();
+      startObserving();
+    }
   }
 }
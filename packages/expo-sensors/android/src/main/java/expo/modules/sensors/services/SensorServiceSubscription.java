@@ -9,6 +9,9 @@ import expo.modules.interfaces.sensors.SensorServiceSubscriptionInterface;
 public class SensorServiceSubscription implements SensorServiceSubscriptionInterface {
   private boolean mIsEnabled = false;
   private Long mUpdateInterval = null;
+  private int mMaxReportLatencyUs = 0;
+  // Timestamp of the last event delivered to the listener, in milliseconds
+  private long mLastUpdate = 0;
   private boolean mHasBeenReleased = false;
   private final SubscribableSensorService mSubscribableSensorService;
   private final SensorEventListener2 mSensorEventListener;
@@ -38,6 +41,26 @@ public class SensorServiceSubscription implements SensorServiceSubscriptionInter
     return mSensorEventListener;
   }
 
+  long getLastUpdate() {
+    return mLastUpdate;
+  }
+
+  void setLastUpdate(long lastUpdate) {
+    mLastUpdate = lastUpdate;
+  }
+
+  int getMaxReportLatencyUs() {
+    return mMaxReportLatencyUs;
+  }
+
+  public void setMaxReportLatencyUs(int maxReportLatencyUs) {
+    assertSubscriptionIsAlive();
+    if (mMaxReportLatencyUs != maxReportLatencyUs) {
+      mMaxReportLatencyUs = maxReportLatencyUs;
+      mSubscribableSensorService.onSubscriptionMaxReportLatencyChanged(this);
+    }
+  }
+
   public void setUpdateInterval(long updateInterval) {
     assertSubscriptionIsAlive();
     mUpdateInterval = updateInterval;
@@ -7,7 +7,7 @@ import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener2;
 
-import java.util.Map;
+import java.util.Collections;
 import java.util.Set;
 import java.util.WeakHashMap;
 
@@ -18,7 +18,7 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
   protected static int DEFAULT_UPDATE_INTERVAL = 100;
 
   private int mListenersCount = 0;
-  private Map<SensorServiceSubscription, Long> mSensorEventListenerLastUpdateMap = new WeakHashMap<>();
+  private Set<SensorServiceSubscription> mSubscriptions = Collections.newSetFromMap(new WeakHashMap<SensorServiceSubscription, Boolean>());
 
   SubscribableSensorService(Context reactContext) {
     super(reactContext);
@@ -38,7 +38,7 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
 
   public SensorServiceSubscriptionInterface createSubscriptionForListener(SensorEventListener2 listener) {
     SensorServiceSubscription sensorServiceSubscription = new SensorServiceSubscription(this, listener);
-    mSensorEventListenerLastUpdateMap.put(sensorServiceSubscription, 0L);
+    mSubscriptions.add(sensorServiceSubscription);
     return sensorServiceSubscription;
   }
 
@@ -54,8 +54,12 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
     updateObserving();
   }
 
+  void onSubscriptionMaxReportLatencyChanged(SensorServiceSubscription sensorServiceSubscription) {
+    updateObserving();
+  }
+
   void removeSubscription(SensorServiceSubscription sensorServiceSubscription) {
-    mSensorEventListenerLastUpdateMap.remove(sensorServiceSubscription);
+    mSubscriptions.remove(sensorServiceSubscription);
   }
 
   // android.hardware.SensorEventListener2
@@ -63,25 +67,20 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
   @Override
   public void onSensorChanged(SensorEvent sensorEvent) {
     if (sensorEvent.sensor.getType() == getSensorType()) {
-      long currentTime = System.currentTimeMillis();
-      Set<SensorServiceSubscription> listeners = mSensorEventListenerLastUpdateMap.keySet();
+      // Use the time the sample was taken rather than the time it is delivered at,
+      // samples batched by the sensor hardware are delivered all at once.
+      long currentTime = sensorEvent.timestamp / 1000000;
 
-      for(SensorServiceSubscription sensorServiceSubscription : listeners) {
+      for (SensorServiceSubscription sensorServiceSubscription : mSubscriptions) {
         if (sensorServiceSubscription != null && sensorServiceSubscription.isEnabled()) {
-          long lastUpdate = 0;
-          if (mSensorEventListenerLastUpdateMap.containsKey(sensorServiceSubscription)) {
-            lastUpdate = mSensorEventListenerLastUpdateMap.get(sensorServiceSubscription);
-          }
-
           long updateInterval = DEFAULT_UPDATE_INTERVAL;
           if (sensorServiceSubscription.getUpdateInterval() != null) {
             updateInterval = sensorServiceSubscription.getUpdateInterval();
           }
 
-
-          if ((currentTime - lastUpdate) > updateInterval) {
+          if ((currentTime - sensorServiceSubscription.getLastUpdate()) > updateInterval) {
             sensorServiceSubscription.getSensorEventListener().onSensorChanged(sensorEvent);
-            mSensorEventListenerLastUpdateMap.put(sensorServiceSubscription, currentTime);
+            sensorServiceSubscription.setLastUpdate(currentTime);
           }
         }
       }
@@ -91,7 +90,7 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
   @Override
   public void onAccuracyChanged(Sensor sensor, int accuracy) {
     if (sensor.getType() == getSensorType()) {
-      for (SensorServiceSubscription subscription : mSensorEventListenerLastUpdateMap.keySet()) {
+      for (SensorServiceSubscription subscription : mSubscriptions) {
         if (subscription.isEnabled()) {
           subscription.getSensorEventListener().onAccuracyChanged(sensor, accuracy);
         }
@@ -102,7 +101,7 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
   @Override
   public void onFlushCompleted(Sensor sensor) {
     if (sensor.getType() == getSensorType()) {
-      for (SensorServiceSubscription subscription : mSensorEventListenerLastUpdateMap.keySet()) {
+      for (SensorServiceSubscription subscription : mSubscriptions) {
         if (subscription.isEnabled()) {
           subscription.getSensorEventListener().onFlushCompleted(sensor);
         }
@@ -113,6 +112,16 @@ public abstract class SubscribableSensorService extends BaseSensorService implem
   // Private helpers
 
   private void updateObserving() {
+    // Samples can only be held back as long as every enabled subscription allows
+    int maxReportLatencyUs = -1;
+    for (SensorServiceSubscription subscription : mSubscriptions) {
+      if (subscription != null && subscription.isEnabled()) {
+        int subscriptionLatencyUs = subscription.getMaxReportLatencyUs();
+        maxReportLatencyUs = maxReportLatencyUs < 0 ? subscriptionLatencyUs : Math.min(maxReportLatencyUs, subscriptionLatencyUs);
+      }
+    }
+    setMaxReportLatencyUs(Math.max(maxReportLatencyUs, 0));
+
     // Start/stop observing according to the experience state
     if (mListenersCount > 0 && getExperienceIsForegrounded()) {
       super.startObserving();
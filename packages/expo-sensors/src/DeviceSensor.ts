@@ -1,10 +1,26 @@
-import { EventEmitter, Subscription, Platform } from '@unimodules/core';
+import { EventEmitter, Subscription, Platform, UnavailabilityError } from '@unimodules/core';
 import { PermissionResponse, PermissionStatus } from 'expo-modules-core';
 
 type Listener<E> = (event: E) => void;
 
 type NativeSensorModule = any;
 
+export type SensorBatchingOptions = {
+  enabled: boolean;
+  batchInterval?: number;
+  maxReportLatencyUs?: number;
+};
+
+/**
+ * Samples delivered together while batching is enabled. Every sample takes `stride` numbers
+ * in `samples`: its timestamp in milliseconds followed by its values.
+ */
+export type SensorBatch = {
+  stride: number;
+  droppedCount: number;
+  samples: number[];
+};
+
 /**
  * A base class for subscribable sensors. The events emitted by this class are measurements
  * specified by the parameter type `M`.
@@ -30,6 +46,14 @@ export default class DeviceSensor<M> {
     return subscription;
   };
 
+  // Android only
+  addBatchListener = (listener: Listener<SensorBatch>): Subscription => {
+    const subscription = this._nativeEmitter.addListener(`${this._nativeEventName}Batch`, listener);
+    subscription.remove = () => this.removeSubscription(subscription);
+    this._listenerCount++;
+    return subscription;
+  };
+
   hasListeners = (): boolean => {
     return this._listenerCount > 0;
   };
@@ -41,6 +65,7 @@ export default class DeviceSensor<M> {
   removeAllListeners = (): void => {
     this._listenerCount = 0;
     this._nativeEmitter.removeAllListeners(this._nativeEventName);
+    this._nativeEmitter.removeAllListeners(`${this._nativeEventName}Batch`);
   };
 
   removeSubscription = (subscription: Subscription): void => {
@@ -56,6 +81,14 @@ export default class DeviceSensor<M> {
     }
   };
 
+  // Android only
+  setBatchingOptionsAsync = async (options: SensorBatchingOptions): Promise<void> => {
+    if (!this._nativeModule.setBatchingOptionsAsync) {
+      throw new UnavailabilityError('expo-sensors', 'setBatchingOptionsAsync');
+    }
+    await this._nativeModule.setBatchingOptionsAsync(options);
+  };
+
   isAvailableAsync = async (): Promise<boolean> => {
     if (!this._nativeModule.isAvailableAsync) {
       return false;
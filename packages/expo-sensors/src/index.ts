@@ -3,7 +3,7 @@ import * as Pedometer from './Pedometer';
 export { default as Accelerometer } from './Accelerometer';
 export { default as Barometer, BarometerMeasurement } from './Barometer';
 export { default as DeviceMotion, DeviceMotionMeasurement } from './DeviceMotion';
-export { default as DeviceSensor } from './DeviceSensor';
+export { default as DeviceSensor, SensorBatch, SensorBatchingOptions } from './DeviceSensor';
 export { default as Gyroscope } from './Gyroscope';
 export { default as Magnetometer } from './Magnetometer';
 export { default as MagnetometerUncalibrated } from './MagnetometerUncalibrated';
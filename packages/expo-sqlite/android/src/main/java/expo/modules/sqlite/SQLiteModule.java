@@ -3,12 +3,21 @@ package expo.modules.sqlite;
 
 import android.content.Context;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteCursorDriver;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteProgram;
+import android.database.sqlite.SQLiteQuery;
 import android.database.sqlite.SQLiteStatement;
+import android.os.Bundle;
+import android.util.Base64;
+import android.util.LruCache;
+import android.util.SparseArray;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,7 +37,15 @@ public class SQLiteModule extends ExportedModule {
 
   private static final Map<String, SQLiteDatabase> DATABASES = new HashMap<String, SQLiteDatabase>();
 
+  private static final int STATEMENT_CACHE_SIZE = 32;
+  private static final Map<String, LruCache<String, SQLiteStatement>> STATEMENT_CACHES = new HashMap<>();
+
+  private static final String BLOB_KEY = "blob";
+  private static final int DEFAULT_PAGE_SIZE = 500;
+
   private Context mContext;
+  private final SparseArray<OpenCursor> mCursors = new SparseArray<>();
+  private int mNextCursorId = 0;
 
   public SQLiteModule(Context scopedContext) {
     super(scopedContext);
@@ -48,25 +65,39 @@ public class SQLiteModule extends ExportedModule {
       SQLiteDatabase db = getDatabase(dbName);
 
       for (int i = 0; i < numQueries; i++) {
-        ArrayList<Object> sqlQuery = queries.get(i);
-        String sql = (String) sqlQuery.get(0);
-        String[] bindArgs = convertParamsToStringArray(sqlQuery.get(1));
-        try {
-          if (isSelect(sql)) {
-            results[i] = doSelectInBackgroundAndPossiblyThrow(sql, bindArgs, db);
-          } else { // update/insert/delete
-            if (readOnly) {
-              results[i] = new SQLitePluginResult(EMPTY_ROWS, EMPTY_COLUMNS, 0, 0, new ReadOnlyException());
-            } else {
-              results[i] = doUpdateInBackgroundAndPossiblyThrow(sql, bindArgs, db);
-            }
-          }
-        } catch (Throwable e) {
-          if (DEBUG_MODE) {
-            e.printStackTrace();
+        results[i] = executeQuery(dbName, db, queries.get(i), readOnly);
+      }
+      List<Object> data = pluginResultsToPrimitiveData(results);
+      promise.resolve(data);
+    } catch (Exception e) {
+      promise.reject("SQLiteError", e);
+    }
+  }
+
+  /**
+   * Like {@link #exec}, but runs all queries in a single transaction, so that a batch of writes is
+   * committed to the journal once instead of once per statement. If any of the queries fails,
+   * the whole transaction is rolled back and the promise is rejected.
+   */
+  @ExpoMethod
+  public void execInTransaction(String dbName, ArrayList<ArrayList<Object>> queries, final Promise promise) {
+    try {
+      int numQueries = queries.size();
+      SQLitePluginResult[] results = new SQLitePluginResult[numQueries];
+      SQLiteDatabase db = getDatabase(dbName);
+
+      db.beginTransaction();
+      try {
+        for (int i = 0; i < numQueries; i++) {
+          results[i] = executeQuery(dbName, db, queries.get(i), false);
+          if (results[i].error != null) {
+            promise.reject("SQLiteError", "Query " + i + " failed, transaction was rolled back: " + results[i].error.getMessage(), results[i].error);
+            return;
           }
-          results[i] = new SQLitePluginResult(EMPTY_ROWS, EMPTY_COLUMNS, 0, 0, e);
         }
+        db.setTransactionSuccessful();
+      } finally {
+        db.endTransaction();
       }
       List<Object> data = pluginResultsToPrimitiveData(results);
       promise.resolve(data);
@@ -75,19 +106,141 @@ public class SQLiteModule extends ExportedModule {
     }
   }
 
+  /**
+   * Opens a database, optionally with write-ahead logging enabled (`enableWAL: true`), which lets
+   * reads run concurrently with a write and makes small write transactions cheaper.
+   * Databases are otherwise opened lazily, with the default rollback journal, on first use.
+   */
+  @ExpoMethod
+  public void open(String dbName, Map<String, Object> options, final Promise promise) {
+    try {
+      boolean enableWAL = options != null && Boolean.TRUE.equals(options.get("enableWAL"));
+      getDatabase(dbName, enableWAL);
+      promise.resolve(null);
+    } catch (Exception e) {
+      promise.reject("SQLiteError", e);
+    }
+  }
+
+  /**
+   * Runs a read query and keeps its cursor open, so that rows can be fetched in pages with
+   * {@link #fetchRows} instead of materializing the whole result set at once. Arguments are bound
+   * with their native types: integral numbers as INTEGER, other numbers as REAL, booleans as 0/1,
+   * `{ blob: base64 }` maps as BLOB and null as NULL.
+   * Resolves with `{ cursorId, columns }`.
+   */
+  @ExpoMethod
+  public void openCursor(String dbName, String sql, ArrayList<Object> args, final Promise promise) {
+    if (!isSelect(sql)) {
+      promise.reject("SQLiteError", "Only SELECT and read-only PRAGMA queries can be opened as a cursor.");
+      return;
+    }
+    try {
+      SQLiteDatabase db = getDatabase(dbName);
+      Cursor cursor = db.rawQueryWithFactory(new TypedBindingsCursorFactory(args), sql, null, null);
+
+      int cursorId = mNextCursorId++;
+      mCursors.put(cursorId, new OpenCursor(dbName, cursor));
+
+      Bundle result = new Bundle();
+      result.putInt("cursorId", cursorId);
+      result.putStringArrayList("columns", new ArrayList<>(Arrays.asList(cursor.getColumnNames())));
+      promise.resolve(result);
+    } catch (Exception e) {
+      promise.reject("SQLiteError", e);
+    }
+  }
+
+  /**
+   * Resolves with `{ rows, done }`, where `rows` holds at most `pageSize` rows of an open cursor as
+   * arrays of column values. Once `done` is true the cursor has been closed.
+   */
+  @ExpoMethod
+  public void fetchRows(int cursorId, int pageSize, final Promise promise) {
+    OpenCursor openCursor = mCursors.get(cursorId);
+    if (openCursor == null) {
+      promise.reject("SQLiteError", "Cursor " + cursorId + " is not open.");
+      return;
+    }
+    try {
+      Cursor cursor = openCursor.cursor;
+      int numColumns = cursor.getColumnCount();
+      int limit = pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+      ArrayList<Object> rows = new ArrayList<>(limit);
+      while (rows.size() < limit && cursor.moveToNext()) {
+        ArrayList<Object> row = new ArrayList<>(numColumns);
+        for (int j = 0; j < numColumns; j++) {
+          row.add(getTypedValueFromCursor(cursor, j));
+        }
+        rows.add(row);
+      }
+
+      boolean done = cursor.isLast() || cursor.isAfterLast() || cursor.getCount() == 0;
+      if (done) {
+        closeCursor(cursorId);
+      }
+
+      Bundle result = new Bundle();
+      result.putSerializable("rows", rows);
+      result.putBoolean("done", done);
+      promise.resolve(result);
+    } catch (Exception e) {
+      closeCursor(cursorId);
+      promise.reject("SQLiteError", e);
+    }
+  }
+
+  @ExpoMethod
+  public void closeCursor(int cursorId, final Promise promise) {
+    closeCursor(cursorId);
+    promise.resolve(null);
+  }
+
+  @Override
+  public void onDestroy() {
+    for (int i = 0; i < mCursors.size(); i++) {
+      mCursors.valueAt(i).cursor.close();
+    }
+    mCursors.clear();
+  }
+
   @ExpoMethod
   public void close(String dbName, final Promise promise) {
+    closeCursorsForDatabase(dbName);
+    evictStatementCache(dbName);
     DATABASES.get(dbName).close();
     DATABASES.remove(dbName);
     promise.resolve(null);
   }
 
+  private SQLitePluginResult executeQuery(String dbName, SQLiteDatabase db, ArrayList<Object> sqlQuery, boolean readOnly) {
+    String sql = (String) sqlQuery.get(0);
+    try {
+      String[] bindArgs = convertParamsToStringArray(sqlQuery.get(1));
+      if (isSelect(sql)) {
+        return doSelectInBackgroundAndPossiblyThrow(sql, bindArgs, db);
+      } else { // update/insert/delete
+        if (readOnly) {
+          return new SQLitePluginResult(EMPTY_ROWS, EMPTY_COLUMNS, 0, 0, new ReadOnlyException());
+        } else {
+          return doUpdateInBackgroundAndPossiblyThrow(dbName, sql, bindArgs, db);
+        }
+      }
+    } catch (Throwable e) {
+      if (DEBUG_MODE) {
+        e.printStackTrace();
+      }
+      return new SQLitePluginResult(EMPTY_ROWS, EMPTY_COLUMNS, 0, 0, e);
+    }
+  }
+
   // do a update/delete/insert operation
-  private SQLitePluginResult doUpdateInBackgroundAndPossiblyThrow(String sql, String[] bindArgs,
+  private SQLitePluginResult doUpdateInBackgroundAndPossiblyThrow(String dbName, String sql, String[] bindArgs,
                                                                   SQLiteDatabase db) {
-    SQLiteStatement statement = null;
+    // only statements which are likely to be repeated in bulk are cached
+    boolean isCacheable = isInsert(sql) || isDelete(sql) || isUpdate(sql);
+    SQLiteStatement statement = isCacheable ? getCompiledStatement(dbName, sql, db) : db.compileStatement(sql);
     try {
-      statement = db.compileStatement(sql);
       if (bindArgs != null) {
         for (int i = bindArgs.length; i != 0; i--) {
           if (bindArgs[i - 1] == null) {
@@ -111,12 +264,42 @@ public class SQLiteModule extends ExportedModule {
         return EMPTY_RESULT;
       }
     } finally {
-      if (statement != null) {
+      if (isCacheable) {
+        statement.clearBindings();
+      } else {
         statement.close();
       }
     }
   }
 
+  // compiled statements are cached per database, so that repeated writes skip compilation
+  private static SQLiteStatement getCompiledStatement(String dbName, String sql, SQLiteDatabase db) {
+    LruCache<String, SQLiteStatement> cache = STATEMENT_CACHES.get(dbName);
+    if (cache == null) {
+      cache = new LruCache<String, SQLiteStatement>(STATEMENT_CACHE_SIZE) {
+        @Override
+        protected void entryRemoved(boolean evicted, String key, SQLiteStatement oldValue, SQLiteStatement newValue) {
+          oldValue.close();
+        }
+      };
+      STATEMENT_CACHES.put(dbName, cache);
+    }
+
+    SQLiteStatement statement = cache.get(sql);
+    if (statement == null) {
+      statement = db.compileStatement(sql);
+      cache.put(sql, statement);
+    }
+    return statement;
+  }
+
+  private static void evictStatementCache(String dbName) {
+    LruCache<String, SQLiteStatement> cache = STATEMENT_CACHES.remove(dbName);
+    if (cache != null) {
+      cache.evictAll();
+    }
+  }
+
   // do a select operation
   private SQLitePluginResult doSelectInBackgroundAndPossiblyThrow(String sql, String[] bindArgs,
                                                                   SQLiteDatabase db) {
@@ -161,6 +344,63 @@ public class SQLiteModule extends ExportedModule {
     return null;
   }
 
+  private Object getTypedValueFromCursor(Cursor cursor, int index) {
+    switch (cursor.getType(index)) {
+      case Cursor.FIELD_TYPE_FLOAT:
+        return cursor.getDouble(index);
+      case Cursor.FIELD_TYPE_INTEGER:
+        // JS numbers are doubles anyway
+        return (double) cursor.getLong(index);
+      case Cursor.FIELD_TYPE_BLOB:
+        Bundle blob = new Bundle();
+        blob.putString(BLOB_KEY, Base64.encodeToString(cursor.getBlob(index), Base64.NO_WRAP));
+        return blob;
+      case Cursor.FIELD_TYPE_STRING:
+        return cursor.getString(index);
+    }
+    return null;
+  }
+
+  private void closeCursor(int cursorId) {
+    OpenCursor openCursor = mCursors.get(cursorId);
+    if (openCursor != null) {
+      openCursor.cursor.close();
+      mCursors.remove(cursorId);
+    }
+  }
+
+  private void closeCursorsForDatabase(String dbName) {
+    for (int i = mCursors.size() - 1; i >= 0; i--) {
+      OpenCursor openCursor = mCursors.valueAt(i);
+      if (openCursor.dbName.equals(dbName)) {
+        openCursor.cursor.close();
+        mCursors.removeAt(i);
+      }
+    }
+  }
+
+  // binds a value with the SQLite type matching its JS type, instead of coercing it to a string
+  private static void bindTypedArg(SQLiteProgram program, int index, Object arg) {
+    if (arg == null) {
+      program.bindNull(index);
+    } else if (arg instanceof String) {
+      program.bindString(index, (String) arg);
+    } else if (arg instanceof Boolean) {
+      program.bindLong(index, ((Boolean) arg) ? 1 : 0);
+    } else if (arg instanceof Number) {
+      double value = ((Number) arg).doubleValue();
+      if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) <= Long.MAX_VALUE) {
+        program.bindLong(index, (long) value);
+      } else {
+        program.bindDouble(index, value);
+      }
+    } else if (arg instanceof Map && ((Map) arg).get(BLOB_KEY) instanceof String) {
+      program.bindBlob(index, Base64.decode((String) ((Map) arg).get(BLOB_KEY), Base64.DEFAULT));
+    } else {
+      throw new ClassCastException("Could not find proper SQLite data type for argument: " + arg.toString());
+    }
+  }
+
   private static File ensureDirExists(File dir) throws IOException {
     if (!dir.isDirectory()) {
       if (dir.isFile()) {
@@ -187,6 +427,10 @@ public class SQLiteModule extends ExportedModule {
   }
 
   private SQLiteDatabase getDatabase(String name) throws IOException {
+    return getDatabase(name, false);
+  }
+
+  private SQLiteDatabase getDatabase(String name, boolean enableWriteAheadLogging) throws IOException {
     SQLiteDatabase database = null;
     String path = pathForDatabaseName(name);
     if ((new File(path)).exists()) {
@@ -194,8 +438,15 @@ public class SQLiteModule extends ExportedModule {
     }
     if (database == null) {
       DATABASES.remove(name);
-      database = SQLiteDatabase.openOrCreateDatabase(path, null);
+      evictStatementCache(name);
+      int flags = SQLiteDatabase.CREATE_IF_NECESSARY;
+      if (enableWriteAheadLogging) {
+        flags |= SQLiteDatabase.ENABLE_WRITE_AHEAD_LOGGING;
+      }
+      database = SQLiteDatabase.openDatabase(path, null, flags);
       DATABASES.put(name, database);
+    } else if (enableWriteAheadLogging && !database.isWriteAheadLoggingEnabled()) {
+      database.enableWriteAheadLogging();
     }
     return database;
   }
@@ -350,6 +601,34 @@ public class SQLiteModule extends ExportedModule {
     }
   }
 
+  private static class OpenCursor {
+    public final String dbName;
+    public final Cursor cursor;
+
+    public OpenCursor(String dbName, Cursor cursor) {
+      this.dbName = dbName;
+      this.cursor = cursor;
+    }
+  }
+
+  private static class TypedBindingsCursorFactory implements SQLiteDatabase.CursorFactory {
+    private final List<Object> mArgs;
+
+    public TypedBindingsCursorFactory(List<Object> args) {
+      mArgs = args;
+    }
+
+    @Override
+    public Cursor newCursor(SQLiteDatabase db, SQLiteCursorDriver masterQuery, String editTable, SQLiteQuery query) {
+      if (mArgs != null) {
+        for (int i = 0; i < mArgs.size(); i++) {
+          bindTypedArg(query, i + 1, mArgs.get(i));
+        }
+      }
+      return new SQLiteCursor(masterQuery, editTable, query);
+    }
+  }
+
   private static class ReadOnlyException extends Exception {
     public ReadOnlyException() {
       super("could not prepare statement (23 not authorized)");
@@ -0,0 +1,136 @@
+package expo.modules.sqlite
+
+import android.os.Bundle
+import android.util.Base64
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.unimodules.test.core.PromiseMock
+import org.unimodules.test.core.PromiseState
+import org.unimodules.test.core.assertRejectedWithCode
+import java.util.UUID
+
+@RunWith(RobolectricTestRunner::class)
+internal class SQLiteCursorTest {
+  private lateinit var module: SQLiteModule
+  private lateinit var dbName: String
+
+  @Before
+  fun setUp() {
+    module = SQLiteModule(RuntimeEnvironment.application)
+    dbName = "${UUID.randomUUID()}.db"
+    exec(
+      "CREATE TABLE items (id INTEGER PRIMARY KEY, name TEXT, price REAL)",
+      "INSERT INTO items (name, price) VALUES ('a', 1.5)",
+      "INSERT INTO items (name, price) VALUES ('b', 2)",
+      "INSERT INTO items (name, price) VALUES ('c', NULL)",
+      "INSERT INTO items (name, price) VALUES ('d', 4.25)",
+      "INSERT INTO items (name, price) VALUES ('e', 5)"
+    )
+  }
+
+  @Test
+  fun `fetchRows should return pages until the cursor is done`() {
+    val cursor = openCursor("SELECT id, name, price FROM items ORDER BY id")
+    assertEquals(listOf("id", "name", "price"), cursor.getStringArrayList("columns"))
+    val cursorId = cursor.getInt("cursorId")
+
+    val firstPage = fetchRows(cursorId, 2)
+    assertEquals(listOf(listOf(1.0, "a", 1.5), listOf(2.0, "b", 2.0)), firstPage.rows())
+    assertEquals(false, firstPage.getBoolean("done"))
+
+    val secondPage = fetchRows(cursorId, 2)
+    assertEquals(listOf(listOf(3.0, "c", null), listOf(4.0, "d", 4.25)), secondPage.rows())
+    assertEquals(false, secondPage.getBoolean("done"))
+
+    val lastPage = fetchRows(cursorId, 2)
+    assertEquals(listOf(listOf(5.0, "e", 5.0)), lastPage.rows())
+    assertEquals(true, lastPage.getBoolean("done"))
+
+    // a done cursor is closed
+    val promise = PromiseMock()
+    module.fetchRows(cursorId, 2, promise)
+    assertRejectedWithCode(promise, "SQLiteError")
+  }
+
+  @Test
+  fun `fetchRows should finish an empty result in one page`() {
+    val cursorId = openCursor("SELECT id FROM items WHERE id > 100").getInt("cursorId")
+
+    val page = fetchRows(cursorId, 10)
+
+    assertEquals(emptyList<Any>(), page.rows())
+    assertEquals(true, page.getBoolean("done"))
+  }
+
+  @Test
+  fun `openCursor should bind arguments with their native types`() {
+    val blob = mapOf("blob" to Base64.encodeToString(byteArrayOf(1, 2, 255.toByte()), Base64.NO_WRAP))
+    val cursorId = openCursor(
+      "SELECT typeof(?), typeof(?), typeof(?), typeof(?), typeof(?), hex(?), name FROM items WHERE id = ?",
+      arrayListOf(3.0, 2.5, true, null, "text", blob, 2.0)
+    ).getInt("cursorId")
+
+    val page = fetchRows(cursorId, 10)
+
+    assertEquals(listOf(listOf("integer", "real", "integer", "null", "text", "0102FF", "b")), page.rows())
+  }
+
+  @Test
+  fun `fetchRows should return blobs as base64`() {
+    val cursorId = openCursor("SELECT x'0102ff'").getInt("cursorId")
+
+    val row = fetchRows(cursorId, 1).rows()[0] as List<*>
+
+    assertEquals("AQL/", (row[0] as Bundle).getString("blob"))
+  }
+
+  @Test
+  fun `openCursor should reject queries other than reads`() {
+    val promise = PromiseMock()
+
+    module.openCursor(dbName, "DELETE FROM items", arrayListOf(), promise)
+
+    assertRejectedWithCode(promise, "SQLiteError")
+    val countCursorId = openCursor("SELECT count(*) FROM items").getInt("cursorId")
+    assertEquals(listOf(listOf(5.0)), fetchRows(countCursorId, 1).rows())
+  }
+
+  @Test
+  fun `close should close open cursors of the database`() {
+    val cursorId = openCursor("SELECT id FROM items").getInt("cursorId")
+
+    module.close(dbName, PromiseMock())
+
+    val promise = PromiseMock()
+    module.fetchRows(cursorId, 1, promise)
+    assertRejectedWithCode(promise, "SQLiteError")
+  }
+
+  private fun exec(vararg statements: String) {
+    val queries = ArrayList<ArrayList<Any>>()
+    statements.forEach { queries.add(arrayListOf(it, arrayListOf<Any>())) }
+    val promise = PromiseMock()
+    module.exec(dbName, queries, false, promise)
+    assertEquals(PromiseState.RESOLVED, promise.state)
+  }
+
+  private fun openCursor(sql: String, args: ArrayList<Any?> = arrayListOf()): Bundle {
+    val promise = PromiseMock()
+    module.openCursor(dbName, sql, args, promise)
+    assertEquals(PromiseState.RESOLVED, promise.state)
+    return promise.resolveValue as Bundle
+  }
+
+  private fun fetchRows(cursorId: Int, pageSize: Int): Bundle {
+    val promise = PromiseMock()
+    module.fetchRows(cursorId, pageSize, promise)
+    assertEquals(PromiseState.RESOLVED, promise.state)
+    return promise.resolveValue as Bundle
+  }
+
+  private fun Bundle.rows() = getSerializable("rows") as List<*>
+}
@@ -1,11 +1,19 @@
 import './polyfillNextTick';
 
 import customOpenDatabase from '@expo/websql/custom';
-import { NativeModulesProxy } from '@unimodules/core';
+import { NativeModulesProxy, UnavailabilityError } from '@unimodules/core';
 import zipObject from 'lodash/zipObject';
 import { Platform } from 'react-native';
 
-import { Query, SQLiteCallback, ResultSet, ResultSetError, WebSQLDatabase } from './SQLite.types';
+import {
+  Query,
+  SQLiteCallback,
+  SQLiteCursor,
+  SQLiteRowsPage,
+  ResultSet,
+  ResultSetError,
+  WebSQLDatabase,
+} from './SQLite.types';
 
 const { ExponentSQLite } = NativeModulesProxy;
 
@@ -33,12 +41,86 @@ class SQLiteDatabase {
     );
   }
 
+  // Android only
+  async openCursorAsync(sql: string, args: unknown[] = []): Promise<SQLiteCursor> {
+    if (this._closed) {
+      throw new Error(`The SQLite database is closed`);
+    }
+    if (!ExponentSQLite.openCursor) {
+      throw new UnavailabilityError('SQLite', 'openCursorAsync');
+    }
+    const { cursorId, columns } = await ExponentSQLite.openCursor(this._name, sql, args);
+    return new SQLiteNativeCursor(cursorId, columns);
+  }
+
+  // Android only
+  async execInTransactionAsync(queries: Query[]): Promise<ResultSet[]> {
+    if (this._closed) {
+      throw new Error(`The SQLite database is closed`);
+    }
+    if (!ExponentSQLite.execInTransaction) {
+      throw new UnavailabilityError('SQLite', 'execInTransactionAsync');
+    }
+    // the native side rejects if any of the queries fails, so there are no error results here
+    const nativeResultSets = await ExponentSQLite.execInTransaction(
+      this._name,
+      queries.map(_serializeQuery)
+    );
+    return nativeResultSets.map(_deserializeResultSet) as ResultSet[];
+  }
+
+  // Android only
+  async enableWriteAheadLoggingAsync(): Promise<void> {
+    if (this._closed) {
+      throw new Error(`The SQLite database is closed`);
+    }
+    if (!ExponentSQLite.open) {
+      throw new UnavailabilityError('SQLite', 'enableWriteAheadLoggingAsync');
+    }
+    await ExponentSQLite.open(this._name, { enableWAL: true });
+  }
+
   close() {
     this._closed = true;
     ExponentSQLite.close(this._name);
   }
 }
 
+class SQLiteNativeCursor implements SQLiteCursor {
+  _id: number;
+  _closed: boolean = false;
+  columns: string[];
+
+  constructor(id: number, columns: string[]) {
+    this._id = id;
+    this.columns = columns;
+  }
+
+  async fetchRowsAsync(pageSize: number = 0): Promise<SQLiteRowsPage> {
+    if (this._closed) {
+      return { rows: [], done: true };
+    }
+    try {
+      const { rows, done } = await ExponentSQLite.fetchRows(this._id, pageSize);
+      // the native side closes the cursor after its last page
+      this._closed = done;
+      return { rows: rows.map(row => zipObject(this.columns, row)), done };
+    } catch (error) {
+      // and after a failed fetch
+      this._closed = true;
+      throw error;
+    }
+  }
+
+  async closeAsync(): Promise<void> {
+    if (this._closed) {
+      return;
+    }
+    this._closed = true;
+    await ExponentSQLite.closeCursor(this._id);
+  }
+}
+
 function _serializeQuery(query: Query): [string, unknown[]] {
   return [query.sql, Platform.OS === 'android' ? query.args.map(_escapeBlob) : query.args];
 }
@@ -77,6 +159,11 @@ function addExecMethod(db: any): WebSQLDatabase {
   db.exec = (queries: Query[], readOnly: boolean, callback: SQLiteCallback): void => {
     db._db.exec(queries, readOnly, callback);
   };
+  db.openCursorAsync = (sql: string, args?: unknown[]): Promise<SQLiteCursor> =>
+    db._db.openCursorAsync(sql, args);
+  db.execInTransactionAsync = (queries: Query[]): Promise<ResultSet[]> =>
+    db._db.execInTransactionAsync(queries);
+  db.enableWriteAheadLoggingAsync = (): Promise<void> => db._db.enableWriteAheadLoggingAsync();
   return db;
 }
 
@@ -91,6 +91,15 @@ export declare class SQLError {
 
 export interface WebSQLDatabase extends Database {
   exec(queries: Query[], readOnly: boolean, callback: SQLiteCallback): void;
+
+  // Android only
+  openCursorAsync(sql: string, args?: unknown[]): Promise<SQLiteCursor>;
+
+  // Android only
+  execInTransactionAsync(queries: Query[]): Promise<ResultSet[]>;
+
+  // Android only
+  enableWriteAheadLoggingAsync(): Promise<void>;
 }
 
 export type Query = { sql: string; args: unknown[] };
@@ -104,6 +113,23 @@ export interface ResultSet {
   rows: { [column: string]: any }[];
 }
 
+/**
+ * A read query whose rows are fetched from the native side in pages.
+ */
+export interface SQLiteCursor {
+  columns: string[];
+  /**
+   * Fetches up to `pageSize` of the next rows. Once `done` is `true` the cursor is closed.
+   */
+  fetchRowsAsync(pageSize?: number): Promise<SQLiteRowsPage>;
+  closeAsync(): Promise<void>;
+}
+
+export interface SQLiteRowsPage {
+  rows: { [column: string]: any }[];
+  done: boolean;
+}
+
 export type SQLiteCallback = (
   error?: Error | null,
   resultSet?: (ResultSetError | ResultSet)[]
@@ -0,0 +1,312 @@
+package expo.modules.taskManager;
+
+import android.os.Build;
+import android.os.PersistableBundle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding used for persisted tasks and for data passed to jobs.
+ *
+ * Every value is written as a one byte type tag followed by its payload. Compared to JSON strings
+ * and lists of nested {@link PersistableBundle}s it is much smaller and doesn't need any parsing
+ * besides reading the values back, which matters when the app is started in the background
+ * just to run a task.
+ */
+public class CompactEncoding {
+  private static final byte TYPE_NULL = 0;
+  private static final byte TYPE_BOOLEAN = 1;
+  private static final byte TYPE_INT = 2;
+  private static final byte TYPE_LONG = 3;
+  private static final byte TYPE_DOUBLE = 4;
+  private static final byte TYPE_STRING = 5;
+  private static final byte TYPE_LIST = 6;
+  private static final byte TYPE_MAP = 7;
+  private static final byte TYPE_BUNDLE = 8;
+  private static final byte TYPE_INT_ARRAY = 9;
+  private static final byte TYPE_LONG_ARRAY = 10;
+  private static final byte TYPE_DOUBLE_ARRAY = 11;
+  private static final byte TYPE_STRING_ARRAY = 12;
+  private static final byte TYPE_BOOLEAN_ARRAY = 13;
+
+  /**
+   * Encodes the list of bundles as a sequence of values. Sequences can be concatenated, so new data
+   * can be appended to already encoded one without decoding it first.
+   */
+  public static byte[] encodeBundles(List<PersistableBundle> bundles) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+
+    try {
+      for (PersistableBundle bundle : bundles) {
+        writeBundle(out, bundle);
+      }
+      out.flush();
+    } catch (IOException e) {
+      // ByteArrayOutputStream doesn't throw
+      throw new IllegalStateException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  public static List<PersistableBundle> decodeBundles(byte[] data) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+    List<PersistableBundle> bundles = new ArrayList<>();
+
+    while (in.available() > 0) {
+      if (in.readByte() != TYPE_BUNDLE) {
+        throw new IOException("Encoded data is not a sequence of bundles.");
+      }
+      bundles.add(readBundlePayload(in));
+    }
+    return bundles;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static void writeValue(DataOutput out, Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(TYPE_NULL);
+    } else if (value instanceof Boolean) {
+      out.writeByte(TYPE_BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      out.writeByte(TYPE_INT);
+      out.writeInt(((Number) value).intValue());
+    } else if (value instanceof Long) {
+      out.writeByte(TYPE_LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Number) {
+      out.writeByte(TYPE_DOUBLE);
+      out.writeDouble(((Number) value).doubleValue());
+    } else if (value instanceof String) {
+      out.writeByte(TYPE_STRING);
+      writeString(out, (String) value);
+    } else if (value instanceof List) {
+      List<Object> list = (List<Object>) value;
+      out.writeByte(TYPE_LIST);
+      out.writeInt(list.size());
+      for (Object item : list) {
+        writeValue(out, item);
+      }
+    } else if (value instanceof Map) {
+      Map<String, Object> map = (Map<String, Object>) value;
+      out.writeByte(TYPE_MAP);
+      out.writeInt(map.size());
+      for (Map.Entry<String, Object> entry : map.entrySet()) {
+        writeString(out, entry.getKey());
+        writeValue(out, entry.getValue());
+      }
+    } else if (value instanceof PersistableBundle) {
+      writeBundle(out, (PersistableBundle) value);
+    } else if (value instanceof int[]) {
+      int[] array = (int[]) value;
+      out.writeByte(TYPE_INT_ARRAY);
+      out.writeInt(array.length);
+      for (int item : array) {
+        out.writeInt(item);
+      }
+    } else if (value instanceof long[]) {
+      long[] array = (long[]) value;
+      out.writeByte(TYPE_LONG_ARRAY);
+      out.writeInt(array.length);
+      for (long item : array) {
+        out.writeLong(item);
+      }
+    } else if (value instanceof double[]) {
+      double[] array = (double[]) value;
+      out.writeByte(TYPE_DOUBLE_ARRAY);
+      out.writeInt(array.length);
+      for (double item : array) {
+        out.writeDouble(item);
+      }
+    } else if (value instanceof String[]) {
+      String[] array = (String[]) value;
+      out.writeByte(TYPE_STRING_ARRAY);
+      out.writeInt(array.length);
+      for (String item : array) {
+        writeNullableString(out, item);
+      }
+    } else if (value instanceof boolean[]) {
+      boolean[] array = (boolean[]) value;
+      out.writeByte(TYPE_BOOLEAN_ARRAY);
+      out.writeInt(array.length);
+      for (boolean item : array) {
+        out.writeBoolean(item);
+      }
+    } else {
+      throw new IOException("Values of type " + value.getClass().getName() + " can't be encoded.");
+    }
+  }
+
+  /**
+   * Reads a value written by {@link #writeValue}. Maps and lists are read as {@link HashMap} and {@link ArrayList}
+   * so they can be used just like the ones created from JSON.
+   */
+  public static Object readValue(DataInput in) throws IOException {
+    byte type = in.readByte();
+
+    switch (type) {
+      case TYPE_NULL:
+        return null;
+      case TYPE_BOOLEAN:
+        return in.readBoolean();
+      case TYPE_INT:
+        return in.readInt();
+      case TYPE_LONG:
+        return in.readLong();
+      case TYPE_DOUBLE:
+        return in.readDouble();
+      case TYPE_STRING:
+        return readString(in);
+      case TYPE_LIST: {
+        int size = in.readInt();
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(readValue(in));
+        }
+        return list;
+      }
+      case TYPE_MAP: {
+        int size = in.readInt();
+        Map<String, Object> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+          String key = readString(in);
+          map.put(key, readValue(in));
+        }
+        return map;
+      }
+      case TYPE_BUNDLE:
+        return readBundlePayload(in);
+      case TYPE_INT_ARRAY: {
+        int[] array = new int[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+          array[i] = in.readInt();
+        }
+        return array;
+      }
+      case TYPE_LONG_ARRAY: {
+        long[] array = new long[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+          array[i] = in.readLong();
+        }
+        return array;
+      }
+      case TYPE_DOUBLE_ARRAY: {
+        double[] array = new double[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+          array[i] = in.readDouble();
+        }
+        return array;
+      }
+      case TYPE_STRING_ARRAY: {
+        String[] array = new String[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+          array[i] = readNullableString(in);
+        }
+        return array;
+      }
+      case TYPE_BOOLEAN_ARRAY: {
+        boolean[] array = new boolean[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+          array[i] = in.readBoolean();
+        }
+        return array;
+      }
+      default:
+        throw new IOException("Unknown value type " + type + ".");
+    }
+  }
+
+  // Unlike DataOutput.writeUTF, it isn't limited to 64KB.
+  public static void writeString(DataOutput out, String string) throws IOException {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  public static String readString(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      throw new EOFException("Invalid string length " + length + ".");
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  public static void writeNullableString(DataOutput out, String string) throws IOException {
+    out.writeBoolean(string != null);
+    if (string != null) {
+      writeString(out, string);
+    }
+  }
+
+  public static String readNullableString(DataInput in) throws IOException {
+    return in.readBoolean() ? readString(in) : null;
+  }
+
+  //region bundles
+
+  private static void writeBundle(DataOutput out, PersistableBundle bundle) throws IOException {
+    out.writeByte(TYPE_BUNDLE);
+    out.writeInt(bundle.size());
+    for (String key : bundle.keySet()) {
+      writeString(out, key);
+      writeValue(out, bundle.get(key));
+    }
+  }
+
+  private static PersistableBundle readBundlePayload(DataInput in) throws IOException {
+    int size = in.readInt();
+    PersistableBundle bundle = new PersistableBundle(size);
+
+    for (int i = 0; i < size; i++) {
+      String key = readString(in);
+      Object value = readValue(in);
+
+      if (value == null) {
+        bundle.putString(key, null);
+      } else if (value instanceof Integer) {
+        bundle.putInt(key, (Integer) value);
+      } else if (value instanceof Long) {
+        bundle.putLong(key, (Long) value);
+      } else if (value instanceof Double) {
+        bundle.putDouble(key, (Double) value);
+      } else if (value instanceof String) {
+        bundle.putString(key, (String) value);
+      } else if (value instanceof PersistableBundle) {
+        bundle.putPersistableBundle(key, (PersistableBundle) value);
+      } else if (value instanceof int[]) {
+        bundle.putIntArray(key, (int[]) value);
+      } else if (value instanceof long[]) {
+        bundle.putLongArray(key, (long[]) value);
+      } else if (value instanceof double[]) {
+        bundle.putDoubleArray(key, (double[]) value);
+      } else if (value instanceof String[]) {
+        bundle.putStringArray(key, (String[]) value);
+      } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP_MR1) {
+        // Booleans could have been put into the bundle only on API 22+ in the first place.
+        if (value instanceof Boolean) {
+          bundle.putBoolean(key, (Boolean) value);
+        } else if (value instanceof boolean[]) {
+          bundle.putBooleanArray(key, (boolean[]) value);
+        }
+      }
+    }
+    return bundle;
+  }
+
+  //endregion bundles
+}
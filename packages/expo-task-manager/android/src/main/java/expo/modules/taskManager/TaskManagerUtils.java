@@ -11,11 +11,13 @@ import android.net.Uri;
 import android.os.Bundle;
 import android.os.Parcelable;
 import android.os.PersistableBundle;
+import android.util.Base64;
 import android.util.Log;
 
 import org.unimodules.interfaces.taskManager.TaskInterface;
 import org.unimodules.interfaces.taskManager.TaskManagerUtilsInterface;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -24,6 +26,7 @@ import java.util.Map;
 import java.util.Set;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import androidx.collection.ArraySet;
 
 public class TaskManagerUtils implements TaskManagerUtilsInterface {
@@ -37,6 +40,10 @@ public class TaskManagerUtils implements TaskManagerUtilsInterface {
 
   private static final int DEFAULT_OVERRIDE_DEADLINE = 60 * 1000; // 1 minute
 
+  // Job data encoded with CompactEncoding. Older jobs may still have each item in a separate bundle under its index.
+  private static final String EXTRAS_DATA_KEY = "data";
+  private static final String EXTRAS_DATA_SIZE_KEY = "dataSize";
+
   private static final Set<TaskInterface> sTasksReschedulingJob = new ArraySet<>();
 
   //region TaskManagerUtilsInterface
@@ -77,9 +84,30 @@ public class TaskManagerUtils implements TaskManagerUtilsInterface {
 
   @Override
   public List<PersistableBundle> extractDataFromJobParams(JobParameters params) {
-    PersistableBundle extras = params.getExtras();
+    return extractDataFromExtras(params.getExtras());
+  }
+
+  //endregion TaskManagerUtilsInterface
+  //region static helpers
+
+  /**
+   * Reads data items from the job extras, saved either by {@link #addDataToExtras} or, as separate bundles, by older versions.
+   */
+  @VisibleForTesting
+  static List<PersistableBundle> extractDataFromExtras(PersistableBundle extras) {
+    String encodedData = extras.getString(EXTRAS_DATA_KEY);
+
+    if (encodedData != null) {
+      try {
+        return CompactEncoding.decodeBundles(Base64.decode(encodedData, Base64.NO_WRAP));
+      } catch (IOException | IllegalArgumentException e) {
+        Log.e(TAG, "Unable to decode job data: " + e.getMessage());
+        return new ArrayList<>();
+      }
+    }
+
     List<PersistableBundle> data = new ArrayList<>();
-    int dataSize = extras.getInt("dataSize", 0);
+    int dataSize = extras.getInt(EXTRAS_DATA_SIZE_KEY, 0);
 
     for (int i = 0; i < dataSize; i++) {
       data.add(extras.getPersistableBundle(String.valueOf(i)));
@@ -87,8 +115,40 @@ public class TaskManagerUtils implements TaskManagerUtilsInterface {
     return data;
   }
 
-  //endregion TaskManagerUtilsInterface
-  //region static helpers
+  /**
+   * Appends data items to the job extras, re-encoding the items saved by older versions if there are any.
+   */
+  @VisibleForTesting
+  static void addDataToExtras(PersistableBundle extras, List<PersistableBundle> data) {
+    if (data == null || data.size() == 0) {
+      return;
+    }
+    String encodedData = extras.getString(EXTRAS_DATA_KEY);
+
+    if (encodedData == null && extras.getInt(EXTRAS_DATA_SIZE_KEY, 0) > 0) {
+      // The job has been scheduled with the old format, so its data needs to be re-encoded.
+      List<PersistableBundle> mergedData = new ArrayList<>();
+      int dataSize = extras.getInt(EXTRAS_DATA_SIZE_KEY, 0);
+
+      for (int i = 0; i < dataSize; i++) {
+        mergedData.add(extras.getPersistableBundle(String.valueOf(i)));
+        extras.remove(String.valueOf(i));
+      }
+      mergedData.addAll(data);
+      putDataIntoExtras(extras, mergedData);
+    } else {
+      // Encoded sequences of bundles can be simply concatenated.
+      byte[] oldBytes = encodedData != null ? Base64.decode(encodedData, Base64.NO_WRAP) : new byte[0];
+      byte[] newBytes = CompactEncoding.encodeBundles(data);
+      byte[] mergedBytes = new byte[oldBytes.length + newBytes.length];
+
+      System.arraycopy(oldBytes, 0, mergedBytes, 0, oldBytes.length);
+      System.arraycopy(newBytes, 0, mergedBytes, oldBytes.length, newBytes.length);
+
+      extras.putString(EXTRAS_DATA_KEY, Base64.encodeToString(mergedBytes, Base64.NO_WRAP));
+      extras.putInt(EXTRAS_DATA_SIZE_KEY, extras.getInt(EXTRAS_DATA_SIZE_KEY, 0) + data.size());
+    }
+  }
 
   static boolean notifyTaskJobCancelled(TaskInterface task) {
     boolean isRescheduled = sTasksReschedulingJob.contains(task);
@@ -158,15 +218,8 @@ public class TaskManagerUtils implements TaskManagerUtilsInterface {
 
   private JobInfo createJobInfoByAddingData(JobInfo jobInfo, List<PersistableBundle> data) {
     PersistableBundle mergedExtras = jobInfo.getExtras();
-    int dataSize = mergedExtras.getInt("dataSize", 0);
-
-    if (data != null) {
-      mergedExtras.putInt("dataSize", dataSize + data.size());
 
-      for (int i = 0; i < data.size(); i++) {
-        mergedExtras.putPersistableBundle(String.valueOf(dataSize + i), data.get(i));
-      }
-    }
+    addDataToExtras(mergedExtras, data);
     return createJobInfo(jobInfo.getId(), jobInfo.getService(), mergedExtras);
   }
 
@@ -214,18 +267,23 @@ public class TaskManagerUtils implements TaskManagerUtilsInterface {
     extras.putString("taskName", task.getName());
 
     if (data != null) {
-      extras.putInt("dataSize", data.size());
-
-      for (int i = 0; i < data.size(); i++) {
-        extras.putPersistableBundle(String.valueOf(i), data.get(i));
-      }
+      putDataIntoExtras(extras, data);
     } else {
-      extras.putInt("dataSize", 0);
+      extras.putInt(EXTRAS_DATA_SIZE_KEY, 0);
     }
 
     return extras;
   }
 
+  /**
+   * Puts all data items into a single string instead of a separate bundle per item.
+   * Job extras are persisted by the job scheduler, so the less nested bundles the cheaper it is to save and restore them.
+   */
+  private static void putDataIntoExtras(PersistableBundle extras, List<PersistableBundle> data) {
+    extras.putInt(EXTRAS_DATA_SIZE_KEY, data.size());
+    extras.putString(EXTRAS_DATA_KEY, Base64.encodeToString(CompactEncoding.encodeBundles(data), Base64.NO_WRAP));
+  }
+
   private boolean isJobInfoRelatedToTask(JobInfo jobInfo, TaskInterface task) {
     PersistableBundle extras = jobInfo.getExtras();
     String appId = task.getAppId();
@@ -4,14 +4,12 @@ import android.app.job.JobParameters;
 import android.app.job.JobService;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.PersistableBundle;
 import android.util.Log;
 
-import org.json.JSONObject;
 import org.unimodules.apploader.AppLoaderProvider;
 import org.unimodules.apploader.HeadlessAppLoader;
 import org.unimodules.core.interfaces.SingletonModule;
@@ -26,8 +24,10 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import androidx.annotation.Nullable;
@@ -37,7 +37,6 @@ import expo.modules.taskManager.exceptions.TaskRegisteringFailedException;
 import expo.modules.taskManager.repository.TasksAndEventsRepository;
 
 import static expo.modules.taskManager.Utils.getConsumerVersion;
-import static expo.modules.taskManager.Utils.jsonToMap;
 import static expo.modules.taskManager.Utils.unversionedClassForClass;
 
 // @tsapeta: TaskService is a funny kind of singleton module... because it's actually not a singleton :D
@@ -47,7 +46,6 @@ import static expo.modules.taskManager.Utils.unversionedClassForClass;
 
 public class TaskService implements SingletonModule, TaskServiceInterface {
   private static final String TAG = "TaskService";
-  private static final String SHARED_PREFERENCES_NAME = "TaskManagerModule";
   private static final int MAX_TASK_EXECUTION_TIME_MS = 15000; // 15 seconds
 
   private WeakReference<Context> mContextRef;
@@ -64,6 +62,10 @@ public class TaskService implements SingletonModule, TaskServiceInterface {
 
   private TasksAndEventsRepository mTasksAndEventsRepository;
 
+  // Apps whose persisted tasks have already been restored. Tasks are restored lazily, once they are needed.
+  private static final Set<String> sRestoredAppIds = new HashSet<>();
+  private static boolean sAllTasksRestored = false;
+
   // Map of callbacks for task execution events. Schema: { "<eventId>": TaskExecutionCallback }
   private static final Map<String, TaskExecutionCallback> sTaskCallbacks = new HashMap<>();
 
@@ -74,7 +76,11 @@ public class TaskService implements SingletonModule, TaskServiceInterface {
 
     if (!mTasksAndEventsRepository.tasksExist()) {
       mTasksAndEventsRepository.createTasks();
-      restoreTasks();
+
+      synchronized (sRestoredAppIds) {
+        sRestoredAppIds.clear();
+        sAllTasksRestored = false;
+      }
     }
   }
 
@@ -102,7 +108,7 @@ public class TaskService implements SingletonModule, TaskServiceInterface {
     } else {
       internalRegisterTask(taskName, appId, appUrl, consumerClass, options);
     }
-    mTasksAndEventsRepository.persistTasksForAppId(getSharedPreferences(), appId);
+    mTasksAndEventsRepository.persistTasksForAppId(appId);
   }
 
   @Override
@@ -125,12 +131,12 @@ public class TaskService implements SingletonModule, TaskServiceInterface {
     Log.i(TAG, "Unregistering task '" + taskName + "' for app '" + appId + "'.");
 
     task.getConsumer().didUnregister();
-    mTasksAndEventsRepository.persistTasksForAppId(getSharedPreferences(), appId);
+    mTasksAndEventsRepository.persistTasksForAppId(appId);
   }
 
   @Override
   public void unregisterAllTasksForAppId(String appId) {
-    Map<String, TaskInterface> appTasks = mTasksAndEventsRepository.getTasks(appId);
+    Map<String, TaskInterface> appTasks = getTasks(appId);
 
     if (appTasks != null) {
       Log.i(TAG, "Unregistering all tasks for app '" + appId + "'.");
@@ -162,7 +168,7 @@ public class TaskService implements SingletonModule, TaskServiceInterface {
 
   @Override
   public List<Bundle> getTasksForAppId(String appId) {
-    Map<String, TaskInterface> appTasks = mTasksAndEventsRepository.getTasks(appId);
+    Map<String, TaskInterface> appTasks = getTasks(appId);
     List<Bundle> tasks = new ArrayList<>();
 
     if (appTasks != null) {
@@ -181,7 +187,7 @@ public class TaskService implements SingletonModule, TaskServiceInterface {
 
   @Override
   public List<TaskConsumerInterface> getTaskConsumers(String appId) {
-    Map<String, TaskInterface> appTasks = mTasksAndEventsRepository.getTasks(appId);
+    Map<String, TaskInterface> appTasks = getTasks(appId);
     List<TaskConsumerInterface> taskConsumers = new ArrayList<>();
 
     if (appTasks != null) {
@@ -279,6 +285,9 @@ public class TaskService implements SingletonModule, TaskServiceInterface {
 
       Log.i(TAG, "Handling intent with action '" + action + "'.");
 
+      // Custom broadcasts (e.g. after the device has booted) may be handled by tasks of any app.
+      restoreAllTasksIfNeeded();
+
       for (String appId : mTasksAndEventsRepository.allAppIdsWithTasks()) {
         List<TaskConsumerInterface> taskConsumers = getTaskConsumers(appId);
 
@@ -490,8 +499,13 @@ public class TaskService implements SingletonModule, TaskServiceInterface {
     return errorBundle;
   }
 
+  private Map<String, TaskInterface> getTasks(String appId) {
+    restoreTasksIfNeeded(appId);
+    return mTasksAndEventsRepository.getTasks(appId);
+  }
+
   private TaskInterface getTask(String taskName, String appId) {
-    Map<String, TaskInterface> appTasks = mTasksAndEventsRepository.getTasks(appId);
+    Map<String, TaskInterface> appTasks = getTasks(appId);
     return appTasks != null ? appTasks.get(taskName) : null;
   }
 
@@ -510,37 +524,51 @@ public class TaskService implements SingletonModule, TaskServiceInterface {
     return mTaskManagerUtils;
   }
 
-  private SharedPreferences getSharedPreferences() {
-    Context context = mContextRef.get();
-    return context != null ? context.getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE) : null;
-  }
-
   private void maybeUpdateAppUrlForAppId(String appUrl, String appId) {
-    SharedPreferences preferences = getSharedPreferences();
-    Map<String, Object> appConfig = preferences != null ? jsonToMap(preferences.getString(appId, "")) : null;
-
-    if (appConfig != null && appConfig.size() > 0) {
-      String oldAppUrl = (String) appConfig.get("appUrl");
+    mTasksAndEventsRepository.updatePersistedAppUrl(appId, appUrl);
+  }
 
-      if (oldAppUrl == null || !oldAppUrl.equals(appUrl)) {
-        appConfig.put("appUrl", appUrl);
+  /**
+   * Restores persisted tasks of given app, unless they have already been restored.
+   * Apps started in the background to run a task don't have to pay for restoring tasks of all other apps.
+   */
+  private void restoreTasksIfNeeded(String appId) {
+    if (appId == null) {
+      return;
+    }
+    synchronized (sRestoredAppIds) {
+      if (sAllTasksRestored || sRestoredAppIds.contains(appId)) {
+        return;
+      }
+      restoreTasks(mTasksAndEventsRepository.readPersistedTasksForAppId(appId));
+      sRestoredAppIds.add(appId);
+    }
+  }
 
-        preferences
-          .edit()
-          .putString(appId, new JSONObject(appConfig).toString())
-          .apply();
+  private void restoreAllTasksIfNeeded() {
+    synchronized (sRestoredAppIds) {
+      if (sAllTasksRestored) {
+        return;
       }
+      for (String appId : mTasksAndEventsRepository.persistedAppIds()) {
+        restoreTasksIfNeeded(appId);
+      }
+      sAllTasksRestored = true;
     }
   }
 
   @SuppressWarnings("unchecked")
-  private void restoreTasks() {
-    Map<String, TasksAndEventsRepository.AppConfig> apps = mTasksAndEventsRepository.readPersistedTasks(getSharedPreferences());
-
+  private void restoreTasks(Map<String, TasksAndEventsRepository.AppConfig> apps) {
     for (Map.Entry<String, TasksAndEventsRepository.AppConfig> entry : apps.entrySet()) {
       String appId = entry.getKey();
+
+      // Mark the app as restored before registering its tasks, as consumers may already ask for them.
+      if (!sRestoredAppIds.add(appId)) {
+        continue;
+      }
       String appUrl = entry.getValue().appUrl;
       Map<String, Object> tasksConfig = entry.getValue().tasks;
+      boolean allTasksRestored = true;
 
       if (appUrl != null && tasksConfig != null && tasksConfig.size() > 0) {
         for (String taskName : tasksConfig.keySet()) {
@@ -557,29 +585,34 @@ public class TaskService implements SingletonModule, TaskServiceInterface {
               Map<String, Object> options = (HashMap<String, Object>) taskConfig.get("options");
 
               try {
-                // register the task using internal method which doesn't change shared preferences.
+                // register the task using internal method which doesn't change persisted tasks.
                 internalRegisterTask(taskName, appId, appUrl, consumerClass, options);
               } catch (TaskRegisteringFailedException e) {
                 Log.e(TAG, e.getMessage());
+                allTasksRestored = false;
               }
             } else {
+              allTasksRestored = false;
               Log.w(TAG, "Task consumer '" + consumerClassString + "' has version '" + currentConsumerVersion + "' that is not compatible with the saved version '" + previousConsumerVersion + "'.");
             }
           } catch (ClassNotFoundException | NullPointerException e) {
             Log.e(TAG, e.getMessage());
             e.printStackTrace();
+            allTasksRestored = false;
             // nothing, just skip it.
           }
         }
       }
 
       // Update tasks for the app to unregister tasks that couldn't be restored.
-      mTasksAndEventsRepository.persistTasksForAppId(getSharedPreferences(), entry.getKey());
+      if (!allTasksRestored) {
+        mTasksAndEventsRepository.persistTasksForAppId(appId);
+      }
     }
   }
 
   private void removeAppFromConfig(String appId) {
-    getSharedPreferences().edit().remove(appId).apply();
+    mTasksAndEventsRepository.removePersistedTasks(appId);
   }
 
   /**
@@ -1,6 +1,5 @@
 package expo.modules.taskManager.repository;
 
-import android.content.SharedPreferences;
 import android.os.Bundle;
 
 import org.unimodules.interfaces.taskManager.TaskInterface;
@@ -115,13 +114,32 @@ public class BareTasksAndEventsRepository implements TasksAndEventsRepository {
   }
 
   @Override
-  public void persistTasksForAppId(SharedPreferences preferences, String appId) {
-    tasksPersistence.clearTaskPersistence(preferences, appId);
-    tasksPersistence.persistTasksForAppId(preferences, appId, getTasks(appId));
+  public void persistTasksForAppId(String appId) {
+    tasksPersistence.clearTaskPersistence(appId);
+    tasksPersistence.persistTasksForAppId(appId, getTasks(appId));
   }
 
   @Override
-  public Map<String, AppConfig> readPersistedTasks(SharedPreferences preferences) {
-    return tasksPersistence.readPersistedTasks(preferences);
+  public void removePersistedTasks(String appId) {
+    tasksPersistence.removeTasksForAppId(appId);
+  }
+
+  @Override
+  public void updatePersistedAppUrl(String appId, String appUrl) {
+    tasksPersistence.updateAppUrl(appId, appUrl);
+  }
+
+  @NonNull
+  @Override
+  public Set<String> persistedAppIds() {
+    return tasksPersistence.readPersistedAppIds();
+  }
+
+  /**
+   * Tasks are merged regardless of appId upon retrieval, so tasks of all apps are restored at once.
+   */
+  @Override
+  public Map<String, AppConfig> readPersistedTasksForAppId(String appId) {
+    return tasksPersistence.readPersistedTasks();
   }
 }
@@ -1,6 +1,5 @@
 package expo.modules.taskManager.repository;
 
-import android.content.SharedPreferences;
 import android.os.Bundle;
 
 import org.unimodules.interfaces.taskManager.TaskInterface;
@@ -98,12 +97,34 @@ public class ManagedTasksAndEventsRepository implements TasksAndEventsRepository
   }
 
   @Override
-  public void persistTasksForAppId(SharedPreferences preferences, String appId) {
-    tasksPersistence.persistTasksForAppId(preferences, appId, getTasks(appId));
+  public void persistTasksForAppId(String appId) {
+    tasksPersistence.persistTasksForAppId(appId, getTasks(appId));
   }
 
   @Override
-  public Map<String, AppConfig> readPersistedTasks(SharedPreferences preferences) {
-    return tasksPersistence.readPersistedTasks(preferences);
+  public void removePersistedTasks(String appId) {
+    tasksPersistence.removeTasksForAppId(appId);
+  }
+
+  @Override
+  public void updatePersistedAppUrl(String appId, String appUrl) {
+    tasksPersistence.updateAppUrl(appId, appUrl);
+  }
+
+  @NonNull
+  @Override
+  public Set<String> persistedAppIds() {
+    return tasksPersistence.readPersistedAppIds();
+  }
+
+  @Override
+  public Map<String, AppConfig> readPersistedTasksForAppId(String appId) {
+    Map<String, AppConfig> result = new HashMap<>();
+    AppConfig appConfig = tasksPersistence.readPersistedTasksForAppId(appId);
+
+    if (appConfig != null) {
+      result.put(appId, appConfig);
+    }
+    return result;
   }
 }
@@ -1,7 +1,6 @@
 package expo.modules.taskManager.repository;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
 
@@ -18,6 +17,7 @@ import androidx.annotation.NonNull;
  *
  * Tasks and Events are stored in static collections, thanks to which they remain intact during whole application lifetime.
  * Additionally, it provides means to persistently store and restore Tasks whenever necessary.
+ * Persisted tasks are read per app, so that only tasks of apps that are actually needed have to be restored.
  *
  * Differences in behavior are dictated by different approach in managed and bare workflow. See {@link ManagedTasksAndEventsRepository} and {@link BareTasksAndEventsRepository} for details.
  */
@@ -40,9 +40,9 @@ public interface TasksAndEventsRepository {
     } catch (PackageManager.NameNotFoundException ignore) {
     }
     if(oneAppId) {
-      return new BareTasksAndEventsRepository(new TasksPersistence());
+      return new BareTasksAndEventsRepository(new TasksPersistence(context));
     } else {
-      return new ManagedTasksAndEventsRepository(new TasksPersistence());
+      return new ManagedTasksAndEventsRepository(new TasksPersistence(context));
     }
   }
 
@@ -65,6 +65,9 @@ public interface TasksAndEventsRepository {
   void putTasks(String appId, Map<String, TaskInterface> tasks);
   void removeTasks(String appId);
   void removeTask(String appId, String taskName);
-  void persistTasksForAppId(SharedPreferences preferences, String appId);
-  Map<String, AppConfig> readPersistedTasks(SharedPreferences preferences);
+  void persistTasksForAppId(String appId);
+  void removePersistedTasks(String appId);
+  void updatePersistedAppUrl(String appId, String appUrl);
+  @NonNull Set<String> persistedAppIds();
+  Map<String, AppConfig> readPersistedTasksForAppId(String appId);
 }
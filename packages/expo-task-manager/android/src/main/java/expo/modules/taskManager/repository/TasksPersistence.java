@@ -1,81 +1,278 @@
 package expo.modules.taskManager.repository;
 
+import android.content.Context;
 import android.content.SharedPreferences;
-import android.os.Debug;
+import android.util.AtomicFile;
+import android.util.Base64;
+import android.util.Log;
 
-import org.json.JSONObject;
 import org.unimodules.interfaces.taskManager.TaskInterface;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import expo.modules.taskManager.CompactEncoding;
 
 import static expo.modules.taskManager.Utils.exportTaskToMap;
 import static expo.modules.taskManager.Utils.jsonToMap;
 
+/**
+ * Persists tasks of each app in a separate file, encoded with {@link CompactEncoding}.
+ *
+ * File names are derived from app IDs, so the list of apps that have any tasks is just the directory listing
+ * and tasks of one app can be read without touching the tasks of other apps.
+ * Tasks saved by older versions as JSON strings in shared preferences are copied to the files on first use.
+ * The versioned copies of this module in Expo Go still use those shared preferences, so they are left untouched.
+ */
 public class TasksPersistence {
+  private static final String TAG = "TasksPersistence";
+  private static final String LEGACY_SHARED_PREFERENCES_NAME = "TaskManagerModule";
+  private static final String SHARED_PREFERENCES_NAME = "expo.modules.taskManager.TasksPersistence";
+  private static final String LEGACY_TASKS_MIGRATED_KEY = "legacyTasksMigrated";
+  private static final String TASKS_DIRECTORY = "expo-task-manager";
+  private static final int FORMAT_VERSION = 1;
+  private static final String BACKUP_FILE_SUFFIX = ".bak";
+  private static final int FILE_NAME_FLAGS = Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING;
+
+  private static boolean sMigrated = false;
+
+  private final Context mContext;
+
+  public TasksPersistence(Context context) {
+    mContext = context.getApplicationContext();
+  }
 
-  public void clearTaskPersistence(SharedPreferences preferences, String but) {
-    Map<String, ?> map = preferences.getAll();
-    for(String key: map.keySet()) {
-      if(!but.equals(key)) {
-        preferences.edit().remove(key).apply();
+  @VisibleForTesting
+  static synchronized void resetMigratedFlag() {
+    sMigrated = false;
+  }
+
+  public synchronized void clearTaskPersistence(String but) {
+    for (String appId : readPersistedAppIds()) {
+      if (!but.equals(appId)) {
+        removeTasksForAppId(appId);
       }
     }
   }
 
-  public void persistTasksForAppId(SharedPreferences preferences, String appId, Map<String, TaskInterface> appRow) {
+  public synchronized void persistTasksForAppId(String appId, Map<String, TaskInterface> appRow) {
+    migrateIfNeeded();
 
-    if (preferences == null) {
-      return;
-    }
     if (appRow == null || appRow.size() == 0) {
-      preferences.edit().remove(appId).apply();
+      removeTasksForAppId(appId);
       return;
     }
 
-    Map<String, Object> appConfig = new HashMap<>();
     Map<String, Object> tasks = new HashMap<>();
     String appUrl = null;
 
     for (TaskInterface task : appRow.values()) {
-      Map<String, Object> taskConfig = exportTaskToMap(task);
-      tasks.put(task.getName(), taskConfig);
+      tasks.put(task.getName(), exportTaskToMap(task));
       appUrl = task.getAppUrl();
     }
+    writeAppConfig(appId, appUrl, tasks);
+  }
+
+  public synchronized void removeTasksForAppId(String appId) {
+    migrateIfNeeded();
+    new AtomicFile(getFileForAppId(appId)).delete();
+  }
 
-    appConfig.put("appUrl", appUrl);
-    appConfig.put("tasks", tasks);
+  /**
+   * Changes the app url saved along with the tasks. Does nothing if the app has no tasks.
+   */
+  public synchronized void updateAppUrl(String appId, String appUrl) {
+    TasksAndEventsRepository.AppConfig appConfig = readPersistedTasksForAppId(appId);
 
-    preferences
-      .edit()
-      .putString(appId, new JSONObject(appConfig).toString())
-      .apply();
+    if (appConfig != null && (appConfig.appUrl == null || !appConfig.appUrl.equals(appUrl))) {
+      writeAppConfig(appId, appUrl, appConfig.tasks);
+    }
   }
 
-  public Map<String, TasksAndEventsRepository.AppConfig> readPersistedTasks(SharedPreferences preferences) {
+  @NonNull
+  public synchronized Set<String> readPersistedAppIds() {
+    migrateIfNeeded();
+
+    Set<String> appIds = new HashSet<>();
+    String[] fileNames = getTasksDirectory().list();
+
+    if (fileNames != null) {
+      for (String fileName : fileNames) {
+        // AtomicFile leaves a backup if it was interrupted while writing, it's restored once the file is read.
+        if (fileName.endsWith(BACKUP_FILE_SUFFIX)) {
+          fileName = fileName.substring(0, fileName.length() - BACKUP_FILE_SUFFIX.length());
+        }
+        String appId = appIdFromFileName(fileName);
+
+        if (appId != null) {
+          appIds.add(appId);
+        }
+      }
+    }
+    return appIds;
+  }
+
+  @Nullable
+  public synchronized TasksAndEventsRepository.AppConfig readPersistedTasksForAppId(String appId) {
+    migrateIfNeeded();
+
+    AtomicFile file = new AtomicFile(getFileForAppId(appId));
+
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.openRead()))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        Log.w(TAG, "Tasks of app '" + appId + "' have been saved in unsupported format.");
+        return null;
+      }
+
+      TasksAndEventsRepository.AppConfig appConfig = new TasksAndEventsRepository.AppConfig();
+      appConfig.appUrl = CompactEncoding.readNullableString(in);
+      appConfig.tasks = new HashMap<>();
+
+      int tasksCount = in.readInt();
+      for (int i = 0; i < tasksCount; i++) {
+        Map<String, Object> taskConfig = new HashMap<>();
+        String taskName = CompactEncoding.readString(in);
+
+        taskConfig.put("name", taskName);
+        taskConfig.put("consumerClass", CompactEncoding.readString(in));
+        taskConfig.put("consumerVersion", in.readInt());
+        taskConfig.put("options", CompactEncoding.readValue(in));
+        appConfig.tasks.put(taskName, taskConfig);
+      }
+      return appConfig.appUrl != null && appConfig.tasks.size() > 0 ? appConfig : null;
+    } catch (FileNotFoundException e) {
+      return null;
+    } catch (IOException | ClassCastException e) {
+      Log.e(TAG, "Unable to read tasks of app '" + appId + "': " + e.getMessage());
+      return null;
+    }
+  }
+
+  public synchronized Map<String, TasksAndEventsRepository.AppConfig> readPersistedTasks() {
     Map<String, TasksAndEventsRepository.AppConfig> result = new HashMap<>();
 
-    Map<String, ?> appIdToAppConfigsMap = preferences.getAll();
+    for (String appId : readPersistedAppIds()) {
+      TasksAndEventsRepository.AppConfig appConfig = readPersistedTasksForAppId(appId);
+
+      if (appConfig != null) {
+        result.put(appId, appConfig);
+      }
+    }
+    return result;
+  }
+
+  //region helpers
+
+  /**
+   * @return Whether the tasks have been saved.
+   */
+  @SuppressWarnings("unchecked")
+  private boolean writeAppConfig(String appId, String appUrl, Map<String, Object> tasks) {
+    File directory = getTasksDirectory();
+
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      Log.e(TAG, "Unable to create directory for tasks.");
+      return false;
+    }
+
+    AtomicFile file = new AtomicFile(getFileForAppId(appId));
+    FileOutputStream fileStream = null;
+
+    try {
+      fileStream = file.startWrite();
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileStream));
+
+      out.writeInt(FORMAT_VERSION);
+      CompactEncoding.writeNullableString(out, appUrl);
+      out.writeInt(tasks.size());
+
+      for (Map.Entry<String, Object> entry : tasks.entrySet()) {
+        Map<String, Object> taskConfig = (Map<String, Object>) entry.getValue();
+        Object consumerVersion = taskConfig.get("consumerVersion");
+
+        CompactEncoding.writeString(out, entry.getKey());
+        CompactEncoding.writeString(out, (String) taskConfig.get("consumerClass"));
+        out.writeInt(consumerVersion instanceof Number ? ((Number) consumerVersion).intValue() : 0);
+        CompactEncoding.writeValue(out, taskConfig.get("options"));
+      }
+      out.flush();
+      file.finishWrite(fileStream);
+      return true;
+    } catch (IOException | ClassCastException | NullPointerException e) {
+      Log.e(TAG, "Unable to save tasks of app '" + appId + "': " + e.getMessage());
+      if (fileStream != null) {
+        file.failWrite(fileStream);
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Copies tasks saved as JSON in shared preferences by the previous versions to the files.
+   * The migration is marked as done only if tasks of every app have been saved, otherwise
+   * it's retried the next time the process starts. Apps that already have a file are skipped.
+   */
+  @SuppressWarnings("unchecked")
+  private void migrateIfNeeded() {
+    if (sMigrated) {
+      return;
+    }
+    sMigrated = true;
+
+    SharedPreferences preferences = mContext.getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE);
+
+    if (preferences.getBoolean(LEGACY_TASKS_MIGRATED_KEY, false)) {
+      return;
+    }
+
+    Map<String, ?> appIdToAppConfigsMap = mContext.getSharedPreferences(LEGACY_SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE).getAll();
+    boolean allWritten = true;
 
     for (Map.Entry<String, ?> appIdToConfig : appIdToAppConfigsMap.entrySet()) {
       Map<String, Object> appConfig = jsonToMap(appIdToConfig.getValue().toString());
       String appUrl = (String) appConfig.get("appUrl");
-      Map<String, Object> tasksConfig = (HashMap<String, Object>) appConfig.get("tasks");
+      Map<String, Object> tasksConfig = (Map<String, Object>) appConfig.get("tasks");
 
-      if (appUrl != null && tasksConfig != null && tasksConfig.size() > 0) {
-        Map<String, Object> tasksForApp = new HashMap<>();
-        for (String taskName : tasksConfig.keySet()) {
-          tasksForApp.put(taskName, tasksConfig.get(taskName));
-        }
-        TasksAndEventsRepository.AppConfig app = new TasksAndEventsRepository.AppConfig();
-        app.appUrl = appUrl;
-        app.tasks = tasksForApp;
-        result.put(appIdToConfig.getKey(), app);
+      if (appUrl != null && tasksConfig != null && tasksConfig.size() > 0 && !getFileForAppId(appIdToConfig.getKey()).exists()) {
+        allWritten &= writeAppConfig(appIdToConfig.getKey(), appUrl, tasksConfig);
       }
     }
+    if (allWritten) {
+      preferences.edit().putBoolean(LEGACY_TASKS_MIGRATED_KEY, true).commit();
+    }
+  }
 
-    return result;
+  private File getTasksDirectory() {
+    return new File(mContext.getNoBackupFilesDir(), TASKS_DIRECTORY);
+  }
+
+  private File getFileForAppId(String appId) {
+    return new File(getTasksDirectory(), Base64.encodeToString(appId.getBytes(StandardCharsets.UTF_8), FILE_NAME_FLAGS));
+  }
 
+  @Nullable
+  private static String appIdFromFileName(String fileName) {
+    try {
+      return new String(Base64.decode(fileName, FILE_NAME_FLAGS), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      // Some unrelated file.
+      return null;
+    }
   }
 
+  //endregion helpers
 }
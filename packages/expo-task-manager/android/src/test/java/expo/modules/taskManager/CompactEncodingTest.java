@@ -0,0 +1,133 @@
+package expo.modules.taskManager;
+
+import android.os.PersistableBundle;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(RobolectricTestRunner.class)
+public class CompactEncodingTest {
+  @Test
+  public void testValuesRoundTrip() throws IOException {
+    Map<String, Object> nested = new HashMap<>();
+    nested.put("accuracy", 4);
+    nested.put("label", null);
+
+    Map<String, Object> value = new HashMap<>();
+    value.put("boolean", true);
+    value.put("int", 42);
+    value.put("long", 1L << 40);
+    value.put("double", 0.5);
+    value.put("string", "zażółć gęślą jaźń");
+    value.put("list", new ArrayList<>(Arrays.asList(1, "two", null)));
+    value.put("map", nested);
+
+    Assert.assertEquals(value, decodeValue(encodeValue(value)));
+  }
+
+  @Test
+  public void testArraysRoundTrip() throws IOException {
+    Assert.assertArrayEquals(new int[] { 1, -2 }, (int[]) decodeValue(encodeValue(new int[] { 1, -2 })));
+    Assert.assertArrayEquals(new long[] { Long.MAX_VALUE }, (long[]) decodeValue(encodeValue(new long[] { Long.MAX_VALUE })));
+    Assert.assertArrayEquals(new double[] { 1.5, -0.0 }, (double[]) decodeValue(encodeValue(new double[] { 1.5, -0.0 })), 0);
+    Assert.assertArrayEquals(new String[] { "a", null }, (String[]) decodeValue(encodeValue(new String[] { "a", null })));
+    Assert.assertArrayEquals(new boolean[] { true, false }, (boolean[]) decodeValue(encodeValue(new boolean[] { true, false })));
+  }
+
+  @Test
+  public void testLongStringRoundTrip() throws IOException {
+    // DataOutput.writeUTF is limited to 64KB
+    char[] chars = new char[100 * 1024];
+    Arrays.fill(chars, 'x');
+    String string = new String(chars);
+
+    Assert.assertEquals(string, decodeValue(encodeValue(string)));
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnsupportedValue() throws IOException {
+    encodeValue(new Object());
+  }
+
+  @Test
+  public void testBundlesRoundTrip() throws IOException {
+    List<PersistableBundle> bundles = Arrays.asList(createLocationBundle(1), createLocationBundle(2));
+    List<PersistableBundle> decoded = CompactEncoding.decodeBundles(CompactEncoding.encodeBundles(bundles));
+
+    Assert.assertEquals(2, decoded.size());
+    for (int i = 0; i < bundles.size(); i++) {
+      assertLocationBundle(decoded.get(i), i + 1);
+    }
+  }
+
+  @Test
+  public void testConcatenatedSequences() throws IOException {
+    byte[] first = CompactEncoding.encodeBundles(Arrays.asList(createLocationBundle(1)));
+    byte[] second = CompactEncoding.encodeBundles(Arrays.asList(createLocationBundle(2), createLocationBundle(3)));
+    byte[] concatenated = new byte[first.length + second.length];
+    System.arraycopy(first, 0, concatenated, 0, first.length);
+    System.arraycopy(second, 0, concatenated, first.length, second.length);
+
+    List<PersistableBundle> decoded = CompactEncoding.decodeBundles(concatenated);
+
+    Assert.assertEquals(3, decoded.size());
+    for (int i = 0; i < decoded.size(); i++) {
+      assertLocationBundle(decoded.get(i), i + 1);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testDecodeBundlesOfOtherValues() throws IOException {
+    CompactEncoding.decodeBundles(encodeValue("not a bundle"));
+  }
+
+  @Test(expected = IOException.class)
+  public void testDecodeTruncatedBundles() throws IOException {
+    byte[] encoded = CompactEncoding.encodeBundles(Arrays.asList(createLocationBundle(1)));
+    CompactEncoding.decodeBundles(Arrays.copyOf(encoded, encoded.length - 1));
+  }
+
+  static PersistableBundle createLocationBundle(int index) {
+    PersistableBundle coords = new PersistableBundle();
+    coords.putDouble("latitude", 50.0 + index);
+    coords.putDouble("longitude", 19.0 + index);
+
+    PersistableBundle bundle = new PersistableBundle();
+    bundle.putLong("timestamp", 1000L * index);
+    bundle.putPersistableBundle("coords", coords);
+    bundle.putStringArray("regions", new String[] { "region" + index });
+    return bundle;
+  }
+
+  static void assertLocationBundle(PersistableBundle bundle, int index) {
+    Assert.assertEquals(1000L * index, bundle.getLong("timestamp"));
+    Assert.assertEquals(50.0 + index, bundle.getPersistableBundle("coords").getDouble("latitude"), 0);
+    Assert.assertEquals(19.0 + index, bundle.getPersistableBundle("coords").getDouble("longitude"), 0);
+    Assert.assertArrayEquals(new String[] { "region" + index }, bundle.getStringArray("regions"));
+  }
+
+  private static byte[] encodeValue(Object value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    CompactEncoding.writeValue(out, value);
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  private static Object decodeValue(byte[] bytes) throws IOException {
+    return CompactEncoding.readValue(new DataInputStream(new ByteArrayInputStream(bytes)));
+  }
+}
@@ -0,0 +1,80 @@
+package expo.modules.taskManager;
+
+import android.os.PersistableBundle;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static expo.modules.taskManager.CompactEncodingTest.assertLocationBundle;
+import static expo.modules.taskManager.CompactEncodingTest.createLocationBundle;
+
+@RunWith(RobolectricTestRunner.class)
+public class TaskManagerUtilsTest {
+  @Test
+  public void testExtractLegacyData() {
+    List<PersistableBundle> data = TaskManagerUtils.extractDataFromExtras(createLegacyExtras(2));
+
+    Assert.assertEquals(2, data.size());
+    assertLocationBundle(data.get(0), 1);
+    assertLocationBundle(data.get(1), 2);
+  }
+
+  @Test
+  public void testAddDataToLegacyExtras() {
+    PersistableBundle extras = createLegacyExtras(2);
+
+    TaskManagerUtils.addDataToExtras(extras, Arrays.asList(createLocationBundle(3)));
+
+    // the old items are re-encoded along with the new ones
+    Assert.assertFalse(extras.containsKey("0"));
+    Assert.assertFalse(extras.containsKey("1"));
+    Assert.assertEquals(3, extras.getInt("dataSize"));
+
+    List<PersistableBundle> data = TaskManagerUtils.extractDataFromExtras(extras);
+    Assert.assertEquals(3, data.size());
+    for (int i = 0; i < data.size(); i++) {
+      assertLocationBundle(data.get(i), i + 1);
+    }
+  }
+
+  @Test
+  public void testAddDataToEncodedExtras() {
+    PersistableBundle extras = new PersistableBundle();
+
+    TaskManagerUtils.addDataToExtras(extras, Arrays.asList(createLocationBundle(1)));
+    TaskManagerUtils.addDataToExtras(extras, Arrays.asList(createLocationBundle(2), createLocationBundle(3)));
+    TaskManagerUtils.addDataToExtras(extras, null);
+
+    Assert.assertEquals(3, extras.getInt("dataSize"));
+
+    List<PersistableBundle> data = TaskManagerUtils.extractDataFromExtras(extras);
+    Assert.assertEquals(3, data.size());
+    for (int i = 0; i < data.size(); i++) {
+      assertLocationBundle(data.get(i), i + 1);
+    }
+  }
+
+  @Test
+  public void testExtractCorruptedData() {
+    PersistableBundle extras = new PersistableBundle();
+    extras.putString("data", "not base64 encoded bundles");
+    extras.putInt("dataSize", 1);
+
+    Assert.assertTrue(TaskManagerUtils.extractDataFromExtras(extras).isEmpty());
+  }
+
+  // The layout used by previous versions: every item in a separate bundle under its index.
+  private static PersistableBundle createLegacyExtras(int dataSize) {
+    PersistableBundle extras = new PersistableBundle();
+    extras.putInt("dataSize", dataSize);
+    for (int i = 0; i < dataSize; i++) {
+      extras.putPersistableBundle(String.valueOf(i), createLocationBundle(i + 1));
+    }
+    return extras;
+  }
+}
@@ -0,0 +1,156 @@
+package expo.modules.taskManager.repository;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import static expo.modules.taskManager.Utils.jsonToMap;
+
+@RunWith(RobolectricTestRunner.class)
+public class TasksPersistenceTest {
+  private static final String LEGACY_SHARED_PREFERENCES_NAME = "TaskManagerModule";
+
+  private Context mContext;
+
+  @Before
+  public void setUp() {
+    mContext = ApplicationProvider.getApplicationContext();
+    TasksPersistence.resetMigratedFlag();
+  }
+
+  @Test
+  public void testMigrateLegacyTasks() {
+    getLegacyPreferences().edit()
+      .putString("@user/first", createLegacyAppConfig("exp://first", 2))
+      .putString("@user/second", createLegacyAppConfig("exp://second", 1))
+      .commit();
+
+    TasksPersistence persistence = new TasksPersistence(mContext);
+    TasksAndEventsRepository.AppConfig appConfig = persistence.readPersistedTasksForAppId("@user/first");
+
+    Assert.assertEquals(2, persistence.readPersistedAppIds().size());
+    Assert.assertEquals("exp://first", appConfig.appUrl);
+    Assert.assertEquals(2, appConfig.tasks.size());
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> taskConfig = (Map<String, Object>) appConfig.tasks.get("task0");
+    Assert.assertEquals("task0", taskConfig.get("name"));
+    Assert.assertEquals("expo.modules.location.taskConsumers.LocationTaskConsumer", taskConfig.get("consumerClass"));
+    Assert.assertEquals(1, taskConfig.get("consumerVersion"));
+    Assert.assertEquals(1000, ((Map<?, ?>) taskConfig.get("options")).get("timeInterval"));
+  }
+
+  @Test
+  public void testLegacyPreferencesAreLeftUntouched() {
+    // versioned copies of the module in Expo Go still use them
+    getLegacyPreferences().edit().putString("@user/first", createLegacyAppConfig("exp://first", 1)).commit();
+
+    new TasksPersistence(mContext).readPersistedAppIds();
+
+    Assert.assertTrue(getLegacyPreferences().contains("@user/first"));
+  }
+
+  @Test
+  public void testMigrateOnlyOnce() {
+    getLegacyPreferences().edit().putString("@user/first", createLegacyAppConfig("exp://first", 1)).commit();
+    new TasksPersistence(mContext).removeTasksForAppId("@user/first");
+
+    // a new process must not restore tasks the app has unregistered in the meantime
+    TasksPersistence.resetMigratedFlag();
+    TasksPersistence persistence = new TasksPersistence(mContext);
+
+    Assert.assertTrue(persistence.readPersistedAppIds().isEmpty());
+    Assert.assertNull(persistence.readPersistedTasksForAppId("@user/first"));
+  }
+
+  @Test
+  public void testSkipAppsWithoutTasks() {
+    getLegacyPreferences().edit()
+      .putString("@user/empty", createLegacyAppConfig("exp://empty", 0))
+      .putString("@user/invalid", "{")
+      .commit();
+
+    Assert.assertTrue(new TasksPersistence(mContext).readPersistedAppIds().isEmpty());
+  }
+
+  @Test
+  public void testUpdateAppUrl() {
+    getLegacyPreferences().edit().putString("@user/first", createLegacyAppConfig("exp://first", 1)).commit();
+    TasksPersistence persistence = new TasksPersistence(mContext);
+
+    persistence.updateAppUrl("@user/first", "exp://updated");
+    persistence.updateAppUrl("@user/missing", "exp://missing");
+
+    Assert.assertEquals("exp://updated", persistence.readPersistedTasksForAppId("@user/first").appUrl);
+    Assert.assertNull(persistence.readPersistedTasksForAppId("@user/missing"));
+  }
+
+  /**
+   * Measures what restoring tasks costs when a headless task is started: previous versions parsed JSON
+   * of all apps from shared preferences, now only the file of the app running the task is read.
+   */
+  @Test
+  public void testColdStartRestore() {
+    int appsCount = 200;
+    SharedPreferences.Editor editor = getLegacyPreferences().edit();
+    for (int i = 0; i < appsCount; i++) {
+      editor.putString("@user/app" + i, createLegacyAppConfig("exp://app" + i, 3));
+    }
+    editor.commit();
+    new TasksPersistence(mContext).readPersistedAppIds();
+
+    long legacyStart = System.nanoTime();
+    int legacyTasksCount = 0;
+    for (Object json : getLegacyPreferences().getAll().values()) {
+      legacyTasksCount += ((Map<?, ?>) jsonToMap(json.toString()).get("tasks")).size();
+    }
+    long legacyTime = System.nanoTime() - legacyStart;
+
+    long lazyStart = System.nanoTime();
+    TasksAndEventsRepository.AppConfig appConfig = new TasksPersistence(mContext).readPersistedTasksForAppId("@user/app" + (appsCount / 2));
+    long lazyTime = System.nanoTime() - lazyStart;
+
+    Assert.assertEquals(appsCount * 3, legacyTasksCount);
+    Assert.assertEquals("exp://app" + (appsCount / 2), appConfig.appUrl);
+    Assert.assertEquals(3, appConfig.tasks.size());
+    System.out.println("Restoring tasks of one of " + appsCount + " apps took " + lazyTime / 1000
+      + "us, parsing tasks of all apps as before took " + legacyTime / 1000 + "us.");
+  }
+
+  private SharedPreferences getLegacyPreferences() {
+    return mContext.getSharedPreferences(LEGACY_SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE);
+  }
+
+  // The format used by previous versions, see Utils.exportTaskToMap.
+  private static String createLegacyAppConfig(String appUrl, int tasksCount) {
+    Map<String, Object> tasks = new HashMap<>();
+    for (int i = 0; i < tasksCount; i++) {
+      Map<String, Object> options = new HashMap<>();
+      options.put("timeInterval", 1000);
+      options.put("accuracy", 4);
+
+      Map<String, Object> task = new HashMap<>();
+      task.put("name", "task" + i);
+      task.put("consumerClass", "expo.modules.location.taskConsumers.LocationTaskConsumer");
+      task.put("consumerVersion", 1);
+      task.put("options", options);
+      tasks.put("task" + i, task);
+    }
+
+    Map<String, Object> appConfig = new HashMap<>();
+    appConfig.put("appUrl", appUrl);
+    appConfig.put("tasks", tasks);
+    return new JSONObject(appConfig).toString();
+  }
+}
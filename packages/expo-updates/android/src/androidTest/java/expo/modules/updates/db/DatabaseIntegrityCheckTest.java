@@ -1,6 +1,7 @@
 package expo.modules.updates.db;
 
 import android.content.Context;
+import android.net.Uri;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -16,9 +17,11 @@ import androidx.test.platform.app.InstrumentationRegistry;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
 
+import expo.modules.updates.UpdatesConfiguration;
 import expo.modules.updates.db.entity.AssetEntity;
 import expo.modules.updates.db.entity.UpdateEntity;
 import expo.modules.updates.db.enums.UpdateStatus;
@@ -124,4 +127,37 @@ public class DatabaseIntegrityCheckTest {
     // cleanup
     db.updateDao().deleteUpdates(allUpdates);
   }
+
+  @Test
+  public void testIncrementalCheckSkipsOldAssets() {
+    HashMap<String, Object> configMap = new HashMap<>();
+    configMap.put("updateUrl", Uri.parse("https://exp.host/@test/test"));
+    UpdatesConfiguration configuration = new UpdatesConfiguration().loadValuesFromMap(configMap);
+
+    AssetEntity oldAsset = new AssetEntity("oldAsset", "png");
+    oldAsset.relativePath = "oldAsset.png";
+    oldAsset.downloadTime = new Date(1000);
+
+    String scopeKey = "testScopeKey";
+    UpdateEntity update1 = new UpdateEntity(UUID.randomUUID(), new Date(), "1.0", scopeKey);
+    update1.status = UpdateStatus.READY;
+    db.updateDao().insertUpdate(update1);
+    db.assetDao().insertAssets(Collections.singletonList(oldAsset), update1);
+
+    // the first incremental run is always a full check
+    DatabaseIntegrityCheck integrityCheck = Mockito.spy(DatabaseIntegrityCheck.class);
+    Mockito.doReturn(true).when(integrityCheck).assetExists(ArgumentMatchers.any(), ArgumentMatchers.any());
+    integrityCheck.runIncremental(db, context.getCacheDir(), update1, configuration);
+    Mockito.verify(integrityCheck, Mockito.times(1)).assetExists(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+    // the asset hasn't been touched since, so the next run should not check it again
+    Mockito.reset(integrityCheck);
+    Mockito.doReturn(false).when(integrityCheck).assetExists(ArgumentMatchers.any(), ArgumentMatchers.any());
+    integrityCheck.runIncremental(db, context.getCacheDir(), update1, configuration);
+    Mockito.verify(integrityCheck, Mockito.never()).assetExists(ArgumentMatchers.any(), ArgumentMatchers.any());
+    Assert.assertEquals(UpdateStatus.READY, db.updateDao().loadAllUpdates().get(0).status);
+
+    // cleanup
+    db.updateDao().deleteUpdates(db.updateDao().loadAllUpdates());
+  }
 }
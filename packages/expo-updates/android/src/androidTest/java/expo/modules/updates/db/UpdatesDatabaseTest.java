@@ -2,6 +2,7 @@ package expo.modules.updates.db;
 
 import android.content.Context;
 import android.database.sqlite.SQLiteConstraintException;
+import android.net.Uri;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -9,6 +10,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -151,4 +153,61 @@ public class UpdatesDatabaseTest {
     Assert.assertNotNull(assetDao.loadAssetWithKey("asset3"));
     Assert.assertNotNull(assetDao.loadAssetWithKey("commonAsset"));
   }
+
+  @Test
+  public void testDeleteUnusedAssetsInBatches() {
+    String runtimeVersion = "1.0";
+    String projectId = "https://exp.host/@esamelson/test-project";
+
+    UpdateEntity update1 = new UpdateEntity(UUID.randomUUID(), new Date(), runtimeVersion, projectId);
+    updateDao.insertUpdate(update1);
+    List<AssetEntity> unusedAssets = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      unusedAssets.add(new AssetEntity("unused" + i, "png"));
+    }
+    assetDao.insertAssets(unusedAssets, update1);
+
+    UpdateEntity update2 = new UpdateEntity(UUID.randomUUID(), new Date(), runtimeVersion, projectId);
+    AssetEntity keptAsset = new AssetEntity("kept", "png");
+    updateDao.insertUpdate(update2);
+    assetDao.insertAssets(Arrays.asList(keptAsset), update2);
+    updateDao.markUpdateFinished(update2);
+
+    updateDao.deleteUpdates(Arrays.asList(update1));
+
+    Assert.assertEquals(2, assetDao.deleteUnusedAssets(2).size());
+    Assert.assertEquals(4, assetDao.loadAllAssets().size());
+    Assert.assertEquals(2, assetDao.deleteUnusedAssets(2).size());
+    Assert.assertEquals(1, assetDao.deleteUnusedAssets(2).size());
+    Assert.assertEquals(0, assetDao.deleteUnusedAssets(2).size());
+
+    List<AssetEntity> remainingAssets = assetDao.loadAllAssets();
+    Assert.assertEquals(1, remainingAssets.size());
+    Assert.assertEquals("kept", remainingAssets.get(0).key);
+  }
+
+  @Test
+  public void testMergeAndUpdateAssetKeepsManifestFields() {
+    UpdateEntity update = new UpdateEntity(UUID.randomUUID(), new Date(), "1.0", "https://exp.host/@esamelson/test-project");
+    updateDao.insertUpdate(update);
+    assetDao.insertAssets(Arrays.asList(new AssetEntity("existing", "js")), update);
+
+    AssetEntity existingEntity = assetDao.loadAssetWithKey("existing");
+    Assert.assertNotNull(existingEntity);
+    Assert.assertNull(existingEntity.expectedHash);
+
+    AssetEntity manifestEntity = new AssetEntity("existing", "js");
+    manifestEntity.url = Uri.parse("https://example.com/existing.js");
+    manifestEntity.isLaunchAsset = true;
+    manifestEntity.expectedHash = new byte[]{1, 2, 3};
+    manifestEntity.patchUrls = Collections.singletonMap("abcdef", Uri.parse("https://example.com/existing.patch"));
+
+    assetDao.mergeAndUpdateAsset(existingEntity, manifestEntity);
+
+    Assert.assertEquals(manifestEntity.url, existingEntity.url);
+    Assert.assertTrue(existingEntity.isLaunchAsset);
+    Assert.assertArrayEquals(manifestEntity.expectedHash, existingEntity.expectedHash);
+    Assert.assertEquals(manifestEntity.patchUrls, existingEntity.patchUrls);
+    Assert.assertEquals(manifestEntity.url, assetDao.loadAssetWithKey("existing").url);
+  }
 }
@@ -11,6 +11,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.UUID;
@@ -66,4 +67,46 @@ public class DatabaseLauncherTest {
     Assert.assertNotEquals(testUpdate.lastAccessed, sameUpdate.lastAccessed);
     Assert.assertTrue("new lastAccessed date should be within 1000 ms of now", new Date().getTime() - sameUpdate.lastAccessed.getTime() < 1000);
   }
+
+  @Test
+  public void testLaunch_UsesAssetMapSnapshot() throws Exception {
+    UpdateEntity testUpdate = new UpdateEntity(UUID.randomUUID(), new Date(), "1.0", "scopeKey");
+    db.updateDao().insertUpdate(testUpdate);
+
+    AssetEntity testAsset = new AssetEntity("bundle-1234", "js");
+    testAsset.relativePath = "bundle-1234";
+    testAsset.isLaunchAsset = true;
+    AssetEntity imageAsset = new AssetEntity("image-5678", "png");
+    imageAsset.relativePath = "image-5678";
+    db.assetDao().insertAssets(Arrays.asList(testAsset, imageAsset), testUpdate);
+
+    File updatesDirectory = context.getCacheDir();
+    File launchAssetFile = new File(updatesDirectory, "bundle-1234");
+    launchAssetFile.createNewFile();
+    File imageAssetFile = new File(updatesDirectory, "image-5678");
+    imageAssetFile.createNewFile();
+
+    // first launch goes through the full verification path and saves a snapshot
+    DatabaseLauncher firstLauncher = Mockito.spy(new DatabaseLauncher(null, updatesDirectory, null, null));
+    Mockito.doReturn(db.updateDao().loadUpdateWithId(testUpdate.id))
+            .when(firstLauncher).getLaunchableUpdate(ArgumentMatchers.any(), ArgumentMatchers.any());
+    Mockito.doReturn(launchAssetFile).when(firstLauncher).ensureAssetExists(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    firstLauncher.launch(db, context, Mockito.mock(Launcher.LauncherCallback.class));
+    Mockito.verify(firstLauncher, Mockito.times(3)).ensureAssetExists(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+
+    // second launch of the same update is served from the snapshot
+    DatabaseLauncher secondLauncher = Mockito.spy(new DatabaseLauncher(null, updatesDirectory, null, null));
+    Mockito.doReturn(db.updateDao().loadUpdateWithId(testUpdate.id))
+            .when(secondLauncher).getLaunchableUpdate(ArgumentMatchers.any(), ArgumentMatchers.any());
+    Launcher.LauncherCallback mockedCallback = Mockito.mock(Launcher.LauncherCallback.class);
+    secondLauncher.launch(db, context, mockedCallback);
+
+    Mockito.verify(mockedCallback).onSuccess();
+    Mockito.verify(secondLauncher, Mockito.never()).ensureAssetExists(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    Assert.assertEquals(launchAssetFile.toString(), secondLauncher.getLaunchAssetFile());
+    Assert.assertEquals(2, secondLauncher.getLocalAssetFiles().size());
+
+    launchAssetFile.delete();
+    imageAssetFile.delete();
+  }
 }
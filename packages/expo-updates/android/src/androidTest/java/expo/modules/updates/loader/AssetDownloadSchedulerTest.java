@@ -0,0 +1,114 @@
+package expo.modules.updates.loader;
+
+import android.net.Uri;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import expo.modules.updates.UpdatesConfiguration;
+import expo.modules.updates.db.entity.AssetEntity;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class AssetDownloadSchedulerTest {
+
+  private UpdatesConfiguration configuration;
+  private FileDownloader mockFileDownloader;
+  private List<AssetEntity> startedAssets;
+  private List<FileDownloader.AssetDownloadCallback> pendingCallbacks;
+
+  @Before
+  public void setup() {
+    HashMap<String, Object> configMap = new HashMap<>();
+    configMap.put("updateUrl", Uri.parse("https://exp.host/@test/test"));
+    configMap.put("maxConcurrentAssetDownloads", 2);
+    configuration = new UpdatesConfiguration().loadValuesFromMap(configMap);
+
+    startedAssets = new ArrayList<>();
+    pendingCallbacks = new ArrayList<>();
+    mockFileDownloader = Mockito.mock(FileDownloader.class);
+    Mockito.doAnswer(invocation -> {
+      startedAssets.add(invocation.getArgument(0));
+      pendingCallbacks.add(invocation.getArgument(3));
+      return null;
+    }).when(mockFileDownloader).downloadAsset(
+      ArgumentMatchers.any(AssetEntity.class),
+      ArgumentMatchers.any(),
+      ArgumentMatchers.any(UpdatesConfiguration.class),
+      ArgumentMatchers.any(FileDownloader.AssetDownloadCallback.class));
+  }
+
+  @Test
+  public void testConcurrencyLimitAndLaunchAssetPriority() {
+    AssetDownloadScheduler scheduler = new AssetDownloadScheduler(mockFileDownloader, new File("/tmp"), configuration);
+
+    AssetEntity image1 = new AssetEntity("image1", "png");
+    AssetEntity image2 = new AssetEntity("image2", "png");
+    AssetEntity image3 = new AssetEntity("image3", "png");
+    AssetEntity bundle = new AssetEntity("bundle", "js");
+    bundle.isLaunchAsset = true;
+
+    FileDownloader.AssetDownloadCallback noopCallback = Mockito.mock(FileDownloader.AssetDownloadCallback.class);
+    scheduler.enqueue(image1, noopCallback);
+    scheduler.enqueue(image2, noopCallback);
+    scheduler.enqueue(bundle, noopCallback);
+    scheduler.enqueue(image3, noopCallback);
+    scheduler.start();
+
+    Assert.assertEquals(2, startedAssets.size());
+    Assert.assertSame(bundle, startedAssets.get(0));
+    Assert.assertSame(image1, startedAssets.get(1));
+
+    pendingCallbacks.get(0).onSuccess(bundle, true);
+    Assert.assertEquals(3, startedAssets.size());
+    Assert.assertSame(image2, startedAssets.get(2));
+
+    pendingCallbacks.get(1).onFailure(new Exception("test"), image1);
+    pendingCallbacks.get(2).onSuccess(image2, true);
+    Assert.assertEquals(4, startedAssets.size());
+    Assert.assertSame(image3, startedAssets.get(3));
+
+    pendingCallbacks.get(3).onSuccess(image3, false);
+
+    List<AssetDownloadTiming> timings = scheduler.getTimings();
+    Assert.assertEquals(4, timings.size());
+    Assert.assertEquals("bundle", timings.get(0).key);
+    Assert.assertTrue(timings.get(0).isLaunchAsset);
+    Assert.assertFalse(timings.get(1).isSuccessful);
+    Mockito.verify(noopCallback, Mockito.times(3)).onSuccess(ArgumentMatchers.any(AssetEntity.class), ArgumentMatchers.anyBoolean());
+    Mockito.verify(noopCallback).onFailure(ArgumentMatchers.any(Exception.class), ArgumentMatchers.eq(image1));
+  }
+
+  @Test
+  public void testSynchronousCallbacksDrainWholeQueue() {
+    Mockito.doAnswer(invocation -> {
+      AssetEntity asset = invocation.getArgument(0);
+      startedAssets.add(asset);
+      ((FileDownloader.AssetDownloadCallback) invocation.getArgument(3)).onSuccess(asset, false);
+      return null;
+    }).when(mockFileDownloader).downloadAsset(
+      ArgumentMatchers.any(AssetEntity.class),
+      ArgumentMatchers.any(),
+      ArgumentMatchers.any(UpdatesConfiguration.class),
+      ArgumentMatchers.any(FileDownloader.AssetDownloadCallback.class));
+
+    AssetDownloadScheduler scheduler = new AssetDownloadScheduler(mockFileDownloader, new File("/tmp"), configuration);
+    FileDownloader.AssetDownloadCallback noopCallback = Mockito.mock(FileDownloader.AssetDownloadCallback.class);
+    for (int i = 0; i < 10; i++) {
+      scheduler.enqueue(new AssetEntity("asset" + i, "png"), noopCallback);
+    }
+    scheduler.start();
+
+    Assert.assertEquals(10, startedAssets.size());
+    Assert.assertEquals(10, scheduler.getTimings().size());
+  }
+}
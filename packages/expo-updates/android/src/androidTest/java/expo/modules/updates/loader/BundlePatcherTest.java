@@ -0,0 +1,174 @@
+package expo.modules.updates.loader;
+
+import android.content.Context;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.zip.GZIPOutputStream;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class BundlePatcherTest {
+
+  private static final String OLD_CONTENT = "console.log('hello world');";
+  private static final String NEW_CONTENT = "console.log('hello there world!');";
+
+  private File directory;
+  private File oldFile;
+  private File patchFile;
+  private File destination;
+
+  @Before
+  public void setup() throws IOException {
+    Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    directory = new File(context.getCacheDir(), "BundlePatcherTest");
+    directory.mkdirs();
+    oldFile = new File(directory, "old.bundle");
+    patchFile = new File(directory, "bundle.patch");
+    destination = new File(directory, "new.bundle");
+    FileUtils.writeStringToFile(oldFile, OLD_CONTENT, StandardCharsets.UTF_8);
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void testApplyUncompressedPatch() throws Exception {
+    FileUtils.writeByteArrayToFile(patchFile, createPatch(false));
+    byte[] hash = BundlePatcher.applyPatch(oldFile, patchFile, destination);
+
+    Assert.assertEquals(NEW_CONTENT, FileUtils.readFileToString(destination, StandardCharsets.UTF_8));
+    Assert.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(NEW_CONTENT.getBytes(StandardCharsets.UTF_8)), hash);
+  }
+
+  @Test
+  public void testApplyGzipPatch() throws Exception {
+    FileUtils.writeByteArrayToFile(patchFile, createPatch(true));
+    byte[] hash = BundlePatcher.applyPatch(oldFile, patchFile, destination);
+
+    Assert.assertEquals(NEW_CONTENT, FileUtils.readFileToString(destination, StandardCharsets.UTF_8));
+    Assert.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(NEW_CONTENT.getBytes(StandardCharsets.UTF_8)), hash);
+  }
+
+  @Test
+  public void testDiffStartingBeforeOldFile() throws Exception {
+    byte[] oldBytes = OLD_CONTENT.getBytes(StandardCharsets.UTF_8);
+    byte[] newBytes = ("abc" + OLD_CONTENT).getBytes(StandardCharsets.UTF_8);
+
+    ByteArrayOutputStream records = new ByteArrayOutputStream();
+    // record 1: only move the old position before the beginning of the old file
+    writeRecord(records, oldBytes, newBytes, 0, 0, 0, 0, -3);
+    // record 2: diff the whole new file against old positions starting at -3
+    writeRecord(records, oldBytes, newBytes, -3, 0, newBytes.length, 0, 0);
+    FileUtils.writeByteArrayToFile(patchFile, buildPatch(newBytes.length, records.toByteArray(), false));
+
+    byte[] hash = BundlePatcher.applyPatch(oldFile, patchFile, destination);
+
+    Assert.assertEquals("abc" + OLD_CONTENT, FileUtils.readFileToString(destination, StandardCharsets.UTF_8));
+    Assert.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(newBytes), hash);
+  }
+
+  @Test
+  public void testTruncatedPatchFails() throws Exception {
+    byte[] patch = createPatch(false);
+    byte[] truncated = new byte[patch.length - 5];
+    System.arraycopy(patch, 0, truncated, 0, truncated.length);
+    FileUtils.writeByteArrayToFile(patchFile, truncated);
+
+    try {
+      BundlePatcher.applyPatch(oldFile, patchFile, destination);
+      Assert.fail("Expected truncated patch to fail");
+    } catch (IOException e) {
+      // expected
+    }
+    Assert.assertFalse(destination.exists());
+  }
+
+  @Test
+  public void testUnknownFormatFails() throws Exception {
+    FileUtils.writeStringToFile(patchFile, "BSDIFF40 not supported", StandardCharsets.UTF_8);
+    try {
+      BundlePatcher.applyPatch(oldFile, patchFile, destination);
+      Assert.fail("Expected unknown format to fail");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Builds a patch equivalent to what bsdiff would produce for OLD_CONTENT -> NEW_CONTENT:
+   * copy "console.log('hello " from the old file, insert "there ", copy "world", insert "!",
+   * then copy the trailing "');".
+   */
+  private static byte[] createPatch(boolean gzip) throws IOException {
+    byte[] oldBytes = OLD_CONTENT.getBytes(StandardCharsets.UTF_8);
+    byte[] newBytes = NEW_CONTENT.getBytes(StandardCharsets.UTF_8);
+    String prefix = "console.log('hello ";
+
+    ByteArrayOutputStream records = new ByteArrayOutputStream();
+    // record 1: diff the prefix against old position 0, then insert "there "
+    writeRecord(records, oldBytes, newBytes, 0, 0, prefix.length(), "there ".length(), 0);
+    // record 2: diff "world" against the old "world", then insert "!"
+    int newOffset = prefix.length() + "there ".length();
+    writeRecord(records, oldBytes, newBytes, prefix.length(), newOffset, "world".length(), "!".length(), 0);
+    // record 3: diff the suffix
+    int oldOffset = prefix.length() + "world".length();
+    newOffset += "world".length() + "!".length();
+    writeRecord(records, oldBytes, newBytes, oldOffset, newOffset, newBytes.length - newOffset, 0, 0);
+
+    return buildPatch(newBytes.length, records.toByteArray(), gzip);
+  }
+
+  private static byte[] buildPatch(long newSize, byte[] records, boolean gzip) throws IOException {
+    ByteArrayOutputStream patch = new ByteArrayOutputStream();
+    patch.write("ENDSLEY/BSDIFF43".getBytes(StandardCharsets.US_ASCII));
+    writeOffset(patch, newSize);
+    if (gzip) {
+      try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(patch)) {
+        gzipOutputStream.write(records);
+      }
+    } else {
+      patch.write(records);
+    }
+    return patch.toByteArray();
+  }
+
+  private static void writeRecord(ByteArrayOutputStream out, byte[] oldBytes, byte[] newBytes, int oldOffset, int newOffset, int diffLength, int extraLength, int seekLength) throws IOException {
+    writeOffset(out, diffLength);
+    writeOffset(out, extraLength);
+    writeOffset(out, seekLength);
+    for (int i = 0; i < diffLength; i++) {
+      int oldIndex = oldOffset + i;
+      // bytes outside of the old file count as zeros
+      int oldByte = oldIndex >= 0 && oldIndex < oldBytes.length ? oldBytes[oldIndex] : 0;
+      out.write(newBytes[newOffset + i] - oldByte);
+    }
+    out.write(newBytes, newOffset + diffLength, extraLength);
+  }
+
+  private static void writeOffset(OutputStream out, long value) throws IOException {
+    long magnitude = Math.abs(value);
+    for (int i = 0; i < 8; i++) {
+      int b = (int) ((magnitude >> (8 * i)) & 0xFF);
+      if (i == 7 && value < 0) {
+        b |= 0x80;
+      }
+      out.write(b);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package expo.modules.updates.loader;
+
+import android.content.Context;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Date;
+import java.util.UUID;
+
+import androidx.room.Room;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+import expo.modules.updates.UpdatesUtils;
+import expo.modules.updates.db.UpdatesDatabase;
+import expo.modules.updates.db.entity.AssetEntity;
+import expo.modules.updates.db.entity.UpdateEntity;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class ContentAddressedAssetStoreTest {
+
+  private UpdatesDatabase db;
+  private File updatesDirectory;
+  private byte[] storedHash;
+
+  @Before
+  public void setup() throws Exception {
+    Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    db = Room.inMemoryDatabaseBuilder(context, UpdatesDatabase.class).build();
+    updatesDirectory = new File(context.getCacheDir(), "ContentAddressedAssetStoreTest");
+    updatesDirectory.mkdirs();
+
+    File storedFile = new File(updatesDirectory, "existing-key");
+    FileUtils.writeStringToFile(storedFile, "asset content", StandardCharsets.UTF_8);
+    storedHash = UpdatesUtils.sha256(storedFile);
+
+    UpdateEntity update = new UpdateEntity(UUID.randomUUID(), new Date(), "1.0", "scope");
+    db.updateDao().insertUpdate(update);
+    AssetEntity storedAsset = new AssetEntity("existing-key", "png");
+    storedAsset.relativePath = "existing-key";
+    storedAsset.hash = storedHash;
+    db.assetDao().insertAssets(Collections.singletonList(storedAsset), update);
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    db.close();
+    FileUtils.deleteDirectory(updatesDirectory);
+  }
+
+  @Test
+  public void testLinksMatchingContent() throws Exception {
+    ContentAddressedAssetStore store = new ContentAddressedAssetStore(db, updatesDirectory);
+
+    AssetEntity newAsset = new AssetEntity("new-key", "png");
+    newAsset.expectedHash = storedHash;
+    Assert.assertTrue(store.linkExistingContent(newAsset));
+
+    Assert.assertEquals("new-key", newAsset.relativePath);
+    Assert.assertArrayEquals(storedHash, newAsset.hash);
+    File linkedFile = new File(updatesDirectory, "new-key");
+    Assert.assertEquals("asset content", FileUtils.readFileToString(linkedFile, StandardCharsets.UTF_8));
+
+    // deleting the original entry must not affect the linked asset
+    Assert.assertTrue(new File(updatesDirectory, "existing-key").delete());
+    Assert.assertTrue(linkedFile.exists());
+  }
+
+  @Test
+  public void testDoesNotLinkWithoutMatch() {
+    ContentAddressedAssetStore store = new ContentAddressedAssetStore(db, updatesDirectory);
+
+    AssetEntity assetWithoutHash = new AssetEntity("no-hash", "png");
+    Assert.assertFalse(store.linkExistingContent(assetWithoutHash));
+
+    AssetEntity assetWithOtherHash = new AssetEntity("other-hash", "png");
+    assetWithOtherHash.expectedHash = new byte[32];
+    Assert.assertFalse(store.linkExistingContent(assetWithOtherHash));
+    Assert.assertNull(assetWithOtherHash.relativePath);
+  }
+
+  @Test
+  public void testLoadStoredContentLooksUpAllHashesAtOnce() {
+    // more hashes than fit in a single query
+    List<AssetEntity> assets = new ArrayList<>();
+    for (int i = 0; i < 1200; i++) {
+      AssetEntity asset = new AssetEntity("key-" + i, "png");
+      asset.expectedHash = new byte[32];
+      asset.expectedHash[0] = (byte) i;
+      asset.expectedHash[1] = (byte) (i >> 8);
+      assets.add(asset);
+    }
+    AssetEntity newAsset = new AssetEntity("new-key", "png");
+    newAsset.expectedHash = storedHash;
+    assets.add(newAsset);
+
+    ContentAddressedAssetStore store = new ContentAddressedAssetStore(db, updatesDirectory);
+    store.loadStoredContent(assets);
+
+    // the stored entry has been looked up already, so removing it from the database doesn't matter
+    AssetEntity storedAsset = db.assetDao().loadAssetWithKey("existing-key");
+    db.assetDao()._deleteAssetsWithIds(Collections.singletonList(storedAsset.id));
+    Assert.assertTrue(store.linkExistingContent(newAsset));
+    Assert.assertFalse(store.linkExistingContent(assets.get(0)));
+  }
+
+  @Test
+  public void testParseSha256HashString() {
+    String hex = UpdatesUtils.bytesToHex(storedHash);
+    Assert.assertArrayEquals(storedHash, UpdatesUtils.parseSha256HashString(hex));
+    Assert.assertArrayEquals(storedHash, UpdatesUtils.parseSha256HashString(hex.toLowerCase()));
+    String base64Url = android.util.Base64.encodeToString(storedHash, android.util.Base64.URL_SAFE | android.util.Base64.NO_PADDING | android.util.Base64.NO_WRAP);
+    Assert.assertArrayEquals(storedHash, UpdatesUtils.parseSha256HashString(base64Url));
+    Assert.assertNull(UpdatesUtils.parseSha256HashString("not a hash"));
+    Assert.assertNull(UpdatesUtils.parseSha256HashString(""));
+  }
+}
@@ -0,0 +1,200 @@
+package expo.modules.updates.loader;
+
+import android.content.Context;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class PartialDownloadTest {
+
+  private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+  private File directory;
+  private File destination;
+  private Request request;
+
+  @Before
+  public void setup() {
+    Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    directory = new File(context.getCacheDir(), "PartialDownloadTest");
+    directory.mkdirs();
+    destination = new File(directory, "asset");
+    request = new Request.Builder().url("https://example.com/asset").build();
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void testResumeAfterInterruption() throws Exception {
+    PartialDownload firstAttempt = new PartialDownload(destination);
+    Assert.assertEquals(0, firstAttempt.getResumeOffset());
+
+    Response interrupted = buildResponse(request, 200, "\"abc\"", null, interruptedSource(CONTENT.substring(0, 10)));
+    try {
+      firstAttempt.writeResponse(interrupted, 0);
+      Assert.fail("Expected the interrupted response to throw");
+    } catch (IOException e) {
+      // expected
+    }
+    Assert.assertFalse(destination.exists());
+
+    PartialDownload secondAttempt = new PartialDownload(destination);
+    long offset = secondAttempt.getResumeOffset();
+    Assert.assertEquals(10, offset);
+
+    Request rangeRequest = secondAttempt.applyRangeHeaders(request, offset);
+    Assert.assertEquals("bytes=10-", rangeRequest.header("Range"));
+    Assert.assertEquals("\"abc\"", rangeRequest.header("If-Range"));
+
+    Response resumed = buildResponse(rangeRequest, 206, "\"abc\"", "bytes 10-35/36", new Buffer().writeUtf8(CONTENT.substring(10)));
+    byte[] hash = secondAttempt.writeResponse(resumed, offset);
+
+    Assert.assertEquals(CONTENT, FileUtils.readFileToString(destination, StandardCharsets.UTF_8));
+    Assert.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(CONTENT.getBytes(StandardCharsets.UTF_8)), hash);
+    Assert.assertEquals(0, new PartialDownload(destination).getResumeOffset());
+  }
+
+  @Test
+  public void testFullResponseReplacesPartial() throws Exception {
+    PartialDownload firstAttempt = new PartialDownload(destination);
+    try {
+      firstAttempt.writeResponse(buildResponse(request, 200, "\"old\"", null, interruptedSource("stale bytes")), 0);
+    } catch (IOException e) {
+      // expected
+    }
+
+    PartialDownload secondAttempt = new PartialDownload(destination);
+    long offset = secondAttempt.getResumeOffset();
+    Assert.assertTrue(offset > 0);
+
+    // server ignores the range because the If-Range validator no longer matches
+    Response full = buildResponse(request, 200, "\"new\"", null, new Buffer().writeUtf8(CONTENT));
+    byte[] hash = secondAttempt.writeResponse(full, offset);
+
+    Assert.assertEquals(CONTENT, FileUtils.readFileToString(destination, StandardCharsets.UTF_8));
+    Assert.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(CONTENT.getBytes(StandardCharsets.UTF_8)), hash);
+  }
+
+  @Test
+  public void testMismatchedContentRangeDiscardsPartial() throws Exception {
+    PartialDownload firstAttempt = new PartialDownload(destination);
+    try {
+      firstAttempt.writeResponse(buildResponse(request, 200, "\"abc\"", null, interruptedSource(CONTENT.substring(0, 10))), 0);
+    } catch (IOException e) {
+      // expected
+    }
+
+    PartialDownload secondAttempt = new PartialDownload(destination);
+    long offset = secondAttempt.getResumeOffset();
+    Assert.assertEquals(10, offset);
+
+    Response mismatched = buildResponse(request, 206, "\"abc\"", "bytes 20-35/36", new Buffer().writeUtf8(CONTENT.substring(20)));
+    try {
+      secondAttempt.writeResponse(mismatched, offset);
+      Assert.fail("Expected the mismatched range to throw");
+    } catch (IOException e) {
+      // expected
+    }
+    Assert.assertEquals(0, new PartialDownload(destination).getResumeOffset());
+  }
+
+  @Test
+  public void testNoValidatorDiscardsPartial() throws Exception {
+    PartialDownload attempt = new PartialDownload(destination);
+    try {
+      attempt.writeResponse(buildResponse(request, 200, null, null, interruptedSource(CONTENT.substring(0, 10))), 0);
+    } catch (IOException e) {
+      // expected
+    }
+    Assert.assertEquals(0, new PartialDownload(destination).getResumeOffset());
+  }
+
+  @Test
+  public void testDeleteStalePartialDownloads() throws Exception {
+    File staleDestination = new File(directory, "stale-asset");
+    for (File file : new File[] { destination, staleDestination }) {
+      try {
+        new PartialDownload(file).writeResponse(buildResponse(request, 200, "\"abc\"", null, interruptedSource(CONTENT.substring(0, 10))), 0);
+      } catch (IOException e) {
+        // expected
+      }
+    }
+    File completedFile = new File(directory, "completed-asset");
+    FileUtils.writeStringToFile(completedFile, CONTENT, StandardCharsets.UTF_8);
+
+    long twoDaysAgo = System.currentTimeMillis() - 2 * 24 * 60 * 60 * 1000;
+    for (File file : directory.listFiles()) {
+      if (file.getName().startsWith("stale-asset") || file.equals(completedFile)) {
+        Assert.assertTrue(file.setLastModified(twoDaysAgo));
+      }
+    }
+
+    // the partial file and its validator
+    Assert.assertEquals(2, PartialDownload.deleteStalePartialDownloads(directory, 24 * 60 * 60 * 1000));
+    Assert.assertEquals(0, new PartialDownload(staleDestination).getResumeOffset());
+    Assert.assertEquals(10, new PartialDownload(destination).getResumeOffset());
+    Assert.assertTrue(completedFile.exists());
+  }
+
+  @Test
+  public void testWeakETagIsNotUsedAsValidator() {
+    Response response = buildResponse(request, 200, "W/\"abc\"", null, new Buffer());
+    Assert.assertNull(PartialDownload.getValidator(response));
+  }
+
+  private static Response buildResponse(Request request, int code, String etag, String contentRange, BufferedSource source) {
+    Response.Builder builder = new Response.Builder()
+      .request(request)
+      .protocol(Protocol.HTTP_1_1)
+      .code(code)
+      .message("")
+      .body(ResponseBody.create(MediaType.parse("application/octet-stream"), -1, source));
+    if (etag != null) {
+      builder.header("ETag", etag);
+    }
+    if (contentRange != null) {
+      builder.header("Content-Range", contentRange);
+    }
+    return builder.build();
+  }
+
+  private static BufferedSource interruptedSource(final String content) {
+    final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    return Okio.buffer(Okio.source(new InputStream() {
+      private int position = 0;
+
+      @Override
+      public int read() throws IOException {
+        if (position >= bytes.length) {
+          throw new IOException("connection reset");
+        }
+        return bytes[position++];
+      }
+    }));
+  }
+}
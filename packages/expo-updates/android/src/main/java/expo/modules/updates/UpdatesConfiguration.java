@@ -27,9 +27,11 @@ public class UpdatesConfiguration {
   public static final String UPDATES_CONFIGURATION_CHECK_ON_LAUNCH_KEY = "checkOnLaunch";
   public static final String UPDATES_CONFIGURATION_LAUNCH_WAIT_MS_KEY = "launchWaitMs";
   public static final String UPDATES_CONFIGURATION_HAS_EMBEDDED_UPDATE_KEY = "hasEmbeddedUpdate";
+  public static final String UPDATES_CONFIGURATION_MAX_CONCURRENT_ASSET_DOWNLOADS_KEY = "maxConcurrentAssetDownloads";
 
   private static final String UPDATES_CONFIGURATION_RELEASE_CHANNEL_DEFAULT_VALUE = "default";
   private static final int UPDATES_CONFIGURATION_LAUNCH_WAIT_MS_DEFAULT_VALUE = 0;
+  private static final int UPDATES_CONFIGURATION_MAX_CONCURRENT_ASSET_DOWNLOADS_DEFAULT_VALUE = 4;
 
   public enum CheckAutomaticallyConfiguration {
     NEVER,
@@ -48,6 +50,7 @@ public class UpdatesConfiguration {
   private int mLaunchWaitMs = UPDATES_CONFIGURATION_LAUNCH_WAIT_MS_DEFAULT_VALUE;
   private CheckAutomaticallyConfiguration mCheckOnLaunch = CheckAutomaticallyConfiguration.ALWAYS;
   private boolean mHasEmbeddedUpdate = true;
+  private int mMaxConcurrentAssetDownloads = UPDATES_CONFIGURATION_MAX_CONCURRENT_ASSET_DOWNLOADS_DEFAULT_VALUE;
 
   public boolean isEnabled() {
     return mIsEnabled;
@@ -100,6 +103,10 @@ public class UpdatesConfiguration {
     return mHasEmbeddedUpdate;
   }
 
+  public int getMaxConcurrentAssetDownloads() {
+    return mMaxConcurrentAssetDownloads;
+  }
+
   public UpdatesConfiguration loadValuesFromMetadata(Context context) {
     try {
       ApplicationInfo ai = context.getPackageManager().getApplicationInfo(context.getPackageName(), PackageManager.GET_META_DATA);
@@ -113,6 +120,7 @@ public class UpdatesConfiguration {
       mSdkVersion = ai.metaData.getString("expo.modules.updates.EXPO_SDK_VERSION");
       mReleaseChannel = ai.metaData.getString("expo.modules.updates.EXPO_RELEASE_CHANNEL", "default");
       mLaunchWaitMs = ai.metaData.getInt("expo.modules.updates.EXPO_UPDATES_LAUNCH_WAIT_MS", 0);
+      setMaxConcurrentAssetDownloads(ai.metaData.getInt("expo.modules.updates.EXPO_UPDATES_MAX_CONCURRENT_ASSET_DOWNLOADS", UPDATES_CONFIGURATION_MAX_CONCURRENT_ASSET_DOWNLOADS_DEFAULT_VALUE));
 
       Object runtimeVersion = ai.metaData.get("expo.modules.updates.EXPO_RUNTIME_VERSION");
       mRuntimeVersion = runtimeVersion == null ? null : String.valueOf(runtimeVersion);
@@ -194,6 +202,11 @@ public class UpdatesConfiguration {
       mLaunchWaitMs = launchWaitMsFromMap;
     }
 
+    Integer maxConcurrentAssetDownloadsFromMap = readValueCheckingType(map, UPDATES_CONFIGURATION_MAX_CONCURRENT_ASSET_DOWNLOADS_KEY, Integer.class);
+    if (maxConcurrentAssetDownloadsFromMap != null) {
+      setMaxConcurrentAssetDownloads(maxConcurrentAssetDownloadsFromMap);
+    }
+
     Boolean hasEmbeddedUpdateFromMap = readValueCheckingType(map, UPDATES_CONFIGURATION_HAS_EMBEDDED_UPDATE_KEY, Boolean.class);
     if (hasEmbeddedUpdateFromMap != null) {
       mHasEmbeddedUpdate = hasEmbeddedUpdateFromMap;
@@ -215,6 +228,15 @@ public class UpdatesConfiguration {
     }
   }
 
+  private void setMaxConcurrentAssetDownloads(int maxConcurrentAssetDownloads) {
+    if (maxConcurrentAssetDownloads < 1) {
+      Log.e(TAG, "Invalid value " + maxConcurrentAssetDownloads + " for maxConcurrentAssetDownloads; must be at least 1. Defaulting to " + UPDATES_CONFIGURATION_MAX_CONCURRENT_ASSET_DOWNLOADS_DEFAULT_VALUE);
+      mMaxConcurrentAssetDownloads = UPDATES_CONFIGURATION_MAX_CONCURRENT_ASSET_DOWNLOADS_DEFAULT_VALUE;
+      return;
+    }
+    mMaxConcurrentAssetDownloads = maxConcurrentAssetDownloads;
+  }
+
   private void maybeSetDefaultScopeKey() {
     // set updateUrl as the default value if none is provided
     if (mScopeKey == null) {
@@ -5,6 +5,7 @@ import android.os.AsyncTask;
 import android.os.Bundle;
 import android.util.Log;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,9 +17,11 @@ import org.unimodules.core.interfaces.ExpoMethod;
 
 import androidx.annotation.Nullable;
 import expo.modules.updates.db.DatabaseHolder;
+import expo.modules.updates.db.DatabaseMaintenanceMetrics;
 import expo.modules.updates.db.entity.AssetEntity;
 import expo.modules.updates.db.entity.UpdateEntity;
 import expo.modules.updates.launcher.Launcher;
+import expo.modules.updates.loader.AssetDownloadTiming;
 import expo.modules.updates.loader.FileDownloader;
 import expo.modules.updates.manifest.Manifest;
 import expo.modules.updates.loader.RemoteLoader;
@@ -189,8 +192,8 @@ public class UpdatesModule extends ExportedModule {
 
       AsyncTask.execute(() -> {
         final DatabaseHolder databaseHolder = updatesService.getDatabaseHolder();
-        new RemoteLoader(getContext(), updatesService.getConfiguration(), databaseHolder.getDatabase(), updatesService.getFileDownloader(), updatesService.getDirectory())
-          .start(
+        final RemoteLoader remoteLoader = new RemoteLoader(getContext(), updatesService.getConfiguration(), databaseHolder.getDatabase(), updatesService.getFileDownloader(), updatesService.getDirectory());
+        remoteLoader.start(
             new RemoteLoader.LoaderCallback() {
               @Override
               public void onFailure(Exception e) {
@@ -221,6 +224,12 @@ public class UpdatesModule extends ExportedModule {
                   updateInfo.putBoolean("isNew", true);
                   updateInfo.putString("manifestString", update.manifest.toString());
                 }
+
+                ArrayList<Bundle> assetDownloadTimings = new ArrayList<>();
+                for (AssetDownloadTiming timing : remoteLoader.getAssetDownloadTimings()) {
+                  assetDownloadTimings.add(timing.toBundle());
+                }
+                updateInfo.putParcelableArrayList("assetDownloadTimings", assetDownloadTimings);
                 promise.resolve(updateInfo);
               }
             }
@@ -233,4 +242,9 @@ public class UpdatesModule extends ExportedModule {
       );
     }
   }
+
+  @ExpoMethod
+  public void getDatabaseMaintenanceMetricsAsync(final Promise promise) {
+    promise.resolve(DatabaseMaintenanceMetrics.toBundle());
+  }
 }
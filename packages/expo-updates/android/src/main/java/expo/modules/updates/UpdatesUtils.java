@@ -3,6 +3,7 @@ package expo.modules.updates;
 import android.content.Context;
 import android.net.ConnectivityManager;
 import android.os.AsyncTask;
+import android.util.Base64;
 import android.util.Log;
 
 import com.facebook.react.ReactInstanceManager;
@@ -120,6 +121,35 @@ public class UpdatesUtils {
     }
   }
 
+  /**
+   * Parses the SHA-256 hash an asset is expected to have, as advertised by a manifest. Accepts
+   * either a hex string or an unpadded base64url string.
+   *
+   * @return the raw hash bytes, or null if the string is missing or not a valid SHA-256 hash
+   */
+  public static @Nullable byte[] parseSha256HashString(@Nullable String hashString) {
+    if (hashString == null || hashString.length() == 0) {
+      return null;
+    }
+    byte[] hash = null;
+    if (hashString.length() == 64 && hashString.matches("[0-9a-fA-F]+")) {
+      hash = new byte[32];
+      for (int i = 0; i < 32; i++) {
+        hash[i] = (byte) Integer.parseInt(hashString.substring(i * 2, i * 2 + 2), 16);
+      }
+    } else {
+      try {
+        hash = Base64.decode(hashString, Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+      } catch (IllegalArgumentException e) {
+        Log.w(TAG, "Failed to parse asset hash " + hashString, e);
+      }
+    }
+    if (hash == null || hash.length != 32) {
+      return null;
+    }
+    return hash;
+  }
+
   public static String createFilenameForAsset(AssetEntity asset) {
     if (asset.key == null) {
       // create a filename that's unlikely to collide with any other asset
@@ -1,18 +1,58 @@
 package expo.modules.updates.db;
 
+import android.os.SystemClock;
+import android.util.Log;
+
 import androidx.annotation.Nullable;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
+import expo.modules.updates.UpdatesConfiguration;
 import expo.modules.updates.db.entity.AssetEntity;
 import expo.modules.updates.db.entity.UpdateEntity;
 import expo.modules.updates.db.enums.UpdateStatus;
 
 public class DatabaseIntegrityCheck {
+
+  private static final String TAG = DatabaseIntegrityCheck.class.getSimpleName();
+
+  /* package */ static final String LAST_RUN_KEY = "integrityCheckLastRun";
+  /* package */ static final String LAST_FULL_RUN_KEY = "integrityCheckLastFullRun";
+  // assets that have not been touched since the last run are still checked occasionally, in case
+  // something outside of expo-updates has removed files from disk
+  private static final long FULL_CHECK_INTERVAL_MS = 7 * 24 * 60 * 60 * 1000L;
+
   public void run(UpdatesDatabase database, File updatesDirectory, @Nullable UpdateEntity embeddedUpdate) {
-    List<AssetEntity> assets = database.assetDao().loadAllAssets();
+    run(database, updatesDirectory, embeddedUpdate, null);
+  }
+
+  /**
+   * Like `run`, but only checks assets that were downloaded since the last time this method ran
+   * for the given configuration, plus a full check at most once every seven days.
+   */
+  public void runIncremental(UpdatesDatabase database, File updatesDirectory, @Nullable UpdateEntity embeddedUpdate, UpdatesConfiguration configuration) {
+    Date now = new Date();
+    Date lastRun = readDate(database, LAST_RUN_KEY, configuration);
+    Date lastFullRun = readDate(database, LAST_FULL_RUN_KEY, configuration);
+
+    boolean isFullCheck = lastRun == null || lastFullRun == null || now.getTime() - lastFullRun.getTime() > FULL_CHECK_INTERVAL_MS;
+    run(database, updatesDirectory, embeddedUpdate, isFullCheck ? null : lastRun);
+
+    database.jsonDataDao().setJSONStringForKey(LAST_RUN_KEY, String.valueOf(now.getTime()), configuration.getScopeKey());
+    if (isFullCheck) {
+      database.jsonDataDao().setJSONStringForKey(LAST_FULL_RUN_KEY, String.valueOf(now.getTime()), configuration.getScopeKey());
+    }
+  }
+
+  private void run(UpdatesDatabase database, File updatesDirectory, @Nullable UpdateEntity embeddedUpdate, @Nullable Date checkAssetsSince) {
+    long startTime = SystemClock.elapsedRealtime();
+
+    List<AssetEntity> assets = checkAssetsSince == null
+      ? database.assetDao().loadAllAssets()
+      : database.assetDao().loadAssetsDownloadedSince(checkAssetsSince);
 
     List<AssetEntity> missingAssets = new ArrayList<>();
     for (AssetEntity asset : assets) {
@@ -37,10 +77,25 @@ public class DatabaseIntegrityCheck {
     if (updatesToDelete.size() > 0) {
       database.updateDao().deleteUpdates(updatesToDelete);
     }
+
+    DatabaseMaintenanceMetrics.recordIntegrityCheckPass(SystemClock.elapsedRealtime() - startTime, assets.size(), checkAssetsSince == null);
   }
 
   /* package */ boolean assetExists(AssetEntity asset, File updatesDirectory) {
     File path = new File(updatesDirectory, asset.relativePath);
     return path.exists();
   }
+
+  private static @Nullable Date readDate(UpdatesDatabase database, String key, UpdatesConfiguration configuration) {
+    String value = database.jsonDataDao().loadJSONStringForKey(key, configuration.getScopeKey());
+    if (value == null) {
+      return null;
+    }
+    try {
+      return new Date(Long.parseLong(value));
+    } catch (NumberFormatException e) {
+      Log.e(TAG, "Invalid value " + value + " stored for " + key, e);
+      return null;
+    }
+  }
 }
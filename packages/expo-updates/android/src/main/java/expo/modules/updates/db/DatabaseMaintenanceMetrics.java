@@ -0,0 +1,49 @@
+package expo.modules.updates.db;
+
+import android.os.Bundle;
+
+/**
+ * Counters describing the most recent Reaper and DatabaseIntegrityCheck passes in this process.
+ */
+public class DatabaseMaintenanceMetrics {
+
+  private static long sLastReaperDurationMs = -1;
+  private static int sLastReaperDeletedAssetCount = 0;
+  private static int sLastReaperBatchCount = 0;
+  private static boolean sLastReaperFinished = false;
+
+  private static long sLastIntegrityCheckDurationMs = -1;
+  private static int sLastIntegrityCheckAssetCount = 0;
+  private static boolean sLastIntegrityCheckWasFull = false;
+
+  /* package */ static synchronized void recordReaperPass(long durationMs, int deletedAssetCount, int batchCount, boolean finished) {
+    sLastReaperDurationMs = durationMs;
+    sLastReaperDeletedAssetCount = deletedAssetCount;
+    sLastReaperBatchCount = batchCount;
+    sLastReaperFinished = finished;
+  }
+
+  /* package */ static synchronized void recordIntegrityCheckPass(long durationMs, int checkedAssetCount, boolean wasFull) {
+    sLastIntegrityCheckDurationMs = durationMs;
+    sLastIntegrityCheckAssetCount = checkedAssetCount;
+    sLastIntegrityCheckWasFull = wasFull;
+  }
+
+  public static synchronized Bundle toBundle() {
+    Bundle reaper = new Bundle();
+    reaper.putDouble("durationMs", sLastReaperDurationMs);
+    reaper.putInt("deletedAssetCount", sLastReaperDeletedAssetCount);
+    reaper.putInt("batchCount", sLastReaperBatchCount);
+    reaper.putBoolean("finished", sLastReaperFinished);
+
+    Bundle integrityCheck = new Bundle();
+    integrityCheck.putDouble("durationMs", sLastIntegrityCheckDurationMs);
+    integrityCheck.putInt("checkedAssetCount", sLastIntegrityCheckAssetCount);
+    integrityCheck.putBoolean("wasFull", sLastIntegrityCheckWasFull);
+
+    Bundle metrics = new Bundle();
+    metrics.putBundle("reaper", reaper);
+    metrics.putBundle("integrityCheck", integrityCheck);
+    return metrics;
+  }
+}
@@ -1,70 +1,107 @@
 package expo.modules.updates.db;
 
+import android.os.SystemClock;
 import android.util.Log;
 
 import org.json.JSONObject;
 
 import expo.modules.updates.UpdatesConfiguration;
+import expo.modules.updates.loader.PartialDownload;
 import expo.modules.updates.selectionpolicy.SelectionPolicy;
 import expo.modules.updates.db.entity.AssetEntity;
 import expo.modules.updates.db.entity.UpdateEntity;
 import expo.modules.updates.manifest.ManifestMetadata;
 
 import java.io.File;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public class Reaper {
 
   private static String TAG = Reaper.class.getSimpleName();
 
+  private static final int ASSET_BATCH_SIZE = 100;
+  private static final long DEFAULT_TIME_BUDGET_MS = 500;
+
   public static void reapUnusedUpdates(UpdatesConfiguration configuration, UpdatesDatabase database, File updatesDirectory, UpdateEntity launchedUpdate, SelectionPolicy selectionPolicy) {
+    reapUnusedUpdates(configuration, database, updatesDirectory, launchedUpdate, selectionPolicy, DEFAULT_TIME_BUDGET_MS);
+  }
+
+  /**
+   * Deletes updates chosen by the selection policy, then deletes unused assets in batches, each
+   * batch in its own transaction. Once `timeBudgetMs` has elapsed no further batches are started;
+   * any remaining unused assets are picked up the next time the reaper runs. Partial downloads
+   * that haven't been resumed for a while are deleted as well.
+   */
+  public static void reapUnusedUpdates(UpdatesConfiguration configuration, UpdatesDatabase database, File updatesDirectory, UpdateEntity launchedUpdate, SelectionPolicy selectionPolicy, long timeBudgetMs) {
     if (launchedUpdate == null) {
       Log.d(TAG, "Tried to reap while no update was launched; aborting");
       return;
     }
 
+    long startTime = SystemClock.elapsedRealtime();
+
     List<UpdateEntity> allUpdates = database.updateDao().loadAllUpdates();
 
     JSONObject manifestFilters = ManifestMetadata.getManifestFilters(database, configuration);
     List<UpdateEntity> updatesToDelete = selectionPolicy.selectUpdatesToDelete(allUpdates, launchedUpdate, manifestFilters);
     database.updateDao().deleteUpdates(updatesToDelete);
 
-    List<AssetEntity> assetsToDelete = database.assetDao().deleteUnusedAssets();
+    List<AssetEntity> erroredAssets = new ArrayList<>();
+    int deletedAssetCount = 0;
+    int batchCount = 0;
+    boolean finished = false;
 
-    LinkedList<AssetEntity> erroredAssets = new LinkedList<>();
+    while (SystemClock.elapsedRealtime() - startTime < timeBudgetMs) {
+      List<AssetEntity> assetsToDelete = database.assetDao().deleteUnusedAssets(ASSET_BATCH_SIZE);
+      batchCount++;
+      deletedAssetCount += assetsToDelete.size();
 
-    for (AssetEntity asset : assetsToDelete) {
-      if (!asset.markedForDeletion) {
-        Log.e(TAG, "Tried to delete asset with URL " + asset.url + " but it was not marked for deletion");
-        continue;
-      }
-
-      File path = new File(updatesDirectory, asset.relativePath);
-      try {
-        if (path.exists() && !path.delete()) {
-          Log.e(TAG, "Failed to delete asset with URL " + asset.url + " at path " + path.toString());
+      for (AssetEntity asset : assetsToDelete) {
+        if (!deleteAssetFile(asset, updatesDirectory)) {
           erroredAssets.add(asset);
         }
-      } catch (Exception e) {
-        Log.e(TAG, "Failed to delete asset with URL " + asset.url + " at path " + path.toString(), e);
-        erroredAssets.add(asset);
+      }
+
+      if (assetsToDelete.size() < ASSET_BATCH_SIZE) {
+        finished = true;
+        break;
       }
     }
 
     // retry failed deletions
     for (AssetEntity asset : erroredAssets) {
-      File path = new File(updatesDirectory, asset.relativePath);
-      try {
-        if (!path.exists() || path.delete()) {
-          erroredAssets.remove(asset);
-        } else {
-          Log.e(TAG, "Retried and failed again deleting asset with URL " + asset.url + " at path " + path.toString());
-        }
-      } catch (Exception e) {
-        Log.e(TAG, "Retried and failed again deleting asset with URL " + asset.url + " at path " + path.toString(), e);
-        erroredAssets.add(asset);
+      if (!deleteAssetFile(asset, updatesDirectory)) {
+        Log.e(TAG, "Retried and failed again deleting asset with URL " + asset.url + " at path " + asset.relativePath);
+      }
+    }
+
+    int deletedPartialDownloadCount = PartialDownload.deleteStalePartialDownloads(updatesDirectory);
+    if (deletedPartialDownloadCount > 0) {
+      Log.d(TAG, "Deleted " + deletedPartialDownloadCount + " stale partial download files");
+    }
+
+    long duration = SystemClock.elapsedRealtime() - startTime;
+    DatabaseMaintenanceMetrics.recordReaperPass(duration, deletedAssetCount, batchCount, finished);
+    if (!finished) {
+      Log.d(TAG, "Reaper ran out of time after deleting " + deletedAssetCount + " assets in " + duration + "ms; remaining assets will be deleted next time");
+    }
+  }
+
+  private static boolean deleteAssetFile(AssetEntity asset, File updatesDirectory) {
+    if (asset.relativePath == null) {
+      return true;
+    }
+    File path = new File(updatesDirectory, asset.relativePath);
+    try {
+      if (path.exists() && !path.delete()) {
+        Log.e(TAG, "Failed to delete asset with URL " + asset.url + " at path " + path.toString());
+        return false;
       }
+      return true;
+    } catch (Exception e) {
+      Log.e(TAG, "Failed to delete asset with URL " + asset.url + " at path " + path.toString(), e);
+      return false;
     }
   }
 }
@@ -6,7 +6,11 @@ import expo.modules.updates.db.entity.AssetEntity;
 import expo.modules.updates.db.entity.UpdateAssetEntity;
 import expo.modules.updates.db.entity.UpdateEntity;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import androidx.room.Dao;
@@ -17,6 +21,9 @@ import androidx.room.Transaction;
 
 @Dao
 public abstract class AssetDao {
+  // SQLITE_MAX_VARIABLE_NUMBER defaults to 999 on older Android versions
+  private static final int MAX_KEYS_PER_QUERY = 500;
+
   /**
    * for private use only
    * must be marked public for Room
@@ -31,25 +38,26 @@ public abstract class AssetDao {
   @Query("UPDATE updates SET launch_asset_id = :assetId WHERE id = :updateId;")
   public abstract void _setUpdateLaunchAsset(long assetId, UUID updateId);
 
-  @Query("UPDATE assets SET marked_for_deletion = 1;")
-  public abstract void _markAllAssetsForDeletion();
-
-  @Query("UPDATE assets SET marked_for_deletion = 0 WHERE id IN (" +
+  @Query("SELECT * FROM assets WHERE id NOT IN (" +
           " SELECT asset_id" +
           " FROM updates_assets" +
           " INNER JOIN updates ON updates_assets.update_id = updates.id" +
-          " WHERE updates.keep);")
-  public abstract void _unmarkUsedAssetsFromDeletion();
+          " WHERE updates.keep)" +
+          " LIMIT :limit;")
+  public abstract List<AssetEntity> _loadUnusedAssets(int limit);
 
-  @Query("SELECT * FROM assets WHERE marked_for_deletion = 1;")
-  public abstract List<AssetEntity> _loadAssetsMarkedForDeletion();
-
-  @Query("DELETE FROM assets WHERE marked_for_deletion = 1;")
-  public abstract void _deleteAssetsMarkedForDeletion();
+  @Query("DELETE FROM assets WHERE id IN (:assetIds);")
+  public abstract void _deleteAssetsWithIds(List<Long> assetIds);
 
   @Query("SELECT * FROM assets WHERE `key` = :key LIMIT 1;")
   public abstract List<AssetEntity> _loadAssetWithKey(String key);
 
+  @Query("SELECT * FROM assets WHERE `key` IN (:keys);")
+  public abstract List<AssetEntity> _loadAssetsWithKeys(List<String> keys);
+
+  @Query("SELECT * FROM assets WHERE hash IN (:hashes) AND relative_path IS NOT NULL;")
+  public abstract List<AssetEntity> _loadAssetsWithHashes(List<byte[]> hashes);
+
 
   /**
    * for public use
@@ -89,6 +97,39 @@ public abstract class AssetDao {
     return null;
   }
 
+  /**
+   * Looks up existing entries for many keys at once. Keys are queried in chunks to stay under
+   * SQLite's limit on the number of bound parameters in a single statement.
+   *
+   * @return map from asset key to the matching database entry; keys with no entry are omitted
+   */
+  @Transaction
+  public Map<String, AssetEntity> loadAssetsWithKeys(List<String> keys) {
+    Map<String, AssetEntity> assetsByKey = new HashMap<>();
+    for (int i = 0; i < keys.size(); i += MAX_KEYS_PER_QUERY) {
+      List<String> chunk = keys.subList(i, Math.min(i + MAX_KEYS_PER_QUERY, keys.size()));
+      for (AssetEntity asset : _loadAssetsWithKeys(chunk)) {
+        assetsByKey.put(asset.key, asset);
+      }
+    }
+    return assetsByKey;
+  }
+
+  /**
+   * Looks up stored content for many hashes at once, in chunks like {@link #loadAssetsWithKeys}.
+   *
+   * @return the entries with one of the given hashes that have a file in the updates directory
+   */
+  @Transaction
+  public List<AssetEntity> loadAssetsWithHashes(List<byte[]> hashes) {
+    List<AssetEntity> assets = new ArrayList<>();
+    for (int i = 0; i < hashes.size(); i += MAX_KEYS_PER_QUERY) {
+      List<byte[]> chunk = hashes.subList(i, Math.min(i + MAX_KEYS_PER_QUERY, hashes.size()));
+      assets.addAll(_loadAssetsWithHashes(chunk));
+    }
+    return assets;
+  }
+
   public void mergeAndUpdateAsset(AssetEntity existingEntity, AssetEntity newEntity) {
     // if the existing entry came from an embedded manifest, it may not have a URL in the database
     if (newEntity.url != null && existingEntity.url == null) {
@@ -97,6 +138,10 @@ public abstract class AssetDao {
     }
     // we need to keep track of whether the calling class expects this asset to be the launch asset
     existingEntity.isLaunchAsset = newEntity.isLaunchAsset;
+    // these only come from the manifest and aren't stored in the database, but the loader still
+    // needs them to verify a re-downloaded asset and to patch it
+    existingEntity.expectedHash = newEntity.expectedHash;
+    existingEntity.patchUrls = newEntity.patchUrls;
   }
 
   @Transaction
@@ -113,18 +158,37 @@ public abstract class AssetDao {
     return true;
   }
 
+  @Query("SELECT * FROM assets WHERE download_time IS NULL OR download_time >= :since;")
+  public abstract List<AssetEntity> loadAssetsDownloadedSince(Date since);
+
   @Transaction
   public List<AssetEntity> deleteUnusedAssets() {
-    // the simplest way to mark the assets we want to delete
-    // is to mark all assets for deletion, then go back and unmark
-    // those assets in updates we want to keep
-    // this is safe since this is a transaction and will be rolled back upon failure
-    _markAllAssetsForDeletion();
-    _unmarkUsedAssetsFromDeletion();
-
-    List<AssetEntity> deletedAssets = _loadAssetsMarkedForDeletion();
-    _deleteAssetsMarkedForDeletion();
-
+    List<AssetEntity> deletedAssets = new ArrayList<>();
+    List<AssetEntity> batch;
+    do {
+      batch = deleteUnusedAssets(MAX_KEYS_PER_QUERY);
+      deletedAssets.addAll(batch);
+    } while (batch.size() == MAX_KEYS_PER_QUERY);
     return deletedAssets;
   }
+
+  /**
+   * Deletes at most `limit` assets that do not belong to any update we want to keep, in a single
+   * transaction, so that the caller can spread the work over several transactions.
+   *
+   * @return the deleted assets; their files have not yet been removed from disk
+   */
+  @Transaction
+  public List<AssetEntity> deleteUnusedAssets(int limit) {
+    List<AssetEntity> unusedAssets = _loadUnusedAssets(Math.min(limit, MAX_KEYS_PER_QUERY));
+    if (unusedAssets.isEmpty()) {
+      return unusedAssets;
+    }
+    List<Long> assetIds = new ArrayList<>();
+    for (AssetEntity asset : unusedAssets) {
+      assetIds.add(asset.id);
+    }
+    _deleteAssetsWithIds(assetIds);
+    return unusedAssets;
+  }
 }
@@ -40,6 +40,10 @@ public abstract class JSONDataDao {
     return rows.get(0).value;
   }
 
+  public void deleteJSONStringForKey(String key, String scopeKey) {
+    _deleteJSONDataForKey(key, scopeKey);
+  }
+
   @Transaction
   public void setJSONStringForKey(String key, String value, String scopeKey) {
     _deleteJSONDataForKey(key, scopeKey);
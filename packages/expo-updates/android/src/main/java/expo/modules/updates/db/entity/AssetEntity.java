@@ -8,6 +8,7 @@ import expo.modules.updates.db.enums.HashType;
 import org.json.JSONObject;
 
 import java.util.Date;
+import java.util.Map;
 
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
@@ -53,6 +54,29 @@ public class AssetEntity {
   @Ignore
   public boolean isLaunchAsset = false;
 
+  /**
+   * SHA-256 hash advertised by the manifest, if any. Used to verify downloaded content and to
+   * reuse identical content that is already stored for another asset.
+   */
+  @Ignore
+  public byte[] expectedHash = null;
+
+  /**
+   * Binary patches advertised by the manifest that produce this asset, keyed by the hex-encoded
+   * SHA-256 hash of the asset each patch must be applied to.
+   */
+  @Ignore
+  public Map<String, Uri> patchUrls = null;
+
+  /**
+   * The patch chosen by the loader, and the installed asset it applies to, if any.
+   */
+  @Ignore
+  public Uri patchUrl = null;
+
+  @Ignore
+  public String patchBaseRelativePath = null;
+
   @Ignore
   public String embeddedAssetFilename = null;
 
@@ -0,0 +1,101 @@
+package expo.modules.updates.launcher;
+
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import androidx.annotation.Nullable;
+import expo.modules.updates.db.UpdatesDatabase;
+import expo.modules.updates.db.entity.AssetEntity;
+
+/**
+ * A persisted copy of the asset map DatabaseLauncher resolved the last time it launched an update
+ * with every asset present on disk. Loading it on the next launch of the same update takes a
+ * single database read, instead of loading every asset row and checking each file on disk.
+ *
+ * Only one snapshot is kept per scope key; it is ignored if it was written for a different update
+ * or by a different version of this class.
+ */
+public class AssetMapSnapshot {
+
+  private static final String TAG = AssetMapSnapshot.class.getSimpleName();
+
+  /* package */ static final String ASSET_MAP_SNAPSHOT_KEY = "launchAssetMapSnapshot";
+  private static final int VERSION = 1;
+
+  public final String launchAssetRelativePath;
+  public final List<AssetEntity> assets;
+
+  private AssetMapSnapshot(String launchAssetRelativePath, List<AssetEntity> assets) {
+    this.launchAssetRelativePath = launchAssetRelativePath;
+    this.assets = assets;
+  }
+
+  public static @Nullable AssetMapSnapshot load(UpdatesDatabase database, String scopeKey, UUID updateId) {
+    String jsonString = database.jsonDataDao().loadJSONStringForKey(ASSET_MAP_SNAPSHOT_KEY, scopeKey);
+    if (jsonString == null) {
+      return null;
+    }
+
+    try {
+      JSONObject json = new JSONObject(jsonString);
+      if (json.getInt("version") != VERSION || !updateId.toString().equals(json.getString("updateId"))) {
+        return null;
+      }
+
+      JSONArray assetsJson = json.getJSONArray("assets");
+      List<AssetEntity> assets = new ArrayList<>(assetsJson.length());
+      for (int i = 0; i < assetsJson.length(); i++) {
+        JSONObject assetJson = assetsJson.getJSONObject(i);
+        AssetEntity asset = new AssetEntity(assetJson.optString("key", null), assetJson.getString("type"));
+        asset.id = assetJson.getLong("id");
+        asset.relativePath = assetJson.getString("relativePath");
+        asset.isLaunchAsset = assetJson.optBoolean("isLaunchAsset", false);
+        assets.add(asset);
+      }
+      return new AssetMapSnapshot(json.getString("launchAsset"), assets);
+    } catch (JSONException e) {
+      Log.e(TAG, "Failed to read asset map snapshot; ignoring it", e);
+      return null;
+    }
+  }
+
+  public static void save(UpdatesDatabase database, String scopeKey, UUID updateId, String launchAssetRelativePath, Collection<AssetEntity> assets) {
+    try {
+      JSONArray assetsJson = new JSONArray();
+      for (AssetEntity asset : assets) {
+        JSONObject assetJson = new JSONObject();
+        assetJson.put("id", asset.id);
+        if (asset.key != null) {
+          assetJson.put("key", asset.key);
+        }
+        assetJson.put("type", asset.type);
+        assetJson.put("relativePath", asset.relativePath);
+        if (asset.isLaunchAsset) {
+          assetJson.put("isLaunchAsset", true);
+        }
+        assetsJson.put(assetJson);
+      }
+
+      JSONObject json = new JSONObject();
+      json.put("version", VERSION);
+      json.put("updateId", updateId.toString());
+      json.put("launchAsset", launchAssetRelativePath);
+      json.put("assets", assetsJson);
+      database.jsonDataDao().setJSONStringForKey(ASSET_MAP_SNAPSHOT_KEY, json.toString(), scopeKey);
+    } catch (JSONException e) {
+      Log.e(TAG, "Failed to save asset map snapshot", e);
+    }
+  }
+
+  public static void clear(UpdatesDatabase database, String scopeKey) {
+    database.jsonDataDao().deleteJSONStringForKey(ASSET_MAP_SNAPSHOT_KEY, scopeKey);
+  }
+}
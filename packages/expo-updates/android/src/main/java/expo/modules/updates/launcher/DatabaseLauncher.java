@@ -2,6 +2,7 @@ package expo.modules.updates.launcher;
 
 import android.content.Context;
 import android.net.Uri;
+import android.os.AsyncTask;
 import android.util.Log;
 
 import org.json.JSONObject;
@@ -98,6 +99,11 @@ public class DatabaseLauncher implements Launcher {
       return;
     }
 
+    if (launchFromAssetMapSnapshot(database)) {
+      mCallback.onSuccess();
+      return;
+    }
+
     // verify that we have all assets on disk
     // according to the database, we should, but something could have gone wrong on disk
 
@@ -130,11 +136,52 @@ public class DatabaseLauncher implements Launcher {
       if (mLaunchAssetFile == null) {
         mCallback.onFailure(new Exception("mLaunchAssetFile was immediately null; this should never happen"));
       } else {
+        // everything was already on disk, so the next launch of this update can skip these checks
+        AssetMapSnapshot.save(database, mLaunchedUpdate.scopeKey, mLaunchedUpdate.id, launchAsset.relativePath, mLocalAssetFiles.keySet());
         mCallback.onSuccess();
       }
     }
   }
 
+  /**
+   * Fills in the launch asset and local asset map from the snapshot saved the last time this
+   * update was launched, if there is one. Only the launch asset is checked on disk before
+   * launching; the remaining files are checked in the background, and the snapshot is discarded
+   * if any are missing so that the next launch goes through the full verification path.
+   *
+   * @return true if the snapshot was used
+   */
+  private boolean launchFromAssetMapSnapshot(final UpdatesDatabase database) {
+    final AssetMapSnapshot snapshot = AssetMapSnapshot.load(database, mLaunchedUpdate.scopeKey, mLaunchedUpdate.id);
+    if (snapshot == null) {
+      return false;
+    }
+
+    File launchAssetFile = new File(mUpdatesDirectory, snapshot.launchAssetRelativePath);
+    if (!launchAssetFile.exists()) {
+      AssetMapSnapshot.clear(database, mLaunchedUpdate.scopeKey);
+      return false;
+    }
+
+    mLaunchAssetFile = launchAssetFile.toString();
+    mLocalAssetFiles = new HashMap<>();
+    for (AssetEntity asset : snapshot.assets) {
+      mLocalAssetFiles.put(asset, Uri.fromFile(new File(mUpdatesDirectory, asset.relativePath)).toString());
+    }
+
+    final String scopeKey = mLaunchedUpdate.scopeKey;
+    AsyncTask.execute(() -> {
+      for (AssetEntity asset : snapshot.assets) {
+        if (!new File(mUpdatesDirectory, asset.relativePath).exists()) {
+          Log.w(TAG, "Asset " + asset.key + " from the asset map snapshot is missing on disk; discarding the snapshot");
+          AssetMapSnapshot.clear(database, scopeKey);
+          return;
+        }
+      }
+    });
+    return true;
+  }
+
   public UpdateEntity getLaunchableUpdate(UpdatesDatabase database, Context context) {
     List<UpdateEntity> launchableUpdates = database.updateDao().loadLaunchableUpdatesForScope(mConfiguration.getScopeKey());
 
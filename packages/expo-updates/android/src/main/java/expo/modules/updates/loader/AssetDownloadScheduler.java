@@ -0,0 +1,138 @@
+package expo.modules.updates.loader;
+
+import android.os.SystemClock;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import expo.modules.updates.UpdatesConfiguration;
+import expo.modules.updates.db.entity.AssetEntity;
+
+/**
+ * Feeds asset downloads to a FileDownloader while keeping at most
+ * `UpdatesConfiguration.getMaxConcurrentAssetDownloads()` requests in flight at once.
+ *
+ * Launch assets are always dequeued before any other asset so that the JS bundle is never
+ * stuck behind a long tail of images; other assets are downloaded in the order they were enqueued.
+ */
+public class AssetDownloadScheduler {
+
+  private FileDownloader mFileDownloader;
+  private File mDestinationDirectory;
+  private UpdatesConfiguration mConfiguration;
+  private int mMaxConcurrentDownloads;
+
+  private final PriorityQueue<PendingDownload> mQueue = new PriorityQueue<>();
+  private final List<AssetDownloadTiming> mTimings = new ArrayList<>();
+  private int mActiveDownloadCount = 0;
+  private long mNextSequenceNumber = 0;
+  private boolean mIsDraining = false;
+
+  private static class PendingDownload implements Comparable<PendingDownload> {
+    final AssetEntity asset;
+    final FileDownloader.AssetDownloadCallback callback;
+    final long sequenceNumber;
+    final long enqueueTime;
+    long startTime;
+
+    PendingDownload(AssetEntity asset, FileDownloader.AssetDownloadCallback callback, long sequenceNumber) {
+      this.asset = asset;
+      this.callback = callback;
+      this.sequenceNumber = sequenceNumber;
+      this.enqueueTime = SystemClock.elapsedRealtime();
+    }
+
+    @Override
+    public int compareTo(PendingDownload other) {
+      if (asset.isLaunchAsset != other.asset.isLaunchAsset) {
+        return asset.isLaunchAsset ? -1 : 1;
+      }
+      return Long.compare(sequenceNumber, other.sequenceNumber);
+    }
+  }
+
+  public AssetDownloadScheduler(FileDownloader fileDownloader, File destinationDirectory, UpdatesConfiguration configuration) {
+    mFileDownloader = fileDownloader;
+    mDestinationDirectory = destinationDirectory;
+    mConfiguration = configuration;
+    mMaxConcurrentDownloads = Math.max(1, configuration.getMaxConcurrentAssetDownloads());
+  }
+
+  /**
+   * Adds an asset to the queue. Nothing is downloaded until `start` is called, so that all assets
+   * belonging to an update can be enqueued before the prioritization takes effect.
+   */
+  public synchronized void enqueue(AssetEntity asset, FileDownloader.AssetDownloadCallback callback) {
+    mQueue.add(new PendingDownload(asset, callback, mNextSequenceNumber++));
+  }
+
+  public void start() {
+    drainQueue();
+  }
+
+  /**
+   * @return a snapshot of timing information for every asset that has finished downloading
+   * (successfully or not) so far, in order of completion.
+   */
+  public synchronized List<AssetDownloadTiming> getTimings() {
+    return new ArrayList<>(mTimings);
+  }
+
+  private void drainQueue() {
+    synchronized (this) {
+      // FileDownloader may call back synchronously (e.g. if a file already exists on disk); in that
+      // case the outer loop will pick up the freed slot, so we avoid recursing here
+      if (mIsDraining) {
+        return;
+      }
+      mIsDraining = true;
+    }
+
+    while (true) {
+      final PendingDownload next;
+      synchronized (this) {
+        if (mActiveDownloadCount >= mMaxConcurrentDownloads || mQueue.isEmpty()) {
+          mIsDraining = false;
+          return;
+        }
+        next = mQueue.poll();
+        mActiveDownloadCount++;
+      }
+      startDownload(next);
+    }
+  }
+
+  private void startDownload(final PendingDownload download) {
+    download.startTime = SystemClock.elapsedRealtime();
+    mFileDownloader.downloadAsset(download.asset, mDestinationDirectory, mConfiguration, new FileDownloader.AssetDownloadCallback() {
+      @Override
+      public void onFailure(Exception e, AssetEntity assetEntity) {
+        onDownloadFinished(download, false, false);
+        download.callback.onFailure(e, assetEntity);
+        drainQueue();
+      }
+
+      @Override
+      public void onSuccess(AssetEntity assetEntity, boolean isNew) {
+        onDownloadFinished(download, true, isNew);
+        download.callback.onSuccess(assetEntity, isNew);
+        drainQueue();
+      }
+    });
+  }
+
+  private synchronized void onDownloadFinished(PendingDownload download, boolean isSuccessful, boolean isNew) {
+    mActiveDownloadCount--;
+    long finishTime = SystemClock.elapsedRealtime();
+    mTimings.add(new AssetDownloadTiming(
+      download.asset.key,
+      download.asset.isLaunchAsset,
+      download.startTime - download.enqueueTime,
+      finishTime - download.startTime,
+      isSuccessful,
+      isNew
+    ));
+  }
+}
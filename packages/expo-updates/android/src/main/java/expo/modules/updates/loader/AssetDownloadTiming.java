@@ -0,0 +1,39 @@
+package expo.modules.updates.loader;
+
+import android.os.Bundle;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Timing information for a single asset that passed through an AssetDownloadScheduler.
+ * All durations are measured with the monotonic elapsed realtime clock.
+ */
+public class AssetDownloadTiming {
+
+  public final @Nullable String key;
+  public final boolean isLaunchAsset;
+  public final long queueTimeMs;
+  public final long downloadTimeMs;
+  public final boolean isSuccessful;
+  public final boolean isNew;
+
+  public AssetDownloadTiming(@Nullable String key, boolean isLaunchAsset, long queueTimeMs, long downloadTimeMs, boolean isSuccessful, boolean isNew) {
+    this.key = key;
+    this.isLaunchAsset = isLaunchAsset;
+    this.queueTimeMs = queueTimeMs;
+    this.downloadTimeMs = downloadTimeMs;
+    this.isSuccessful = isSuccessful;
+    this.isNew = isNew;
+  }
+
+  public Bundle toBundle() {
+    Bundle bundle = new Bundle();
+    bundle.putString("key", key);
+    bundle.putBoolean("isLaunchAsset", isLaunchAsset);
+    bundle.putDouble("queueTimeMs", queueTimeMs);
+    bundle.putDouble("downloadTimeMs", downloadTimeMs);
+    bundle.putBoolean("isSuccessful", isSuccessful);
+    bundle.putBoolean("isNew", isNew);
+    return bundle;
+  }
+}
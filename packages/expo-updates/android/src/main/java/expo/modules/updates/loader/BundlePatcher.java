@@ -0,0 +1,148 @@
+package expo.modules.updates.loader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Applies a binary patch to a previously installed launch asset to produce a new launch asset.
+ *
+ * Patches use the single-stream bsdiff layout introduced by ENDSLEY/BSDIFF43: a 16-byte magic
+ * string, the 8-byte size of the new file, and then a sequence of (control, diff, extra) records.
+ * Unlike upstream bsdiff, the record stream is either stored uncompressed or gzip-compressed,
+ * since bzip2 is not available on Android without an additional dependency.
+ *
+ * The patch, the old file and the new file are all processed as streams, so memory usage does not
+ * depend on the size of the bundle.
+ */
+public class BundlePatcher {
+
+  private static final byte[] MAGIC = "ENDSLEY/BSDIFF43".getBytes(StandardCharsets.US_ASCII);
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * @return the SHA-256 hash of the newly written file
+   */
+  public static byte[] applyPatch(File oldFile, File patchFile, File destination) throws IOException, NoSuchAlgorithmException {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    File tmpFile = new File(destination.getAbsolutePath() + ".tmp");
+
+    try (
+      InputStream patchInputStream = new BufferedInputStream(new FileInputStream(patchFile));
+      RandomAccessFile oldInput = new RandomAccessFile(oldFile, "r");
+      OutputStream output = new BufferedOutputStream(new FileOutputStream(tmpFile))
+    ) {
+      DataInputStream header = new DataInputStream(patchInputStream);
+      byte[] magic = new byte[MAGIC.length];
+      header.readFully(magic);
+      if (!Arrays.equals(magic, MAGIC)) {
+        throw new IOException("Patch file has an unrecognized format");
+      }
+      long newSize = readOffset(header);
+      if (newSize < 0) {
+        throw new IOException("Patch file is corrupt: negative new file size");
+      }
+
+      DataInputStream records = new DataInputStream(maybeDecompress(patchInputStream));
+      long oldSize = oldInput.length();
+      long oldPosition = 0;
+      long newPosition = 0;
+      byte[] buffer = new byte[BUFFER_SIZE];
+      byte[] oldBuffer = new byte[BUFFER_SIZE];
+
+      while (newPosition < newSize) {
+        long diffLength = readOffset(records);
+        long extraLength = readOffset(records);
+        long seekLength = readOffset(records);
+        if (diffLength < 0 || extraLength < 0 || newPosition + diffLength + extraLength > newSize) {
+          throw new IOException("Patch file is corrupt: invalid control record");
+        }
+
+        // diff section: bytes from the patch are added to the corresponding bytes of the old file
+        long remaining = diffLength;
+        while (remaining > 0) {
+          int chunkLength = (int) Math.min(BUFFER_SIZE, remaining);
+          records.readFully(buffer, 0, chunkLength);
+          // as in bsdiff, bytes outside of the old file count as zeros, and a chunk may start
+          // before the beginning of the old file and continue into it
+          Arrays.fill(oldBuffer, 0, chunkLength, (byte) 0);
+          long oldStart = Math.max(oldPosition, 0);
+          long oldEnd = Math.min(oldPosition + chunkLength, oldSize);
+          if (oldStart < oldEnd) {
+            oldInput.seek(oldStart);
+            oldInput.readFully(oldBuffer, (int) (oldStart - oldPosition), (int) (oldEnd - oldStart));
+          }
+          for (int i = 0; i < chunkLength; i++) {
+            buffer[i] += oldBuffer[i];
+          }
+          output.write(buffer, 0, chunkLength);
+          digest.update(buffer, 0, chunkLength);
+          oldPosition += chunkLength;
+          remaining -= chunkLength;
+        }
+
+        // extra section: bytes from the patch are copied verbatim
+        remaining = extraLength;
+        while (remaining > 0) {
+          int chunkLength = (int) Math.min(BUFFER_SIZE, remaining);
+          records.readFully(buffer, 0, chunkLength);
+          output.write(buffer, 0, chunkLength);
+          digest.update(buffer, 0, chunkLength);
+          remaining -= chunkLength;
+        }
+
+        oldPosition += seekLength;
+        newPosition += diffLength + extraLength;
+      }
+    } catch (EOFException e) {
+      tmpFile.delete();
+      throw new IOException("Patch file is truncated", e);
+    } catch (IOException | RuntimeException e) {
+      tmpFile.delete();
+      throw e;
+    }
+
+    if (!tmpFile.renameTo(destination)) {
+      tmpFile.delete();
+      throw new IOException("Patch was applied successfully, but failed to move from temporary to permanent location " + destination.getAbsolutePath());
+    }
+    return digest.digest();
+  }
+
+  private static InputStream maybeDecompress(InputStream inputStream) throws IOException {
+    inputStream.mark(2);
+    int first = inputStream.read();
+    int second = inputStream.read();
+    inputStream.reset();
+    if (first == 0x1f && second == 0x8b) {
+      return new GZIPInputStream(inputStream, BUFFER_SIZE);
+    }
+    return inputStream;
+  }
+
+  /**
+   * Reads a 64-bit integer in bsdiff's sign-magnitude little-endian encoding.
+   */
+  /* package */ static long readOffset(DataInputStream inputStream) throws IOException {
+    byte[] bytes = new byte[8];
+    inputStream.readFully(bytes);
+    long value = bytes[7] & 0x7F;
+    for (int i = 6; i >= 0; i--) {
+      value = (value << 8) | (bytes[i] & 0xFF);
+    }
+    return (bytes[7] & 0x80) != 0 ? -value : value;
+  }
+}
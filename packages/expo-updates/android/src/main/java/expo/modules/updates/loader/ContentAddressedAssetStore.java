@@ -0,0 +1,200 @@
+package expo.modules.updates.loader;
+
+import android.net.Uri;
+import android.system.ErrnoException;
+import android.system.Os;
+import android.util.Log;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.Nullable;
+import expo.modules.updates.UpdatesUtils;
+import expo.modules.updates.db.UpdatesDatabase;
+import expo.modules.updates.db.entity.AssetEntity;
+
+/**
+ * Index of asset content already stored in the updates directory, keyed by SHA-256 hash.
+ *
+ * When a manifest advertises the hash of an asset, and identical content is already stored on
+ * disk for some other asset (from a previous update, or copied from the embedded update), the
+ * existing file is hard-linked under the new asset's filename rather than downloaded again. The
+ * stored hash was computed when the content was first written, so it is not recomputed here.
+ *
+ * Only the hashes the current update needs are looked up in the database: call
+ * {@link #loadStoredContent} with the update's assets first to look them all up at once.
+ *
+ * Because each asset keeps its own directory entry, the Reaper can continue to delete files
+ * per asset: the underlying content is only freed once every link to it has been removed.
+ */
+public class ContentAddressedAssetStore {
+
+  private static final String TAG = ContentAddressedAssetStore.class.getSimpleName();
+
+  private UpdatesDatabase mDatabase;
+  private File mUpdatesDirectory;
+  // keyed by hex-encoded hash; hashes that have been looked up but aren't stored are only in mLoadedHashes
+  private final Map<String, AssetEntity> mAssetsByHash = new HashMap<>();
+  private final Set<String> mLoadedHashes = new HashSet<>();
+
+  public ContentAddressedAssetStore(UpdatesDatabase database, File updatesDirectory) {
+    mDatabase = database;
+    mUpdatesDirectory = updatesDirectory;
+  }
+
+  /**
+   * Looks up the stored content matching the hashes advertised by these assets and their patches,
+   * so that later calls don't need to query the database one asset at a time.
+   */
+  public synchronized void loadStoredContent(Collection<AssetEntity> assets) {
+    List<byte[]> hashes = new ArrayList<>();
+    for (AssetEntity asset : assets) {
+      if (asset.expectedHash == null) {
+        continue;
+      }
+      hashes.add(asset.expectedHash);
+      if (asset.patchUrls != null) {
+        for (String baseHash : asset.patchUrls.keySet()) {
+          byte[] hash = UpdatesUtils.parseSha256HashString(baseHash);
+          if (hash != null) {
+            hashes.add(hash);
+          }
+        }
+      }
+    }
+    loadHashes(hashes);
+  }
+
+  /**
+   * If content matching `asset.expectedHash` is already stored, makes it available under the
+   * asset's own filename and fills in `relativePath`, `hash` and `downloadTime`.
+   *
+   * @return true if the asset is now present on disk and does not need to be downloaded
+   */
+  public synchronized boolean linkExistingContent(AssetEntity asset) {
+    if (asset.expectedHash == null) {
+      return false;
+    }
+
+    AssetEntity matchingAsset = findStoredAsset(asset.expectedHash);
+    if (matchingAsset == null) {
+      return false;
+    }
+
+    File source = new File(mUpdatesDirectory, matchingAsset.relativePath);
+    if (!source.exists()) {
+      return false;
+    }
+
+    String filename = UpdatesUtils.createFilenameForAsset(asset);
+    File destination = new File(mUpdatesDirectory, filename);
+    if (!destination.equals(source)) {
+      if (destination.exists() && !destination.delete()) {
+        Log.w(TAG, "Failed to replace existing file at " + destination.getAbsolutePath());
+        return false;
+      }
+      if (!linkOrCopy(source, destination)) {
+        return false;
+      }
+    }
+
+    asset.relativePath = filename;
+    asset.hash = matchingAsset.hash;
+    asset.downloadTime = new Date();
+    return true;
+  }
+
+  /**
+   * Chooses one of the patches advertised for this asset whose base content is stored locally,
+   * and sets `patchUrl` and `patchBaseRelativePath` accordingly.
+   *
+   * @return true if a usable patch was found
+   */
+  public synchronized boolean selectPatchBase(AssetEntity asset) {
+    if (asset.patchUrls == null || asset.expectedHash == null) {
+      return false;
+    }
+
+    for (Map.Entry<String, Uri> patch : asset.patchUrls.entrySet()) {
+      byte[] baseHash = UpdatesUtils.parseSha256HashString(patch.getKey());
+      AssetEntity baseAsset = baseHash != null ? findStoredAsset(baseHash) : null;
+      if (baseAsset != null && new File(mUpdatesDirectory, baseAsset.relativePath).exists()) {
+        asset.patchUrl = patch.getValue();
+        asset.patchBaseRelativePath = baseAsset.relativePath;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Records newly stored content so that later assets in the same load can reuse it.
+   */
+  public synchronized void addStoredAsset(AssetEntity asset) {
+    if (asset.hash == null || asset.relativePath == null) {
+      return;
+    }
+    String hash = UpdatesUtils.bytesToHex(asset.hash);
+    mAssetsByHash.put(hash, asset);
+    mLoadedHashes.add(hash);
+  }
+
+  /**
+   * @return false if the manifest advertised a hash for this asset and the content does not match
+   */
+  public static boolean matchesExpectedHash(AssetEntity asset, @Nullable byte[] hash) {
+    return asset.expectedHash == null || Arrays.equals(asset.expectedHash, hash);
+  }
+
+  private @Nullable AssetEntity findStoredAsset(byte[] hash) {
+    String hexHash = UpdatesUtils.bytesToHex(hash);
+    if (!mLoadedHashes.contains(hexHash)) {
+      loadHashes(Collections.singletonList(hash));
+    }
+    return mAssetsByHash.get(hexHash);
+  }
+
+  private void loadHashes(List<byte[]> hashes) {
+    List<byte[]> hashesToLoad = new ArrayList<>();
+    for (byte[] hash : hashes) {
+      if (mLoadedHashes.add(UpdatesUtils.bytesToHex(hash))) {
+        hashesToLoad.add(hash);
+      }
+    }
+    if (hashesToLoad.isEmpty()) {
+      return;
+    }
+    for (AssetEntity storedAsset : mDatabase.assetDao().loadAssetsWithHashes(hashesToLoad)) {
+      mAssetsByHash.put(UpdatesUtils.bytesToHex(storedAsset.hash), storedAsset);
+    }
+  }
+
+  private static boolean linkOrCopy(File source, File destination) {
+    try {
+      Os.link(source.getAbsolutePath(), destination.getAbsolutePath());
+      return true;
+    } catch (ErrnoException e) {
+      Log.w(TAG, "Failed to hard link " + source.getAbsolutePath() + "; falling back to copying", e);
+    }
+
+    try {
+      FileUtils.copyFile(source, destination);
+      return true;
+    } catch (IOException e) {
+      Log.e(TAG, "Failed to copy " + source.getAbsolutePath() + " to " + destination.getAbsolutePath(), e);
+      return false;
+    }
+  }
+}
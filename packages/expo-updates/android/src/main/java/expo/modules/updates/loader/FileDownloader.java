@@ -14,7 +14,6 @@ import org.json.JSONObject;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
@@ -68,7 +67,16 @@ public class FileDownloader {
   }
 
   public void downloadFileToPath(Request request, final File destination, final FileDownloadCallback callback) {
-    downloadData(request, new Callback() {
+    downloadFileToPath(request, destination, callback, true);
+  }
+
+  private void downloadFileToPath(final Request request, final File destination, final FileDownloadCallback callback, final boolean canRetryFromPartial) {
+    // bytes from a previously interrupted attempt are kept in a partial file next to the
+    // destination; if there are any, we ask the server for only the remaining range
+    final PartialDownload partialDownload = new PartialDownload(destination);
+    final long resumeOffset = partialDownload.getResumeOffset();
+
+    downloadData(partialDownload.applyRangeHeaders(request, resumeOffset), new Callback() {
       @Override
       public void onFailure(Call call, IOException e) {
         callback.onFailure(e);
@@ -76,20 +84,44 @@ public class FileDownloader {
 
       @Override
       public void onResponse(Call call, Response response) throws IOException {
+        if (response.code() == 416) {
+          // the partial file we have is not usable with this resource, so start over
+          response.close();
+          partialDownload.discard();
+          if (canRetryFromPartial) {
+            downloadFileToPath(request, destination, callback, false);
+          } else {
+            callback.onFailure(new Exception("Network request failed: requested range not satisfiable"));
+          }
+          return;
+        }
+
         if (!response.isSuccessful()) {
           callback.onFailure(new Exception("Network request failed: " + response.body().string()));
           return;
         }
 
-        try (
-            InputStream inputStream = response.body().byteStream();
-        ) {
-          byte[] hash = UpdatesUtils.sha256AndWriteToFile(inputStream, destination);
-          callback.onSuccess(destination, hash);
+        byte[] hash;
+        try {
+          hash = partialDownload.writeResponse(response, resumeOffset);
+        } catch (IOException e) {
+          if (canRetryFromPartial && partialDownload.getResumeOffset() > resumeOffset) {
+            // we made some progress before being interrupted; pick up where we left off once
+            Log.w(TAG, "Download to " + destination.toString() + " was interrupted; resuming", e);
+            downloadFileToPath(request, destination, callback, false);
+            return;
+          }
+          Log.e(TAG, "Failed to download file to destination " + destination.toString(), e);
+          callback.onFailure(e);
+          return;
         } catch (Exception e) {
           Log.e(TAG, "Failed to download file to destination " + destination.toString(), e);
           callback.onFailure(e);
+          return;
+        } finally {
+          response.close();
         }
+        callback.onSuccess(destination, hash);
       }
     });
   }
@@ -200,25 +232,82 @@ public class FileDownloader {
     if (path.exists()) {
       asset.relativePath = filename;
       callback.onSuccess(asset, false);
+    } else if (asset.patchUrl != null && asset.patchBaseRelativePath != null && asset.expectedHash != null) {
+      downloadPatchedAsset(asset, destinationDirectory, filename, path, configuration, callback);
     } else {
-      try {
-        downloadFileToPath(setHeadersForUrl(asset.url, configuration), path, new FileDownloadCallback() {
-          @Override
-          public void onFailure(Exception e) {
-            callback.onFailure(e, asset);
+      downloadFullAsset(asset, filename, path, configuration, callback);
+    }
+  }
+
+  private void downloadFullAsset(final AssetEntity asset, final String filename, File path, UpdatesConfiguration configuration, final AssetDownloadCallback callback) {
+    try {
+      downloadFileToPath(setHeadersForUrl(asset.url, configuration), path, new FileDownloadCallback() {
+        @Override
+        public void onFailure(Exception e) {
+          callback.onFailure(e, asset);
+        }
+
+        @Override
+        public void onSuccess(File file, @Nullable byte[] hash) {
+          if (!ContentAddressedAssetStore.matchesExpectedHash(asset, hash)) {
+            if (!file.delete()) {
+              Log.w(TAG, "Failed to delete asset with mismatched hash at " + file.toString());
+            }
+            callback.onFailure(new Exception("Downloaded asset " + asset.key + " does not match the hash provided in the manifest"), asset);
+            return;
           }
+          asset.downloadTime = new Date();
+          asset.relativePath = filename;
+          asset.hash = hash;
+          callback.onSuccess(asset, true);
+        }
+      });
+    } catch (Exception e) {
+      callback.onFailure(e, asset);
+    }
+  }
+
+  /**
+   * Downloads a binary patch against an already installed asset and applies it to produce the new
+   * asset. The result must match the hash advertised in the manifest; if anything goes wrong, we
+   * fall back to downloading the full asset.
+   */
+  private void downloadPatchedAsset(final AssetEntity asset, final File destinationDirectory, final String filename, final File path, final UpdatesConfiguration configuration, final AssetDownloadCallback callback) {
+    final File patchFile = new File(destinationDirectory, filename + ".patch");
+    final File baseFile = new File(destinationDirectory, asset.patchBaseRelativePath);
+    try {
+      downloadFileToPath(setHeadersForUrl(asset.patchUrl, configuration), patchFile, new FileDownloadCallback() {
+        @Override
+        public void onFailure(Exception e) {
+          Log.w(TAG, "Failed to download patch for asset " + asset.key + "; downloading full asset instead", e);
+          downloadFullAsset(asset, filename, path, configuration, callback);
+        }
 
-          @Override
-          public void onSuccess(File file, @Nullable byte[] hash) {
-            asset.downloadTime = new Date();
-            asset.relativePath = filename;
-            asset.hash = hash;
-            callback.onSuccess(asset, true);
+        @Override
+        public void onSuccess(File file, @Nullable byte[] patchHash) {
+          byte[] hash;
+          try {
+            hash = BundlePatcher.applyPatch(baseFile, patchFile, path);
+            if (!ContentAddressedAssetStore.matchesExpectedHash(asset, hash)) {
+              path.delete();
+              throw new IOException("Patched asset does not match the hash provided in the manifest");
+            }
+          } catch (Exception e) {
+            Log.w(TAG, "Failed to apply patch for asset " + asset.key + "; downloading full asset instead", e);
+            downloadFullAsset(asset, filename, path, configuration, callback);
+            return;
+          } finally {
+            patchFile.delete();
           }
-        });
-      } catch (Exception e) {
-        callback.onFailure(e, asset);
-      }
+          asset.downloadTime = new Date();
+          asset.relativePath = filename;
+          asset.hash = hash;
+          callback.onSuccess(asset, true);
+        }
+      });
+    } catch (Exception e) {
+      Log.w(TAG, "Failed to download patch for asset " + asset.key + "; downloading full asset instead", e);
+      downloadFullAsset(asset, filename, path, configuration, callback);
     }
   }
 
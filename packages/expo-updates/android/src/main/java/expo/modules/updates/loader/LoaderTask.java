@@ -14,6 +14,7 @@ import androidx.annotation.Nullable;
 import expo.modules.updates.UpdatesConfiguration;
 import expo.modules.updates.UpdatesUtils;
 import expo.modules.updates.db.DatabaseHolder;
+import expo.modules.updates.db.DatabaseIntegrityCheck;
 import expo.modules.updates.db.Reaper;
 import expo.modules.updates.db.UpdatesDatabase;
 import expo.modules.updates.db.entity.AssetEntity;
@@ -225,11 +226,22 @@ public class LoaderTask {
     DatabaseLauncher launcher = new DatabaseLauncher(mConfiguration, mDirectory, mFileDownloader, mSelectionPolicy);
     mCandidateLauncher = launcher;
 
-    if (mConfiguration.hasEmbeddedUpdate()) {
+    UpdateEntity embeddedUpdate = mConfiguration.hasEmbeddedUpdate()
+      ? EmbeddedLoader.readEmbeddedManifest(context, mConfiguration).getUpdateEntity()
+      : null;
+
+    // don't pick an update whose assets have gone missing from disk; most launches only check
+    // assets downloaded since the previous launch, so this stays cheap
+    try {
+      new DatabaseIntegrityCheck().runIncremental(database, mDirectory, embeddedUpdate, mConfiguration);
+    } catch (Exception e) {
+      Log.e(TAG, "Failed to check the integrity of the updates database", e);
+    }
+
+    if (embeddedUpdate != null) {
       // if the embedded update should be launched (e.g. if it's newer than any other update we have
       // in the database, which can happen if the app binary is updated), load it into the database
       // so we can launch it
-      UpdateEntity embeddedUpdate = EmbeddedLoader.readEmbeddedManifest(context, mConfiguration).getUpdateEntity();
       UpdateEntity launchableUpdate = launcher.getLaunchableUpdate(database, context);
       JSONObject manifestFilters = ManifestMetadata.getManifestFilters(database, mConfiguration);
       if (mSelectionPolicy.shouldLoadNewUpdate(embeddedUpdate, launchableUpdate, manifestFilters)) {
@@ -0,0 +1,227 @@
+package expo.modules.updates.loader;
+
+import android.util.Log;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import androidx.annotation.Nullable;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Writes a download into a temporary `.partial` file next to its final destination, so that an
+ * interrupted transfer can later be resumed with an HTTP `Range` request rather than starting
+ * over from zero.
+ *
+ * The entity validator (a strong ETag or Last-Modified date) from the original response is
+ * persisted alongside the partial file and sent back as `If-Range`; if the resource has changed
+ * on the server in the meantime, the server responds with the full body and the partial file is
+ * discarded. The SHA-256 hash is computed over the bytes already on disk followed by the bytes
+ * streamed from the network, so the result is identical to hashing the complete file in one go.
+ *
+ * Bytes of an interrupted download are only picked up again if the same asset is requested
+ * later, so the reaper calls {@link #deleteStalePartialDownloads} to remove the ones that have
+ * not been resumed for a while.
+ */
+public class PartialDownload {
+
+  private static final String TAG = PartialDownload.class.getSimpleName();
+
+  private static final String PARTIAL_FILE_SUFFIX = ".partial";
+  private static final String VALIDATOR_FILE_SUFFIX = ".partial-validator";
+  private static final int BUFFER_SIZE = 16 * 1024;
+  private static final long DEFAULT_STALE_PARTIAL_DOWNLOAD_AGE_MS = 7L * 24 * 60 * 60 * 1000;
+
+  private File mDestination;
+  private File mPartialFile;
+  private File mValidatorFile;
+
+  public PartialDownload(File destination) {
+    mDestination = destination;
+    mPartialFile = new File(destination.getAbsolutePath() + PARTIAL_FILE_SUFFIX);
+    mValidatorFile = new File(destination.getAbsolutePath() + VALIDATOR_FILE_SUFFIX);
+  }
+
+  /**
+   * @return the number of bytes already on disk that can be resumed from, or 0 if the download
+   * must start from the beginning.
+   */
+  public long getResumeOffset() {
+    if (!mPartialFile.exists() || readValidator() == null) {
+      return 0;
+    }
+    return mPartialFile.length();
+  }
+
+  public Request applyRangeHeaders(Request request, long resumeOffset) {
+    String validator = readValidator();
+    if (resumeOffset <= 0 || validator == null) {
+      return request;
+    }
+    return request.newBuilder()
+      .header("Range", "bytes=" + resumeOffset + "-")
+      .header("If-Range", validator)
+      .build();
+  }
+
+  /**
+   * Streams the body of a successful response into the partial file and, once the body has been
+   * fully read, moves the partial file to its final destination.
+   *
+   * If an IOException is thrown while reading the body, any bytes received so far are kept on
+   * disk so that a subsequent call can resume from them.
+   *
+   * @param resumeOffset the offset that was requested via `applyRangeHeaders`
+   * @return the SHA-256 hash of the complete file
+   */
+  public byte[] writeResponse(Response response, long resumeOffset) throws NoSuchAlgorithmException, IOException {
+    boolean isResuming = false;
+    if (response.code() == 206) {
+      String contentRange = response.header("Content-Range");
+      if (resumeOffset <= 0 || contentRange == null || !contentRange.startsWith("bytes " + resumeOffset + "-")) {
+        // the bytes on disk can't be resumed from, so make the next attempt start from scratch
+        discard();
+        throw new IOException("Received partial content that does not match the requested range: " + contentRange);
+      }
+      isResuming = true;
+    }
+
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    if (isResuming) {
+      try {
+        digestExistingBytes(digest, resumeOffset);
+      } catch (IOException e) {
+        discard();
+        throw e;
+      }
+    } else {
+      discard();
+    }
+
+    String validator = getValidator(response);
+    if (validator != null) {
+      FileUtils.writeStringToFile(mValidatorFile, validator, StandardCharsets.UTF_8);
+    } else if (mValidatorFile.exists()) {
+      mValidatorFile.delete();
+    }
+
+    try (
+      InputStream inputStream = response.body().byteStream();
+      OutputStream outputStream = new FileOutputStream(mPartialFile, isResuming)
+    ) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int bytesRead;
+      while ((bytesRead = inputStream.read(buffer)) != -1) {
+        outputStream.write(buffer, 0, bytesRead);
+        digest.update(buffer, 0, bytesRead);
+      }
+    } catch (IOException e) {
+      if (validator == null) {
+        // without a validator we could not safely resume, so don't keep the bytes around
+        discard();
+      }
+      throw e;
+    }
+
+    if (mDestination.exists() && !mDestination.delete()) {
+      throw new IOException("File download was successful, but failed to replace existing file at " + mDestination.getAbsolutePath());
+    }
+    if (!mPartialFile.renameTo(mDestination)) {
+      throw new IOException("File download was successful, but failed to move from temporary to permanent location " + mDestination.getAbsolutePath());
+    }
+    if (mValidatorFile.exists() && !mValidatorFile.delete()) {
+      Log.w(TAG, "Failed to delete download validator file " + mValidatorFile.getAbsolutePath());
+    }
+
+    return digest.digest();
+  }
+
+  /**
+   * Deletes any partially downloaded bytes and the persisted validator.
+   */
+  public void discard() {
+    if (mPartialFile.exists() && !mPartialFile.delete()) {
+      Log.w(TAG, "Failed to delete partial download " + mPartialFile.getAbsolutePath());
+    }
+    if (mValidatorFile.exists() && !mValidatorFile.delete()) {
+      Log.w(TAG, "Failed to delete download validator file " + mValidatorFile.getAbsolutePath());
+    }
+  }
+
+  public static int deleteStalePartialDownloads(File directory) {
+    return deleteStalePartialDownloads(directory, DEFAULT_STALE_PARTIAL_DOWNLOAD_AGE_MS);
+  }
+
+  /**
+   * Deletes partial downloads and validators in `directory` that have not been written to for
+   * `maxAgeMs`. Downloads in progress keep writing to their files, so they are never this old.
+   *
+   * @return the number of deleted files
+   */
+  public static int deleteStalePartialDownloads(File directory, long maxAgeMs) {
+    File[] files = directory.listFiles((dir, name) -> name.endsWith(PARTIAL_FILE_SUFFIX) || name.endsWith(VALIDATOR_FILE_SUFFIX));
+    if (files == null) {
+      return 0;
+    }
+    long cutoff = System.currentTimeMillis() - maxAgeMs;
+    int deletedCount = 0;
+    for (File file : files) {
+      if (file.lastModified() >= cutoff) {
+        continue;
+      }
+      if (file.delete()) {
+        deletedCount++;
+      } else {
+        Log.w(TAG, "Failed to delete stale partial download " + file.getAbsolutePath());
+      }
+    }
+    return deletedCount;
+  }
+
+  private void digestExistingBytes(MessageDigest digest, long length) throws IOException {
+    try (InputStream inputStream = new FileInputStream(mPartialFile)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      long remaining = length;
+      while (remaining > 0) {
+        int bytesRead = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+        if (bytesRead == -1) {
+          throw new IOException("Partial download at " + mPartialFile.getAbsolutePath() + " is shorter than expected");
+        }
+        digest.update(buffer, 0, bytesRead);
+        remaining -= bytesRead;
+      }
+    }
+  }
+
+  private @Nullable String readValidator() {
+    if (!mValidatorFile.exists()) {
+      return null;
+    }
+    try {
+      String validator = FileUtils.readFileToString(mValidatorFile, StandardCharsets.UTF_8);
+      return validator.isEmpty() ? null : validator;
+    } catch (IOException e) {
+      Log.w(TAG, "Failed to read download validator file " + mValidatorFile.getAbsolutePath(), e);
+      return null;
+    }
+  }
+
+  /* package */ static @Nullable String getValidator(Response response) {
+    // If-Range requires a strong validator; weak ETags cannot be used
+    String etag = response.header("ETag");
+    if (etag != null && !etag.startsWith("W/")) {
+      return etag;
+    }
+    return response.header("Last-Modified");
+  }
+}
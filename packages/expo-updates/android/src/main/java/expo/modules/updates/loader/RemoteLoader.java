@@ -19,6 +19,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public class RemoteLoader {
 
@@ -37,6 +38,8 @@ public class RemoteLoader {
   private ArrayList<AssetEntity> mErroredAssetList = new ArrayList<>();
   private ArrayList<AssetEntity> mExistingAssetList = new ArrayList<>();
   private ArrayList<AssetEntity> mFinishedAssetList = new ArrayList<>();
+  private @Nullable AssetDownloadScheduler mDownloadScheduler;
+  private @Nullable ContentAddressedAssetStore mContentStore;
 
   public interface LoaderCallback {
     void onFailure(Exception e);
@@ -73,6 +76,17 @@ public class RemoteLoader {
     mUpdatesDirectory = updatesDirectory;
   }
 
+  /**
+   * @return per-asset download timing for the most recent load performed by this instance, in
+   * order of completion. Assets that were already present on disk are not included.
+   */
+  public List<AssetDownloadTiming> getAssetDownloadTimings() {
+    if (mDownloadScheduler == null) {
+      return new ArrayList<>();
+    }
+    return mDownloadScheduler.getTimings();
+  }
+
   // lifecycle methods for class
 
   public void start(LoaderCallback callback) {
@@ -180,8 +194,21 @@ public class RemoteLoader {
 
   private void downloadAllAssets(List<AssetEntity> assetList) {
     mAssetTotal = assetList.size();
+    mDownloadScheduler = new AssetDownloadScheduler(mFileDownloader, mUpdatesDirectory, mConfiguration);
+    mContentStore = new ContentAddressedAssetStore(mDatabase, mUpdatesDirectory);
+
+    // look up all existing entries in one pass rather than issuing a query per asset
+    List<String> assetKeys = new ArrayList<>();
+    for (AssetEntity assetEntity : assetList) {
+      if (assetEntity.key != null) {
+        assetKeys.add(assetEntity.key);
+      }
+    }
+    Map<String, AssetEntity> existingDbEntries = mDatabase.assetDao().loadAssetsWithKeys(assetKeys);
+    mContentStore.loadStoredContent(assetList);
+
     for (AssetEntity assetEntity : assetList) {
-      AssetEntity matchingDbEntry = mDatabase.assetDao().loadAssetWithKey(assetEntity.key);
+      AssetEntity matchingDbEntry = assetEntity.key != null ? existingDbEntries.get(assetEntity.key) : null;
       if (matchingDbEntry != null) {
         mDatabase.assetDao().mergeAndUpdateAsset(matchingDbEntry, assetEntity);
         assetEntity = matchingDbEntry;
@@ -193,13 +220,22 @@ public class RemoteLoader {
         continue;
       }
 
+      // if identical content is already stored for another asset, reuse it instead of downloading
+      if (mContentStore.linkExistingContent(assetEntity)) {
+        handleAssetDownloadCompleted(assetEntity, true, true);
+        continue;
+      }
+
       if (assetEntity.url == null) {
         Log.e(TAG, "Failed to download asset with no URL provided");
         handleAssetDownloadCompleted(assetEntity, false, false);
         continue;
       }
 
-      mFileDownloader.downloadAsset(assetEntity, mUpdatesDirectory, mConfiguration, new FileDownloader.AssetDownloadCallback() {
+      // if the manifest offers a patch against content we already have, download that instead
+      mContentStore.selectPatchBase(assetEntity);
+
+      mDownloadScheduler.enqueue(assetEntity, new FileDownloader.AssetDownloadCallback() {
         @Override
         public void onFailure(Exception e, AssetEntity assetEntity) {
           Log.e(TAG, "Failed to download asset from " + assetEntity.url, e);
@@ -208,10 +244,15 @@ public class RemoteLoader {
 
         @Override
         public void onSuccess(AssetEntity assetEntity, boolean isNew) {
+          if (isNew) {
+            mContentStore.addStoredAsset(assetEntity);
+          }
           handleAssetDownloadCompleted(assetEntity, true, isNew);
         }
       });
     }
+
+    mDownloadScheduler.start();
   }
 
   private synchronized void handleAssetDownloadCompleted(AssetEntity assetEntity, boolean success, boolean isNew) {
@@ -234,12 +275,19 @@ public class RemoteLoader {
           if (!existingAssetFound) {
             // the database and filesystem have gotten out of sync
             // do our best to create a new entry for this file even though it already existed on disk
-            // TODO: we should probably get rid of this assumption that if an asset exists on disk with the same filename, it's the same asset
+            // if the manifest told us which content to expect, we can verify the assumption that
+            // a file on disk with the same filename is the same asset; otherwise we have to trust it
             byte[] hash = null;
             try {
               hash = UpdatesUtils.sha256(new File(mUpdatesDirectory, asset.relativePath));
             } catch (Exception e) {
             }
+            if (asset.expectedHash != null && !ContentAddressedAssetStore.matchesExpectedHash(asset, hash)) {
+              Log.e(TAG, "Asset found on disk at " + asset.relativePath + " does not match the hash provided in the manifest");
+              new File(mUpdatesDirectory, asset.relativePath).delete();
+              mErroredAssetList.add(asset);
+              continue;
+            }
             asset.downloadTime = new Date();
             asset.hash = hash;
             mFinishedAssetList.add(asset);
@@ -58,6 +58,8 @@ class NewManifest private constructor(
           url = Uri.parse(mLaunchAsset.getString("url"))
           isLaunchAsset = true
           embeddedAssetFilename = EmbeddedLoader.BUNDLE_FILENAME
+          expectedHash = UpdatesUtils.parseSha256HashString(mLaunchAsset.optString("hash"))
+          patchUrls = parsePatchUrls(mLaunchAsset.optJSONArray("patches"))
         })
     } catch (e: JSONException) {
       Log.e(TAG, "Could not read launch asset from manifest", e)
@@ -72,6 +74,7 @@ class NewManifest private constructor(
           ).apply {
             url = Uri.parse(assetObject.getString("url"))
             embeddedAssetFilename = assetObject.optString("embeddedAssetFilename")
+            expectedHash = UpdatesUtils.parseSha256HashString(assetObject.optString("hash"))
           })
         } catch (e: JSONException) {
           Log.e(TAG, "Could not read asset from manifest", e)
@@ -83,6 +86,23 @@ class NewManifest private constructor(
 
   override val isDevelopmentMode: Boolean = false
 
+  private fun parsePatchUrls(patches: JSONArray?): Map<String, Uri>? {
+    if (patches == null) {
+      return null
+    }
+    val patchUrls = mutableMapOf<String, Uri>()
+    for (i in 0 until patches.length()) {
+      val patch = patches.optJSONObject(i) ?: continue
+      val baseHash = UpdatesUtils.parseSha256HashString(patch.optString("baseHash")) ?: continue
+      val url = patch.optString("url")
+      if (url.isEmpty()) {
+        continue
+      }
+      patchUrls[UpdatesUtils.bytesToHex(baseHash)] = Uri.parse(url)
+    }
+    return if (patchUrls.isEmpty()) null else patchUrls
+  }
+
   companion object {
     private val TAG = Manifest::class.java.simpleName
 
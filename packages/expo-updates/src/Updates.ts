@@ -8,6 +8,7 @@ import { EventEmitter, EventSubscription } from 'fbemitter';
 
 import ExpoUpdates from './ExpoUpdates';
 import {
+  DatabaseMaintenanceMetrics,
   Listener,
   LocalAssets,
   Manifest,
@@ -100,6 +101,14 @@ export function clearUpdateCacheExperimentalAsync(_sdkVersion?: string) {
   );
 }
 
+// Android only
+export async function getDatabaseMaintenanceMetricsAsync(): Promise<DatabaseMaintenanceMetrics> {
+  if (!ExpoUpdates.getDatabaseMaintenanceMetricsAsync) {
+    throw new UnavailabilityError('Updates', 'getDatabaseMaintenanceMetricsAsync');
+  }
+  return await ExpoUpdates.getDatabaseMaintenanceMetricsAsync();
+}
+
 let _emitter: EventEmitter | null;
 
 function _getEmitter(): EventEmitter {
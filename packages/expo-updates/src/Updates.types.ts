@@ -23,3 +23,21 @@ export type UpdateEvent =
   | { type: UpdateEventType.ERROR; message: string };
 
 export type LocalAssets = { [remoteUrl: string]: string };
+
+/**
+ * Timing of the most recent database maintenance passes in this process. Durations are -1 if the
+ * pass hasn't run yet.
+ */
+export type DatabaseMaintenanceMetrics = {
+  reaper: {
+    durationMs: number;
+    deletedAssetCount: number;
+    batchCount: number;
+    finished: boolean;
+  };
+  integrityCheck: {
+    durationMs: number;
+    checkedAssetCount: number;
+    wasFull: boolean;
+  };
+};